@@ -0,0 +1,107 @@
+package com.room.backend.benchmark;
+
+import com.room.backend.common.Result;
+import com.room.backend.dto.StatisticsDTO;
+import com.room.backend.mapper.ReservationStatsMapper;
+import com.room.backend.mapper.RestaurantMapper;
+import com.room.backend.service.impl.AdminServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AdminServiceImpl assembly of the dashboard statistics from the rows the statistics queries return
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="AdminStatisticsBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AdminStatisticsBenchmark {
+
+    private AdminServiceImpl adminService;
+
+    private Map<String, Object> admin;
+
+    @Setup
+    public void setup() {
+        List<Map<String, Object>> statusCounts = new ArrayList<>();
+        List<Map<String, Object>> dailyStatusCounts = new ArrayList<>();
+        List<Map<String, Object>> dailyCounts = new ArrayList<>();
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (int status = 0; status <= 4; status++) {
+            statusCounts.add(row(null, status, 1000 + status * 37));
+            for (int day = 0; day < 7; day++) {
+                dailyStatusCounts.add(row(today.minusDays(day), status, 10 + day * status));
+            }
+        }
+        for (int day = 0; day < 7; day++) {
+            dailyCounts.add(row(today.minusDays(day), null, 3 + day));
+        }
+
+        adminService = new AdminServiceImpl();
+        ReflectionTestUtils.setField(adminService, "reservationStatsMapper", Stubs.of(ReservationStatsMapper.class, Map.of(
+                "countByStatus", args -> statusCounts,
+                "countDailyByStatus", args -> dailyStatusCounts,
+                "countBetween", args -> 240L)));
+        ReflectionTestUtils.setField(adminService, "restaurantMapper", Stubs.of(RestaurantMapper.class, Map.of(
+                "countTotalRestaurants", args -> 120L,
+                "countDailyRestaurants", args -> dailyCounts,
+                "countRestaurantsByStatus", args -> statusCounts.subList(0, 4),
+                "countDailyRestaurantsByStatus", args -> dailyStatusCounts)));
+
+        admin = new HashMap<>();
+        admin.put("role", 0);
+        admin.put("userId", 1);
+    }
+
+    @Benchmark
+    public Result<StatisticsDTO> statistics() {
+        return adminService.getStatistics(admin);
+    }
+
+    @Benchmark
+    public Result<Map<String, Object>> reservationStatistics() {
+        return adminService.getReservationStatistics(admin);
+    }
+
+    @Benchmark
+    public Result<Map<String, Object>> restaurantStatistics() {
+        return adminService.getRestaurantStatistics(admin);
+    }
+
+    /**
+     * A result row as the PostgreSQL driver returns it
+     */
+    private static Map<String, Object> row(LocalDate date, Integer status, long count) {
+        Map<String, Object> row = new HashMap<>();
+        if (date != null) {
+            row.put("date", Date.valueOf(date));
+        }
+        if (status != null) {
+            row.put("status", status);
+        }
+        row.put("count", count);
+        return row;
+    }
+}
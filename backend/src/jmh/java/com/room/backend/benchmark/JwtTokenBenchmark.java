@@ -0,0 +1,81 @@
+package com.room.backend.benchmark;
+
+import com.room.backend.util.JwtTokenUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtTokenUtil token generation, and parsing with and without the verified token cache
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="JwtTokenBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private JwtTokenUtil cachingTokenUtil;
+
+    private JwtTokenUtil verifyingTokenUtil;
+
+    private Map<String, Object> claims;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        cachingTokenUtil = tokenUtil(300000);
+        // A zero time to live never caches, every parse verifies the signature
+        verifyingTokenUtil = tokenUtil(0);
+
+        claims = new HashMap<>();
+        claims.put("userId", 2001);
+        claims.put("role", 2);
+        token = "Bearer " + cachingTokenUtil.generateToken("user2001@example.com", claims);
+    }
+
+    @Benchmark
+    public String generate() {
+        return cachingTokenUtil.generateToken("user2001@example.com", claims);
+    }
+
+    @Benchmark
+    public Claims parseCached() {
+        return cachingTokenUtil.getAllClaimsFromToken(token);
+    }
+
+    @Benchmark
+    public Claims parseVerified() {
+        return verifyingTokenUtil.getAllClaimsFromToken(token);
+    }
+
+    private JwtTokenUtil tokenUtil(long cacheTtl) {
+        JwtTokenUtil tokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(tokenUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(tokenUtil, "expiration", 86400000L);
+        ReflectionTestUtils.setField(tokenUtil, "tokenPrefix", "Bearer");
+        ReflectionTestUtils.setField(tokenUtil, "cacheMaxSize", 10000);
+        ReflectionTestUtils.setField(tokenUtil, "cacheTtl", cacheTtl);
+        tokenUtil.init();
+        return tokenUtil;
+    }
+}
@@ -0,0 +1,93 @@
+package com.room.backend.benchmark;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.room.backend.common.Result;
+import com.room.backend.entity.Reservation;
+import com.room.backend.entity.Restaurant;
+import com.room.backend.entity.RestaurantTable;
+import com.room.backend.mapper.ReservationMapper;
+import com.room.backend.service.CatalogCacheService;
+import com.room.backend.service.impl.ReservationServiceImpl;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReservationServiceImpl conversion of a page of reservations to ReservationVOs, through the user's reservation
+ * list, including the query wrapper it builds and the batched restaurant and table lookups
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="ReservationServiceBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservationServiceBenchmark {
+
+    @Param({"1", "20"})
+    int pageSize;
+
+    private ReservationServiceImpl reservationService;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        // Lambda query wrappers resolve columns from the table metadata MyBatis-Plus builds at startup
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Reservation.class);
+
+        List<Reservation> reservations = new ArrayList<>();
+        for (int id = 1; id <= pageSize; id++) {
+            reservations.add(Stubs.reservation(id));
+        }
+
+        reservationService = new ReservationServiceImpl();
+        ReflectionTestUtils.setField(reservationService, "reservationMapper", Stubs.of(ReservationMapper.class, Map.of(
+                "selectPage", args -> {
+                    IPage<Reservation> page = (IPage<Reservation>) args[0];
+                    page.setRecords(reservations);
+                    page.setTotal(reservations.size());
+                    return page;
+                })));
+        ReflectionTestUtils.setField(reservationService, "catalogCacheService", Stubs.of(CatalogCacheService.class, Map.of(
+                "getRestaurants", args -> {
+                    Map<Integer, Restaurant> restaurants = new HashMap<>();
+                    for (Object id : (Collection<?>) args[0]) {
+                        restaurants.put((Integer) id, Stubs.restaurant((Integer) id));
+                    }
+                    return restaurants;
+                },
+                "getTables", args -> {
+                    Map<Integer, RestaurantTable> tables = new HashMap<>();
+                    for (Object id : (Collection<?>) args[0]) {
+                        tables.put((Integer) id, Stubs.table((Integer) id));
+                    }
+                    return tables;
+                })));
+    }
+
+    @Benchmark
+    public Result<?> convertPage() {
+        return reservationService.getUserReservations(1, pageSize, "1,2,3", 2001);
+    }
+}
@@ -0,0 +1,99 @@
+package com.room.backend.benchmark;
+
+import com.room.backend.common.Result;
+import com.room.backend.dto.RatingSummaryDTO;
+import com.room.backend.entity.Restaurant;
+import com.room.backend.entity.User;
+import com.room.backend.service.CatalogCacheService;
+import com.room.backend.service.RestaurantRatingService;
+import com.room.backend.service.RestaurantSearchService;
+import com.room.backend.service.impl.RestaurantServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RestaurantServiceImpl.convertToVO for a page of restaurants, through a keyword search so that only the
+ * conversion and the batched rating and owner lookups run
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="RestaurantServiceBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RestaurantServiceBenchmark {
+
+    /**
+     * Restaurants per page, 1 is the detail view
+     */
+    @Param({"1", "20"})
+    int pageSize;
+
+    private RestaurantServiceImpl restaurantService;
+
+    @Setup
+    public void setup() {
+        Map<Integer, Restaurant> restaurants = new HashMap<>();
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= pageSize; id++) {
+            restaurants.put(id, Stubs.restaurant(id));
+            ids.add(id);
+        }
+        Map<Integer, RatingSummaryDTO> ratings = new HashMap<>();
+        for (int id : ids) {
+            RatingSummaryDTO rating = new RatingSummaryDTO();
+            rating.add(5, 40 + id);
+            rating.add(4, 25);
+            rating.add(3, 6);
+            rating.add(1, 2);
+            ratings.put(id, rating);
+        }
+
+        restaurantService = new RestaurantServiceImpl();
+        ReflectionTestUtils.setField(restaurantService, "restaurantSearchService",
+                Stubs.of(RestaurantSearchService.class, Map.of("search", args -> ids)));
+        ReflectionTestUtils.setField(restaurantService, "catalogCacheService", Stubs.of(CatalogCacheService.class, Map.of(
+                "getRestaurants", args -> select(restaurants, (Collection<?>) args[0]),
+                "getUsers", args -> {
+                    Map<Integer, User> users = new HashMap<>();
+                    for (Object id : (Collection<?>) args[0]) {
+                        users.put((Integer) id, Stubs.user((Integer) id));
+                    }
+                    return users;
+                })));
+        ReflectionTestUtils.setField(restaurantService, "restaurantRatingService",
+                Stubs.of(RestaurantRatingService.class, Map.of("getSummaries", args -> ratings)));
+    }
+
+    @Benchmark
+    public Result<Map<String, Object>> convertPage() {
+        return restaurantService.getRestaurantList(1, pageSize, null, "dim sum");
+    }
+
+    private static Map<Integer, Restaurant> select(Map<Integer, Restaurant> restaurants, Collection<?> ids) {
+        Map<Integer, Restaurant> selected = new HashMap<>();
+        for (Object id : ids) {
+            selected.put((Integer) id, restaurants.get(id));
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,80 @@
+package com.room.backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.room.backend.common.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the Result responses of the restaurant list, the reservation list and the dashboard, with
+ * an ObjectMapper configured the way Spring Boot configures the one used for responses
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="ResultSerializationBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResultSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private Result<Map<String, Object>> restaurantPage;
+
+    private Result<?> reservationPage;
+
+    private Result<Map<String, Object>> reservationStatistics;
+
+    @Setup
+    public void setup() {
+        // Spring Boot writes dates as ISO-8601 strings
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        RestaurantServiceBenchmark restaurants = new RestaurantServiceBenchmark();
+        restaurants.pageSize = 20;
+        restaurants.setup();
+        restaurantPage = restaurants.convertPage();
+
+        ReservationServiceBenchmark reservations = new ReservationServiceBenchmark();
+        reservations.pageSize = 20;
+        reservations.setup();
+        reservationPage = reservations.convertPage();
+
+        AdminStatisticsBenchmark statistics = new AdminStatisticsBenchmark();
+        statistics.setup();
+        reservationStatistics = statistics.reservationStatistics();
+    }
+
+    @Benchmark
+    public byte[] restaurantPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(restaurantPage);
+    }
+
+    @Benchmark
+    public byte[] reservationPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(reservationPage);
+    }
+
+    @Benchmark
+    public byte[] reservationStatistics() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(reservationStatistics);
+    }
+}
@@ -0,0 +1,107 @@
+package com.room.backend.benchmark;
+
+import com.room.backend.entity.Reservation;
+import com.room.backend.entity.Restaurant;
+import com.room.backend.entity.RestaurantTable;
+import com.room.backend.entity.User;
+
+import java.lang.reflect.Proxy;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Stand-ins for mappers and services, answering from synthetic data so benchmarks measure only JVM work
+ */
+final class Stubs {
+
+    private static final OffsetDateTime CREATED_AT = OffsetDateTime.of(2024, 5, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    private Stubs() {
+    }
+
+    /**
+     * Implement an interface by method name, methods without an answer return null
+     * @param type Mapper or service interface
+     * @param answers Method name -> answer computed from the call arguments
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T of(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return type.getSimpleName() + " stub";
+                }
+            }
+            Function<Object[], Object> answer = answers.get(method.getName());
+            return answer == null ? null : answer.apply(args);
+        });
+    }
+
+    static Restaurant restaurant(int id) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setOwnerId(1000 + id % 10);
+        restaurant.setName("Restaurant " + id);
+        restaurant.setDescription("Seasonal dishes from local producers, open kitchen and a terrace for summer evenings");
+        restaurant.setAddress(id + " Harbour Street");
+        restaurant.setLongitude(121.47 + id * 0.001);
+        restaurant.setLatitude(31.23 + id * 0.001);
+        restaurant.setPhone("021-5550" + (1000 + id));
+        restaurant.setBusinessLicense("BL" + (100000 + id));
+        restaurant.setPhotos("http://localhost:8080/uploads/images/" + id + "-a.jpg"
+                + "|http://localhost:8080/uploads/images/" + id + "-b.jpg"
+                + "|http://localhost:8080/uploads/images/" + id + "-c.jpg");
+        restaurant.setStatus(3);
+        restaurant.setBusinessHours("11:00-22:00");
+        restaurant.setCuisine("Cantonese");
+        restaurant.setCreatedAt(CREATED_AT);
+        restaurant.setUpdatedAt(CREATED_AT);
+        return restaurant;
+    }
+
+    static User user(int id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("User " + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setRole(1);
+        user.setStatus(1);
+        user.setCreatedAt(CREATED_AT);
+        user.setUpdatedAt(CREATED_AT);
+        return user;
+    }
+
+    static RestaurantTable table(int id) {
+        RestaurantTable table = new RestaurantTable();
+        table.setId(id);
+        table.setRestaurantId(id / 10);
+        table.setType(id % 2 == 0 ? "Window" : "Booth");
+        table.setCapacity(2 + id % 6);
+        table.setCreatedAt(CREATED_AT);
+        table.setUpdatedAt(CREATED_AT);
+        return table;
+    }
+
+    static Reservation reservation(int id) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setRestaurantId(1 + id % 5);
+        reservation.setUserId(2000 + id % 3);
+        reservation.setTableId(10 + id % 8);
+        reservation.setReviewId(id % 4 == 0 ? "review-" + id : null);
+        reservation.setReservationTime(CREATED_AT.plusDays(id % 30).plusHours(7));
+        reservation.setPersonCount(2 + id % 4);
+        reservation.setRemarks("Window seat if possible");
+        reservation.setStatus(id % 5);
+        reservation.setCreatedAt(CREATED_AT);
+        reservation.setUpdatedAt(CREATED_AT);
+        return reservation;
+    }
+}
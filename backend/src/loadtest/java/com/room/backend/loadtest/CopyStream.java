@@ -0,0 +1,129 @@
+package com.room.backend.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+
+/**
+ * Streams rows into one table with COPY ... FROM STDIN in text format
+ *
+ * Rows are encoded into a buffer that is handed to the server whenever it fills up, so memory use does not
+ * depend on the number of rows.
+ */
+final class CopyStream implements AutoCloseable {
+
+    private static final int FLUSH_SIZE = 1 << 20;
+
+    private final CopyIn copyIn;
+
+    private final StringBuilder buffer = new StringBuilder(FLUSH_SIZE + 4096);
+
+    private boolean firstField = true;
+
+    private long rows;
+
+    /**
+     * @param table Table name followed by its column list, e.g. "users (id, name)"
+     */
+    CopyStream(Connection connection, String table) throws SQLException {
+        copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn("COPY " + table + " FROM STDIN");
+    }
+
+    CopyStream value(String value) {
+        separate();
+        if (value == null) {
+            buffer.append("\\N");
+            return this;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    buffer.append("\\\\");
+                    break;
+                case '\t':
+                    buffer.append("\\t");
+                    break;
+                case '\n':
+                    buffer.append("\\n");
+                    break;
+                case '\r':
+                    buffer.append("\\r");
+                    break;
+                default:
+                    buffer.append(c);
+            }
+        }
+        return this;
+    }
+
+    CopyStream value(long value) {
+        separate();
+        buffer.append(value);
+        return this;
+    }
+
+    CopyStream value(double value) {
+        separate();
+        buffer.append(value);
+        return this;
+    }
+
+    CopyStream value(Instant value) {
+        separate();
+        // ISO-8601 in UTC, e.g. 2024-05-01T12:00:00Z
+        buffer.append(value);
+        return this;
+    }
+
+    void endRow() throws SQLException {
+        buffer.append('\n');
+        firstField = true;
+        rows++;
+        if (buffer.length() >= FLUSH_SIZE) {
+            flush();
+        }
+    }
+
+    /**
+     * Finish the copy
+     * @return Number of rows copied
+     */
+    long finish() throws SQLException {
+        flush();
+        return copyIn.endCopy();
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    /**
+     * Abort the copy if it has not been finished, the rows sent so far are discarded
+     */
+    @Override
+    public void close() throws SQLException {
+        if (copyIn.isActive()) {
+            copyIn.cancelCopy();
+        }
+    }
+
+    private void separate() {
+        if (!firstField) {
+            buffer.append('\t');
+        }
+        firstField = false;
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.length() > 0) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+}
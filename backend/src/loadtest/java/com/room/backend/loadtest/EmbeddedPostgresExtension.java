@@ -0,0 +1,44 @@
+package com.room.backend.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+
+/**
+ * An embedded PostgreSQL server with the schema of database/restaurant_system.sql, for one test class
+ *
+ * Declare @ExtendWith(EmbeddedPostgresExtension.class) before @SpringBootTest. Extensions finish in the reverse
+ * order they are declared in, so the server stops only after Spring has closed the application context of the
+ * class, with @DirtiesContext, and its connections.
+ */
+final class EmbeddedPostgresExtension implements BeforeAllCallback, AfterAllCallback {
+
+    private static EmbeddedPostgres postgres;
+
+    /**
+     * @return Running server, started before the application context is created
+     */
+    static EmbeddedPostgres getPostgres() {
+        return postgres;
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            SchemaLoader.load(connection, Path.of(System.getProperty("loadtest.schema", "../database/restaurant_system.sql")));
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) throws Exception {
+        if (postgres != null) {
+            postgres.close();
+            postgres = null;
+        }
+    }
+}
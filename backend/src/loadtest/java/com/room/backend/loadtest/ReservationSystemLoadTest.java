@@ -0,0 +1,344 @@
+package com.room.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.room.backend.service.AdminService;
+import com.room.backend.util.JwtTokenUtil;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end latency and throughput of the main user journeys, as a repeatable baseline
+ *
+ * Boots the application against an embedded PostgreSQL server, created from database/restaurant_system.sql and
+ * filled by SyntheticDataGenerator, and drives a fixed mix of browsing, booking, cancelling and dashboard requests
+ * through the controllers from concurrent keep-alive clients. Reports requests per second and p50/p99 latency
+ * per endpoint. Sizes and durations can be changed with -Dloadtest.reservations, from which the other table
+ * sizes are derived, -Dloadtest.threads, -Dloadtest.warmup and -Dloadtest.duration (seconds).
+ *
+ * Run with: mvn -Ploadtest test -Dtest=ReservationSystemLoadTest -Dbenchmark=true
+ */
+@ExtendWith(EmbeddedPostgresExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReservationSystemLoadTest {
+
+    private static final long RESERVATIONS = Long.getLong("loadtest.reservations", 100_000);
+
+    private static final int THREADS = Integer.getInteger("loadtest.threads", 16);
+
+    private static final long WARMUP_SECONDS = Long.getLong("loadtest.warmup", 15);
+
+    private static final long DURATION_SECONDS = Long.getLong("loadtest.duration", 60);
+
+    /**
+     * Share of requests that may fail before the run counts as broken
+     */
+    private static final double MAX_ERROR_RATE = 0.01;
+
+    private static final String[] KEYWORDS = {"Cantonese", "Italian", "Seafood", "kitchen", "private rooms"};
+
+    private static final SyntheticDataGenerator data = new SyntheticDataGenerator(RESERVATIONS, 42);
+
+    private static int[] restaurantIds;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws Exception {
+        EmbeddedPostgres postgres = EmbeddedPostgresExtension.getPostgres();
+        data.generate(postgres.getPostgresDatabase());
+        restaurantIds = data.getOperatingRestaurantIds();
+        Path uploads = Files.createTempDirectory("loadtest-uploads");
+
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("file.upload.path", uploads::toString);
+        // Statement logging to stdout would dominate every request
+        registry.add("mybatis-plus.configuration.log-impl", () -> "org.apache.ibatis.logging.nologging.NoLoggingImpl");
+        registry.add("logging.level.root", () -> "WARN");
+    }
+
+    @Test
+    void baseline() throws Exception {
+        adminService.rebuildReservationStatistics();
+
+        List<String> userTokens = new ArrayList<>();
+        for (int userId : data.getCustomerIds(500)) {
+            userTokens.add(token(userId, 2));
+        }
+        List<String> managerTokens = new ArrayList<>();
+        for (int managerId : data.getManagerIds()) {
+            managerTokens.add(token(managerId, 1));
+        }
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            measure(executor, client, userTokens, managerTokens, WARMUP_SECONDS);
+            Map<String, Samples> results = measure(executor, client, userTokens, managerTokens, DURATION_SECONDS);
+
+            Samples total = report(results);
+            assertTrue(total.errors <= total.size * MAX_ERROR_RATE,
+                    total.errors + " of " + total.size + " requests failed");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<String, Samples> measure(ExecutorService executor, HttpClient client, List<String> userTokens,
+                                         List<String> managerTokens, long seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<Map<String, Samples>>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(t);
+            String userToken = userTokens.get(t % userTokens.size());
+            String managerToken = managerTokens.get(t % managerTokens.size());
+            futures.add(executor.submit(() -> new Journey(client, random, userToken, managerToken).run(deadline)));
+        }
+
+        Map<String, Samples> merged = new TreeMap<>();
+        for (Future<Map<String, Samples>> future : futures) {
+            future.get().forEach((endpoint, samples) -> merged.computeIfAbsent(endpoint, e -> new Samples()).addAll(samples));
+        }
+        return merged;
+    }
+
+    private Samples report(Map<String, Samples> results) {
+        System.out.printf("%-36s %9s %7s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50(ms)", "p99(ms)", "max(ms)");
+        Samples total = new Samples();
+        results.forEach((endpoint, samples) -> {
+            print(endpoint, samples);
+            total.addAll(samples);
+        });
+        print("total", total);
+        return total;
+    }
+
+    private void print(String endpoint, Samples samples) {
+        long[] sorted = Arrays.copyOf(samples.values, samples.size);
+        Arrays.sort(sorted);
+        System.out.printf("%-36s %9d %7d %9.1f %9.2f %9.2f %9.2f%n", endpoint, samples.size, samples.errors,
+                samples.size / (double) DURATION_SECONDS, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.max(0, Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    private String token(Integer userId, int role) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", userId);
+        claims.put("role", role);
+        return "Bearer " + jwtTokenUtil.generateToken("load-" + userId + "@example.com", claims);
+    }
+
+    /**
+     * One client thread, picking the next request from a fixed mix
+     */
+    private class Journey {
+
+        private final HttpClient client;
+
+        private final Random random;
+
+        private final String userToken;
+
+        private final String managerToken;
+
+        /**
+         * Reservations booked by this client that are still open
+         */
+        private final Deque<Integer> booked = new ArrayDeque<>();
+
+        private final Map<String, Samples> samples = new LinkedHashMap<>();
+
+        Journey(HttpClient client, Random random, String userToken, String managerToken) {
+            this.client = client;
+            this.random = random;
+            this.userToken = userToken;
+            this.managerToken = managerToken;
+        }
+
+        Map<String, Samples> run(long deadline) throws Exception {
+            while (System.nanoTime() < deadline) {
+                int roll = random.nextInt(100);
+                if (roll < 30) {
+                    // Anonymous and logged in visitors, the latter see their favorites
+                    send("GET /restaurants", get("/restaurants?page=" + (1 + random.nextInt(5)) + "&pageSize=10&status=3",
+                            random.nextBoolean() ? userToken : null));
+                } else if (roll < 40) {
+                    String keyword = KEYWORDS[random.nextInt(KEYWORDS.length)].replace(" ", "%20");
+                    send("GET /restaurants?keyword", get("/restaurants?pageSize=10&keyword=" + keyword, null));
+                } else if (roll < 60) {
+                    send("GET /restaurants/{id}", get("/restaurants/" + randomRestaurant(), userToken));
+                } else if (roll < 65) {
+                    send("GET /restaurants/nearby", get("/restaurants/nearby?latitude=" + (42.30 + random.nextDouble() * 0.1)
+                            + "&longitude=" + (-71.10 + random.nextDouble() * 0.1) + "&radius=3", null));
+                } else if (roll < 75) {
+                    send("GET /reservations", get("/reservations?page=1&pageSize=10", userToken));
+                } else if (roll < 87) {
+                    book();
+                } else if (roll < 92) {
+                    cancel();
+                } else if (roll < 96) {
+                    send("GET /admin/statistics/overview", get("/admin/statistics/overview", managerToken));
+                } else {
+                    send("GET /admin/statistics/reservations", get("/admin/statistics/reservations", managerToken));
+                }
+            }
+            return samples;
+        }
+
+        private void book() throws Exception {
+            int restaurantId = randomRestaurant();
+            int[] tables = data.getTableIds(restaurantId);
+            OffsetDateTime time = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS)
+                    .plusDays(1 + random.nextInt(90))
+                    .plusHours(11 + random.nextInt(10))
+                    .plusMinutes(15L * random.nextInt(4));
+            Map<String, Object> body = new HashMap<>();
+            body.put("restaurantId", restaurantId);
+            body.put("tableId", tables[random.nextInt(tables.length)]);
+            body.put("reservationTime", time.toString());
+            body.put("reservationDate", 2);
+            body.put("personCount", 1 + random.nextInt(4));
+            JsonNode result = send("POST /reservations", request("/reservations", userToken)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))));
+            if (result != null && result.path("code").asInt() == 200) {
+                booked.push(result.path("data").path("id").asInt());
+            }
+        }
+
+        private void cancel() throws Exception {
+            if (booked.isEmpty()) {
+                book();
+                return;
+            }
+            send("PUT /reservations/{id}/cancel", request("/reservations/" + booked.pop() + "/cancel", userToken)
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"cancelReason\":\"Change of plans\"}")));
+        }
+
+        private int randomRestaurant() {
+            return restaurantIds[random.nextInt(restaurantIds.length)];
+        }
+
+        private HttpRequest.Builder get(String path, String token) {
+            return request(path, token).GET();
+        }
+
+        private HttpRequest.Builder request(String path, String token) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .header("Content-Type", "application/json");
+            if (token != null) {
+                builder.header("Authorization", token);
+            }
+            return builder;
+        }
+
+        /**
+         * Send a request and record its latency, failed if the status or the result code is not a success.
+         * Booking a table that is already taken is a valid outcome and counts as a success.
+         * @return Result body, null if there is none
+         */
+        private JsonNode send(String endpoint, HttpRequest.Builder request) throws InterruptedException {
+            Samples endpointSamples = samples.computeIfAbsent(endpoint, e -> new Samples());
+            long start = System.nanoTime();
+            boolean success = false;
+            JsonNode result = null;
+            try {
+                HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() == 200) {
+                    result = objectMapper.readTree(response.body());
+                    success = result.path("code").asInt() == 200
+                            || result.path("message").asText().contains("already reserved");
+                }
+            } catch (IOException e) {
+                // Counted as a failure
+            }
+            endpointSamples.add(System.nanoTime() - start, success);
+            return result;
+        }
+    }
+
+    /**
+     * Latencies in nanoseconds of one endpoint
+     */
+    private static class Samples {
+
+        private long[] values = new long[1024];
+
+        private int size;
+
+        private int errors;
+
+        void add(long latency, boolean success) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = latency;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.room.backend.loadtest;
+
+import com.room.backend.util.JwtTokenUtil;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The restaurant list stays within its @QueryBudget(5) against a populated database
+ *
+ * Runs with query-monitor.strict, so a statement over the budget or a lookup per row fails the request with
+ * HTTP 500. Every request asks for a full page, so a per-row lookup would repeat often enough to be caught.
+ *
+ * Run with: mvn -Ploadtest test -Dtest=RestaurantQueryBudgetTest
+ */
+@ExtendWith(EmbeddedPostgresExtension.class)
+@SpringBootTest(properties = {"query-monitor.enabled=true", "query-monitor.strict=true"})
+@AutoConfigureMockMvc
+@DirtiesContext
+class RestaurantQueryBudgetTest {
+
+    private static final String PAGE_SIZE = "20";
+
+    private static final SyntheticDataGenerator data = new SyntheticDataGenerator(10_000, 42);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws Exception {
+        EmbeddedPostgres postgres = EmbeddedPostgresExtension.getPostgres();
+        data.generate(postgres.getPostgresDatabase());
+        Path uploads = Files.createTempDirectory("query-budget-uploads");
+
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("file.upload.path", uploads::toString);
+        registry.add("mybatis-plus.configuration.log-impl", () -> "org.apache.ibatis.logging.nologging.NoLoggingImpl");
+    }
+
+    @Test
+    void anonymousListStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/restaurants").param("page", "1").param("pageSize", PAGE_SIZE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.list.length()").value(Integer.parseInt(PAGE_SIZE)));
+    }
+
+    @Test
+    void listWithFavoritesStaysWithinBudget() throws Exception {
+        int userId = data.getCustomerIds(1)[0];
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", userId);
+        claims.put("role", 2);
+        String token = jwtTokenUtil.generateToken("budget-" + userId + "@example.com", claims);
+
+        mockMvc.perform(get("/restaurants").param("page", "1").param("pageSize", PAGE_SIZE)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.list.length()").value(Integer.parseInt(PAGE_SIZE)));
+    }
+
+    @Test
+    void keywordSearchStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/restaurants").param("page", "1").param("pageSize", PAGE_SIZE).param("keyword", "kitchen"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200));
+    }
+}
@@ -0,0 +1,91 @@
+package com.room.backend.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs database/restaurant_system.sql against an existing, empty database
+ *
+ * The script is written for psql: it creates and connects to its own database and defines functions with
+ * dollar-quoted bodies. Those commands are skipped here, the connection already points at the target database,
+ * and statements are split on semicolons outside of quotes, dollar quotes and comments.
+ */
+final class SchemaLoader {
+
+    private SchemaLoader() {
+    }
+
+    static void load(Connection connection, Path script) throws IOException, SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : split(Files.readString(script, StandardCharsets.UTF_8))) {
+                if (sql.toUpperCase(Locale.ROOT).startsWith("CREATE DATABASE")) {
+                    continue;
+                }
+                try {
+                    statement.execute(sql);
+                } catch (SQLException e) {
+                    throw new SQLException("Failed to run: " + sql, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Split a script into statements, without comments, psql meta-commands and the terminating semicolons
+     */
+    static List<String> split(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int length = script.length();
+        int i = 0;
+        while (i < length) {
+            char c = script.charAt(i);
+            if (c == '-' && i + 1 < length && script.charAt(i + 1) == '-') {
+                // Line comment
+                while (i < length && script.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '\\' && current.toString().isBlank()) {
+                // psql meta-command such as \c, up to the end of the line
+                while (i < length && script.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '\'') {
+                int end = script.indexOf('\'', i + 1);
+                // '' inside a literal is read as two adjacent literals, which is equivalent for splitting
+                end = end < 0 ? length : end + 1;
+                current.append(script, i, end);
+                i = end;
+            } else if (c == '$' && i + 1 < length && script.charAt(i + 1) == '$') {
+                int end = script.indexOf("$$", i + 2);
+                end = end < 0 ? length : end + 2;
+                current.append(script, i, end);
+                i = end;
+            } else if (c == ';') {
+                addStatement(statements, current);
+                i++;
+            } else {
+                current.append(c);
+                i++;
+            }
+        }
+        addStatement(statements, current);
+        return statements;
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder current) {
+        String statement = current.toString().trim();
+        if (!statement.isEmpty()) {
+            statements.add(statement);
+        }
+        current.setLength(0);
+    }
+}
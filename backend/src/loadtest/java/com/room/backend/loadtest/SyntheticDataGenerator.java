@@ -0,0 +1,816 @@
+package com.room.backend.loadtest;
+
+import org.postgresql.ds.PGSimpleDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Synthetic data at production scale, streamed into PostgreSQL with COPY
+ *
+ * All sizes are derived from the number of reservations, from 10K for a quick run to 50M: a customer per ten
+ * reservations, a restaurant per 400 and a manager per three restaurants. Restaurants are clustered around a few
+ * city centres and have a mix of table sizes, popular restaurants and frequent customers get most of the
+ * reservations. Reservations cover the past year and the coming two months, peak at lunch and dinner and on
+ * weekends, and their status follows from whether they lie in the past. A quarter of the completed ones have a
+ * review, with ratings around a per-restaurant quality.
+ *
+ * Pending, confirmed and completed reservations of a table never overlap, as the application enforces. Each
+ * reservation partition owns a disjoint set of restaurants and tracks the occupancy of their tables. A party that
+ * finds no free table is moved by up to an hour, then tries another restaurant.
+ *
+ * Rows get explicit IDs after the highest existing ones, so no IDs have to be read back, and the sequences are
+ * moved past them at the end. Secondary indexes of the loaded tables are dropped while loading and rebuilt
+ * afterwards. The same seed and scale produce the same rows. Other sessions see the dropped indexes too, so load
+ * into a database of its own.
+ *
+ * Run with: mvn -Ploadtest test-compile exec:java
+ *     -Dexec.args="jdbc:postgresql://localhost:5432/restaurant_system postgres password 1000000"
+ */
+public final class SyntheticDataGenerator {
+
+    private static final int PAST_DAYS = 365;
+
+    private static final int FUTURE_DAYS = 60;
+
+    private static final long MIN_RESERVATIONS = 10_000;
+
+    private static final long MAX_RESERVATIONS = 50_000_000;
+
+    /**
+     * Quarter hours a reservation is moved at most, in either direction, to find a free table
+     */
+    private static final int MAX_SHIFT = 4;
+
+    /**
+     * Restaurants and times tried for a reservation before giving up
+     */
+    private static final int MAX_PLACEMENT_ATTEMPTS = 1000;
+
+    /**
+     * Reservations per COPY partition, smaller loads are not worth splitting
+     */
+    private static final long PARTITION_SIZE = 250_000;
+
+    private static final String[] LOADED_TABLES = {"users", "restaurants", "tables", "reservations", "reviews", "favorites"};
+
+    /**
+     * Password "123456", as in the sample data
+     */
+    private static final String PASSWORD = "$2a$10$b2KG1Ug8MhMfC1OUeItwSuWsICsS.SlqcUfCN/txe/L1ZquExf6xm";
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "Wei", "Li", "Robert", "Patricia", "Hiroshi",
+            "Yuki", "Michael", "Jennifer", "Min-jun", "Ji-woo", "David", "Linda", "Carlos", "Sofia", "Ahmed", "Fatima",
+            "Thomas", "Emma"};
+
+    private static final String[] LAST_NAMES = {"Smith", "Wang", "Johnson", "Zhang", "Brown", "Tanaka", "Garcia",
+            "Kim", "Miller", "Chen", "Davis", "Lee", "Martin", "Liu", "Wilson", "Sato", "Lopez", "Park", "Taylor", "Huang"};
+
+    /**
+     * Name, latitude, longitude and share of the restaurants
+     */
+    private static final Object[][] CITIES = {
+            {"New York", 40.7128, -74.0060, 35},
+            {"Chicago", 41.8781, -87.6298, 20},
+            {"San Francisco", 37.7749, -122.4194, 15},
+            {"Boston", 42.3601, -71.0589, 15},
+            {"Seattle", 47.6062, -122.3321, 15},
+    };
+
+    private static final String[] STREETS = {"Harbour Street", "Main Street", "Market Street", "Park Avenue",
+            "Lake Shore Drive", "Union Square", "Pine Street", "Broadway", "Elm Street", "Water Street"};
+
+    private static final String[] CUISINES = {"Cantonese", "Sichuan", "Hot pot", "Japanese", "Korean", "Italian",
+            "French", "Seafood", "Thai", "Western"};
+
+    private static final int[] CUISINE_WEIGHTS = {14, 12, 8, 14, 8, 14, 6, 10, 6, 8};
+
+    private static final String[] NAME_PREFIXES = {"Golden", "Jade", "Harbour", "Old Town", "Lucky", "Blue", "Little",
+            "Grand", "Red Lantern", "Garden"};
+
+    private static final String[] NAME_SUFFIXES = {"Kitchen", "House", "Bistro", "Table", "Dining Room", "Garden"};
+
+    private static final String[] BUSINESS_HOURS = {
+            "Monday-Sunday 11:00-22:00",
+            "Monday-Friday 11:00-14:30|Monday-Friday 17:00-22:00|Saturday-Sunday 11:00-23:00",
+            "Monday-Friday 9:00-22:00|Saturday-Sunday 10:00-23:00",
+            "Tuesday-Sunday 17:00-23:30",
+    };
+
+    /**
+     * Restaurant status -> share, mostly operating
+     */
+    private static final int[] RESTAURANT_STATUSES = {0, 1, 2, 3};
+
+    private static final int[] RESTAURANT_STATUS_WEIGHTS = {4, 4, 5, 87};
+
+    /**
+     * Party sizes 1 to 10, couples and groups of four are the most common
+     */
+    private static final int[] PARTY_SIZE_WEIGHTS = {5, 40, 12, 22, 6, 7, 2, 3, 1, 2};
+
+    private static final String[] REMARKS = {"Window seat if possible", "Birthday celebration, a cake will be brought",
+            "High chair needed", "Vegetarian guests", "Quiet table please", "Allergic to peanuts", "Wheelchair access"};
+
+    private static final String[] CANCEL_REASONS = {"Change of plans", "Booked the wrong day", "Someone is ill",
+            "Found another restaurant", "Running late"};
+
+    /**
+     * Review content per rating, 1 to 5
+     */
+    private static final String[][] REVIEWS = {
+            {"Cold food and a long wait, will not come back", "Rude service and the order was wrong"},
+            {"Portions were small for the price", "Noisy room and slow service"},
+            {"Decent food, nothing special", "Good location but the menu is limited"},
+            {"Fresh ingredients and friendly service", "Tasty dishes, a little crowded at dinner time"},
+            {"Excellent food, the private rooms are great for groups", "Best meal we had in months, highly recommended"},
+    };
+
+    private final long reservations;
+
+    private final int customers;
+
+    private final int managers;
+
+    private final int restaurants;
+
+    private final long seed;
+
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+
+    private final LocalDate today = now.atOffset(ZoneOffset.UTC).toLocalDate();
+
+    /**
+     * Start of the reservation window, table occupancy is tracked in quarter hours from here
+     */
+    private final Instant windowStart = today.minusDays(PAST_DAYS).atStartOfDay(ZoneOffset.UTC).toInstant();
+
+    private int firstUserId;
+
+    private int firstRestaurantId;
+
+    private int firstTableId;
+
+    private int firstReservationId;
+
+    private int firstFavoriteId;
+
+    /**
+     * Per restaurant, by index: status, owner index, mean rating, first table index and number of tables
+     */
+    private byte[] restaurantStatus;
+    private int[] restaurantOwner;
+    private float[] restaurantQuality;
+    private int[] restaurantFirstTable;
+    private byte[] restaurantTableCount;
+
+    /**
+     * Per table, by index: capacity
+     */
+    private byte[] tableCapacity;
+
+    /**
+     * Indexes of the operating restaurants, the only ones that take reservations
+     */
+    private int[] operating;
+
+    public SyntheticDataGenerator(long reservations, long seed) {
+        this.reservations = reservations;
+        this.seed = seed;
+        customers = (int) Math.max(1000, reservations / 10);
+        restaurants = (int) Math.max(50, reservations / 400);
+        managers = Math.max(10, restaurants / 3);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: SyntheticDataGenerator <jdbc-url> <user> <password> [reservations] [seed]");
+            System.exit(2);
+        }
+        PGSimpleDataSource dataSource = new PGSimpleDataSource();
+        dataSource.setURL(args[0]);
+        dataSource.setUser(args[1]);
+        dataSource.setPassword(args[2]);
+        long reservations = args.length > 3 ? Long.parseLong(args[3].replace("_", "")) : 1_000_000;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+        if (reservations < MIN_RESERVATIONS || reservations > MAX_RESERVATIONS) {
+            System.err.printf("Reservations must be between %,d and %,d%n", MIN_RESERVATIONS, MAX_RESERVATIONS);
+            System.exit(2);
+        }
+
+        new SyntheticDataGenerator(reservations, seed).generate(dataSource);
+    }
+
+    /**
+     * Generate all rows, rebuild the indexes, the daily statistics and the planner statistics
+     */
+    public void generate(DataSource dataSource) throws Exception {
+        long started = System.nanoTime();
+        System.out.printf("Generating %,d reservations, %,d customers, %,d managers and %,d restaurants%n",
+                reservations, customers, managers, restaurants);
+
+        List<String> indexes;
+        try (Connection connection = dataSource.getConnection()) {
+            readFirstIds(connection);
+            indexes = dropIndexes(connection);
+        }
+        planRestaurants();
+
+        // Every partition needs restaurants of its own
+        long partitions = Math.max(1, Math.min(reservations / PARTITION_SIZE, operating.length));
+        int threads = (int) Math.min(partitions + 3, Math.max(2, Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<String>> tasks = new ArrayList<>();
+            tasks.add(() -> copy(dataSource, "users", this::copyUsers));
+            tasks.add(() -> copy(dataSource, "restaurants", this::copyRestaurants));
+            tasks.add(() -> copy(dataSource, "tables", this::copyTables));
+            tasks.add(() -> copy(dataSource, "favorites", this::copyFavorites));
+            for (long p = 0; p < partitions; p++) {
+                long from = reservations * p / partitions;
+                long to = reservations * (p + 1) / partitions;
+                int partition = (int) p;
+                int partitionCount = (int) partitions;
+                tasks.add(() -> copyReservations(dataSource, partition, partitionCount, from, to));
+            }
+            try {
+                for (Future<String> result : executor.invokeAll(tasks)) {
+                    System.out.println(result.get());
+                }
+            } finally {
+                // Also after a failure, the database must not be left without its indexes
+                rebuildIndexes(executor, dataSource, indexes);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            finish(connection);
+        }
+        System.out.printf("Done in %.1f s%n", (System.nanoTime() - started) / 1e9);
+    }
+
+    /**
+     * @return IDs of the managers
+     */
+    public int[] getManagerIds() {
+        return range(firstUserId, managers);
+    }
+
+    /**
+     * @return IDs of the first customers, who are also the most active ones
+     */
+    public int[] getCustomerIds(int limit) {
+        return range(firstUserId + managers, Math.min(limit, customers));
+    }
+
+    /**
+     * @return IDs of the operating restaurants
+     */
+    public int[] getOperatingRestaurantIds() {
+        int[] ids = new int[operating.length];
+        for (int i = 0; i < operating.length; i++) {
+            ids[i] = firstRestaurantId + operating[i];
+        }
+        return ids;
+    }
+
+    /**
+     * @return IDs of the tables of a restaurant
+     */
+    public int[] getTableIds(int restaurantId) {
+        int restaurant = restaurantId - firstRestaurantId;
+        return range(firstTableId + restaurantFirstTable[restaurant], restaurantTableCount[restaurant]);
+    }
+
+    private void readFirstIds(Connection connection) throws SQLException {
+        firstUserId = maxId(connection, "users") + 1;
+        firstRestaurantId = maxId(connection, "restaurants") + 1;
+        firstTableId = maxId(connection, "tables") + 1;
+        firstReservationId = maxId(connection, "reservations") + 1;
+        firstFavoriteId = maxId(connection, "favorites") + 1;
+    }
+
+    private int maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rows.next();
+            return rows.getInt(1);
+        }
+    }
+
+    /**
+     * Decide everything reservations depend on, so partitions can be generated independently
+     */
+    private void planRestaurants() {
+        SplittableRandom random = new SplittableRandom(seed);
+        restaurantStatus = new byte[restaurants];
+        restaurantOwner = new int[restaurants];
+        restaurantQuality = new float[restaurants];
+        restaurantFirstTable = new int[restaurants];
+        restaurantTableCount = new byte[restaurants];
+        byte[] capacities = new byte[restaurants * 16];
+        int tables = 0;
+        int operatingCount = 0;
+        for (int r = 0; r < restaurants; r++) {
+            restaurantStatus[r] = (byte) RESTAURANT_STATUSES[pick(random, RESTAURANT_STATUS_WEIGHTS)];
+            restaurantOwner[r] = random.nextInt(managers);
+            restaurantQuality[r] = (float) (3.2 + random.nextDouble() * 1.6);
+            restaurantFirstTable[r] = tables;
+            int twos = 1 + random.nextInt(3);
+            int fours = 2 + random.nextInt(5);
+            int eights = random.nextInt(3);
+            int twelves = random.nextInt(2);
+            for (int i = 0; i < twos; i++) {
+                capacities[tables++] = 2;
+            }
+            for (int i = 0; i < fours; i++) {
+                capacities[tables++] = 4;
+            }
+            for (int i = 0; i < eights; i++) {
+                capacities[tables++] = 8;
+            }
+            for (int i = 0; i < twelves; i++) {
+                capacities[tables++] = 12;
+            }
+            restaurantTableCount[r] = (byte) (tables - restaurantFirstTable[r]);
+            if (restaurantStatus[r] == 3) {
+                operatingCount++;
+            }
+        }
+        tableCapacity = Arrays.copyOf(capacities, tables);
+
+        operating = new int[operatingCount];
+        for (int r = 0, i = 0; r < restaurants; r++) {
+            if (restaurantStatus[r] == 3) {
+                operating[i++] = r;
+            }
+        }
+    }
+
+    private long copyUsers(Connection connection) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed + 1);
+        try (CopyStream copy = new CopyStream(connection,
+                "users (id, name, email, password, role, avatar, created_at, updated_at, status)")) {
+            for (int i = 0; i < managers + customers; i++) {
+                int id = firstUserId + i;
+                boolean manager = i < managers;
+                Instant created = now.minus(400 + random.nextInt(1100), ChronoUnit.DAYS);
+                copy.value(id)
+                        .value(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)])
+                        .value((manager ? "manager" : "user") + id + "@example.com")
+                        .value(PASSWORD)
+                        .value(manager ? 1 : 2)
+                        .value(random.nextInt(2) == 0 ? "https://example.com/avatars/" + id + ".jpg" : null)
+                        .value(created)
+                        .value(created)
+                        // A few banned customers
+                        .value(!manager && random.nextInt(50) == 0 ? 0 : 1);
+                copy.endRow();
+            }
+            return copy.finish();
+        }
+    }
+
+    private long copyRestaurants(Connection connection) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed + 2);
+        int[] cityWeights = new int[CITIES.length];
+        for (int c = 0; c < CITIES.length; c++) {
+            cityWeights[c] = (Integer) CITIES[c][3];
+        }
+        try (CopyStream copy = new CopyStream(connection, "restaurants (id, owner_id, name, description, address, " +
+                "latitude, longitude, phone, business_license, photos, status, business_hours, cuisine, created_at, updated_at)")) {
+            for (int r = 0; r < restaurants; r++) {
+                int id = firstRestaurantId + r;
+                Object[] city = CITIES[pick(random, cityWeights)];
+                String cuisine = CUISINES[pick(random, CUISINE_WEIGHTS)];
+                // Dense centre, thinning out over roughly 10km
+                double latitude = (Double) city[1] + random.nextGaussian() * 0.04;
+                double longitude = (Double) city[2] + random.nextGaussian() * 0.04 / Math.cos(Math.toRadians(latitude));
+                StringBuilder photos = new StringBuilder();
+                for (int p = 1, count = 1 + random.nextInt(5); p <= count; p++) {
+                    photos.append(p > 1 ? "|" : "").append("https://example.com/restaurants/").append(id).append('-').append(p).append(".jpg");
+                }
+                Instant created = now.minus(400 + random.nextInt(1600), ChronoUnit.DAYS);
+                copy.value(id)
+                        .value(firstUserId + restaurantOwner[r])
+                        .value(NAME_PREFIXES[random.nextInt(NAME_PREFIXES.length)] + " " + cuisine + " "
+                                + NAME_SUFFIXES[random.nextInt(NAME_SUFFIXES.length)])
+                        .value("Seasonal " + cuisine.toLowerCase() + " dishes from an open kitchen"
+                                + (random.nextInt(3) == 0 ? ", private rooms for groups" : ""))
+                        .value((1 + random.nextInt(2000)) + " " + STREETS[random.nextInt(STREETS.length)] + ", " + city[0])
+                        .value(Math.round(latitude * 1e6) / 1e6)
+                        .value(Math.round(longitude * 1e6) / 1e6)
+                        .value(String.format("555%07d", r % 10_000_000))
+                        .value(String.format("BL%010d", id))
+                        .value(photos.toString())
+                        .value(restaurantStatus[r])
+                        .value(BUSINESS_HOURS[random.nextInt(BUSINESS_HOURS.length)])
+                        .value(cuisine)
+                        .value(created)
+                        .value(created);
+                copy.endRow();
+            }
+            return copy.finish();
+        }
+    }
+
+    private long copyTables(Connection connection) throws SQLException {
+        try (CopyStream copy = new CopyStream(connection, "tables (id, restaurant_id, type, capacity, created_at, updated_at)")) {
+            for (int r = 0; r < restaurants; r++) {
+                for (int t = restaurantFirstTable[r]; t < restaurantFirstTable[r] + restaurantTableCount[r]; t++) {
+                    int capacity = tableCapacity[t];
+                    copy.value(firstTableId + t)
+                            .value(firstRestaurantId + r)
+                            .value(capacity == 2 ? "Window table" : capacity == 4 ? "Normal table"
+                                    : capacity == 8 ? "Big table" : "VIP rooms")
+                            .value(capacity)
+                            .value(now)
+                            .value(now);
+                    copy.endRow();
+                }
+            }
+            return copy.finish();
+        }
+    }
+
+    private long copyFavorites(Connection connection) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed + 3);
+        int[] chosen = new int[20];
+        int id = firstFavoriteId;
+        try (CopyStream copy = new CopyStream(connection, "favorites (id, restaurant_id, user_id, created_at)")) {
+            for (int c = 0; c < customers; c++) {
+                // Most customers have none, a few have many
+                int count = random.nextInt(5) < 3 ? 0 : Math.min(chosen.length, 1 + (int) (-Math.log(1 - random.nextDouble()) * 2));
+                count = Math.min(count, operating.length);
+                for (int f = 0; f < count; f++) {
+                    int restaurant;
+                    do {
+                        restaurant = popularRestaurant(random);
+                    } while (contains(chosen, f, restaurant));
+                    chosen[f] = restaurant;
+                    copy.value(id++)
+                            .value(firstRestaurantId + restaurant)
+                            .value(firstUserId + managers + c)
+                            .value(now.minus(random.nextInt(PAST_DAYS * 24 * 60), ChronoUnit.MINUTES));
+                    copy.endRow();
+                }
+            }
+            return copy.finish();
+        }
+    }
+
+    /**
+     * Generate reservations [from, to) at the restaurants of a partition and the reviews of the completed ones,
+     * streamed on two connections at once
+     */
+    private String copyReservations(DataSource dataSource, int partition, int partitions, long from, long to)
+            throws SQLException {
+        long started = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed * 1_000_003 + 100 + partition);
+        // Table index -> occupied quarter hours, only the tables of this partition's restaurants
+        Map<Integer, BitSet> occupancy = new HashMap<>();
+        try (Connection reservationConnection = open(dataSource);
+             Connection reviewConnection = open(dataSource);
+             CopyStream reservationCopy = new CopyStream(reservationConnection, "reservations (id, restaurant_id, " +
+                     "table_id, user_id, review_id, reservation_time, reservation_date, person_count, remarks, status, " +
+                     "cancel_reason, created_at, updated_at)");
+             CopyStream reviewCopy = new CopyStream(reviewConnection, "reviews (id, restaurant_id, user_id, content, " +
+                     "photos, videos, rating, created_at, updated_at)")) {
+            for (long i = from; i < to; i++) {
+                int user = frequentCustomer(random);
+                int personCount = 1 + pick(random, PARTY_SIZE_WEIGHTS);
+                int duration = random.nextInt(100) < 15 ? 1 : random.nextInt(100) < 82 ? 2 : 3;
+
+                int restaurant = -1;
+                int table = -1;
+                Instant time = null;
+                for (int attempt = 0; table < 0; attempt++) {
+                    if (attempt == MAX_PLACEMENT_ATTEMPTS) {
+                        throw new IllegalStateException("No free table for reservation " + i + " in partition " + partition);
+                    }
+                    restaurant = popularRestaurant(random, partition, partitions);
+                    Instant preferred = reservationTime(random);
+                    // 0, +15, -15, +30, -30 ... minutes
+                    for (int s = 0; s <= 2 * MAX_SHIFT && table < 0; s++) {
+                        time = preferred.plus((s % 2 == 1 ? 1 : -1) * ((s + 1) / 2) * 15L, ChronoUnit.MINUTES);
+                        table = freeTable(random, occupancy, restaurant, personCount, quarter(time), duration * 4);
+                    }
+                }
+                Instant end = time.plus(duration, ChronoUnit.HOURS);
+
+                int status;
+                if (end.isBefore(now)) {
+                    int roll = random.nextInt(100);
+                    status = roll < 82 ? 3 : roll < 94 ? 0 : 4;
+                } else {
+                    int roll = random.nextInt(100);
+                    status = roll < 8 ? 0 : roll < 62 ? 2 : 1;
+                }
+
+                // Booked hours to weeks ahead, never in the future
+                long leadMinutes = 60 + (long) Math.min(-Math.log(1 - random.nextDouble()) * 5 * 24 * 60, 60 * 24 * 60);
+                Instant created = time.minus(leadMinutes, ChronoUnit.MINUTES);
+                if (created.isAfter(now)) {
+                    created = now.minus(random.nextInt(24 * 60), ChronoUnit.MINUTES);
+                }
+                Instant updated = status == 1 ? created
+                        : status == 3 ? end
+                        : created.plusSeconds((long) (random.nextDouble() * (min(time, now).getEpochSecond() - created.getEpochSecond())));
+
+                // Cancelled and rejected reservations do not hold the table
+                if (status == 1 || status == 2 || status == 3) {
+                    occupancy.computeIfAbsent(table, t -> new BitSet()).set(quarter(time), quarter(end));
+                }
+
+                String reviewId = null;
+                if (status == 3 && random.nextInt(4) == 0) {
+                    Instant reviewed = end.plus(1 + random.nextInt(72), ChronoUnit.HOURS);
+                    if (reviewed.isBefore(now)) {
+                        reviewId = uuid(random);
+                        writeReview(reviewCopy, random, reviewId, restaurant, user, reviewed);
+                    }
+                }
+
+                reservationCopy.value(firstReservationId + i)
+                        .value(firstRestaurantId + restaurant)
+                        .value(firstTableId + table)
+                        .value(firstUserId + managers + user)
+                        .value(reviewId)
+                        .value(time)
+                        .value(duration)
+                        .value(personCount)
+                        .value(random.nextInt(100) < 15 ? REMARKS[random.nextInt(REMARKS.length)] : null)
+                        .value(status)
+                        .value(status == 0 ? CANCEL_REASONS[random.nextInt(CANCEL_REASONS.length)] : null)
+                        .value(created)
+                        .value(updated);
+                reservationCopy.endRow();
+            }
+            long reservationRows = reservationCopy.finish();
+            long reviewRows = reviewCopy.finish();
+            return String.format("reservations partition %d: %,d reservations, %,d reviews in %.1f s", partition,
+                    reservationRows, reviewRows, (System.nanoTime() - started) / 1e9);
+        }
+    }
+
+    private void writeReview(CopyStream copy, SplittableRandom random, String id, int restaurant, int user,
+                             Instant created) throws SQLException {
+        int rating = (int) Math.max(1, Math.min(5, Math.round(restaurantQuality[restaurant] + random.nextGaussian() * 0.9)));
+        String[] contents = REVIEWS[rating - 1];
+        String photos = null;
+        if (random.nextInt(5) == 0) {
+            StringBuilder urls = new StringBuilder();
+            for (int p = 1, count = 1 + random.nextInt(3); p <= count; p++) {
+                urls.append(p > 1 ? "|" : "").append("https://example.com/reviews/").append(id).append('-').append(p).append(".jpg");
+            }
+            photos = urls.toString();
+        }
+        copy.value(id)
+                .value(firstRestaurantId + restaurant)
+                .value(firstUserId + managers + user)
+                .value(contents[random.nextInt(contents.length)])
+                .value(photos)
+                .value(random.nextInt(50) == 0 ? "https://example.com/reviews/" + id + ".mp4" : null)
+                .value(rating)
+                .value(created)
+                .value(created);
+        copy.endRow();
+    }
+
+    /**
+     * A time in the reservation window, on the quarter hour, weekends and lunch and dinner hours preferred
+     */
+    private Instant reservationTime(SplittableRandom random) {
+        while (true) {
+            LocalDate day = today.plusDays(random.nextInt(PAST_DAYS + FUTURE_DAYS) - PAST_DAYS);
+            DayOfWeek dayOfWeek = day.getDayOfWeek();
+            double weight = dayOfWeek == DayOfWeek.FRIDAY || dayOfWeek == DayOfWeek.SATURDAY ? 1.0
+                    : dayOfWeek == DayOfWeek.SUNDAY ? 0.8 : 0.55;
+            if (random.nextDouble() >= weight) {
+                continue;
+            }
+            double hour = random.nextInt(100) < 35 ? 12.5 + random.nextGaussian() * 0.75 : 19.25 + random.nextGaussian();
+            long quarters = Math.round(Math.max(11, Math.min(22.75, hour)) * 4);
+            return day.atStartOfDay(ZoneOffset.UTC).toInstant().plus(quarters * 15, ChronoUnit.MINUTES);
+        }
+    }
+
+    /**
+     * The smallest table of a restaurant that fits the party and is free for the given quarter hours, or a free one
+     * of its largest tables if none fits the party
+     * @return Table index, -1 if no suitable table is free
+     */
+    private int freeTable(SplittableRandom random, Map<Integer, BitSet> occupancy, int restaurant, int personCount,
+                          int start, int quarters) {
+        int first = restaurantFirstTable[restaurant];
+        int count = restaurantTableCount[restaurant];
+        int offset = random.nextInt(count);
+        int best = -1;
+        int largest = -1;
+        int maxCapacity = 0;
+        for (int i = 0; i < count; i++) {
+            int t = first + (offset + i) % count;
+            maxCapacity = Math.max(maxCapacity, tableCapacity[t]);
+            BitSet occupied = occupancy.get(t);
+            int next = occupied == null ? -1 : occupied.nextSetBit(start);
+            if (next >= 0 && next < start + quarters) {
+                continue;
+            }
+            if (tableCapacity[t] >= personCount && (best < 0 || tableCapacity[t] < tableCapacity[best])) {
+                best = t;
+            }
+            if (largest < 0 || tableCapacity[t] > tableCapacity[largest]) {
+                largest = t;
+            }
+        }
+        if (best >= 0) {
+            return best;
+        }
+        return personCount > maxCapacity && largest >= 0 && tableCapacity[largest] == maxCapacity ? largest : -1;
+    }
+
+    /**
+     * Quarter hours since the start of the reservation window
+     */
+    private int quarter(Instant time) {
+        return (int) ((time.getEpochSecond() - windowStart.getEpochSecond()) / (15 * 60));
+    }
+
+    /**
+     * An operating restaurant, the first ones much more often than the last ones
+     */
+    private int popularRestaurant(SplittableRandom random) {
+        double u = random.nextDouble();
+        return operating[(int) (operating.length * u * u)];
+    }
+
+    /**
+     * An operating restaurant of a partition, the partitions take turns in order of popularity
+     */
+    private int popularRestaurant(SplittableRandom random, int partition, int partitions) {
+        int count = (operating.length - partition + partitions - 1) / partitions;
+        double u = random.nextDouble();
+        return operating[partition + (int) (count * u * u) * partitions];
+    }
+
+    /**
+     * A customer index, the first ones much more often than the last ones
+     */
+    private int frequentCustomer(SplittableRandom random) {
+        double u = random.nextDouble();
+        return (int) (customers * u * u * u);
+    }
+
+    private List<String> dropIndexes(Connection connection) throws SQLException {
+        List<String> definitions = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        // Indexes that back a primary key or unique constraint stay, the others are rebuilt at the end
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT c.relname, pg_get_indexdef(x.indexrelid) FROM pg_index x " +
+                        "JOIN pg_class c ON c.oid = x.indexrelid JOIN pg_class t ON t.oid = x.indrelid " +
+                        "WHERE t.relnamespace = current_schema()::regnamespace AND t.relname = ANY (?) " +
+                        "AND NOT EXISTS (SELECT 1 FROM pg_constraint k WHERE k.conindid = x.indexrelid)")) {
+            statement.setArray(1, connection.createArrayOf("text", LOADED_TABLES));
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    names.add(rows.getString(1));
+                    definitions.add(rows.getString(2));
+                }
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String name : names) {
+                statement.execute("DROP INDEX IF EXISTS \"" + name + "\"");
+            }
+        }
+        return definitions;
+    }
+
+    private void rebuildIndexes(ExecutorService executor, DataSource dataSource, List<String> definitions) throws Exception {
+        long started = System.nanoTime();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (String definition : definitions) {
+            tasks.add(() -> {
+                try (Connection connection = open(dataSource); Statement statement = connection.createStatement()) {
+                    statement.execute("SET maintenance_work_mem = '512MB'");
+                    statement.execute(definition);
+                }
+                return null;
+            });
+        }
+        for (Future<Void> result : executor.invokeAll(tasks)) {
+            result.get();
+        }
+        System.out.printf("Rebuilt %d indexes in %.1f s%n", definitions.size(), (System.nanoTime() - started) / 1e9);
+    }
+
+    /**
+     * Move the sequences past the generated IDs and refresh derived data and planner statistics
+     */
+    private void finish(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : new String[]{"users", "restaurants", "tables", "reservations", "favorites"}) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " +
+                        "(SELECT COALESCE(MAX(id), 1) FROM " + table + "))");
+            }
+            statement.execute("INSERT INTO reservation_daily_stats (day, restaurant_id, status, reservation_count) " +
+                    "SELECT DATE(reservation_time), restaurant_id, status, COUNT(*) FROM reservations " +
+                    "GROUP BY DATE(reservation_time), restaurant_id, status " +
+                    "ON CONFLICT (day, restaurant_id, status) DO UPDATE SET reservation_count = EXCLUDED.reservation_count");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    private String copy(DataSource dataSource, String table, CopyTask task) throws SQLException {
+        long started = System.nanoTime();
+        try (Connection connection = open(dataSource)) {
+            long rows = task.copy(connection);
+            return String.format("%s: %,d rows in %.1f s", table, rows, (System.nanoTime() - started) / 1e9);
+        }
+    }
+
+    private Connection open(DataSource dataSource) throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            // Losing the last commits in a crash only means generating again
+            statement.execute("SET synchronous_commit = off");
+        }
+        return connection;
+    }
+
+    /**
+     * Index of a weighted choice
+     */
+    private static int pick(SplittableRandom random, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    /**
+     * A version 4 UUID from the seeded generator, UUID.randomUUID() would make runs differ
+     */
+    private static String uuid(SplittableRandom random) {
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(most, least).toString();
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static int[] range(int first, int count) {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = first + i;
+        }
+        return ids;
+    }
+
+    private interface CopyTask {
+        long copy(Connection connection) throws SQLException;
+    }
+}
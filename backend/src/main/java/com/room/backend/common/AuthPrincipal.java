@@ -0,0 +1,130 @@
+package com.room.backend.common;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Authenticated user of the current request
+ *
+ * Resolved from the JWT token once per request by AuthInterceptor. Controllers receive it as a handler method
+ * parameter, which is null for anonymous requests to endpoints without a role rule.
+ */
+public class AuthPrincipal {
+
+    /**
+     * Request attribute holding the principal
+     */
+    public static final String REQUEST_ATTRIBUTE = AuthPrincipal.class.getName();
+
+    // User roles
+    public static final int ROLE_ADMIN = 0;
+    public static final int ROLE_MANAGER = 1;
+    public static final int ROLE_USER = 2;
+    public static final int ROLE_STAFF = 3;
+
+    private final Integer userId;
+
+    private final Integer role;
+
+    private final String username;
+
+    private final Supplier<StaffScope> staffScopeLoader;
+
+    private StaffScope staffScope;
+
+    /**
+     * Constructor
+     * @param userId User ID
+     * @param role User role
+     * @param username Username (email)
+     * @param staffScopeLoader Loader of the staff scope, called at most once and only for staff
+     */
+    public AuthPrincipal(Integer userId, Integer role, String username, Supplier<StaffScope> staffScopeLoader) {
+        this.userId = userId;
+        this.role = role;
+        this.username = username;
+        this.staffScopeLoader = staffScopeLoader;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public Integer getRole() {
+        return role;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Check if the user has one of the given roles
+     */
+    public boolean hasRole(int... roles) {
+        if (role == null) {
+            return false;
+        }
+        for (int candidate : roles) {
+            if (role == candidate) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isAdmin() {
+        return hasRole(ROLE_ADMIN);
+    }
+
+    /**
+     * Get the restaurant scope of a staff member, loaded on first use
+     * @return Staff scope, null if the user is not staff
+     */
+    public StaffScope getStaffScope() {
+        if (!hasRole(ROLE_STAFF)) {
+            return null;
+        }
+        if (staffScope == null) {
+            staffScope = staffScopeLoader.get();
+        }
+        return staffScope;
+    }
+
+    /**
+     * Manager and restaurants a staff member works for
+     */
+    public static class StaffScope {
+
+        private final Integer managerId;
+
+        private final boolean approved;
+
+        private final Set<Integer> restaurantIds;
+
+        /**
+         * Constructor
+         * @param managerId ID of the manager applied to, null if the staff member has not applied
+         * @param approved Whether the application was approved
+         * @param restaurantIds IDs of the restaurants of the manager, empty unless approved
+         */
+        public StaffScope(Integer managerId, boolean approved, Set<Integer> restaurantIds) {
+            this.managerId = managerId;
+            this.approved = approved;
+            this.restaurantIds = restaurantIds == null ? Collections.emptySet() : Set.copyOf(restaurantIds);
+        }
+
+        public Integer getManagerId() {
+            return managerId;
+        }
+
+        public boolean isApproved() {
+            return approved;
+        }
+
+        public Set<Integer> getRestaurantIds() {
+            return restaurantIds;
+        }
+    }
+}
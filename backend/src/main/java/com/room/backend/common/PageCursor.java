@@ -0,0 +1,64 @@
+package com.room.backend.common;
+
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Keyset Pagination Cursor
+ *
+ * Position of the last row of a page in (createdAt, id) order, passed to clients as an opaque token.
+ */
+@Data
+public class PageCursor {
+
+    /**
+     * Creation time of the last row
+     */
+    private OffsetDateTime createdAt;
+
+    /**
+     * ID of the last row
+     */
+    private Integer id;
+
+    public PageCursor(OffsetDateTime createdAt, Integer id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    /**
+     * Encode this cursor as an opaque token
+     * @return Token
+     */
+    public String encode() {
+        Instant instant = createdAt.toInstant();
+        String raw = instant.getEpochSecond() + "." + instant.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token created by {@link #encode()}
+     * @param token Token
+     * @return Cursor
+     * @throws IllegalArgumentException If the token is invalid
+     */
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int idSeparator = raw.indexOf(':');
+            int nanoSeparator = raw.indexOf('.');
+            long seconds = Long.parseLong(raw.substring(0, nanoSeparator));
+            long nanos = Long.parseLong(raw.substring(nanoSeparator + 1, idSeparator));
+            Integer id = Integer.valueOf(raw.substring(idSeparator + 1));
+            OffsetDateTime createdAt = OffsetDateTime.ofInstant(Instant.ofEpochSecond(seconds, nanos), ZoneOffset.UTC);
+            return new PageCursor(createdAt, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+    }
+}
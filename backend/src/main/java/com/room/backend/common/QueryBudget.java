@@ -0,0 +1,25 @@
+package com.room.backend.common;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of statements a controller or handler method may run per request
+ *
+ * Checked by QueryBudgetInterceptor. A method annotation replaces the annotation of its controller. A request over
+ * its budget is logged, with query-monitor.strict the statement over the budget fails instead and the request gets
+ * an HTTP 500, so tests calling the endpoint fail.
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    /**
+     * Maximum number of statements
+     */
+    int value();
+}
@@ -0,0 +1,29 @@
+package com.room.backend.common;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Require a logged in user for a controller or handler method, optionally with one of the given roles
+ *
+ * Enforced by AuthInterceptor. A method annotation replaces the annotation of its controller. Requests without a
+ * valid token get an unauthorized result, users without a listed role get a forbidden result with the message.
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequireRole {
+
+    /**
+     * Allowed roles, see the AuthPrincipal role constants, empty to allow every logged in user
+     */
+    int[] value() default {};
+
+    /**
+     * Message of the forbidden result
+     */
+    String message() default "No permission to access this interface";
+}
@@ -8,6 +8,8 @@ import com.baomidou.mybatisplus.extension.incrementer.PostgreKeyGenerator;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
 import com.baomidou.mybatisplus.extension.spring.MybatisSqlSessionFactoryBean;
+import com.room.backend.interceptor.MapperMetricsInterceptor;
+import com.room.backend.interceptor.QueryCountInterceptor;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 import org.mybatis.spring.annotation.MapperScan;
@@ -48,12 +50,19 @@ public class MybatisPlusConfig {
     }
 
     /**
-     * Custom SqlSessionFactory configuration, add PostgreSQL enum type handling
+     * Custom SqlSessionFactory configuration, add PostgreSQL enum type handling, pagination, statement metrics and
+     * counting
      */
     @Bean
-    public SqlSessionFactory sqlSessionFactory(DataSource dataSource) throws Exception {
+    public SqlSessionFactory sqlSessionFactory(DataSource dataSource,
+                                               MybatisPlusInterceptor mybatisPlusInterceptor,
+                                               MapperMetricsInterceptor mapperMetricsInterceptor,
+                                               QueryCountInterceptor queryCountInterceptor) throws Exception {
         MybatisSqlSessionFactoryBean factoryBean = new MybatisSqlSessionFactoryBean();
         factoryBean.setDataSource(dataSource);
+        // The last plugin runs first: pagination rewrites a query and runs its count query through the others, so
+        // they measure and count the statements that actually run
+        factoryBean.setPlugins(mapperMetricsInterceptor, queryCountInterceptor, mybatisPlusInterceptor);
         factoryBean.setMapperLocations(
                 new PathMatchingResourcePatternResolver().getResources("classpath*:/mapper/**/*.xml"));
 
@@ -1,26 +1,46 @@
 package com.room.backend.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.room.backend.interceptor.AuthInterceptor;
+import com.room.backend.interceptor.AuthPrincipalArgumentResolver;
+import com.room.backend.interceptor.QueryBudgetInterceptor;
+import jakarta.annotation.Resource;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 /**
- * Web Configuration Class, handles static resource access
+ * Web Configuration Class, handles authentication, uploaded files are served by MediaController
  */
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
-    @Value("${file.upload.path}")
-    private String uploadPath;
+    @Resource
+    private QueryBudgetInterceptor queryBudgetInterceptor;
+
+    @Resource
+    private AuthInterceptor authInterceptor;
+
+    @Resource
+    private AuthPrincipalArgumentResolver authPrincipalArgumentResolver;
+
+    /**
+     * Count statements of every request, including those of authentication, then resolve the principal and
+     * enforce role rules
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryBudgetInterceptor);
+        registry.addInterceptor(authInterceptor);
+    }
 
     /**
-     * Configure static resource access
+     * Pass the principal to handler methods
      */
     @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // Configure static resource mapping
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadPath + "/");
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(authPrincipalArgumentResolver);
     }
-} 
\ No newline at end of file
+}
@@ -1,13 +1,12 @@
 package com.room.backend.controller;
 
+import com.room.backend.common.AuthPrincipal;
+import com.room.backend.common.RequireRole;
 import com.room.backend.common.Result;
 import com.room.backend.service.FavoriteService;
-import com.room.backend.util.JwtTokenUtil;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -16,40 +15,27 @@ import java.util.Map;
 @RestController
 @RequestMapping("/favorites")
 @CrossOrigin
+@RequireRole
 public class FavoriteController {
 
     @Autowired
     private FavoriteService favoriteService;
-    
-    @Autowired
-    private JwtTokenUtil jwtTokenUtil;
 
     /**
      * Add restaurant to favorites
      * @param params Request body containing restaurant ID
-     * @param request HTTP request containing user ID
+     * @param principal Current user
      * @return Favorite result
      */
     @PostMapping
-    public Result<?> addFavorite(@RequestBody Map<String, Integer> params, HttpServletRequest request) {
+    public Result<?> addFavorite(@RequestBody Map<String, Integer> params, AuthPrincipal principal) {
         Integer restaurantId = params.get("restaurantId");
         if (restaurantId == null) {
             return Result.validateFailed("Restaurant ID cannot be empty");
         }
-        
-        // Get user ID from token
-        String token = request.getHeader("Authorization");
-        if (token == null || token.isEmpty()) {
-            return Result.unauthorized();
-        }
-        
+
         try {
-            Integer userId = jwtTokenUtil.getUserIdFromToken(token);
-            if (userId == null) {
-                return Result.unauthorized();
-            }
-            
-            return favoriteService.addFavorite(restaurantId, userId);
+            return favoriteService.addFavorite(restaurantId, principal.getUserId());
         } catch (Exception e) {
             return Result.error(500, "Failed to add to favorites: " + e.getMessage());
         }
@@ -58,28 +44,17 @@ public class FavoriteController {
     /**
      * Remove restaurant from favorites
      * @param restaurantId Restaurant ID
-     * @param request HTTP request containing user ID
+     * @param principal Current user
      * @return Remove favorite result
      */
     @DeleteMapping("/{restaurantId}")
-    public Result<?> removeFavorite(@PathVariable Integer restaurantId, HttpServletRequest request) {
+    public Result<?> removeFavorite(@PathVariable Integer restaurantId, AuthPrincipal principal) {
         if (restaurantId == null) {
             return Result.validateFailed("Restaurant ID cannot be empty");
         }
-        
-        // Get user ID from token
-        String token = request.getHeader("Authorization");
-        if (token == null || token.isEmpty()) {
-            return Result.unauthorized();
-        }
-        
+
         try {
-            Integer userId = jwtTokenUtil.getUserIdFromToken(token);
-            if (userId == null) {
-                return Result.unauthorized();
-            }
-            
-            return favoriteService.removeFavorite(restaurantId, userId);
+            return favoriteService.removeFavorite(restaurantId, principal.getUserId());
         } catch (Exception e) {
             return Result.error(500, "Failed to remove from favorites: " + e.getMessage());
         }
@@ -89,28 +64,16 @@ public class FavoriteController {
      * Get favorite list
      * @param page Current page number
      * @param pageSize Items per page
-     * @param request HTTP request containing user ID
+     * @param principal Current user
      * @return Favorite list
      */
     @GetMapping
     public Result<?> getFavorites(
             @RequestParam(required = false, defaultValue = "1") Integer page,
             @RequestParam(required = false, defaultValue = "10") Integer pageSize,
-            HttpServletRequest request) {
-            
-        // Get user ID from token
-        String token = request.getHeader("Authorization");
-        if (token == null || token.isEmpty()) {
-            return Result.unauthorized();
-        }
-        
+            AuthPrincipal principal) {
         try {
-            Integer userId = jwtTokenUtil.getUserIdFromToken(token);
-            if (userId == null) {
-                return Result.unauthorized();
-            }
-            
-            return favoriteService.getFavoriteList(page, pageSize, userId);
+            return favoriteService.getFavoriteList(page, pageSize, principal.getUserId());
         } catch (Exception e) {
             return Result.error(500, "Failed to get favorite list: " + e.getMessage());
         }
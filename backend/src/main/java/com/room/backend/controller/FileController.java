@@ -1,12 +1,20 @@
 package com.room.backend.controller;
 
+import com.room.backend.common.AuthPrincipal;
+import com.room.backend.common.RequireRole;
 import com.room.backend.common.Result;
+import com.room.backend.dto.UploadSessionDTO;
+import com.room.backend.service.BlobStorageService;
+import com.room.backend.service.ChunkedUploadService;
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
+import java.io.InputStream;
 import java.util.UUID;
 
 /**
@@ -22,6 +30,12 @@ public class FileController {
 
     @Value("${file.access.url:http://localhost:8080/uploads}")
     private String accessUrl;
+
+    @Resource
+    private BlobStorageService blobStorageService;
+
+    @Resource
+    private ChunkedUploadService chunkedUploadService;
     
     private final String absoluteUploadPath;
     
@@ -61,13 +75,36 @@ public class FileController {
     }
 
     /**
-     * Image upload
+     * Image upload, identical images are stored once and share a URL
      * @param file Image file
      * @return Image URL
      */
     @PostMapping("/images")
     public Result<String> uploadImage(@RequestParam("file") MultipartFile file) {
-        return uploadFile(file, "images");
+        try {
+            if (file.isEmpty()) {
+                return Result.error(500, "Upload file is empty");
+            }
+
+            String originalFilename = file.getOriginalFilename();
+            if (originalFilename == null || originalFilename.lastIndexOf(".") < 0) {
+                return Result.error(500, "File name is empty");
+            }
+
+            String path;
+            try (InputStream content = file.getInputStream()) {
+                path = blobStorageService.storeImage(content, originalFilename.substring(originalFilename.lastIndexOf(".")));
+            }
+
+            String url = accessUrl + "/" + path;
+            log.info("File uploaded successfully: {}", url);
+            return Result.success(url);
+        } catch (IllegalArgumentException e) {
+            return Result.validateFailed(e.getMessage());
+        } catch (Exception e) {
+            log.error("File upload failed", e);
+            return Result.error(500, "File upload failed: " + e.getMessage());
+        }
     }
 
     /**
@@ -80,10 +117,108 @@ public class FileController {
         return uploadFile(file, "videos");
     }
 
+    /**
+     * Start a chunked video upload, for videos too large for a single request
+     * @param principal Uploading user
+     * @param fileName Original file name
+     * @param size File size in bytes
+     * @return Upload session with the chunk size to use
+     */
+    @PostMapping("/videos/uploads")
+    @RequireRole
+    public Result<UploadSessionDTO> createVideoUpload(AuthPrincipal principal, @RequestParam String fileName,
+                                                      @RequestParam long size) {
+        try {
+            return Result.success(chunkedUploadService.create(principal.getUserId(), fileName, size));
+        } catch (IllegalArgumentException e) {
+            return Result.validateFailed(e.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to start chunked upload", e);
+            return Result.error(500, "Failed to start upload: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get a chunked upload, to find the chunks still missing when resuming
+     * @param principal Uploading user
+     * @param uploadId Upload session ID
+     * @return Upload session
+     */
+    @GetMapping("/videos/uploads/{uploadId}")
+    @RequireRole
+    public Result<UploadSessionDTO> getVideoUpload(AuthPrincipal principal, @PathVariable String uploadId) {
+        UploadSessionDTO session = chunkedUploadService.getSession(principal.getUserId(), uploadId);
+        return session == null ? Result.notFound() : Result.success(session);
+    }
+
+    /**
+     * Upload one chunk, the request body is the raw chunk content
+     * @param principal Uploading user
+     * @param uploadId Upload session ID
+     * @param index Chunk index, starting at 0
+     * @param sha256 Hex SHA-256 of the chunk content
+     * @param request Request carrying the chunk
+     * @return Upload session with the chunks still missing
+     */
+    @PutMapping("/videos/uploads/{uploadId}/chunks/{index}")
+    @RequireRole
+    public Result<UploadSessionDTO> uploadVideoChunk(AuthPrincipal principal, @PathVariable String uploadId,
+                                                     @PathVariable int index,
+                                                     @RequestHeader("X-Chunk-SHA256") String sha256,
+                                                     HttpServletRequest request) {
+        try {
+            UploadSessionDTO session = chunkedUploadService.writeChunk(principal.getUserId(), uploadId, index,
+                    request.getInputStream(), sha256);
+            return session == null ? Result.notFound() : Result.success(session);
+        } catch (IllegalArgumentException e) {
+            return Result.validateFailed(e.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to upload chunk {} of {}", index, uploadId, e);
+            return Result.error(500, "Chunk upload failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Finish a chunked upload
+     * @param principal Uploading user
+     * @param uploadId Upload session ID
+     * @return Video URL
+     */
+    @PostMapping("/videos/uploads/{uploadId}/complete")
+    @RequireRole
+    public Result<String> completeVideoUpload(AuthPrincipal principal, @PathVariable String uploadId) {
+        try {
+            String path = chunkedUploadService.complete(principal.getUserId(), uploadId);
+            if (path == null) {
+                return Result.notFound();
+            }
+            String url = accessUrl + "/" + path;
+            log.info("File uploaded successfully: {}", url);
+            return Result.success(url);
+        } catch (IllegalArgumentException e) {
+            return Result.validateFailed(e.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to complete chunked upload {}", uploadId, e);
+            return Result.error(500, "File upload failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Abort a chunked upload
+     * @param principal Uploading user
+     * @param uploadId Upload session ID
+     * @return Operation result
+     */
+    @DeleteMapping("/videos/uploads/{uploadId}")
+    @RequireRole
+    public Result<Void> cancelVideoUpload(AuthPrincipal principal, @PathVariable String uploadId) {
+        return chunkedUploadService.cancel(principal.getUserId(), uploadId) ? Result.success(null) : Result.notFound();
+    }
+
     /**
      * Common file upload method
      * @param file File to upload
-     * @param fileType File type (images or videos)
+     * @param fileType File type (videos)
      * @return File URL
      */
     private Result<String> uploadFile(MultipartFile file, String fileType) {
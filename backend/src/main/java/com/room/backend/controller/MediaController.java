@@ -0,0 +1,232 @@
+package com.room.backend.controller;
+
+import com.room.backend.dto.MediaFileDTO;
+import com.room.backend.service.MediaService;
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Uploaded File Serving Controller
+ *
+ * Serves /uploads with content-hash entity tags, conditional requests, single byte ranges for video seeking and
+ * long-lived caching of immutable uploads. Large bodies are handed to the container's sendfile support, so Tomcat
+ * copies them from the page cache to the socket without passing them through the servlet output stream.
+ * Images may be requested as a generated variant, e.g. /uploads/images/x.png?variant=thumb.
+ */
+@RestController
+@RequestMapping("/uploads")
+@Slf4j
+public class MediaController {
+
+    private static final String PATH_PREFIX = "/uploads/";
+
+    private static final String CACHE_IMMUTABLE = "public, max-age=31536000, immutable";
+
+    private static final String CACHE_REVALIDATE = "no-cache";
+
+    // Tomcat sendfile request attributes, see org.apache.coyote.Constants
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Smaller bodies are cheaper to write directly than to hand over to the poller
+     */
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    @Resource
+    private MediaService mediaService;
+
+    /**
+     * Download an uploaded file
+     * @param variant Image variant (thumb, card or full), optional
+     */
+    @GetMapping("/**")
+    public void serve(@RequestParam(required = false) String variant,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String uri = request.getRequestURI().substring(request.getContextPath().length());
+        MediaFileDTO media = null;
+        if (uri.startsWith(PATH_PREFIX)) {
+            media = mediaService.resolve(UriUtils.decode(uri.substring(PATH_PREFIX.length()), StandardCharsets.UTF_8), variant);
+        }
+        if (media == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        write(media, request, response);
+    }
+
+    /**
+     * Write a file with the caching and range semantics of a static resource
+     */
+    public void write(MediaFileDTO media, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, media.getEtag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, media.getLastModified());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, media.isImmutable() ? CACHE_IMMUTABLE : CACHE_REVALIDATE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (isNotModified(media, request)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long length = media.getLength();
+        long start = 0;
+        long end = length;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && isRangeApplicable(media, request)) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == UNSATISFIABLE) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                end = bounds[1] + 1;
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + bounds[1] + "/" + length);
+            }
+        }
+
+        response.setContentType(media.getContentType());
+        response.setContentLengthLong(end - start);
+        if ("HEAD".equals(request.getMethod()) || end == start) {
+            return;
+        }
+        transfer(media.getFile(), start, end, request, response);
+    }
+
+    /**
+     * Send bytes [start, end) of a file
+     */
+    private void transfer(File file, long start, long end, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        if (end - start >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat sends the file after this method returns
+            request.setAttribute(SENDFILE_FILENAME, file.getCanonicalPath());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            WritableByteChannel output = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, output);
+                if (transferred <= 0) {
+                    // The file was truncated, the client sees a short body
+                    log.warn("{} ended at {} of {} bytes", file.getName(), position, end);
+                    break;
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    /**
+     * Evaluate If-None-Match, or If-Modified-Since when no entity tags are given
+     */
+    private boolean isNotModified(MediaFileDTO media, HttpServletRequest request) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(media.getEtag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = getDateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        // HTTP dates have second precision
+        return ifModifiedSince >= 0 && media.getLastModified() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * Evaluate If-Range, a range only applies to the representation the client already has part of
+     */
+    private boolean isRangeApplicable(MediaFileDTO media, HttpServletRequest request) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // Weak tags never match for ranges
+            return ifRange.equals(media.getEtag());
+        }
+        long date = getDateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && media.getLastModified() / 1000 <= date / 1000;
+    }
+
+    /**
+     * Parse a single byte range
+     * @return Inclusive first and last byte, null to send the whole file (malformed or multiple ranges),
+     *         UNSATISFIABLE if the range lies outside the file
+     */
+    private long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range, the last n bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new long[]{Math.max(0, length - suffix), length - 1};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start >= length) {
+                return UNSATISFIABLE;
+            }
+            if (start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private long getDateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package com.room.backend.controller;
 
+import com.room.backend.common.AuthPrincipal;
+import com.room.backend.common.RequireRole;
 import com.room.backend.common.Result;
 import com.room.backend.dto.CancelReservationDTO;
 import com.room.backend.dto.ReservationDTO;
 import com.room.backend.service.ReservationService;
-import com.room.backend.util.JwtTokenUtil;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,32 +20,18 @@ public class ReservationController {
     @Autowired
     private ReservationService reservationService;
     
-    @Autowired
-    private JwtTokenUtil jwtTokenUtil;
-    
     /**
      * Create reservation
      * @param reservationDTO Reservation information
-     * @param request HTTP request containing user JWT token
+     * @param principal Current user
      * @return Reservation result
      */
     @PostMapping
-    public Result<?> createReservation(@RequestBody ReservationDTO reservationDTO, HttpServletRequest request) {
-        // Get token from request header
-        String token = request.getHeader("Authorization");
-        if (token == null || token.isEmpty()) {
-            return Result.unauthorized();
-        }
-        
+    @RequireRole
+    public Result<?> createReservation(@RequestBody ReservationDTO reservationDTO, AuthPrincipal principal) {
         try {
-            // Parse user ID from token
-            Integer userId = jwtTokenUtil.getUserIdFromToken(token);
-            if (userId == null) {
-                return Result.unauthorized();
-            }
-            
             // Create reservation
-            return reservationService.createReservation(reservationDTO, userId);
+            return reservationService.createReservation(reservationDTO, principal.getUserId());
         } catch (Exception e) {
             return Result.error(500, "Failed to create reservation: " + e.getMessage());
         }
@@ -56,31 +42,19 @@ public class ReservationController {
      * @param page Current page number
      * @param pageSize Items per page
      * @param status Reservation status, comma-separated numbers for multiple statuses
-     * @param request HTTP request containing user JWT token
+     * @param principal Current user
      * @return Reservation list
      */
     @GetMapping
+    @RequireRole
     public Result<?> getUserReservations(
             @RequestParam(value = "page", defaultValue = "1") Integer page,
             @RequestParam(value = "pageSize", defaultValue = "10") Integer pageSize,
             @RequestParam(value = "status", required = false) String status,
-            HttpServletRequest request) {
-        
-        // Get token from request header
-        String token = request.getHeader("Authorization");
-        if (token == null || token.isEmpty()) {
-            return Result.unauthorized();
-        }
-        
+            AuthPrincipal principal) {
         try {
-            // Parse user ID from token
-            Integer userId = jwtTokenUtil.getUserIdFromToken(token);
-            if (userId == null) {
-                return Result.unauthorized();
-            }
-            
             // Get user's reservation list
-            return reservationService.getUserReservations(page, pageSize, status, userId);
+            return reservationService.getUserReservations(page, pageSize, status, principal.getUserId());
         } catch (Exception e) {
             return Result.error(500, "Failed to get reservation list: " + e.getMessage());
         }
@@ -90,30 +64,18 @@ public class ReservationController {
      * Cancel reservation
      * @param reservationId Reservation ID
      * @param cancelReservationDTO Cancellation reason
-     * @param request HTTP request containing user JWT token
+     * @param principal Current user
      * @return Cancellation result
      */
     @PutMapping("/{reservationId}/cancel")
+    @RequireRole
     public Result<?> cancelReservation(
             @PathVariable Integer reservationId,
             @RequestBody CancelReservationDTO cancelReservationDTO,
-            HttpServletRequest request) {
-        
-        // Get token from request header
-        String token = request.getHeader("Authorization");
-        if (token == null || token.isEmpty()) {
-            return Result.unauthorized();
-        }
-        
+            AuthPrincipal principal) {
         try {
-            // Parse user ID from token
-            Integer userId = jwtTokenUtil.getUserIdFromToken(token);
-            if (userId == null) {
-                return Result.unauthorized();
-            }
-            
             // Cancel reservation
-            return reservationService.cancelReservation(reservationId, cancelReservationDTO.getCancelReason(), userId);
+            return reservationService.cancelReservation(reservationId, cancelReservationDTO.getCancelReason(), principal.getUserId());
         } catch (Exception e) {
             return Result.error(500, "Failed to cancel reservation: " + e.getMessage());
         }
@@ -132,4 +94,21 @@ public class ReservationController {
         
         return reservationService.getTableFutureReservations(tableId);
     }
+
+    /**
+     * Get free time periods of a table on a day
+     * @param tableId Table ID
+     * @param date Date, format yyyy-MM-dd (UTC), defaults to today
+     * @return Free period list
+     */
+    @GetMapping("/table/{tableId}/free-slots")
+    public Result<?> getTableFreeSlots(
+            @PathVariable Integer tableId,
+            @RequestParam(value = "date", required = false) String date) {
+        if (tableId == null) {
+            return Result.validateFailed("Table ID cannot be empty");
+        }
+
+        return reservationService.getTableFreeSlots(tableId, date);
+    }
 } 
\ No newline at end of file
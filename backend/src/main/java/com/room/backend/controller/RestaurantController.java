@@ -1,13 +1,13 @@
 package com.room.backend.controller;
 
+import com.room.backend.common.AuthPrincipal;
+import com.room.backend.common.QueryBudget;
 import com.room.backend.common.Result;
 import com.room.backend.entity.User;
 import com.room.backend.service.RestaurantService;
 import com.room.backend.service.UserService;
-import com.room.backend.util.JwtTokenUtil;
-import io.jsonwebtoken.Claims;
+import com.room.backend.vo.RestaurantVO;
 import jakarta.servlet.http.Cookie;
-import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.log4j.Log4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -33,12 +34,9 @@ public class RestaurantController {
     @Autowired
     private UserService userService;
 
-    @Autowired
-    private JwtTokenUtil jwtTokenUtil;
-
     /**
      * Get restaurant list
-     * @param request HTTP request containing user ID
+     * @param principal Current user, null for anonymous users
      * @param page Current page number
      * @param pageSize Number of items per page
      * @param status Restaurant status
@@ -46,30 +44,17 @@ public class RestaurantController {
      * @return Restaurant list
      */
     @GetMapping
+    @QueryBudget(5)
     public Result<Map<String, Object>> getRestaurantList(
-            HttpServletRequest request,
+            AuthPrincipal principal,
             @RequestParam(required = false) Integer page,
             @RequestParam(required = false) Integer pageSize,
             @RequestParam(required = false) Integer status,
             @RequestParam(required = false) String keyword) {
 
-        // Get token from request header
-        String token = request.getHeader("Authorization");
-        Integer userId = null;
-
-        // If token exists, try to parse user ID
-        if (token != null && !token.isEmpty()) {
-            try {
-                // Use JwtTokenUtil to parse token and get userId
-                userId = jwtTokenUtil.getUserIdFromToken(token);
-            } catch (Exception e) {
-                System.out.println("Failed to parse token: " + e);
-            }
-        }
-
         // If user is logged in, return restaurant list with favorite status
-        if (userId != null) {
-            return restaurantService.getRestaurantListWithFavorite(page, pageSize, status, keyword, userId);
+        if (principal != null) {
+            return restaurantService.getRestaurantListWithFavorite(page, pageSize, status, keyword, principal.getUserId());
         } else {
             // Return regular restaurant list for non-logged in users
             return restaurantService.getRestaurantList(page, pageSize, status, keyword);
@@ -79,34 +64,68 @@ public class RestaurantController {
     /**
      * Get restaurant details
      * @param id Restaurant ID
-     * @param request HTTP request containing JWT token
+     * @param principal Current user, null for anonymous users
      * @return Restaurant details
      */
     @GetMapping("/{id}")
-    public Result<?> getRestaurantDetail(@PathVariable Integer id, HttpServletRequest request) {
+    public Result<?> getRestaurantDetail(@PathVariable Integer id, AuthPrincipal principal) {
         if (id == null) {
             return Result.validateFailed("Restaurant ID cannot be empty");
         }
 
-        // Get JWT token from request header
-        String token = request.getHeader("Authorization");
-
-        // If token exists, try to get user information from token
-        if (token != null && !token.isEmpty()) {
-            try {
-                // Directly use getUserIdFromToken method to get userId from token
-                Integer userId = jwtTokenUtil.getUserIdFromToken(token);
-
-                // If userId exists, return restaurant details with favorite status
-                if (userId != null) {
-                    return restaurantService.getRestaurantDetailWithFavorite(id, userId);
-                }
-            } catch (Exception e) {
-                // Token parsing failed, ignore exception and return restaurant details without favorite status
-            }
+        // If user is logged in, return restaurant details with favorite status
+        if (principal != null) {
+            return restaurantService.getRestaurantDetailWithFavorite(id, principal.getUserId());
         }
 
         // Return restaurant details without favorite status for non-logged in users or invalid tokens
         return restaurantService.getRestaurantDetail(id);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Get operating restaurants near a location, nearest first
+     * @param latitude Latitude of the search location
+     * @param longitude Longitude of the search location
+     * @param radius Search radius (km), default 5
+     * @param limit Maximum number of restaurants, default 20
+     * @param principal Current user, null for anonymous users
+     * @return Restaurant list with distances
+     */
+    @GetMapping("/nearby")
+    public Result<List<RestaurantVO>> getNearbyRestaurants(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(required = false) Double radius,
+            @RequestParam(required = false) Integer limit,
+            AuthPrincipal principal) {
+        return restaurantService.getNearbyRestaurants(latitude, longitude, radius, limit, getUserId(principal));
+    }
+
+    /**
+     * Get the nearest operating restaurants to a location
+     * @param latitude Latitude of the search location
+     * @param longitude Longitude of the search location
+     * @param k Number of restaurants, default 20
+     * @param maxDistance Maximum distance (km), optional
+     * @param principal Current user, null for anonymous users
+     * @return Restaurant list with distances
+     */
+    @GetMapping("/nearest")
+    public Result<List<RestaurantVO>> getNearestRestaurants(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(required = false) Integer k,
+            @RequestParam(required = false) Double maxDistance,
+            AuthPrincipal principal) {
+        return restaurantService.getNearestRestaurants(latitude, longitude, k, maxDistance, getUserId(principal));
+    }
+
+    /**
+     * Get the user ID of a logged in user, null for anonymous users
+     * @param principal Current user
+     * @return User ID
+     */
+    private Integer getUserId(AuthPrincipal principal) {
+        return principal == null ? null : principal.getUserId();
+    }
+}
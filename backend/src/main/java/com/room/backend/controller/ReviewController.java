@@ -1,10 +1,10 @@
 package com.room.backend.controller;
 
+import com.room.backend.common.AuthPrincipal;
+import com.room.backend.common.RequireRole;
 import com.room.backend.common.Result;
 import com.room.backend.entity.Review;
 import com.room.backend.service.ReviewService;
-import com.room.backend.util.JwtTokenUtil;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,9 +20,6 @@ public class ReviewController {
     @Autowired
     private ReviewService reviewService;
 
-    @Autowired
-    private JwtTokenUtil jwtTokenUtil;
-
     /**
      * Get restaurant review list
      * @param restaurantId Restaurant ID
@@ -43,26 +40,15 @@ public class ReviewController {
     /**
      * Add review
      * @param review Review information including restaurantId, content, photos, videos, rating and reservationId
-     * @param request HTTP request
+     * @param principal Current user
      * @return Add result
      */
     @PostMapping("/reviews")
-    public Result<Review> addReview(@RequestBody Review review, HttpServletRequest request) {
+    @RequireRole
+    public Result<Review> addReview(@RequestBody Review review, AuthPrincipal principal) {
         try {
-            // Get token from request header
-            String token = request.getHeader("Authorization");
-            if (token == null || token.isEmpty()) {
-                return Result.unauthorized();
-            }
-
-            // Parse token to get user ID
-            Integer userId = jwtTokenUtil.getUserIdFromToken(token);
-            if (userId == null) {
-                return Result.unauthorized();
-            }
-
             // Set user ID
-            review.setUserId(userId);
+            review.setUserId(principal.getUserId());
             
             // 注意：reservationId字段会从请求体中自动映射到Review对象中
             // 无需额外处理，服务层会根据此ID更新预约表的reviewId
@@ -76,25 +62,14 @@ public class ReviewController {
     /**
      * Delete review
      * @param reviewId Review ID
-     * @param request HTTP request
+     * @param principal Current user
      * @return Delete result
      */
     @DeleteMapping("/reviews/{reviewId}")
-    public Result<Boolean> deleteReview(@PathVariable Integer reviewId, HttpServletRequest request) {
+    @RequireRole
+    public Result<Boolean> deleteReview(@PathVariable Integer reviewId, AuthPrincipal principal) {
         try {
-            // Get token from request header
-            String token = request.getHeader("Authorization");
-            if (token == null || token.isEmpty()) {
-                return Result.unauthorized();
-            }
-
-            // Parse token to get user ID
-            Integer userId = jwtTokenUtil.getUserIdFromToken(token);
-            if (userId == null) {
-                return Result.unauthorized();
-            }
-
-            return reviewService.deleteReview(reviewId, userId);
+            return reviewService.deleteReview(reviewId, principal.getUserId());
         } catch (Exception e) {
             return Result.error(500, "Failed to delete review: " + e.getMessage());
         }
@@ -1,10 +1,10 @@
 package com.room.backend.controller;
 
+import com.room.backend.common.AuthPrincipal;
+import com.room.backend.common.RequireRole;
 import com.room.backend.common.Result;
 import com.room.backend.dto.StaffApplyDTO;
 import com.room.backend.service.StaffService;
-import com.room.backend.util.JwtTokenUtil;
-import io.jsonwebtoken.Claims;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
@@ -21,9 +21,6 @@ public class StaffApplyController {
 
     @Resource
     private StaffService staffService;
-    
-    @Resource
-    private JwtTokenUtil jwtTokenUtil;
 
     /**
      * Get restaurant manager list
@@ -50,23 +47,19 @@ public class StaffApplyController {
     /**
      * Submit staff application
      * 
-     * @param token JWT token
+     * @param principal Current user
      * @param managerId Manager ID
      * @return Application result
      */
     @PostMapping
+    @RequireRole
     public Result<?> applyForStaff(
-            @RequestHeader("Authorization") String token,
+            AuthPrincipal principal,
             @RequestParam Integer managerId) {
         try {
-            // Verify token and get user information
-            Claims claims = jwtTokenUtil.getAllClaimsFromToken(token.replace("Bearer ", ""));
-            Integer userId = claims.get("userId", Integer.class);
-            Integer role = claims.get("role", Integer.class);
-            
             // Create application DTO
             StaffApplyDTO staffApplyDTO = new StaffApplyDTO();
-            staffApplyDTO.setUserId(userId);
+            staffApplyDTO.setUserId(principal.getUserId());
             staffApplyDTO.setManagerId(managerId);
             
             // Submit application
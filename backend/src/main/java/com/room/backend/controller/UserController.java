@@ -1,11 +1,11 @@
 package com.room.backend.controller;
 
+import com.room.backend.common.AuthPrincipal;
+import com.room.backend.common.RequireRole;
 import com.room.backend.common.Result;
 import com.room.backend.dto.UpdateUserDTO;
 import com.room.backend.service.UserService;
-import com.room.backend.util.JwtTokenUtil;
 import com.room.backend.vo.UserVO;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,8 +22,6 @@ public class UserController {
 
     @Autowired
     private UserService userService;
-    @Autowired
-    private JwtTokenUtil jwtTokenUtil;
 
     /**
      * User login
@@ -33,7 +31,7 @@ public class UserController {
      */
     @PostMapping("/login")
     public Result<UserVO> login(@RequestBody UserVO userVO) {
-        return userService.login(userVO.getEmail(), userVO.getPassword());
+        return userService.login(userVO.getEmail(), userVO.getPassword(), userVO.getCaptchaId(), userVO.getCaptcha());
     }
 
     /**
@@ -60,18 +58,14 @@ public class UserController {
     /**
      * Get user information
      *
-     * @param request HTTP request
+     * @param principal Current user
      * @return User information
      */
     @GetMapping("/info")
-    public Result<UserVO> getUserInfo(HttpServletRequest request) {
-        // Get user ID from request
-        String token = request.getHeader("Authorization");
-        if (token == null || token.isEmpty())
-            return Result.unauthorized();
+    @RequireRole
+    public Result<UserVO> getUserInfo(AuthPrincipal principal) {
         try {
-            Integer userId = jwtTokenUtil.getUserIdFromToken(token);
-            return userService.getUserInfo(userId);
+            return userService.getUserInfo(principal.getUserId());
         } catch (Exception e) {
             return Result.error(500, "Failed to get user information: " + e.getMessage());
         }
@@ -81,36 +75,24 @@ public class UserController {
      * Update user information
      *
      * @param updateUserDTO Update information
-     * @param request HTTP request
+     * @param principal Current user
      * @return Update result
      */
     @PutMapping("/update")
-    public Result<UserVO> updateUserInfo(@RequestBody UpdateUserDTO updateUserDTO, HttpServletRequest request) {
-        // Get user ID from request
-        String token = request.getHeader("Authorization");
-        if (token == null || token.isEmpty()) {
-            return Result.unauthorized();
-        }
-
+    @RequireRole
+    public Result<UserVO> updateUserInfo(@RequestBody UpdateUserDTO updateUserDTO, AuthPrincipal principal) {
         try {
-            Integer userId = jwtTokenUtil.getUserIdFromToken(token);
-            return userService.updateUserInfo(userId, updateUserDTO);
+            return userService.updateUserInfo(principal.getUserId(), updateUserDTO);
         } catch (Exception e) {
             return Result.error(500, "Failed to update user information: " + e.getMessage());
         }
     }
 
     @PutMapping("/change-password")
-    public Result<?> changePassword(@RequestBody Map<String, String> map, HttpServletRequest request) {
-        // Get user ID from request
-        String token = request.getHeader("Authorization");
-        if (token == null || token.isEmpty()) {
-            return Result.unauthorized();
-        }
-
+    @RequireRole
+    public Result<?> changePassword(@RequestBody Map<String, String> map, AuthPrincipal principal) {
         try {
-            Integer userId = jwtTokenUtil.getUserIdFromToken(token);
-            userService.repassword(map.get("newPassword"), map.get("oldPassword"),userId);
+            userService.repassword(map.get("newPassword"), map.get("oldPassword"), principal.getUserId());
         } catch (Exception e) {
             return Result.error(500, "Failed to update user information: " + e.getMessage());
         }
@@ -1,15 +1,17 @@
 package com.room.backend.controller.admin;
 
 
+import com.room.backend.common.AuthPrincipal;
+import com.room.backend.common.RequireRole;
 import com.room.backend.common.Result;
 import com.room.backend.service.FavoriteService;
 import com.room.backend.service.ReservationService;
-import com.room.backend.util.JwtTokenUtil;
-import io.jsonwebtoken.Claims;
-import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -20,14 +22,12 @@ import java.util.Map;
 @RestController
 @RequestMapping("/admin")
 @CrossOrigin
+@RequireRole
 public class AdminReservationController {
     private final Logger logger = LoggerFactory.getLogger(AdminReservationController.class);
 
     @Autowired
     private ReservationService reservationService;
-    
-    @Autowired
-    private JwtTokenUtil jwtTokenUtil;
 
     /**
      * Get all reservations (Administrator only)
@@ -35,34 +35,32 @@ public class AdminReservationController {
      * @param pageSize Items per page, default 10
      * @param status Reservation status, multiple statuses separated by commas (0: Cancelled, 1: Pending, 2: Confirmed, 3: Completed, 4: Rejected)
      * @param restaurantId Restaurant ID, if provided, only query reservations for this restaurant
-     * @param request Request object for getting token
+     * @param keyset Use cursor pagination instead of page numbers, implied when cursor is provided
+     * @param cursor Next page token returned with the previous page in cursor pagination
+     * @param includeTotal Whether to include the total count in cursor pagination
      * @return Reservation list
      */
     @GetMapping("/reservations")
+    @RequireRole(value = AuthPrincipal.ROLE_ADMIN, message = "No permission to access, this interface is for administrators only")
     public Result<?> getAllReservations(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer pageSize,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) Integer restaurantId,
-            HttpServletRequest request
+            @RequestParam(defaultValue = "false") Boolean keyset,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") Boolean includeTotal
     ) {
         try {
-            String token = request.getHeader("Authorization");
-            if (token == null || !token.startsWith("Bearer ")) {
-                return Result.unauthorized();
+            Map<String, Object> result;
+            if (keyset || StringUtils.hasText(cursor)) {
+                result = reservationService.getAllReservationsByCursor(cursor, pageSize, status, restaurantId, includeTotal);
+            } else {
+                result = reservationService.getAllReservations(page, pageSize, status, restaurantId);
             }
-
-            // Get user information from token
-            Claims claims = jwtTokenUtil.getAllClaimsFromToken(token);
-            Integer role = claims.get("role", Integer.class);
-            
-            // Verify role is administrator
-            if (role == null || role != 0) {
-                return Result.forbidden("No permission to access, this interface is for administrators only");
-            }
-
-            Map<String, Object> result = reservationService.getAllReservations(page, pageSize, status, restaurantId);
             return Result.success(result, "Retrieved successfully");
+        } catch (IllegalArgumentException e) {
+            return Result.validateFailed(e.getMessage());
         } catch (Exception e) {
             logger.error("Failed to get reservation list: ", e);
             return Result.error(500, "Failed to get reservation list: " + e.getMessage());
@@ -75,62 +73,128 @@ public class AdminReservationController {
      * @param pageSize Items per page, default 10
      * @param status Reservation status, multiple statuses separated by commas (0: Cancelled, 1: Pending, 2: Confirmed, 3: Completed, 4: Rejected)
      * @param restaurantId Restaurant ID, if provided, only query reservations for this restaurant, which must belong to current restaurant manager
-     * @param request Request object for getting token
+     * @param keyset Use cursor pagination instead of page numbers, implied when cursor is provided
+     * @param cursor Next page token returned with the previous page in cursor pagination
+     * @param includeTotal Whether to include the total count in cursor pagination
+     * @param principal Current user
      * @return Reservation list
      */
     @GetMapping("/reservations/manager")
+    @RequireRole(value = AuthPrincipal.ROLE_MANAGER, message = "No permission to access, this interface is for restaurant managers only")
     public Result<?> getManagerReservations(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer pageSize,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) Integer restaurantId,
-            HttpServletRequest request
+            @RequestParam(defaultValue = "false") Boolean keyset,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") Boolean includeTotal,
+            AuthPrincipal principal
     ) {
         try {
-            String token = request.getHeader("Authorization");
-            if (token == null || !token.startsWith("Bearer ")) {
-                return Result.unauthorized();
+            Integer userId = principal.getUserId();
+            Map<String, Object> result;
+            if (keyset || StringUtils.hasText(cursor)) {
+                result = reservationService.getManagerReservationsByCursor(cursor, pageSize, status, restaurantId, userId, includeTotal);
+            } else {
+                result = reservationService.getManagerReservations(page, pageSize, status, restaurantId, userId);
             }
-
-            // Get user information from token
-            Claims claims = jwtTokenUtil.getAllClaimsFromToken(token);
-            Integer role = claims.get("role", Integer.class);
-            Integer userId = claims.get("userId", Integer.class);
-            
-            // Verify role is restaurant manager
-            if (role == null || role != 1) {
-                return Result.forbidden("No permission to access, this interface is for restaurant managers only");
-            }
-
-            Map<String, Object> result = reservationService.getManagerReservations(page, pageSize, status, restaurantId, userId);
             return Result.success(result, "Retrieved successfully");
+        } catch (IllegalArgumentException e) {
+            return Result.validateFailed(e.getMessage());
         } catch (Exception e) {
             logger.error("Failed to get reservation list: ", e);
             return Result.error(500, "Failed to get reservation list: " + e.getMessage());
         }
     }
     
+    /**
+     * Export all reservations (Administrator only), streamed as a file download
+     * @param format Export format, csv (default) or ndjson
+     * @param status Reservation status, multiple statuses separated by commas
+     * @param restaurantId Restaurant ID, if provided, only export reservations for this restaurant
+     * @param from Earliest reservation date (yyyy-MM-dd), inclusive
+     * @param to Latest reservation date (yyyy-MM-dd), inclusive
+     * @param response HTTP response the rows are written to
+     * @return Nothing on success, the error otherwise
+     */
+    @GetMapping("/reservations/export")
+    @RequireRole(value = AuthPrincipal.ROLE_ADMIN, message = "No permission to access, this interface is for administrators only")
+    public Result<?> exportAllReservations(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Integer restaurantId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            HttpServletResponse response
+    ) {
+        return exportReservations(response, format, status, restaurantId, from, to, null);
+    }
+
+    /**
+     * Export reservations for restaurants owned by restaurant manager, streamed as a file download
+     * @param format Export format, csv (default) or ndjson
+     * @param status Reservation status, multiple statuses separated by commas
+     * @param restaurantId Restaurant ID, if provided, only export reservations for this restaurant, which must belong to current restaurant manager
+     * @param from Earliest reservation date (yyyy-MM-dd), inclusive
+     * @param to Latest reservation date (yyyy-MM-dd), inclusive
+     * @param principal Current user
+     * @param response HTTP response the rows are written to
+     * @return Nothing on success, the error otherwise
+     */
+    @GetMapping("/reservations/manager/export")
+    @RequireRole(value = AuthPrincipal.ROLE_MANAGER, message = "No permission to access, this interface is for restaurant managers only")
+    public Result<?> exportManagerReservations(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Integer restaurantId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            AuthPrincipal principal,
+            HttpServletResponse response
+    ) {
+        return exportReservations(response, format, status, restaurantId, from, to, principal.getUserId());
+    }
+
+    private Result<?> exportReservations(HttpServletResponse response, String format, String status, Integer restaurantId,
+                                         String from, String to, Integer managerId) {
+        String extension = "ndjson".equalsIgnoreCase(format) ? "ndjson" : "csv";
+        response.setContentType("ndjson".equals(extension) ? "application/x-ndjson" : "text/csv");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reservations." + extension + "\"");
+        try {
+            long count = reservationService.exportReservations(response.getWriter(), format, status, restaurantId, from, to, managerId);
+            logger.info("Exported {} reservations", count);
+            // The body has been written, nothing left for the message converters
+            return null;
+        } catch (IllegalArgumentException e) {
+            response.reset();
+            return Result.validateFailed(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Failed to export reservations: ", e);
+            if (response.isCommitted()) {
+                // Rows were already sent, the truncated download is all the client gets
+                return null;
+            }
+            response.reset();
+            return Result.error(500, "Failed to export reservations: " + e.getMessage());
+        }
+    }
+
     /**
      * Confirm reservation (Restaurant Manager only)
      * @param reservationId Reservation ID
-     * @param request Request object for getting token
+     * @param principal Current user
      * @return Operation result
      */
     @PutMapping("/reservations/{reservationId}/confirm")
     public Result<?> confirmReservation(
             @PathVariable Integer reservationId,
-            HttpServletRequest request
+            AuthPrincipal principal
     ) {
         try {
-            String token = request.getHeader("Authorization");
-            if (token == null || !token.startsWith("Bearer ")) {
-                return Result.unauthorized();
-            }
-
-            // Get user information from token
-            Claims claims = jwtTokenUtil.getAllClaimsFromToken(token);
-            Integer role = claims.get("role", Integer.class);
-            Integer userId = claims.get("userId", Integer.class);
+            Integer role = principal.getRole();
+            Integer userId = principal.getUserId();
 
 
             return reservationService.confirmReservation(reservationId, userId, role);
@@ -143,25 +207,18 @@ public class AdminReservationController {
     /**
      * Reject reservation (Restaurant Manager only)
      * @param reservationId Reservation ID
-     * @param request Request object for getting token
+     * @param principal Current user
      * @return Operation result
      */
     @PutMapping("/reservations/{reservationId}/reject")
     public Result<?> rejectReservation(
             @PathVariable Integer reservationId,
             @RequestBody Map<String, Object> map,
-            HttpServletRequest request
+            AuthPrincipal principal
     ) {
         try {
-            String token = request.getHeader("Authorization");
-            if (token == null || !token.startsWith("Bearer ")) {
-                return Result.unauthorized();
-            }
-
-            // Get user information from token
-            Claims claims = jwtTokenUtil.getAllClaimsFromToken(token);
-            Integer role = claims.get("role", Integer.class);
-            Integer userId = claims.get("userId", Integer.class);
+            Integer role = principal.getRole();
+            Integer userId = principal.getUserId();
 
             String reason = (String) map.get("reason");
             System.out.println(map);
@@ -176,24 +233,17 @@ public class AdminReservationController {
     /**
      * Complete reservation (Restaurant Manager only)
      * @param reservationId Reservation ID
-     * @param request Request object for getting token
+     * @param principal Current user
      * @return Operation result
      */
     @PutMapping("/reservations/{reservationId}/complete")
     public Result<?> completeReservation(
             @PathVariable Integer reservationId,
-            HttpServletRequest request
+            AuthPrincipal principal
     ) {
         try {
-            String token = request.getHeader("Authorization");
-            if (token == null || !token.startsWith("Bearer ")) {
-                return Result.unauthorized();
-            }
-
-            // Get user information from token
-            Claims claims = jwtTokenUtil.getAllClaimsFromToken(token);
-            Integer role = claims.get("role", Integer.class);
-            Integer userId = claims.get("userId", Integer.class);
+            Integer role = principal.getRole();
+            Integer userId = principal.getUserId();
 
 
             return reservationService.completeReservation(reservationId, userId, role);
@@ -1,15 +1,14 @@
 package com.room.backend.controller.admin;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.room.backend.common.AuthPrincipal;
+import com.room.backend.common.RequireRole;
 import com.room.backend.common.Result;
 import com.room.backend.dto.StatisticsDTO;
-import com.room.backend.entity.Staff;
-import com.room.backend.mapper.StaffMapper;
-import com.room.backend.mapper.UserMapper;
 import com.room.backend.service.AdminService;
-import com.room.backend.util.JwtTokenUtil;
-import io.jsonwebtoken.Claims;
-import jakarta.servlet.http.HttpServletRequest;
+import com.room.backend.service.BlobStorageService;
+import com.room.backend.service.CaptchaPoolService;
+import com.room.backend.service.CatalogCacheService;
+import com.room.backend.service.ImageVariantService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,135 +21,145 @@ import java.util.Map;
 @RestController
 @RequestMapping("/admin/statistics")
 @CrossOrigin
+@RequireRole(value = {AuthPrincipal.ROLE_ADMIN, AuthPrincipal.ROLE_MANAGER, AuthPrincipal.ROLE_STAFF},
+        message = "No permission to access administrator interface")
 public class AdminStatisticsController {
 
     @Autowired
     private AdminService adminService;
 
     @Autowired
-    private JwtTokenUtil jwtTokenUtil;
+    private CaptchaPoolService captchaPoolService;
 
     @Autowired
-    private UserMapper userMapper;
+    private CatalogCacheService catalogCacheService;
 
     @Autowired
-    private  StaffMapper staffMapper;
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private BlobStorageService blobStorageService;
 
     /**
      * Get system statistics
      *
-     * @param request HTTP request containing user JWT token
+     * @param principal Current user
      * @return Statistics data
      */
     @GetMapping("/overview")
-    public Result<StatisticsDTO> getStatistics(HttpServletRequest request) {
-        // Permission verification
-        Result<Map<String, Object>> roleCheck = checkAdminRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access administrator interface");
-        }
-
-        // Get statistics data
-        Map<String, Object> userInfo = roleCheck.getData();
-        // If user is staff, get their manager ID
-        System.out.println("userInfo:" + userInfo.get("role"));
-        if (roleCheck.getData().get("role").equals(3)) {
-            LambdaQueryWrapper<Staff> queryWrapper = new LambdaQueryWrapper<>();
-            queryWrapper.eq(Staff::getUserId, userInfo.get("userId"));
-            Staff staff = staffMapper.selectOne(queryWrapper);
-            if (staff == null) return Result.error(401, "You haven't applied for a manager yet");
-            if (staff.getManagerId() == null) return Result.error(401, "You haven't applied for a manager yet");
-            if (staff.getStatus() == 0) return Result.error(401, "Your manager application hasn't been approved yet");
-            System.out.println("Manager ID：" + staff.getManagerId());
-            userInfo.put("userId", staff.getManagerId());
+    public Result<StatisticsDTO> getStatistics(AuthPrincipal principal) {
+        // Get statistics data, staff see the statistics of their manager
+        Result<Map<String, Object>> userInfo = getStatisticsUser(principal);
+        if (!userInfo.isSuccess()) {
+            return Result.error(userInfo.getCode(), userInfo.getMessage());
         }
-        return adminService.getStatistics(userInfo);
+        return adminService.getStatistics(userInfo.getData());
     }
 
     /**
      * Get reservation statistics for the last 7 days
      *
-     * @param request HTTP request containing user JWT token
+     * @param principal Current user
      * @return Reservation statistics for the last 7 days
      */
     @GetMapping("/reservations")
-    public Result<Map<String, Object>> getReservationStatistics(HttpServletRequest request) {
-        // Permission verification
-        Result<Map<String, Object>> roleCheck = checkAdminRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access administrator interface");
+    public Result<Map<String, Object>> getReservationStatistics(AuthPrincipal principal) {
+        // Get reservation statistics, staff see the statistics of their manager
+        Result<Map<String, Object>> userInfo = getStatisticsUser(principal);
+        if (!userInfo.isSuccess()) {
+            return userInfo;
         }
-
-        // Get reservation statistics
-        Map<String, Object> userInfo = roleCheck.getData();
-        // If user is staff, get their manager ID
-        if (roleCheck.getData().get("role").equals(3)) {
-            LambdaQueryWrapper<Staff> queryWrapper = new LambdaQueryWrapper<>();
-            queryWrapper.eq(Staff::getUserId, userInfo.get("userId"));
-            Staff staff = staffMapper.selectOne(queryWrapper);
-            if (staff == null) return Result.error(401, "You haven't applied for a manager yet");
-            if (staff.getManagerId() == null) return Result.error(401, "You haven't applied for a manager yet");
-            if (staff.getStatus() == 0) return Result.error(401, "Your manager application hasn't been approved yet");
-            userInfo.put("userId", staff.getManagerId());
-        }
-        return adminService.getReservationStatistics(userInfo);
+        return adminService.getReservationStatistics(userInfo.getData());
     }
 
     /**
      * Get restaurant statistics for the last 7 days
      *
-     * @param request HTTP request containing user JWT token
+     * @param principal Current user
      * @return Restaurant statistics for the last 7 days
      */
     @GetMapping("/restaurants")
-    public Result<Map<String, Object>> getRestaurantStatistics(HttpServletRequest request) {
-        // Permission verification
-        Result<Map<String, Object>> roleCheck = checkAdminRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access administrator interface");
+    public Result<Map<String, Object>> getRestaurantStatistics(AuthPrincipal principal) {
+        // Get restaurant statistics, staff see the statistics of their manager
+        Result<Map<String, Object>> userInfo = getStatisticsUser(principal);
+        if (!userInfo.isSuccess()) {
+            return userInfo;
         }
+        return adminService.getRestaurantStatistics(userInfo.getData());
+    }
 
-        // Get restaurant statistics
-        Map<String, Object> userInfo = roleCheck.getData();
-        // If user is staff, get their manager ID
-        if (roleCheck.getData().get("role").equals(3)) {
-            LambdaQueryWrapper<Staff> queryWrapper = new LambdaQueryWrapper<>();
-            queryWrapper.eq(Staff::getUserId, userInfo.get("userId"));
-            Staff staff = staffMapper.selectOne(queryWrapper);
-            if (staff == null) return Result.error(401, "You haven't applied for a manager yet");
-            if (staff.getManagerId() == null) return Result.error(401, "You haven't applied for a manager yet");
-            if (staff.getStatus() == 0) return Result.error(401, "Your manager application hasn't been approved yet");
-            userInfo.put("userId", staff.getManagerId());
-        }
-        return adminService.getRestaurantStatistics(userInfo);
+    /**
+     * Recompute the daily reservation counters behind the reservation statistics, administrators only
+     *
+     * @return Number of counters written
+     */
+    @PostMapping("/reservations/rebuild")
+    @RequireRole(value = AuthPrincipal.ROLE_ADMIN, message = "No permission to access administrator interface")
+    public Result<Map<String, Object>> rebuildReservationStatistics() {
+        return adminService.rebuildReservationStatistics();
     }
 
     /**
-     * Check if user has administrator or restaurant manager role and return user information
+     * Get captcha pool statistics, administrators only
      *
-     * @param request HTTP request containing user JWT token
-     * @return Check result containing user role and ID information
+     * @return Pool size and hit/miss counters
      */
-    private Result<Map<String, Object>> checkAdminRole(HttpServletRequest request) {
-        // Get token from request header
-        String token = request.getHeader("Authorization");
-        if (token == null || token.isEmpty()) {
-            return Result.unauthorized();
-        }
+    @GetMapping("/captcha-pool")
+    @RequireRole(value = AuthPrincipal.ROLE_ADMIN, message = "No permission to access administrator interface")
+    public Result<Map<String, Object>> getCaptchaPoolStatistics() {
+        return Result.success(captchaPoolService.getStats(), "Retrieved successfully");
+    }
 
-        try {
-            Claims allClaimsFromToken = jwtTokenUtil.getAllClaimsFromToken(token);
-            Integer role = (Integer) allClaimsFromToken.get("role");
-            Integer userId = (Integer) allClaimsFromToken.get("userId");
-
-            // Build user information Map
-            Map<String, Object> userInfo = new HashMap<>();
-            userInfo.put("role", role);
-            userInfo.put("userId", userId);
-            
-            return Result.success(userInfo);
-        } catch (Exception e) {
-            return Result.unauthorized();
+    /**
+     * Get restaurant, table and user cache statistics, administrators only
+     *
+     * @return Cache sizes and hit ratios
+     */
+    @GetMapping("/catalog-cache")
+    @RequireRole(value = AuthPrincipal.ROLE_ADMIN, message = "No permission to access administrator interface")
+    public Result<Map<String, Object>> getCatalogCacheStatistics() {
+        return Result.success(catalogCacheService.getStats(), "Retrieved successfully");
+    }
+
+    /**
+     * Get image variant pipeline statistics, administrators only
+     *
+     * @return Queue length and generated/failed counters
+     */
+    @GetMapping("/image-variants")
+    @RequireRole(value = AuthPrincipal.ROLE_ADMIN, message = "No permission to access administrator interface")
+    public Result<Map<String, Object>> getImageVariantStatistics() {
+        return Result.success(imageVariantService.getStats(), "Retrieved successfully");
+    }
+
+    /**
+     * Get deduplicated upload storage statistics, administrators only
+     *
+     * @return Referenced/unreferenced blob sizes and deduplication/collection counters
+     */
+    @GetMapping("/blobs")
+    @RequireRole(value = AuthPrincipal.ROLE_ADMIN, message = "No permission to access administrator interface")
+    public Result<Map<String, Object>> getBlobStatistics() {
+        return Result.success(blobStorageService.getStats(), "Retrieved successfully");
+    }
+
+    /**
+     * Build the user information the statistics are computed for, staff are mapped to their approved manager
+     *
+     * @param principal Current user
+     * @return User information containing role and user ID
+     */
+    private Result<Map<String, Object>> getStatisticsUser(AuthPrincipal principal) {
+        Map<String, Object> userInfo = new HashMap<>();
+        userInfo.put("role", principal.getRole());
+        userInfo.put("userId", principal.getUserId());
+
+        AuthPrincipal.StaffScope staffScope = principal.getStaffScope();
+        if (staffScope != null) {
+            if (staffScope.getManagerId() == null) return Result.error(401, "You haven't applied for a manager yet");
+            if (!staffScope.isApproved()) return Result.error(401, "Your manager application hasn't been approved yet");
+            userInfo.put("userId", staffScope.getManagerId());
         }
+        return Result.success(userInfo);
     }
-} 
\ No newline at end of file
+}
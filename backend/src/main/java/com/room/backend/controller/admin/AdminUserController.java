@@ -1,10 +1,10 @@
 package com.room.backend.controller.admin;
 
+import com.room.backend.common.AuthPrincipal;
+import com.room.backend.common.RequireRole;
 import com.room.backend.common.Result;
 import com.room.backend.service.AdminUserService;
-import com.room.backend.util.JwtTokenUtil;
 import com.room.backend.vo.UserVO;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,12 +16,11 @@ import java.util.Map;
 @RestController
 @RequestMapping("/admin/users")
 @CrossOrigin
+@RequireRole(value = AuthPrincipal.ROLE_ADMIN, message = "No permission to access administrator interface")
 public class AdminUserController  {
 
     @Autowired
     private AdminUserService userService;
-    @Autowired
-    private JwtTokenUtil jwtTokenUtil;
     
     /**
      * Get user list
@@ -30,7 +29,6 @@ public class AdminUserController  {
      * @param keyword Search keyword (username or email)
      * @param role Role filter (optional)
      * @param status Status filter (optional)
-     * @param request HTTP request containing user JWT token
      * @return User list
      */
     @GetMapping
@@ -39,14 +37,7 @@ public class AdminUserController  {
             @RequestParam(value = "pageSize", defaultValue = "10") Integer pageSize,
             @RequestParam(value = "keyword", required = false) String keyword,
             @RequestParam(value = "role", required = false) Integer role,
-            @RequestParam(value = "status", required = false) Integer status,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Integer> roleCheck = checkAdminRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access administrator interface");
-        }
+            @RequestParam(value = "status", required = false) Integer status) {
         
         // Get user list
         return userService.getUserList(page, pageSize, keyword, role, status);
@@ -55,19 +46,10 @@ public class AdminUserController  {
     /**
      * Get user details
      * @param userId User ID
-     * @param request HTTP request containing user JWT token
      * @return User details
      */
     @GetMapping("/{userId}")
-    public Result<UserVO> getUserDetail(
-            @PathVariable Integer userId,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Integer> roleCheck = checkAdminRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access administrator interface");
-        }
+    public Result<UserVO> getUserDetail(@PathVariable Integer userId) {
         
         // Get user details
         return userService.getUserInfo(userId);
@@ -76,19 +58,10 @@ public class AdminUserController  {
     /**
      * Add user
      * @param userVO User information
-     * @param request HTTP request containing user JWT token
      * @return Add result
      */
     @PostMapping
-    public Result<UserVO> addUser(
-            @RequestBody UserVO userVO,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Integer> roleCheck = checkAdminRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access administrator interface");
-        }
+    public Result<UserVO> addUser(@RequestBody UserVO userVO) {
         
         // Add user
         return userService.addUser(userVO);
@@ -98,20 +71,12 @@ public class AdminUserController  {
      * Update user information
      * @param userId User ID
      * @param userVO User information
-     * @param request HTTP request containing user JWT token
      * @return Update result
      */
     @PutMapping("/{userId}")
     public Result<UserVO> updateUser(
             @PathVariable Integer userId,
-            @RequestBody UserVO userVO,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Integer> roleCheck = checkAdminRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access administrator interface");
-        }
+            @RequestBody UserVO userVO) {
         
         // Set user ID
         userVO.setUserId(userId);
@@ -123,19 +88,10 @@ public class AdminUserController  {
     /**
      * Delete user
      * @param userId User ID
-     * @param request HTTP request containing user JWT token
      * @return Delete result
      */
     @DeleteMapping("/{userId}")
-    public Result<?> deleteUser(
-            @PathVariable Integer userId,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Integer> roleCheck = checkAdminRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access administrator interface");
-        }
+    public Result<?> deleteUser(@PathVariable Integer userId) {
         
         // Delete user
         return userService.deleteUser(userId);
@@ -145,20 +101,12 @@ public class AdminUserController  {
      * Update user status (Enable/Disable)
      * @param userId User ID
      * @param status Status (0: Disabled, 1: Enabled)
-     * @param request HTTP request containing user JWT token
      * @return Update result
      */
     @PutMapping("/{userId}/status")
     public Result<?> updateUserStatus(
             @PathVariable Integer userId,
-            @RequestParam Integer status,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Integer> roleCheck = checkAdminRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access administrator interface");
-        }
+            @RequestParam Integer status) {
         
         // Update user status
         return userService.updateUserStatus(userId, status);
@@ -168,20 +116,12 @@ public class AdminUserController  {
      * Update user role
      * @param userId User ID
      * @param role Role (0: Administrator, 1: Restaurant Manager, 2: User, 3: Staff)
-     * @param request HTTP request containing user JWT token
      * @return Update result
      */
     @PutMapping("/{userId}/role")
     public Result<?> updateUserRole(
             @PathVariable Integer userId,
-            @RequestParam Integer role,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Integer> roleCheck = checkAdminRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access administrator interface");
-        }
+            @RequestParam Integer role) {
         
         // Update user role
         return userService.updateUserRole(userId, role);
@@ -190,53 +130,12 @@ public class AdminUserController  {
     /**
      * Reset user password
      * @param userId User ID
-     * @param request HTTP request containing user JWT token
      * @return Reset result
      */
     @PutMapping("/{userId}/reset-password")
-    public Result<?> resetUserPassword(
-            @PathVariable Integer userId,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Integer> roleCheck = checkAdminRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access administrator interface");
-        }
+    public Result<?> resetUserPassword(@PathVariable Integer userId) {
         
         // Reset user password
         return userService.resetUserPassword(userId);
     }
-
-    /**
-     * Check if user has administrator role
-     * @param request HTTP request containing user JWT token
-     * @return Check result
-     */
-    private Result<Integer> checkAdminRole(HttpServletRequest request) {
-        // Get token from request header
-        String token = request.getHeader("Authorization");
-        if (token == null || token.isEmpty()) {
-            return Result.unauthorized();
-        }
-
-        try {
-            // Parse user ID
-            Integer userId = jwtTokenUtil.getUserIdFromToken(token);
-            if (userId == null) {
-                return Result.unauthorized();
-            }
-            
-            // Get role directly from token, keep numeric value without mapping
-            Integer role = jwtTokenUtil.getClaimFromToken(token, claims -> claims.get("role", Integer.class));
-            System.out.println("role=" + role);
-            if (role == null || role != 0) {
-                return Result.forbidden();
-            }
-            
-            return Result.success(userId);
-        } catch (Exception e) {
-            return Result.unauthorized();
-        }
-    }
-} 
\ No newline at end of file
+}
@@ -1,9 +1,10 @@
 package com.room.backend.controller.admin;
 
+import com.room.backend.common.AuthPrincipal;
+import com.room.backend.common.RequireRole;
 import com.room.backend.common.Result;
 import com.room.backend.service.RestaurantManageService;
 import com.room.backend.vo.RestaurantVO;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,6 +16,7 @@ import java.util.Map;
 @RestController
 @RequestMapping("/admin/restaurants")
 @CrossOrigin
+@RequireRole(value = {AuthPrincipal.ROLE_ADMIN, AuthPrincipal.ROLE_MANAGER}, message = "No permission to access management interface")
 public class RestaurantManageController {
 
     @Autowired
@@ -26,7 +28,6 @@ public class RestaurantManageController {
      * @param pageSize Items per page
      * @param keyword Search keyword (restaurant name, address)
      * @param status Status filter (optional)
-     * @param request HTTP request containing user JWT token
      * @return Restaurant list
      */
     @GetMapping
@@ -34,14 +35,7 @@ public class RestaurantManageController {
             @RequestParam(value = "page", defaultValue = "1") Integer page,
             @RequestParam(value = "pageSize", defaultValue = "10") Integer pageSize,
             @RequestParam(value = "keyword", required = false) String keyword,
-            @RequestParam(value = "status", required = false) Integer status,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Map<String, Object>> roleCheck = checkManagerRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access management interface");
-        }
+            @RequestParam(value = "status", required = false) Integer status) {
         
         // Get restaurant list
         return restaurantManageService.getRestaurantList(page, pageSize, keyword, status);
@@ -50,19 +44,10 @@ public class RestaurantManageController {
     /**
      * Get restaurant details
      * @param id Restaurant ID
-     * @param request HTTP request containing user JWT token
      * @return Restaurant details
      */
     @GetMapping("/{id}")
-    public Result<RestaurantVO> getRestaurantDetail(
-            @PathVariable Integer id,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Map<String, Object>> roleCheck = checkManagerRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access management interface");
-        }
+    public Result<RestaurantVO> getRestaurantDetail(@PathVariable Integer id) {
         
         // Get restaurant details
         return restaurantManageService.getRestaurantDetail(id);
@@ -71,22 +56,16 @@ public class RestaurantManageController {
     /**
      * Add restaurant
      * @param restaurantVO Restaurant information
-     * @param request HTTP request containing user JWT token
+     * @param principal Current user
      * @return Add result
      */
     @PostMapping
     public Result<RestaurantVO> addRestaurant(
             @RequestBody RestaurantVO restaurantVO,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Map<String, Object>> roleCheck = checkManagerRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access management interface");
-        }
+            AuthPrincipal principal) {
         
         // Add restaurant
-        Integer userId = (Integer) roleCheck.getData().get("userId");
+        Integer userId = principal.getUserId();
         return restaurantManageService.addRestaurant(restaurantVO, userId);
     }
     
@@ -94,48 +73,36 @@ public class RestaurantManageController {
      * Update restaurant information
      * @param id Restaurant ID
      * @param restaurantVO Restaurant information
-     * @param request HTTP request containing user JWT token
+     * @param principal Current user
      * @return Update result
      */
     @PutMapping("/{id}")
     public Result<RestaurantVO> updateRestaurant(
             @PathVariable Integer id,
             @RequestBody RestaurantVO restaurantVO,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Map<String, Object>> roleCheck = checkManagerRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access management interface");
-        }
+            AuthPrincipal principal) {
         
         // Set restaurant ID
         restaurantVO.setId(id);
         
         // Update restaurant information
-        Integer userId = (Integer) roleCheck.getData().get("userId");
+        Integer userId = principal.getUserId();
         return restaurantManageService.updateRestaurant(id, restaurantVO, userId);
     }
     
     /**
      * Delete restaurant
      * @param id Restaurant ID
-     * @param request HTTP request containing user JWT token
+     * @param principal Current user
      * @return Delete result
      */
     @DeleteMapping("/{id}")
     public Result<?> deleteRestaurant(
             @PathVariable Integer id,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Map<String, Object>> roleCheck = checkManagerRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access management interface");
-        }
+            AuthPrincipal principal) {
         
         // Delete restaurant
-        Integer userId = (Integer) roleCheck.getData().get("userId");
+        Integer userId = principal.getUserId();
         return restaurantManageService.deleteRestaurant(id, userId);
     }
     
@@ -143,23 +110,17 @@ public class RestaurantManageController {
      * Update restaurant status
      * @param id Restaurant ID
      * @param status Status value
-     * @param request HTTP request containing user JWT token
+     * @param principal Current user
      * @return Update result
      */
     @PutMapping("/{id}/status")
     public Result<?> updateRestaurantStatus(
             @PathVariable Integer id,
             @RequestParam Integer status,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Map<String, Object>> roleCheck = checkManagerRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access management interface");
-        }
+            AuthPrincipal principal) {
         
         // Update restaurant status
-        Integer userId = (Integer) roleCheck.getData().get("userId");
+        Integer userId = principal.getUserId();
         return restaurantManageService.updateRestaurantStatus(id, status, userId);
     }
     
@@ -169,7 +130,7 @@ public class RestaurantManageController {
      * @param pageSize Items per page
      * @param keyword Search keyword (restaurant name, address)
      * @param status Status filter (optional)
-     * @param request HTTP request containing user JWT token
+     * @param principal Current user
      * @return Restaurant list
      */
     @GetMapping("/my-restaurants")
@@ -178,34 +139,12 @@ public class RestaurantManageController {
             @RequestParam(value = "pageSize", defaultValue = "10") Integer pageSize,
             @RequestParam(value = "keyword", required = false) String keyword,
             @RequestParam(value = "status", required = false) Integer status,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Map<String, Object>> roleCheck = checkManagerRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access management interface");
-        }
+            AuthPrincipal principal) {
         
         // Get current user ID
-        Integer userId = (Integer) roleCheck.getData().get("userId");
+        Integer userId = principal.getUserId();
         
         // Get restaurant manager's restaurant list
         return restaurantManageService.getManagerRestaurantList(page, pageSize, keyword, status, userId);
     }
-    
-    /**
-     * Check if user has administrator or restaurant manager role
-     * @param request HTTP request containing user JWT token
-     * @return Check result
-     */
-    private Result<Map<String, Object>> checkManagerRole(HttpServletRequest request) {
-        // Get token from request header
-        String token = request.getHeader("Authorization");
-        if (token == null || token.isEmpty()) {
-            return Result.unauthorized();
-        }
-        
-        // Check role permissions
-        return restaurantManageService.checkManagerRole(token);
-    }
-} 
\ No newline at end of file
+}
@@ -1,10 +1,10 @@
 package com.room.backend.controller.admin;
 
+import com.room.backend.common.AuthPrincipal;
+import com.room.backend.common.RequireRole;
 import com.room.backend.common.Result;
 import com.room.backend.entity.RestaurantTable;
-import com.room.backend.service.RestaurantManageService;
 import com.room.backend.service.RestaurantTableService;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,40 +16,25 @@ import java.util.Map;
 @RestController
 @RequestMapping("/admin/tables")
 @CrossOrigin
+@RequireRole(value = {AuthPrincipal.ROLE_ADMIN, AuthPrincipal.ROLE_MANAGER}, message = "No permission to access management interface")
 public class RestaurantTableController {
 
     @Autowired
     private RestaurantTableService tableService;
     
-    @Autowired
-    private RestaurantManageService restaurantManageService;
-    
     /**
      * Get all tables list (for administrator)
      * @param page Page number
      * @param pageSize Items per page
      * @param restaurantId Restaurant ID (optional)
-     * @param request HTTP request containing user JWT token
      * @return Table list
      */
     @GetMapping
+    @RequireRole(value = AuthPrincipal.ROLE_ADMIN, message = "Only administrator can view all tables")
     public Result<Map<String, Object>> getAllTables(
             @RequestParam(value = "page", defaultValue = "1") Integer page,
             @RequestParam(value = "pageSize", defaultValue = "10") Integer pageSize,
-            @RequestParam(value = "restaurantId", required = false) Integer restaurantId,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Map<String, Object>> roleCheck = checkManagerRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access management interface");
-        }
-        
-        // Only administrator can view all tables
-        Integer role = (Integer) roleCheck.getData().get("role");
-        if (role != 0) {
-            return Result.forbidden("Only administrator can view all tables");
-        }
+            @RequestParam(value = "restaurantId", required = false) Integer restaurantId) {
         
         // Get all tables list
         return tableService.getAllTables(page, pageSize, restaurantId);
@@ -60,7 +45,7 @@ public class RestaurantTableController {
      * @param page Page number
      * @param pageSize Items per page
      * @param restaurantId Restaurant ID
-     * @param request HTTP request containing user JWT token
+     * @param principal Current user
      * @return Table list
      */
     @GetMapping("/restaurant/{restaurantId}")
@@ -68,16 +53,10 @@ public class RestaurantTableController {
             @RequestParam(value = "page", defaultValue = "1") Integer page,
             @RequestParam(value = "pageSize", defaultValue = "10") Integer pageSize,
             @PathVariable Integer restaurantId,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Map<String, Object>> roleCheck = checkManagerRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access management interface");
-        }
+            AuthPrincipal principal) {
         
         // Get current user ID
-        Integer userId = (Integer) roleCheck.getData().get("userId");
+        Integer userId = principal.getUserId();
         
         // Get tables list for specific restaurant
         return tableService.getRestaurantTables(page, pageSize, restaurantId, userId);
@@ -86,19 +65,10 @@ public class RestaurantTableController {
     /**
      * Get table details
      * @param id Table ID
-     * @param request HTTP request containing user JWT token
      * @return Table details
      */
     @GetMapping("/{id}")
-    public Result<RestaurantTable> getTableDetail(
-            @PathVariable Integer id,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Map<String, Object>> roleCheck = checkManagerRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access management interface");
-        }
+    public Result<RestaurantTable> getTableDetail(@PathVariable Integer id) {
         
         // Get table details
         return tableService.getTableDetail(id);
@@ -107,22 +77,16 @@ public class RestaurantTableController {
     /**
      * Add table
      * @param table Table information
-     * @param request HTTP request containing user JWT token
+     * @param principal Current user
      * @return Add result
      */
     @PostMapping
     public Result<RestaurantTable> addTable(
             @RequestBody RestaurantTable table,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Map<String, Object>> roleCheck = checkManagerRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access management interface");
-        }
+            AuthPrincipal principal) {
         
         // Get current user ID
-        Integer userId = (Integer) roleCheck.getData().get("userId");
+        Integer userId = principal.getUserId();
         
         // Add table
         return tableService.addTable(table, userId);
@@ -132,23 +96,17 @@ public class RestaurantTableController {
      * Update table information
      * @param id Table ID
      * @param table Table information
-     * @param request HTTP request containing user JWT token
+     * @param principal Current user
      * @return Update result
      */
     @PutMapping("/{id}")
     public Result<RestaurantTable> updateTable(
             @PathVariable Integer id,
             @RequestBody RestaurantTable table,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Map<String, Object>> roleCheck = checkManagerRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access management interface");
-        }
+            AuthPrincipal principal) {
         
         // Get current user ID
-        Integer userId = (Integer) roleCheck.getData().get("userId");
+        Integer userId = principal.getUserId();
         
         // Update table information
         return tableService.updateTable(id, table, userId);
@@ -157,22 +115,16 @@ public class RestaurantTableController {
     /**
      * Delete table
      * @param id Table ID
-     * @param request HTTP request containing user JWT token
+     * @param principal Current user
      * @return Delete result
      */
     @DeleteMapping("/{id}")
     public Result<?> deleteTable(
             @PathVariable Integer id,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Map<String, Object>> roleCheck = checkManagerRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access management interface");
-        }
+            AuthPrincipal principal) {
         
         // Get current user ID
-        Integer userId = (Integer) roleCheck.getData().get("userId");
+        Integer userId = principal.getUserId();
         
         // Delete table
         return tableService.deleteTable(id, userId);
@@ -182,47 +134,17 @@ public class RestaurantTableController {
      * Get all tables under current restaurant manager
      * @param page Page number
      * @param pageSize Items per page
-     * @param request HTTP request containing user JWT token
+     * @param principal Current user
      * @return Table list
      */
     @GetMapping("/my-tables")
+    @RequireRole(value = AuthPrincipal.ROLE_MANAGER, message = "Only restaurant manager can use this interface")
     public Result<Map<String, Object>> getManagerAllTables(
             @RequestParam(value = "page", defaultValue = "1") Integer page,
             @RequestParam(value = "pageSize", defaultValue = "10") Integer pageSize,
-            HttpServletRequest request) {
-        
-        // Permission verification
-        Result<Map<String, Object>> roleCheck = checkManagerRole(request);
-        if (!roleCheck.isSuccess()) {
-            return Result.forbidden("No permission to access management interface");
-        }
-        
-        // Get current user ID and role
-        Integer userId = (Integer) roleCheck.getData().get("userId");
-        Integer role = (Integer) roleCheck.getData().get("role");
-        
-        // Only restaurant manager can use this interface
-        if (role != 1) {
-            return Result.forbidden("Only restaurant manager can use this interface");
-        }
+            AuthPrincipal principal) {
         
         // Get all tables under current restaurant manager
-        return tableService.getManagerAllTables(page, pageSize, userId);
-    }
-    
-    /**
-     * Check if user has administrator or restaurant manager role
-     * @param request HTTP request containing user JWT token
-     * @return Check result
-     */
-    private Result<Map<String, Object>> checkManagerRole(HttpServletRequest request) {
-        // Get token from request header
-        String token = request.getHeader("Authorization");
-        if (token == null || token.isEmpty()) {
-            return Result.unauthorized();
-        }
-        
-        // Check role permissions
-        return restaurantManageService.checkManagerRole(token);
+        return tableService.getManagerAllTables(page, pageSize, principal.getUserId());
     }
-}
\ No newline at end of file
+}
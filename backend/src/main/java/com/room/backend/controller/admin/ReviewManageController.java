@@ -1,9 +1,9 @@
 package com.room.backend.controller.admin;
 
+import com.room.backend.common.AuthPrincipal;
+import com.room.backend.common.RequireRole;
 import com.room.backend.common.Result;
 import com.room.backend.service.ReviewService;
-import com.room.backend.util.JwtTokenUtil;
-import io.jsonwebtoken.Claims;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
@@ -17,32 +17,22 @@ import java.util.Map;
 @RestController
 @RequestMapping("/admin/reviews")
 @CrossOrigin
+@RequireRole(value = AuthPrincipal.ROLE_ADMIN, message = "No permission to access")
 public class ReviewManageController {
 
     @Autowired
     private ReviewService reviewService;
 
-    @Autowired
-    private JwtTokenUtil jwtTokenUtil;
-
     /**
      * Get review list
      */
     @GetMapping
     public Result<?> getReviewList(
-            @RequestHeader("Authorization") String token,
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer pageSize,
             @RequestParam(required = false) Integer restaurantId,
             @RequestParam(required = false) Integer rating) {
         try {
-            // Verify if user is administrator
-            Claims claims = jwtTokenUtil.getAllClaimsFromToken(token.replace("Bearer ", ""));
-            Integer roleValue = claims.get("role", Integer.class);
-            if (roleValue != 0) {
-                return Result.error(500,"No permission to access");
-            }
-
             Map<String, Object> result = reviewService.getAdminReviewList(page, pageSize, restaurantId, rating);
             return Result.success(result);
         } catch (Exception e) {
@@ -55,17 +45,8 @@ public class ReviewManageController {
      * Delete review
      */
     @DeleteMapping("/{reviewId}")
-    public Result<?> deleteReview(
-            @RequestHeader("Authorization") String token,
-            @PathVariable Integer reviewId) {
+    public Result<?> deleteReview(@PathVariable Integer reviewId) {
         try {
-            // Verify if user is administrator
-            Claims claims = jwtTokenUtil.getAllClaimsFromToken(token.replace("Bearer ", ""));
-            Integer roleValue = claims.get("role", Integer.class);
-            if (roleValue != 0) {
-                return Result.error(500,"No permission to access");
-            }
-
             boolean success = reviewService.deleteReview(reviewId);
             return success ? Result.success("") : Result.error(500,"Delete failed");
         } catch (Exception e) {
@@ -1,9 +1,9 @@
 package com.room.backend.controller.admin;
 
+import com.room.backend.common.AuthPrincipal;
+import com.room.backend.common.RequireRole;
 import com.room.backend.common.Result;
 import com.room.backend.service.StaffService;
-import com.room.backend.util.JwtTokenUtil;
-import io.jsonwebtoken.Claims;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
@@ -17,25 +17,22 @@ import java.util.Map;
 @RestController
 @RequestMapping("/admin/staff")
 @CrossOrigin
+@RequireRole
 public class StaffController {
     
     @Autowired
     private StaffService staffService;
     
-    @Autowired
-    private JwtTokenUtil jwtTokenUtil;
-    
     /**
      * Get manager's staff list
      */
     @GetMapping
     public Result<?> getStaffList(
-            @RequestHeader("Authorization") String token,
+            AuthPrincipal principal,
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer pageSize) {
         try {
-            Claims claims = jwtTokenUtil.getAllClaimsFromToken(token.replace("Bearer ", ""));
-            Integer managerId = claims.get("userId", Integer.class);
+            Integer managerId = principal.getUserId();
 
             Map<String, Object> result = staffService.getManagerStaffList(managerId, page, pageSize);
             return Result.success(result);
@@ -50,12 +47,11 @@ public class StaffController {
      */
     @PutMapping("/{staffId}/status")
     public Result<?> updateStaffStatus(
-            @RequestHeader("Authorization") String token,
+            AuthPrincipal principal,
             @PathVariable Integer staffId,
             @RequestParam Integer status) {
         try {
-            Claims claims = jwtTokenUtil.getAllClaimsFromToken(token.replace("Bearer ", ""));
-            Integer managerId = claims.get("userId", Integer.class);
+            Integer managerId = principal.getUserId();
             
             boolean success = staffService.updateStaffStatus(staffId, managerId, status);
             return success ? Result.success("") : Result.error(500,"Failed to update status");
@@ -70,11 +66,10 @@ public class StaffController {
      */
     @DeleteMapping("/{staffId}")
     public Result<?> deleteStaff(
-            @RequestHeader("Authorization") String token,
+            AuthPrincipal principal,
             @PathVariable Integer staffId) {
         try {
-            Claims claims = jwtTokenUtil.getAllClaimsFromToken(token.replace("Bearer ", ""));
-            Integer managerId = claims.get("userId", Integer.class);
+            Integer managerId = principal.getUserId();
             
             boolean success = staffService.deleteStaff(staffId, managerId);
             return success ? Result.success("") : Result.error(500,"Delete failed");
@@ -1,9 +1,10 @@
 package com.room.backend.controller.admin;
 
+import com.room.backend.common.AuthPrincipal;
+import com.room.backend.common.RequireRole;
 import com.room.backend.common.Result;
 import com.room.backend.entity.Reservation;
 import com.room.backend.service.ReservationService;
-import com.room.backend.util.JwtTokenUtil;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
@@ -17,40 +18,26 @@ import java.util.Map;
 @Slf4j
 @RestController
 @RequestMapping("/admin/staff/reservations")
+@RequireRole(value = AuthPrincipal.ROLE_STAFF, message = "Insufficient permissions, only staff can access this interface")
 public class StaffReservationController {
 
     @Resource
     private ReservationService reservationService;
-    
-    @Resource
-    private JwtTokenUtil jwtUtil;
 
     /**
      * Get reservation list for staff's restaurant
      */
     @GetMapping
     public Result<Map<String, Object>> getStaffReservations(
-            @RequestHeader("Authorization") String token,
+            AuthPrincipal principal,
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer pageSize,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) Integer restaurantId) {
         try {
-            // Verify token and get user information
-            Map<String, Object> userInfo = jwtUtil.getAllClaimsFromToken(token);
-            if (userInfo == null) {
-                return Result.error(401, "Unauthorized or invalid token");
-            }
-            
-            // Verify if user is staff
-            Integer role = (Integer) userInfo.get("role");
-            if (role != 3) { // 3 represents staff role
-                return Result.error(403, "Insufficient permissions, only staff can access this interface");
-            }
-            
             // Get reservation list
             Map<String, Object> result = reservationService.getStaffReservations(
-                    (Integer) userInfo.get("userId"),
+                    principal.getStaffScope().getRestaurantIds(),
                     page,
                     pageSize,
                     status,
@@ -69,25 +56,13 @@ public class StaffReservationController {
      */
     @PutMapping("/{reservationId}/status")
     public Result<Reservation> updateReservationStatus(
-            @RequestHeader("Authorization") String token,
+            AuthPrincipal principal,
             @PathVariable Integer reservationId,
             @RequestParam Integer status) {
         try {
-            // Verify token and get user information
-            Map<String, Object> userInfo = jwtUtil.getAllClaimsFromToken(token);
-            if (userInfo == null) {
-                return Result.error(401, "Unauthorized or invalid token");
-            }
-            
-            // Verify if user is staff
-            Integer role = (Integer) userInfo.get("role");
-            if (role != 3) { // 3 represents staff role
-                return Result.error(403, "Insufficient permissions, only staff can access this interface");
-            }
-            
             // Update reservation status
             Reservation updatedReservation = reservationService.updateStaffReservationStatus(
-                    (Integer) userInfo.get("userId"),
+                    principal.getStaffScope().getRestaurantIds(),
                     reservationId,
                     status
             );
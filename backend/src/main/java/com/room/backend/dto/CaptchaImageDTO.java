@@ -0,0 +1,24 @@
+package com.room.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rendered Captcha DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CaptchaImageDTO {
+
+    /**
+     * Captcha text
+     */
+    private String text;
+
+    /**
+     * PNG image as a Base64 data URL
+     */
+    private String image;
+}
@@ -0,0 +1,46 @@
+package com.room.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.File;
+
+/**
+ * Uploaded File DTO, what is needed to serve it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaFileDTO {
+
+    /**
+     * File to send, the original or a generated variant
+     */
+    private File file;
+
+    /**
+     * Size in bytes
+     */
+    private long length;
+
+    /**
+     * Last modification time in milliseconds
+     */
+    private long lastModified;
+
+    /**
+     * Quoted strong entity tag derived from the file content
+     */
+    private String etag;
+
+    /**
+     * Content type
+     */
+    private String contentType;
+
+    /**
+     * Whether the content behind the URL can never change, so clients may cache it without revalidation
+     */
+    private boolean immutable;
+}
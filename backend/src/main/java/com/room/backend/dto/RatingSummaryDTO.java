@@ -0,0 +1,46 @@
+package com.room.backend.dto;
+
+import lombok.Data;
+
+/**
+ * Restaurant Rating Summary DTO
+ */
+@Data
+public class RatingSummaryDTO {
+
+    /**
+     * Number of reviews
+     */
+    private long reviewCount;
+
+    /**
+     * Sum of all ratings
+     */
+    private long ratingSum;
+
+    /**
+     * Number of reviews per rating, index 0 holds 1-point reviews
+     */
+    private long[] histogram = new long[5];
+
+    /**
+     * Get average rating, 0 when there are no reviews
+     */
+    public double getAverageRating() {
+        return reviewCount == 0 ? 0 : (double) ratingSum / reviewCount;
+    }
+
+    /**
+     * Add reviews with the given rating to this summary
+     * @param rating Rating (1-5)
+     * @param count Number of reviews, negative to remove reviews
+     */
+    public void add(int rating, long count) {
+        if (rating < 1 || rating > 5) {
+            return;
+        }
+        histogram[rating - 1] = Math.max(0, histogram[rating - 1] + count);
+        reviewCount = Math.max(0, reviewCount + count);
+        ratingSum = Math.max(0, ratingSum + rating * count);
+    }
+}
@@ -0,0 +1,41 @@
+package com.room.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resumable Upload Session DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionDTO {
+
+    /**
+     * Upload session ID
+     */
+    private String uploadId;
+
+    /**
+     * Total file size in bytes
+     */
+    private long size;
+
+    /**
+     * Size of every chunk except the last one
+     */
+    private int chunkSize;
+
+    /**
+     * Number of chunks
+     */
+    private int chunkCount;
+
+    /**
+     * Indexes of the chunks not received yet, in ascending order
+     */
+    private List<Integer> missingChunks;
+}
@@ -0,0 +1,102 @@
+package com.room.backend.interceptor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.room.backend.common.AuthPrincipal;
+import com.room.backend.common.RequireRole;
+import com.room.backend.common.Result;
+import com.room.backend.service.StaffScopeService;
+import com.room.backend.util.JwtTokenUtil;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Authentication Interceptor
+ *
+ * Resolves the principal of every handler request from its Authorization header once and stores it as a request
+ * attribute, then enforces the RequireRole rule of the handler. Invalid tokens are treated as anonymous, so public
+ * endpoints keep working for users with stale tokens.
+ */
+@Component
+@Slf4j
+public class AuthInterceptor implements HandlerInterceptor {
+
+    @Resource
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Resource
+    private StaffScopeService staffScopeService;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+
+        AuthPrincipal principal = resolvePrincipal(request);
+        if (principal != null) {
+            request.setAttribute(AuthPrincipal.REQUEST_ATTRIBUTE, principal);
+        }
+
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        RequireRole rule = handlerMethod.getMethodAnnotation(RequireRole.class);
+        if (rule == null) {
+            rule = handlerMethod.getBeanType().getAnnotation(RequireRole.class);
+        }
+        if (rule == null) {
+            return true;
+        }
+
+        if (principal == null) {
+            writeResult(response, Result.unauthorized());
+            return false;
+        }
+        if (rule.value().length > 0 && !principal.hasRole(rule.value())) {
+            writeResult(response, Result.forbidden(rule.message()));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Resolve the principal from the Authorization header
+     * @return Principal, null if the header is missing or the token is invalid
+     */
+    private AuthPrincipal resolvePrincipal(HttpServletRequest request) {
+        String token = request.getHeader("Authorization");
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        try {
+            Claims claims = jwtTokenUtil.getAllClaimsFromToken(token);
+            Integer userId = claims.get("userId", Integer.class);
+            if (userId == null) {
+                return null;
+            }
+            return new AuthPrincipal(userId, claims.get("role", Integer.class), claims.getSubject(),
+                    () -> staffScopeService.getScope(userId));
+        } catch (Exception e) {
+            log.debug("Ignoring invalid token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeResult(HttpServletResponse response, Result<?> result) throws IOException {
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getWriter(), result);
+    }
+}
@@ -0,0 +1,122 @@
+package com.room.backend.interceptor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.BatchExecutor;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapper Statement Metrics Interceptor
+ *
+ * Times every mapper statement and records how many rows it returned or changed, tagged with the mapper and
+ * method, e.g. mapper=ReservationMapper, method=selectList. Published as the mybatis.statements timer, with an
+ * outcome tag, and the mybatis.rows distribution summary. The time includes mapping the rows to objects, cursor
+ * statements are timed until the cursor is opened.
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor",
+                args = {MappedStatement.class, Object.class, RowBounds.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class MapperMetricsInterceptor implements Interceptor {
+
+    /**
+     * Resolved on the first statement, the registry binds beans that depend on the mappers
+     */
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    /**
+     * Meters per mapped statement ID
+     */
+    private final Map<String, StatementMeters> meters = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = invocation.proceed();
+            success = true;
+            long rows = countRows(result);
+            if (rows >= 0) {
+                getMeters(statement).rows.record(rows);
+            }
+            return result;
+        } finally {
+            StatementMeters statementMeters = getMeters(statement);
+            (success ? statementMeters.success : statementMeters.error)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return Rows returned or changed, -1 if unknown, e.g. for a cursor or a batched update
+     */
+    private long countRows(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Integer && (Integer) result != BatchExecutor.BATCH_UPDATE_RETURN_VALUE) {
+            return (Integer) result;
+        }
+        return -1;
+    }
+
+    private StatementMeters getMeters(MappedStatement statement) {
+        return meters.computeIfAbsent(statement.getId(),
+                id -> new StatementMeters(meterRegistry.getObject(), id, statement.getSqlCommandType().name()));
+    }
+
+    private static final class StatementMeters {
+        private final Timer success;
+        private final Timer error;
+        private final DistributionSummary rows;
+
+        private StatementMeters(MeterRegistry registry, String id, String type) {
+            // com.room.backend.mapper.ReservationMapper.selectList -> ReservationMapper, selectList
+            int methodStart = id.lastIndexOf('.');
+            String mapper = id.substring(id.lastIndexOf('.', methodStart - 1) + 1, methodStart);
+            String method = id.substring(methodStart + 1);
+            success = timer(registry, mapper, method, type, "success");
+            error = timer(registry, mapper, method, type, "error");
+            rows = DistributionSummary.builder("mybatis.rows")
+                    .description("Rows returned or changed by a mapper statement")
+                    .baseUnit("rows")
+                    .tags("mapper", mapper, "method", method, "type", type)
+                    .register(registry);
+        }
+
+        private static Timer timer(MeterRegistry registry, String mapper, String method, String type, String outcome) {
+            return Timer.builder("mybatis.statements")
+                    .description("Mapper statement execution time")
+                    .tags("mapper", mapper, "method", method, "type", type, "outcome", outcome)
+                    .register(registry);
+        }
+    }
+}
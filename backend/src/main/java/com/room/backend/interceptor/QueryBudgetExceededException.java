@@ -0,0 +1,15 @@
+package com.room.backend.interceptor;
+
+/**
+ * Thrown in query-monitor.strict mode by the statement that goes over the QueryBudget of its request or repeats
+ * like an N+1 loop
+ *
+ * Services usually catch the exception and return an error result, the QueryCounter keeps it and
+ * QueryBudgetResponseAdvice turns the response into an HTTP 500 all the same.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
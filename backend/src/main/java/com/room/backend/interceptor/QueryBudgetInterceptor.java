@@ -0,0 +1,71 @@
+package com.room.backend.interceptor;
+
+import com.room.backend.common.QueryBudget;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Query Budget Interceptor
+ *
+ * Counts the statements of every handler request and logs requests over the QueryBudget of their handler and
+ * statements that ran with many different parameters, the usual sign of a lookup per row. With
+ * query-monitor.strict the offending statement fails instead, and QueryBudgetResponseAdvice fails the response with
+ * HTTP 500, for test runs. Resolving the parameters of every statement costs reflection, so the monitor is off
+ * unless query-monitor.enabled is set.
+ */
+@Component
+@Slf4j
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    @Value("${query-monitor.enabled:false}")
+    private boolean enabled;
+
+    @Value("${query-monitor.repeat-threshold:3}")
+    private int repeatThreshold;
+
+    @Value("${query-monitor.strict:false}")
+    private boolean strict;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+        if (budget == null) {
+            budget = handlerMethod.getBeanType().getAnnotation(QueryBudget.class);
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        QueryCounter.start(endpoint, budget == null ? -1 : budget.value(), repeatThreshold, strict);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The request continues on another thread, which is not counted
+        report(QueryCounter.stop());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        report(QueryCounter.stop());
+    }
+
+    private void report(QueryCounter counter) {
+        if (counter == null) {
+            return;
+        }
+        for (String violation : counter.getViolations()) {
+            log.warn(violation);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.room.backend.interceptor;
+
+import com.room.backend.common.Result;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Query Budget Response Advice
+ *
+ * Fails the response of a request whose statement failed in query-monitor.strict mode with HTTP 500, also when the
+ * QueryBudgetExceededException was caught on the way and turned into a regular result or a code in the body.
+ */
+@RestControllerAdvice
+public class QueryBudgetResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        QueryCounter counter = QueryCounter.current();
+        if (counter == null || counter.getFailure() == null) {
+            return body;
+        }
+        response.setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+        return body instanceof Result ? Result.error(500, counter.getFailure().getMessage()) : body;
+    }
+}
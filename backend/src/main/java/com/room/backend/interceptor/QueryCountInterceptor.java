@@ -0,0 +1,78 @@
+package com.room.backend.interceptor;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statement Counting Interceptor
+ *
+ * Records every mapper statement, with the values bound to its placeholders, in the QueryCounter of the current
+ * thread. Does nothing while no counter is running.
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor",
+                args = {MappedStatement.class, Object.class, RowBounds.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class QueryCountInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        QueryCounter counter = QueryCounter.current();
+        if (counter != null) {
+            Object[] args = invocation.getArgs();
+            MappedStatement statement = (MappedStatement) args[0];
+            BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : statement.getBoundSql(args[1]);
+            counter.record(statement.getId(), boundSql.getSql(), getParameterValues(statement, boundSql));
+        }
+        return invocation.proceed();
+    }
+
+    /**
+     * Resolve the values bound to the placeholders the way DefaultParameterHandler does
+     */
+    private List<Object> getParameterValues(MappedStatement statement, BoundSql boundSql) {
+        Object parameterObject = boundSql.getParameterObject();
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        List<Object> values = new ArrayList<>(mappings.size());
+        TypeHandlerRegistry typeHandlerRegistry = statement.getConfiguration().getTypeHandlerRegistry();
+        MetaObject metaObject = null;
+        for (ParameterMapping mapping : mappings) {
+            String property = mapping.getProperty();
+            if (boundSql.hasAdditionalParameter(property)) {
+                values.add(boundSql.getAdditionalParameter(property));
+            } else if (parameterObject == null) {
+                values.add(null);
+            } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
+                values.add(parameterObject);
+            } else {
+                if (metaObject == null) {
+                    metaObject = statement.getConfiguration().newMetaObject(parameterObject);
+                }
+                values.add(metaObject.getValue(property));
+            }
+        }
+        return values;
+    }
+}
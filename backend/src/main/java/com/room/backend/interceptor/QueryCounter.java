@@ -0,0 +1,188 @@
+package com.room.backend.interceptor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Statements run by the current request
+ *
+ * Started by QueryBudgetInterceptor for every handler request, or by tests around the code they measure, and fed
+ * by QueryCountInterceptor. Only statements run on the thread that started the counter are counted. The same SQL
+ * run with different parameters again and again is the signature of an N+1 loop, a query per row of an earlier
+ * result, and is reported once it reaches the repeat threshold.
+ */
+public class QueryCounter {
+
+    private static final ThreadLocal<QueryCounter> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+
+    private final int budget;
+
+    private final int repeatThreshold;
+
+    private final boolean strict;
+
+    private int count;
+
+    /**
+     * First exception thrown in strict mode
+     */
+    private QueryBudgetExceededException failure;
+
+    /**
+     * SQL -> executions of the statement
+     */
+    private final Map<String, Executions> executions = new LinkedHashMap<>();
+
+    private QueryCounter(String name, int budget, int repeatThreshold, boolean strict) {
+        this.name = name;
+        this.budget = budget;
+        this.repeatThreshold = repeatThreshold;
+        this.strict = strict;
+    }
+
+    /**
+     * Start counting the statements of the current thread, replacing a counter that is already running
+     * @param name Name used in reports, e.g. the endpoint
+     * @param budget Maximum number of statements, -1 for none
+     * @param repeatThreshold Number of different parameter values of one statement that is reported as an N+1 loop
+     * @param strict Whether the statement over the budget or reaching the threshold fails instead of being reported
+     * @return Counter
+     */
+    public static QueryCounter start(String name, int budget, int repeatThreshold, boolean strict) {
+        QueryCounter counter = new QueryCounter(name, budget, repeatThreshold, strict);
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    /**
+     * Get the counter of the current thread
+     * @return Counter, null if none is running
+     */
+    public static QueryCounter current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stop counting the statements of the current thread
+     * @return Counter that was running, null if none
+     */
+    public static QueryCounter stop() {
+        QueryCounter counter = CURRENT.get();
+        CURRENT.remove();
+        return counter;
+    }
+
+    /**
+     * Record a statement before it runs
+     * @param statementId Mapped statement ID
+     * @param sql SQL with placeholders
+     * @param parameters Values bound to the placeholders
+     * @throws QueryBudgetExceededException In strict mode, if the statement exceeds the budget or reaches the threshold
+     */
+    void record(String statementId, String sql, List<Object> parameters) {
+        count++;
+        if (strict && budget >= 0 && count > budget) {
+            throw fail(budgetViolation());
+        }
+
+        Executions statement = executions.computeIfAbsent(sql, key -> new Executions(statementId));
+        statement.count++;
+        // Hashes are enough to tell values apart and keep long requests small
+        if (statement.parameters.add(parameters.hashCode()) && strict
+                && statement.parameters.size() >= repeatThreshold) {
+            throw fail(repeatViolation(statement));
+        }
+    }
+
+    private QueryBudgetExceededException fail(String message) {
+        QueryBudgetExceededException exception = new QueryBudgetExceededException(message);
+        if (failure == null) {
+            failure = exception;
+        }
+        return exception;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    /**
+     * Get the first exception thrown in strict mode, whether or not the caller handled it
+     * @return Exception, null if no statement failed
+     */
+    public QueryBudgetExceededException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Get the statements that ran with at least the threshold number of different parameter values
+     * @return Statement ID -> number of different parameter values
+     */
+    public Map<String, Integer> getRepeatedStatements() {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        for (Executions statement : executions.values()) {
+            if (statement.parameters.size() >= repeatThreshold) {
+                repeated.merge(statement.statementId, statement.parameters.size(), Math::max);
+            }
+        }
+        return repeated;
+    }
+
+    /**
+     * Describe the budget overrun and the repeated statements
+     * @return Messages, empty if there are none
+     */
+    public List<String> getViolations() {
+        List<String> violations = new ArrayList<>();
+        if (budget >= 0 && count > budget) {
+            violations.add(budgetViolation());
+        }
+        for (Executions statement : executions.values()) {
+            if (statement.parameters.size() >= repeatThreshold) {
+                violations.add(repeatViolation(statement));
+            }
+        }
+        return violations;
+    }
+
+    private String budgetViolation() {
+        return name + " ran " + count + " statements, over its budget of " + budget;
+    }
+
+    private String repeatViolation(Executions statement) {
+        return name + " ran " + shortId(statement.statementId) + " " + statement.count + " times with "
+                + statement.parameters.size() + " different parameters, possible N+1";
+    }
+
+    /**
+     * com.room.backend.mapper.UserMapper.selectById -> UserMapper.selectById
+     */
+    private static String shortId(String statementId) {
+        int methodStart = statementId.lastIndexOf('.');
+        return statementId.substring(statementId.lastIndexOf('.', methodStart - 1) + 1);
+    }
+
+    private static final class Executions {
+        private final String statementId;
+        private final Set<Integer> parameters = new HashSet<>();
+        private int count;
+
+        private Executions(String statementId) {
+            this.statementId = statementId;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.room.backend.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Blob Mapper Interface
+ *
+ * Maintains the blobs table, one row per distinct uploaded file content with the number of photo lists using it
+ */
+@Mapper
+public interface BlobMapper {
+
+    /**
+     * Register an uploaded content, or find the one already stored. Restarts the grace period of an unreferenced
+     * blob, and waits for a collection that holds the row lock, so the caller sees either the row it may use or
+     * none at all.
+     * @param hash Hex SHA-256 of the content
+     * @param path Path to store the content at, relative to the upload directory
+     * @param size Content length in bytes
+     * @return Path the content is stored at
+     */
+    @Select("INSERT INTO blobs (hash, path, size) VALUES (#{hash}, #{path}, #{size}) " +
+            "ON CONFLICT (hash) DO UPDATE SET unreferenced_since = " +
+            "CASE WHEN blobs.ref_count = 0 THEN CURRENT_TIMESTAMP END " +
+            "RETURNING path")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE, useCache = false)
+    String upsert(@Param("hash") String hash, @Param("path") String path, @Param("size") long size);
+
+    /**
+     * Add one reference to each blob
+     * @param hashes Hex SHA-256 of the contents
+     * @return Number of affected rows
+     */
+    @Update("<script>UPDATE blobs SET ref_count = ref_count + 1, unreferenced_since = NULL WHERE hash IN " +
+            "<foreach collection='hashes' item='hash' open='(' separator=',' close=')'>#{hash}</foreach></script>")
+    int addReferences(@Param("hashes") Collection<String> hashes);
+
+    /**
+     * Remove one reference from each blob, blobs left without references become collectable after the grace period
+     * @param hashes Hex SHA-256 of the contents
+     * @return Number of affected rows
+     */
+    @Update("<script>UPDATE blobs SET ref_count = GREATEST(ref_count - 1, 0), " +
+            "unreferenced_since = CASE WHEN ref_count &lt;= 1 THEN CURRENT_TIMESTAMP END WHERE hash IN " +
+            "<foreach collection='hashes' item='hash' open='(' separator=',' close=')'>#{hash}</foreach></script>")
+    int removeReferences(@Param("hashes") Collection<String> hashes);
+
+    /**
+     * Lock blobs that have been unreferenced since before a point in time, skipping rows other nodes are collecting
+     * @param graceMillis Grace period in milliseconds
+     * @param limit Maximum number of blobs
+     * @return Paths of the locked blobs
+     */
+    @Select("SELECT path FROM blobs WHERE ref_count = 0 " +
+            "AND unreferenced_since < CURRENT_TIMESTAMP - #{graceMillis} * INTERVAL '1 millisecond' " +
+            "ORDER BY unreferenced_since LIMIT #{limit} FOR UPDATE SKIP LOCKED")
+    @Options(useCache = false)
+    List<String> lockCollectable(@Param("graceMillis") long graceMillis, @Param("limit") int limit);
+
+    /**
+     * Delete blob rows
+     * @param paths Paths of the blobs
+     * @return Number of deleted rows
+     */
+    @Delete("<script>DELETE FROM blobs WHERE path IN " +
+            "<foreach collection='paths' item='path' open='(' separator=',' close=')'>#{path}</foreach></script>")
+    int deleteByPaths(@Param("paths") Collection<String> paths);
+
+    /**
+     * Count stored blobs and their total size, split by whether they are referenced
+     * @return Rows with referenced, count and bytes
+     */
+    @Select("SELECT ref_count > 0 AS referenced, COUNT(*) AS count, COALESCE(SUM(size), 0) AS bytes " +
+            "FROM blobs GROUP BY ref_count > 0")
+    List<Map<String, Object>> countByReferenced();
+}
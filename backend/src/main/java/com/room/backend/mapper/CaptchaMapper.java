@@ -0,0 +1,52 @@
+package com.room.backend.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * Captcha Mapper Interface
+ *
+ * Reads and maintains the captchas table shared by all nodes
+ */
+@Mapper
+public interface CaptchaMapper {
+
+    /**
+     * Save a captcha answer
+     * @param captchaId Captcha ID
+     * @param answer Captcha answer
+     * @param ttl Time to live in milliseconds
+     * @return Number of affected rows
+     */
+    @Insert("INSERT INTO captchas (captcha_id, answer, expires_at) " +
+            "VALUES (#{captchaId}, #{answer}, CURRENT_TIMESTAMP + #{ttl} * INTERVAL '1 millisecond')")
+    int insert(@Param("captchaId") String captchaId, @Param("answer") String answer, @Param("ttl") long ttl);
+
+    /**
+     * Delete a captcha and return its answer if it has not expired, so concurrent verifications cannot both succeed
+     * @param captchaId Captcha ID
+     * @return Captcha answer, null if absent or expired
+     */
+    @Select("DELETE FROM captchas WHERE captcha_id = #{captchaId} RETURNING " +
+            "CASE WHEN expires_at > CURRENT_TIMESTAMP THEN answer END")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE, useCache = false)
+    String take(@Param("captchaId") String captchaId);
+
+    /**
+     * Delete expired captchas
+     * @return Number of deleted rows
+     */
+    @Delete("DELETE FROM captchas WHERE expires_at <= CURRENT_TIMESTAMP")
+    int deleteExpired();
+
+    /**
+     * Count stored captchas
+     * @return Number of captchas
+     */
+    @Select("SELECT COUNT(*) FROM captchas")
+    long count();
+}
@@ -7,6 +7,7 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -23,4 +24,23 @@ public interface FavoriteMapper extends BaseMapper<Favorite> {
      */
     @Select("SELECT COUNT(*) FROM favorites WHERE user_id = #{userId} AND restaurant_id = #{restaurantId}")
     int checkFavorite(@Param("userId") Integer userId, @Param("restaurantId") Integer restaurantId);
+
+    /**
+     * Get the favorited subset of a batch of restaurants
+     * @param userId User ID
+     * @param restaurantIds Restaurant IDs
+     * @return IDs of the restaurants favorited by the user
+     */
+    @Select("<script>SELECT restaurant_id FROM favorites WHERE user_id = #{userId} AND restaurant_id IN " +
+            "<foreach collection='restaurantIds' item='restaurantId' open='(' separator=',' close=')'> #{restaurantId} </foreach>" +
+            "</script>")
+    List<Integer> getFavoriteRestaurantIds(@Param("userId") Integer userId, @Param("restaurantIds") Collection<Integer> restaurantIds);
+
+    /**
+     * Get all restaurants favorited by a user
+     * @param userId User ID
+     * @return Restaurant IDs
+     */
+    @Select("SELECT restaurant_id FROM favorites WHERE user_id = #{userId}")
+    List<Integer> getAllFavoriteRestaurantIds(@Param("userId") Integer userId);
 } 
\ No newline at end of file
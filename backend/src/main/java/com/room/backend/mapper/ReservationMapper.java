@@ -4,10 +4,14 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.room.backend.entity.Reservation;
+import com.room.backend.vo.ReservationVO;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -27,6 +31,33 @@ public interface ReservationMapper extends BaseMapper<Reservation> {
      */
     @Select("SELECT * FROM reservations WHERE table_id = #{tableId} AND reservation_time >= #{now} AND status IN (0, 1, 2) ORDER BY reservation_time ASC")
     List<Reservation> getFutureReservationsByTableId(@Param("tableId") Integer tableId, @Param("now") OffsetDateTime now);
+
+    /**
+     * Get active (pending or confirmed) reservations for a table that have not ended yet
+     * @param tableId Table ID
+     * @param now Current time
+     * @return Reservation list
+     */
+    @Select("SELECT * FROM reservations WHERE table_id = #{tableId} AND status IN (1, 2) " +
+            "AND reservation_time + GREATEST(reservation_date, 1) * INTERVAL '1 hour' > #{now} ORDER BY reservation_time ASC")
+    List<Reservation> getActiveReservationsByTableId(@Param("tableId") Integer tableId, @Param("now") OffsetDateTime now);
+
+    /**
+     * Count active (pending or confirmed) reservations of a table overlapping a period
+     * @param tableId Table ID
+     * @param startTime Period start
+     * @param endTime Period end, exclusive
+     * @param excludeId Reservation to leave out, e.g. the one being reactivated (optional)
+     * @return Number of overlapping reservations
+     */
+    @Select("<script>"
+            + "SELECT COUNT(*) FROM reservations WHERE table_id = #{tableId} AND status IN (1, 2) "
+            + "AND reservation_time &lt; #{endTime} "
+            + "AND reservation_time + GREATEST(reservation_date, 1) * INTERVAL '1 hour' &gt; #{startTime} "
+            + "<if test='excludeId != null'>AND id != #{excludeId} </if>"
+            + "</script>")
+    long countOverlappingReservations(@Param("tableId") Integer tableId, @Param("startTime") OffsetDateTime startTime,
+                                      @Param("endTime") OffsetDateTime endTime, @Param("excludeId") Integer excludeId);
     
     /**
      * Get all reservations with pagination (for administrator)
@@ -44,7 +75,7 @@ public interface ReservationMapper extends BaseMapper<Reservation> {
             + "<foreach collection='statusList' item='status' open='(' separator=',' close=')'> #{status} </foreach>"
             + "</if>"
             + "</where>"
-            + " ORDER BY r.created_at DESC"
+            + " ORDER BY r.created_at DESC, r.id DESC"
             + " LIMIT #{pageSize} OFFSET #{offset}"
             + "</script>")
     List<Reservation> getAllReservationsWithPage(
@@ -53,6 +84,69 @@ public interface ReservationMapper extends BaseMapper<Reservation> {
             @Param("statusList") List<Integer> statusList, 
             @Param("restaurantId") Integer restaurantId);
     
+    /**
+     * Get all reservations after a keyset position (for administrator)
+     * @param cursorCreatedAt Creation time of the last row of the previous page, null for the first page
+     * @param cursorId ID of the last row of the previous page, null for the first page
+     * @param limit Maximum number of rows
+     * @param statusList Status list
+     * @param restaurantId Restaurant ID (optional)
+     * @return Reservations in descending (created_at, id) order
+     */
+    @Select("<script>"
+            + "SELECT r.* FROM reservations r "
+            + "<where> 1=1 "
+            + "<if test='cursorId != null'> AND (r.created_at, r.id) &lt; (#{cursorCreatedAt}, #{cursorId}) </if>"
+            + "<if test='restaurantId != null'> AND r.restaurant_id = #{restaurantId} </if>"
+            + "<if test='statusList != null and statusList.size() > 0'> AND r.status IN "
+            + "<foreach collection='statusList' item='status' open='(' separator=',' close=')'> #{status} </foreach>"
+            + "</if>"
+            + "</where>"
+            + " ORDER BY r.created_at DESC, r.id DESC"
+            + " LIMIT #{limit}"
+            + "</script>")
+    List<Reservation> getAllReservationsAfter(
+            @Param("cursorCreatedAt") OffsetDateTime cursorCreatedAt,
+            @Param("cursorId") Integer cursorId,
+            @Param("limit") int limit,
+            @Param("statusList") List<Integer> statusList,
+            @Param("restaurantId") Integer restaurantId);
+
+    /**
+     * Stream reservations with restaurant name and table type for export, must be consumed inside a transaction
+     * so PostgreSQL fetches the rows in batches instead of all at once
+     * @param restaurantIds Restaurant ID list (optional)
+     * @param statusList Status list (optional)
+     * @param from Earliest reservation time, inclusive (optional)
+     * @param to Latest reservation time, exclusive (optional)
+     * @return Cursor over reservations in descending (created_at, id) order, status is in statusValue
+     */
+    @Select("<script>"
+            + "SELECT r.id, r.restaurant_id, res.name AS restaurant_name, r.table_id, t.type AS table_type, "
+            + "r.reservation_time, r.reservation_date, r.person_count, r.remarks, r.status AS status_value, "
+            + "r.cancel_reason, r.created_at, r.updated_at "
+            + "FROM reservations r "
+            + "LEFT JOIN restaurants res ON res.id = r.restaurant_id "
+            + "LEFT JOIN tables t ON t.id = r.table_id "
+            + "<where> 1=1 "
+            + "<if test='restaurantIds != null and restaurantIds.size() > 0'> AND r.restaurant_id IN "
+            + "<foreach collection='restaurantIds' item='restaurantId' open='(' separator=',' close=')'> #{restaurantId} </foreach>"
+            + "</if>"
+            + "<if test='statusList != null and statusList.size() > 0'> AND r.status IN "
+            + "<foreach collection='statusList' item='status' open='(' separator=',' close=')'> #{status} </foreach>"
+            + "</if>"
+            + "<if test='from != null'> AND r.reservation_time &gt;= #{from} </if>"
+            + "<if test='to != null'> AND r.reservation_time &lt; #{to} </if>"
+            + "</where>"
+            + " ORDER BY r.created_at DESC, r.id DESC"
+            + "</script>")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 1000)
+    Cursor<ReservationVO> streamReservationsForExport(
+            @Param("restaurantIds") List<Integer> restaurantIds,
+            @Param("statusList") List<Integer> statusList,
+            @Param("from") OffsetDateTime from,
+            @Param("to") OffsetDateTime to);
+
     /**
      * Get total number of all reservations (for administrator)
      * @param statusList Status list
@@ -89,7 +183,7 @@ public interface ReservationMapper extends BaseMapper<Reservation> {
             + "<foreach collection='statusList' item='status' open='(' separator=',' close=')'> #{status} </foreach>"
             + "</if>"
             + "</where>"
-            + " ORDER BY r.created_at DESC"
+            + " ORDER BY r.created_at DESC, r.id DESC"
             + " LIMIT #{pageSize} OFFSET #{offset}"
             + "</script>")
     List<Reservation> getManagerReservationsWithPage(
@@ -98,6 +192,36 @@ public interface ReservationMapper extends BaseMapper<Reservation> {
             @Param("statusList") List<Integer> statusList, 
             @Param("restaurantIds") List<Integer> restaurantIds);
     
+    /**
+     * Get restaurant manager's reservations after a keyset position
+     * @param cursorCreatedAt Creation time of the last row of the previous page, null for the first page
+     * @param cursorId ID of the last row of the previous page, null for the first page
+     * @param limit Maximum number of rows
+     * @param statusList Status list
+     * @param restaurantIds Restaurant ID list
+     * @return Reservations in descending (created_at, id) order
+     */
+    @Select("<script>"
+            + "SELECT r.* FROM reservations r "
+            + "<where> 1=1 "
+            + "<if test='cursorId != null'> AND (r.created_at, r.id) &lt; (#{cursorCreatedAt}, #{cursorId}) </if>"
+            + "<if test='restaurantIds != null and restaurantIds.size() > 0'> AND r.restaurant_id IN "
+            + "<foreach collection='restaurantIds' item='restaurantId' open='(' separator=',' close=')'> #{restaurantId} </foreach>"
+            + "</if>"
+            + "<if test='statusList != null and statusList.size() > 0'> AND r.status IN "
+            + "<foreach collection='statusList' item='status' open='(' separator=',' close=')'> #{status} </foreach>"
+            + "</if>"
+            + "</where>"
+            + " ORDER BY r.created_at DESC, r.id DESC"
+            + " LIMIT #{limit}"
+            + "</script>")
+    List<Reservation> getManagerReservationsAfter(
+            @Param("cursorCreatedAt") OffsetDateTime cursorCreatedAt,
+            @Param("cursorId") Integer cursorId,
+            @Param("limit") int limit,
+            @Param("statusList") List<Integer> statusList,
+            @Param("restaurantIds") List<Integer> restaurantIds);
+
     /**
      * Get total number of restaurant manager's reservations
      * @param statusList Status list
@@ -0,0 +1,99 @@
+package com.room.backend.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reservation Daily Statistics Mapper Interface
+ *
+ * Reads and maintains reservation_daily_stats, which holds the number of reservations per reservation day,
+ * restaurant and status. Queries with a null ownerId cover all restaurants.
+ */
+@Mapper
+public interface ReservationStatsMapper {
+
+    /**
+     * Add to the counter of a reservation day, restaurant and status, creating it if missing
+     * @param reservationTime Reservation time, its date is the counter day
+     * @param restaurantId Restaurant ID
+     * @param status Reservation status
+     * @param delta Count change, negative to decrement
+     * @return Number of affected rows
+     */
+    @Insert("INSERT INTO reservation_daily_stats (day, restaurant_id, status, reservation_count) " +
+            "VALUES (DATE(CAST(#{reservationTime} AS TIMESTAMP WITH TIME ZONE)), #{restaurantId}, #{status}, #{delta}) " +
+            "ON CONFLICT (day, restaurant_id, status) " +
+            "DO UPDATE SET reservation_count = reservation_daily_stats.reservation_count + EXCLUDED.reservation_count")
+    int addCount(@Param("reservationTime") OffsetDateTime reservationTime, @Param("restaurantId") Integer restaurantId,
+                 @Param("status") Integer status, @Param("delta") long delta);
+
+    /**
+     * Block counter updates until the current transaction ends
+     */
+    @Update("LOCK TABLE reservation_daily_stats IN EXCLUSIVE MODE")
+    void lockForRebuild();
+
+    /**
+     * Delete all counters
+     * @return Number of deleted rows
+     */
+    @Delete("DELETE FROM reservation_daily_stats")
+    int deleteAll();
+
+    /**
+     * Recompute all counters from the reservations table
+     * @return Number of inserted rows
+     */
+    @Insert("INSERT INTO reservation_daily_stats (day, restaurant_id, status, reservation_count) " +
+            "SELECT DATE(reservation_time), restaurant_id, status, COUNT(*) FROM reservations " +
+            "GROUP BY DATE(reservation_time), restaurant_id, status")
+    int insertFromReservations();
+
+    /**
+     * Count reservations by status
+     * @param ownerId Restaurant owner ID, null for all restaurants
+     * @return Rows of status and count, statuses without reservations are omitted
+     */
+    @Select("<script>SELECT s.status, SUM(s.reservation_count) AS count FROM reservation_daily_stats s " +
+            "<if test='ownerId != null'>JOIN restaurants res ON s.restaurant_id = res.id AND res.owner_id = #{ownerId} </if>" +
+            "GROUP BY s.status HAVING SUM(s.reservation_count) &gt; 0" +
+            "</script>")
+    List<Map<String, Object>> countByStatus(@Param("ownerId") Integer ownerId);
+
+    /**
+     * Count reservations in a range of reservation days
+     * @param ownerId Restaurant owner ID, null for all restaurants
+     * @param startDay First day, inclusive
+     * @param endDay Last day, inclusive
+     * @return Number of reservations
+     */
+    @Select("<script>SELECT COALESCE(SUM(s.reservation_count), 0) FROM reservation_daily_stats s " +
+            "<if test='ownerId != null'>JOIN restaurants res ON s.restaurant_id = res.id AND res.owner_id = #{ownerId} </if>" +
+            "WHERE s.day BETWEEN #{startDay} AND #{endDay}" +
+            "</script>")
+    Long countBetween(@Param("ownerId") Integer ownerId, @Param("startDay") LocalDate startDay, @Param("endDay") LocalDate endDay);
+
+    /**
+     * Count reservations per reservation day and status
+     * @param ownerId Restaurant owner ID, null for all restaurants
+     * @param startDay First day, inclusive
+     * @param endDay Last day, inclusive
+     * @return Rows of date, status and count, days and statuses without reservations are omitted
+     */
+    @Select("<script>SELECT s.day AS date, s.status, SUM(s.reservation_count) AS count FROM reservation_daily_stats s " +
+            "<if test='ownerId != null'>JOIN restaurants res ON s.restaurant_id = res.id AND res.owner_id = #{ownerId} </if>" +
+            "WHERE s.day BETWEEN #{startDay} AND #{endDay} " +
+            "GROUP BY s.day, s.status HAVING SUM(s.reservation_count) &gt; 0" +
+            "</script>")
+    List<Map<String, Object>> countDailyByStatus(@Param("ownerId") Integer ownerId, @Param("startDay") LocalDate startDay,
+                                                 @Param("endDay") LocalDate endDay);
+}
@@ -92,12 +92,18 @@ public interface RestaurantMapper extends BaseMapper<Restaurant> {
     List<Map<String, Object>> countManagerDailyRestaurantsByStatus(@Param("userId") Integer userId, @Param("startDate") OffsetDateTime startDate, @Param("endDate") OffsetDateTime endDate);
 
     /**
-     * Get list of restaurant IDs that staff belongs to
-     * @param staffId Staff ID
+     * Get list of restaurant IDs owned by a manager
+     * @param ownerId Owner (manager) user ID
      * @return List of restaurant IDs
      */
-    @Select("SELECT DISTINCT r.id FROM restaurants r " +
-            "JOIN staff s ON r.owner_id = s.manager_id " +
-            "WHERE s.user_id = #{staffId} AND s.status = 1")
-    List<Integer> getRestaurantIdsByStaffId(@Param("staffId") Integer staffId);
+    @Select("SELECT id FROM restaurants WHERE owner_id = #{ownerId}")
+    List<Integer> getRestaurantIdsByOwnerId(@Param("ownerId") Integer ownerId);
+
+    /**
+     * Lock a restaurant row until the end of the current transaction, serializing edits of its photos
+     * @param id Restaurant ID
+     * @return Restaurant ID, null if the restaurant does not exist
+     */
+    @Select("SELECT id FROM restaurants WHERE id = #{id} FOR UPDATE")
+    Integer lockById(@Param("id") Integer id);
 } 
\ No newline at end of file
@@ -3,11 +3,20 @@ package com.room.backend.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.room.backend.entity.RestaurantTable;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 
 /**
  * Restaurant Table Mapper Interface
  */
 @Mapper
 public interface RestaurantTableMapper extends BaseMapper<RestaurantTable> {
-    
+
+    /**
+     * Lock a table row until the end of the current transaction, serializing bookings of the table
+     * @param id Table ID
+     * @return Table ID, null if the table does not exist
+     */
+    @Select("SELECT id FROM tables WHERE id = #{id} FOR UPDATE")
+    Integer lockById(@Param("id") Integer id);
 } 
\ No newline at end of file
@@ -6,7 +6,9 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Review Mapper Interface
@@ -47,4 +49,30 @@ public interface ReviewMapper extends BaseMapper<Review> {
      */
     @Select("SELECT COUNT(*) FROM reviews WHERE user_id = #{userId} AND restaurant_id = #{restaurantId}")
     Integer checkReviewExistence(@Param("userId") Integer userId, @Param("restaurantId") Integer restaurantId);
-} 
\ No newline at end of file
+
+    /**
+     * Get the reviewed (user, restaurant) pairs among a batch of users and restaurants
+     * @param userIds User IDs
+     * @param restaurantIds Restaurant IDs
+     * @return Rows containing user_id and restaurant_id
+     */
+    @Select("<script>SELECT DISTINCT user_id, restaurant_id FROM reviews WHERE user_id IN " +
+           "<foreach collection='userIds' item='userId' open='(' separator=',' close=')'> #{userId} </foreach>" +
+           " AND restaurant_id IN " +
+           "<foreach collection='restaurantIds' item='restaurantId' open='(' separator=',' close=')'> #{restaurantId} </foreach>" +
+           "</script>")
+    List<Map<String, Object>> getReviewedPairs(@Param("userIds") Collection<Integer> userIds,
+                                               @Param("restaurantIds") Collection<Integer> restaurantIds);
+
+    /**
+     * Count reviews per rating for a batch of restaurants
+     * @param restaurantIds Restaurant IDs
+     * @return Rows containing restaurant_id, rating and count
+     */
+    @Select("<script>SELECT restaurant_id, rating, COUNT(*) AS count FROM reviews " +
+           "WHERE restaurant_id IN " +
+           "<foreach collection='restaurantIds' item='restaurantId' open='(' separator=',' close=')'> #{restaurantId} </foreach>" +
+           " GROUP BY restaurant_id, rating" +
+           "</script>")
+    List<Map<String, Object>> countRatingsByRestaurantIds(@Param("restaurantIds") Collection<Integer> restaurantIds);
+}
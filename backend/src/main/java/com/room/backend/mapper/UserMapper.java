@@ -67,4 +67,12 @@ public interface UserMapper extends BaseMapper<User> {
             "</script>"})
     long countUsers(@Param("keyword") String keyword, @Param("role") Integer role,
                    @Param("status") Integer status);
+
+    /**
+     * Lock a user row until the end of the current transaction, serializing edits of the avatar
+     * @param id User ID
+     * @return User ID, null if the user does not exist
+     */
+    @Select("SELECT id FROM users WHERE id = #{id} FOR UPDATE")
+    Integer lockById(@Param("id") Integer id);
 } 
\ No newline at end of file
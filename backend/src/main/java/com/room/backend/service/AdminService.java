@@ -30,4 +30,10 @@ public interface AdminService {
      * @return Restaurant statistics for the last 7 days
      */
     Result<Map<String, Object>> getRestaurantStatistics(Map<String, Object> userInfo);
-} 
\ No newline at end of file
+
+    /**
+     * Recompute the daily reservation counters behind the reservation statistics from the reservations table
+     * @return Number of counters written
+     */
+    Result<Map<String, Object>> rebuildReservationStatistics();
+}
@@ -72,11 +72,5 @@ public interface AdminUserService {
      * @return Reset result
      */
     Result<?> resetUserPassword(Integer userId);
-    
-    /**
-     * Check administrator permission
-     * @param token JWT token
-     * @return Check result, returns user ID if successful
-     */
-    Result<Integer> checkAdminRole(String token);
+
 } 
\ No newline at end of file
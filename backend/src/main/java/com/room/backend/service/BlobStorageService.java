@@ -0,0 +1,37 @@
+package com.room.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Blob Storage Service Interface
+ *
+ * Stores uploaded images by content, identical uploads share one file named after its SHA-256. Photo lists of
+ * restaurants and reviews and user avatars hold references to these files, files nothing refers to are deleted in
+ * the background after a grace period that leaves time to save the form an image was uploaded from.
+ */
+public interface BlobStorageService {
+
+    /**
+     * Store an uploaded image, hashing it while it is written
+     * @param content Image content
+     * @param extension File extension including the dot, e.g. ".png"
+     * @return Path of the stored image relative to the upload directory
+     */
+    String storeImage(InputStream content, String extension) throws IOException;
+
+    /**
+     * Move references from the photos of an entity before a change to the photos after it, joins the transaction
+     * that saves the entity if there is one. URLs that do not point to a stored blob are ignored.
+     * @param oldPhotos Photo URLs separated by |, or an avatar URL, null for a new entity
+     * @param newPhotos Photo URLs separated by |, or an avatar URL, null for a deleted entity
+     */
+    void updateReferences(String oldPhotos, String newPhotos);
+
+    /**
+     * Get storage statistics
+     * @return Blob counts and sizes, and collector counters
+     */
+    Map<String, Object> getStats();
+}
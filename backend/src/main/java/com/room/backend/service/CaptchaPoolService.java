@@ -0,0 +1,23 @@
+package com.room.backend.service;
+
+import com.room.backend.dto.CaptchaImageDTO;
+
+import java.util.Map;
+
+/**
+ * Captcha Pool Service Interface
+ */
+public interface CaptchaPoolService {
+
+    /**
+     * Take a rendered captcha, rendering one on the calling thread if the pool is empty
+     * @return Captcha text and image, never handed out twice
+     */
+    CaptchaImageDTO take();
+
+    /**
+     * Get pool statistics
+     * @return Pool size, capacity, watermark and hit/miss counters
+     */
+    Map<String, Object> getStats();
+}
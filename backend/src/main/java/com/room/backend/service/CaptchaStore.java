@@ -0,0 +1,29 @@
+package com.room.backend.service;
+
+/**
+ * Captcha Store Interface
+ *
+ * Holds the answers of issued captchas until they are verified or expire. Each captcha can be verified once.
+ */
+public interface CaptchaStore {
+
+    /**
+     * Save the answer of an issued captcha
+     * @param captchaId Captcha ID
+     * @param answer Captcha text
+     */
+    void save(String captchaId, String answer);
+
+    /**
+     * Verify an answer and consume the captcha, whether the answer is correct or not
+     * @param captchaId Captcha ID
+     * @param answer Answer entered by the user, compared case-insensitively
+     * @return Whether the captcha exists, has not expired and the answer matches
+     */
+    boolean verify(String captchaId, String answer);
+
+    /**
+     * Get number of stored captchas, including expired ones not yet removed
+     */
+    long size();
+}
@@ -0,0 +1,83 @@
+package com.room.backend.service;
+
+import com.room.backend.entity.Restaurant;
+import com.room.backend.entity.RestaurantTable;
+import com.room.backend.entity.User;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Catalog Cache Service Interface
+ *
+ * Read-through cache of restaurants, tables and users by ID. Every call returns fresh copies, callers may modify
+ * them. Reads that are followed by an update of the same row should still go to the mapper.
+ */
+public interface CatalogCacheService {
+
+    /**
+     * Get a restaurant
+     * @param id Restaurant ID
+     * @return Restaurant, null if it does not exist
+     */
+    Restaurant getRestaurant(Integer id);
+
+    /**
+     * Get restaurants
+     * @param ids Restaurant IDs
+     * @return Restaurant ID -> restaurant, restaurants that do not exist are missing
+     */
+    Map<Integer, Restaurant> getRestaurants(Collection<Integer> ids);
+
+    /**
+     * Get a table
+     * @param id Table ID
+     * @return Table, null if it does not exist
+     */
+    RestaurantTable getTable(Integer id);
+
+    /**
+     * Get tables
+     * @param ids Table IDs
+     * @return Table ID -> table, tables that do not exist are missing
+     */
+    Map<Integer, RestaurantTable> getTables(Collection<Integer> ids);
+
+    /**
+     * Get a user
+     * @param id User ID
+     * @return User, null if it does not exist
+     */
+    User getUser(Integer id);
+
+    /**
+     * Get users
+     * @param ids User IDs
+     * @return User ID -> user, users that do not exist are missing
+     */
+    Map<Integer, User> getUsers(Collection<Integer> ids);
+
+    /**
+     * Invalidate a restaurant after it was updated or deleted
+     * @param id Restaurant ID
+     */
+    void invalidateRestaurant(Integer id);
+
+    /**
+     * Invalidate a table after it was updated or deleted
+     * @param id Table ID
+     */
+    void invalidateTable(Integer id);
+
+    /**
+     * Invalidate a user after it was updated or deleted
+     * @param id User ID
+     */
+    void invalidateUser(Integer id);
+
+    /**
+     * Get cache statistics
+     * @return Cache name -> size and hit/miss counters
+     */
+    Map<String, Object> getStats();
+}
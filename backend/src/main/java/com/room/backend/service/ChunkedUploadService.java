@@ -0,0 +1,66 @@
+package com.room.backend.service;
+
+import com.room.backend.dto.UploadSessionDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Chunked Upload Service Interface
+ *
+ * Receives large files as independently sent, checksummed chunks. A failed chunk is sent again without
+ * resending the rest, and an interrupted upload is resumed by sending the missing chunks. Every session belongs
+ * to the user who started it, it does not exist for other users.
+ */
+public interface ChunkedUploadService {
+
+    /**
+     * Start an upload
+     * @param userId ID of the uploading user
+     * @param fileName Original file name, only its extension is kept
+     * @param size File size in bytes
+     * @return New session
+     * @throws IllegalArgumentException If the name or size is invalid, or the user or the server already has too
+     * many unfinished uploads or bytes in them
+     */
+    UploadSessionDTO create(Integer userId, String fileName, long size);
+
+    /**
+     * Get an upload session
+     * @param userId ID of the uploading user
+     * @param uploadId Upload session ID
+     * @return Session, null if it does not exist, expired or belongs to another user
+     */
+    UploadSessionDTO getSession(Integer userId, String uploadId);
+
+    /**
+     * Receive a chunk
+     * @param userId ID of the uploading user
+     * @param uploadId Upload session ID
+     * @param index Chunk index, starting at 0
+     * @param body Chunk content, exactly the chunk's length
+     * @param sha256 Hex SHA-256 of the chunk content
+     * @return Updated session, null if the session does not exist
+     * @throws IllegalArgumentException If the index, length or checksum is wrong, the chunk must be sent again
+     * @throws IOException If reading the body or writing the file fails
+     */
+    UploadSessionDTO writeChunk(Integer userId, String uploadId, int index, InputStream body, String sha256) throws IOException;
+
+    /**
+     * Finish an upload once all chunks are received
+     * @param userId ID of the uploading user
+     * @param uploadId Upload session ID
+     * @return Path of the file relative to the upload directory, null if the session does not exist
+     * @throws IllegalArgumentException If chunks are missing
+     * @throws IOException If the file cannot be moved into place
+     */
+    String complete(Integer userId, String uploadId) throws IOException;
+
+    /**
+     * Abort an upload and delete what was received
+     * @param userId ID of the uploading user
+     * @param uploadId Upload session ID
+     * @return Whether the session existed
+     */
+    boolean cancel(Integer userId, String uploadId);
+}
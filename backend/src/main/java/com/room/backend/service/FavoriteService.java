@@ -2,7 +2,9 @@ package com.room.backend.service;
 
 import com.room.backend.common.Result;
 
+import java.util.Collection;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Favorite Service Interface
@@ -41,4 +43,12 @@ public interface FavoriteService {
      * @return Whether already favorited
      */
     boolean isFavorite(Integer userId, Integer restaurantId);
+
+    /**
+     * Get the favorited subset of a batch of restaurants
+     * @param userId User ID
+     * @param restaurantIds Restaurant IDs
+     * @return IDs of the restaurants favorited by the user
+     */
+    Set<Integer> getFavoriteRestaurantIds(Integer userId, Collection<Integer> restaurantIds);
 } 
\ No newline at end of file
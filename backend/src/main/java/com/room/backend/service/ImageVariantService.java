@@ -0,0 +1,39 @@
+package com.room.backend.service;
+
+import java.io.File;
+import java.util.Map;
+
+/**
+ * Image Variant Service Interface
+ *
+ * Generates resized, re-encoded variants of uploaded images in the background. Variants: "thumb" (200px),
+ * "card" (640px) and "full" (1600px), measured on the longest side, images are never enlarged.
+ */
+public interface ImageVariantService {
+
+    /**
+     * Schedule generation of all variants of an image, does nothing if it is already scheduled
+     * @param original Uploaded image
+     */
+    void generate(File original);
+
+    /**
+     * Get a generated variant, scheduling generation if it does not exist yet
+     * @param original Uploaded image
+     * @param variant Variant name
+     * @return Variant file, null if the variant is unknown or not generated yet
+     */
+    File getVariant(File original, String variant);
+
+    /**
+     * Delete all generated variants of an image
+     * @param original Uploaded image, which may already be deleted
+     */
+    void deleteVariants(File original);
+
+    /**
+     * Get pipeline statistics
+     * @return Queue length and generated/failed/rejected counters
+     */
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,27 @@
+package com.room.backend.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Cache Invalidation Bus Interface
+ *
+ * Broadcasts entity changes to the node-local caches of all backend nodes. Events published inside a transaction
+ * are delivered once it commits and dropped if it rolls back.
+ */
+public interface InvalidationBus {
+
+    /**
+     * Publish a change
+     * @param topic Cache topic, e.g. "restaurant"
+     * @param id ID of the changed entity, null if any entity of the topic may have changed
+     */
+    void publish(String topic, Integer id);
+
+    /**
+     * Subscribe to changes of a topic
+     * @param topic Cache topic
+     * @param listener Called with the ID of the changed entity, or with null when the whole cache must be dropped,
+     *                 e.g. after events may have been missed
+     */
+    void subscribe(String topic, Consumer<Integer> listener);
+}
@@ -0,0 +1,19 @@
+package com.room.backend.service;
+
+import com.room.backend.dto.MediaFileDTO;
+
+/**
+ * Media Service Interface
+ *
+ * Resolves URLs below /uploads to the files to send
+ */
+public interface MediaService {
+
+    /**
+     * Resolve an uploaded file
+     * @param path Path relative to the upload directory, e.g. images/x.png
+     * @param variant Image variant name (thumb, card or full), optional
+     * @return File to send, the original while the requested variant is not generated yet, null if not found
+     */
+    MediaFileDTO resolve(String path, String variant);
+}
@@ -5,8 +5,11 @@ import com.room.backend.common.Result;
 import com.room.backend.dto.ReservationDTO;
 import com.room.backend.entity.Reservation;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Reservation Service Interface
@@ -47,6 +50,14 @@ public interface ReservationService {
      */
     Result<?> getTableFutureReservations(Integer tableId);
 
+    /**
+     * Get free time periods of a table on a day
+     * @param tableId Table ID
+     * @param date Date, format yyyy-MM-dd (UTC), defaults to today
+     * @return Free period list
+     */
+    Result<?> getTableFreeSlots(Integer tableId, String date);
+
     /**
      * Get all reservations for administrator
      * @param page Page number, default 1
@@ -57,6 +68,18 @@ public interface ReservationService {
      */
     Map<String, Object> getAllReservations(Integer page, Integer pageSize, String status, Integer restaurantId);
 
+    /**
+     * Get all reservations for administrator by keyset cursor, newest first
+     * @param cursor Next page token returned with the previous page, null for the first page
+     * @param pageSize Items per page, default 10
+     * @param status Reservation status, multiple statuses separated by commas (0:Cancelled, 1:Pending, 2:Confirmed, 3:Completed, 4:Rejected)
+     * @param restaurantId Restaurant ID, if provided only query reservations for this restaurant
+     * @param includeTotal Whether to include the total count, which may be cached for a short time
+     * @return Map containing reservation list, hasMore, nextCursor and optionally total count
+     * @throws IllegalArgumentException If the cursor is invalid
+     */
+    Map<String, Object> getAllReservationsByCursor(String cursor, Integer pageSize, String status, Integer restaurantId, boolean includeTotal);
+
     /**
      * Get reservations for restaurants managed by restaurant manager
      * @param page Page number, default 1
@@ -68,6 +91,36 @@ public interface ReservationService {
      */
     Map<String, Object> getManagerReservations(Integer page, Integer pageSize, String status, Integer restaurantId, Integer managerId);
 
+    /**
+     * Export reservations newest first, rows are written as they are read from the database
+     * @param writer Target, flushed but not closed
+     * @param format Export format, "csv" or "ndjson"
+     * @param status Reservation status, multiple statuses separated by commas (0:Cancelled, 1:Pending, 2:Confirmed, 3:Completed, 4:Rejected)
+     * @param restaurantId Restaurant ID, if provided only export reservations for this restaurant
+     * @param from Earliest reservation date (yyyy-MM-dd, UTC), inclusive, optional
+     * @param to Latest reservation date (yyyy-MM-dd, UTC), inclusive, optional
+     * @param managerId Restaurant manager ID, limits the export to the manager's restaurants, null for administrator
+     * @return Number of exported reservations
+     * @throws IllegalArgumentException If the format or a date is invalid, thrown before anything is written
+     * @throws IOException If writing fails
+     */
+    long exportReservations(Writer writer, String format, String status, Integer restaurantId, String from, String to,
+                            Integer managerId) throws IOException;
+
+    /**
+     * Get reservations for restaurants managed by restaurant manager by keyset cursor, newest first
+     * @param cursor Next page token returned with the previous page, null for the first page
+     * @param pageSize Items per page, default 10
+     * @param status Reservation status, multiple statuses separated by commas (0:Cancelled, 1:Pending, 2:Confirmed, 3:Completed, 4:Rejected)
+     * @param restaurantId Restaurant ID, if provided only query reservations for this restaurant, which must belong to current manager
+     * @param managerId Restaurant manager ID
+     * @param includeTotal Whether to include the total count, which may be cached for a short time
+     * @return Map containing reservation list, hasMore, nextCursor and optionally total count
+     * @throws IllegalArgumentException If the cursor is invalid
+     */
+    Map<String, Object> getManagerReservationsByCursor(String cursor, Integer pageSize, String status, Integer restaurantId,
+                                                       Integer managerId, boolean includeTotal);
+
     /**
      * Confirm reservation
      * @param reservationId Reservation ID
@@ -98,21 +151,21 @@ public interface ReservationService {
 
     /**
      * Get reservation list for staff's restaurant
-     * @param staffId Staff ID
+     * @param staffRestaurantIds IDs of the restaurants the staff member works for
      * @param page Page number
      * @param pageSize Page size
      * @param status Status (optional)
      * @param restaurantId Restaurant ID (optional)
      * @return Reservation list and total count
      */
-    Map<String, Object> getStaffReservations(Integer staffId, Integer page, Integer pageSize, String status, Integer restaurantId);
+    Map<String, Object> getStaffReservations(Set<Integer> staffRestaurantIds, Integer page, Integer pageSize, String status, Integer restaurantId);
 
     /**
      * Update reservation status for staff's restaurant
-     * @param staffId Staff ID
+     * @param staffRestaurantIds IDs of the restaurants the staff member works for
      * @param reservationId Reservation ID
      * @param status New status
      * @return Updated reservation information
      */
-    Reservation updateStaffReservationStatus(Integer staffId, Integer reservationId, Integer status);
+    Reservation updateStaffReservationStatus(Set<Integer> staffRestaurantIds, Integer reservationId, Integer status);
 } 
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.room.backend.service;
+
+import com.room.backend.entity.Reservation;
+
+/**
+ * Reservation Statistics Service Interface
+ *
+ * Maintains the daily reservation counters read by the statistics dashboards
+ */
+public interface ReservationStatsService {
+
+    /**
+     * Count a newly created reservation
+     * @param reservation Saved reservation
+     */
+    void onReservationCreated(Reservation reservation);
+
+    /**
+     * Move a reservation from the counter of its old status to the counter of its current status
+     * @param reservation Updated reservation
+     * @param oldStatus Status before the update
+     */
+    void onStatusChanged(Reservation reservation, Integer oldStatus);
+
+    /**
+     * Recompute all counters from the reservations table
+     * @return Number of counters written
+     */
+    int rebuild();
+}
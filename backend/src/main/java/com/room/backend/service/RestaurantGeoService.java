@@ -0,0 +1,44 @@
+package com.room.backend.service;
+
+import com.room.backend.entity.Restaurant;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Restaurant Geo Search Service Interface
+ */
+public interface RestaurantGeoService {
+
+    /**
+     * Find operating restaurants within a radius
+     * @param latitude Latitude of the search center
+     * @param longitude Longitude of the search center
+     * @param radiusKm Search radius (km)
+     * @param limit Maximum number of results
+     * @return Restaurant ID -> distance (km), nearest first
+     */
+    LinkedHashMap<Integer, Double> findWithinRadius(double latitude, double longitude, double radiusKm, int limit);
+
+    /**
+     * Find the k nearest operating restaurants
+     * @param latitude Latitude of the search center
+     * @param longitude Longitude of the search center
+     * @param k Number of restaurants
+     * @param maxDistanceKm Maximum distance (km), null for no limit
+     * @return Restaurant ID -> distance (km), nearest first
+     */
+    LinkedHashMap<Integer, Double> findNearest(double latitude, double longitude, int k, Double maxDistanceKm);
+
+    /**
+     * Re-index a restaurant after it was added or changed, only operating restaurants with coordinates are indexed.
+     * Applied on this node once the current transaction commits and broadcast to the other nodes.
+     * @param restaurant Restaurant entity with its current state
+     */
+    void refresh(Restaurant restaurant);
+
+    /**
+     * Remove a deleted restaurant from the index, once the current transaction commits
+     * @param restaurantId Restaurant ID
+     */
+    void remove(Integer restaurantId);
+}
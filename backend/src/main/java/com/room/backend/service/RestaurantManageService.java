@@ -61,13 +61,6 @@ public interface RestaurantManageService {
      */
     Result<?> updateRestaurantStatus(Integer id, Integer status, Integer userId);
     
-    /**
-     * Check user permission
-     * @param token JWT token
-     * @return Check result
-     */
-    Result<Map<String, Object>> checkManagerRole(String token);
-    
     /**
      * Get restaurant list for restaurant manager
      * @param page Page number
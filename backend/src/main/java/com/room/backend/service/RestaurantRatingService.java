@@ -0,0 +1,33 @@
+package com.room.backend.service;
+
+import com.room.backend.dto.RatingSummaryDTO;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Restaurant Rating Service Interface
+ */
+public interface RestaurantRatingService {
+
+    /**
+     * Get rating summary of a restaurant
+     * @param restaurantId Restaurant ID
+     * @return Rating summary, empty if the restaurant has no reviews
+     */
+    RatingSummaryDTO getSummary(Integer restaurantId);
+
+    /**
+     * Get rating summaries of a batch of restaurants
+     * @param restaurantIds Restaurant IDs
+     * @return Restaurant ID -> rating summary, every requested ID is present
+     */
+    Map<Integer, RatingSummaryDTO> getSummaries(Collection<Integer> restaurantIds);
+
+    /**
+     * Drop the summary of a restaurant after one of its reviews was added or deleted, now and again when the
+     * current transaction completes
+     * @param restaurantId Restaurant ID
+     */
+    void onReviewsChanged(Integer restaurantId);
+}
@@ -0,0 +1,33 @@
+package com.room.backend.service;
+
+import com.room.backend.entity.Restaurant;
+
+import java.util.List;
+
+/**
+ * Restaurant Search Service Interface
+ */
+public interface RestaurantSearchService {
+
+    /**
+     * Search restaurants by name, cuisine, address and description
+     * @param keyword Search keyword, prefixes and single typos are tolerated
+     * @param status Restaurant status, null for any status
+     * @param cuisine Cuisine type, null for any cuisine
+     * @return Matching restaurant IDs, most relevant first
+     */
+    List<Integer> search(String keyword, Integer status, String cuisine);
+
+    /**
+     * Index a restaurant after it was added or changed. Applied on this node once the current transaction commits
+     * and broadcast to the other nodes.
+     * @param restaurant Restaurant entity with its current state
+     */
+    void index(Restaurant restaurant);
+
+    /**
+     * Remove a deleted restaurant from the index, once the current transaction commits
+     * @param restaurantId Restaurant ID
+     */
+    void remove(Integer restaurantId);
+}
@@ -75,4 +75,26 @@ public interface RestaurantService {
      * @return Restaurant details with favorite status
      */
     Result<RestaurantVO> getRestaurantDetailWithFavorite(Integer id, Integer userId);
+
+    /**
+     * Get operating restaurants within a radius, nearest first
+     * @param latitude Latitude of the search location
+     * @param longitude Longitude of the search location
+     * @param radius Search radius (km)
+     * @param limit Maximum number of restaurants
+     * @param userId User ID for checking favorite status, null for anonymous users
+     * @return Restaurant list with distances
+     */
+    Result<List<RestaurantVO>> getNearbyRestaurants(Double latitude, Double longitude, Double radius, Integer limit, Integer userId);
+
+    /**
+     * Get the nearest operating restaurants, nearest first
+     * @param latitude Latitude of the search location
+     * @param longitude Longitude of the search location
+     * @param k Number of restaurants
+     * @param maxDistance Maximum distance (km), null for no limit
+     * @param userId User ID for checking favorite status, null for anonymous users
+     * @return Restaurant list with distances
+     */
+    Result<List<RestaurantVO>> getNearestRestaurants(Double latitude, Double longitude, Integer k, Double maxDistance, Integer userId);
 } 
\ No newline at end of file
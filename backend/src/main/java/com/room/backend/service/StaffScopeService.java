@@ -0,0 +1,30 @@
+package com.room.backend.service;
+
+import com.room.backend.common.AuthPrincipal;
+
+/**
+ * Staff Scope Service Interface
+ *
+ * Resolves the manager and restaurants a staff member works for
+ */
+public interface StaffScopeService {
+
+    /**
+     * Get the scope of a staff member
+     * @param userId User ID of the staff member
+     * @return Staff scope, with no manager if the user has not applied
+     */
+    AuthPrincipal.StaffScope getScope(Integer userId);
+
+    /**
+     * Invalidate the scope of a staff member after its staff record was added, changed or deleted
+     * @param userId User ID of the staff member
+     */
+    void invalidateStaff(Integer userId);
+
+    /**
+     * Invalidate the scopes of the staff of a manager after restaurants were added to or removed from the manager
+     * @param managerId Manager user ID
+     */
+    void invalidateManager(Integer managerId);
+}
@@ -0,0 +1,40 @@
+package com.room.backend.service;
+
+import com.room.backend.entity.Reservation;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table Availability Service Interface
+ */
+public interface TableAvailabilityService {
+
+    /**
+     * Book a table if no active reservation overlaps the reservation's period
+     *
+     * Locks the table row and checks the database for overlaps before persisting, so bookings of a table are
+     * serialized across all nodes. Must run inside the transaction that persists the reservation, the index is
+     * updated once it commits.
+     * @param reservation Reservation to book, new or being reactivated, its ID is expected to be set by the persist action
+     * @param persist Action that saves the reservation
+     * @return Whether the reservation was booked
+     */
+    boolean bookIfAvailable(Reservation reservation, Runnable persist);
+
+    /**
+     * Re-index a reservation after its status changed, releasing the table if it is no longer active. Applied on
+     * this node once the current transaction commits and broadcast to the other nodes.
+     * @param reservation Reservation entity with its current status
+     */
+    void refresh(Reservation reservation);
+
+    /**
+     * Get free periods of a table on a day (UTC)
+     * @param tableId Table ID
+     * @param date Day to query
+     * @return Free periods, each containing startTime and endTime
+     */
+    List<Map<String, Object>> getFreeSlots(Integer tableId, LocalDate date);
+}
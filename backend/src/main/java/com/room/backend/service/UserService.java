@@ -15,9 +15,11 @@ public interface UserService {
      * User login
      * @param email Email
      * @param password Password
+     * @param captchaId Captcha ID
+     * @param captcha Captcha answer
      * @return Login result
      */
-    Result<UserVO> login(String email, String password);
+    Result<UserVO> login(String email, String password, String captchaId, String captcha);
 
     /**
      * User registration
@@ -0,0 +1,51 @@
+package com.room.backend.service.impl;
+
+import com.room.backend.service.InvalidationBus;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Subscriber registry shared by the invalidation bus implementations
+ */
+@Slf4j
+public abstract class AbstractInvalidationBus implements InvalidationBus {
+
+    /**
+     * Topic -> listeners
+     */
+    private final Map<String, List<Consumer<Integer>>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public void subscribe(String topic, Consumer<Integer> listener) {
+        listeners.computeIfAbsent(topic, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Deliver an event to the listeners of its topic
+     * @param topic Cache topic
+     * @param id ID of the changed entity, null to drop the whole cache
+     */
+    protected void dispatch(String topic, Integer id) {
+        for (Consumer<Integer> listener : listeners.getOrDefault(topic, List.of())) {
+            try {
+                listener.accept(id);
+            } catch (Exception e) {
+                log.error("Failed to handle invalidation of {} {}", topic, id, e);
+            }
+        }
+    }
+
+    /**
+     * Tell all listeners to drop their whole cache
+     */
+    protected void dispatchAll() {
+        for (String topic : listeners.keySet()) {
+            dispatch(topic, null);
+        }
+    }
+}
@@ -2,9 +2,10 @@ package com.room.backend.service.impl;
 
 import com.room.backend.common.Result;
 import com.room.backend.dto.StatisticsDTO;
-import com.room.backend.mapper.ReservationMapper;
+import com.room.backend.mapper.ReservationStatsMapper;
 import com.room.backend.mapper.RestaurantMapper;
 import com.room.backend.service.AdminService;
+import com.room.backend.service.ReservationStatsService;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -23,13 +24,19 @@ import java.util.stream.Collectors;
 
 /**
  * Admin Service Implementation
+ *
+ * Reservation statistics are read from the daily reservation counters maintained by ReservationStatsService,
+ * restaurant statistics are counted from the restaurants table directly.
  */
 @Service
 @Slf4j
 public class AdminServiceImpl implements AdminService {
 
     @Resource
-    private ReservationMapper reservationMapper;
+    private ReservationStatsMapper reservationStatsMapper;
+
+    @Resource
+    private ReservationStatsService reservationStatsService;
 
     @Resource
     private RestaurantMapper restaurantMapper;
@@ -38,6 +45,8 @@ public class AdminServiceImpl implements AdminService {
     private static final Map<Integer, String> RESERVATION_STATUS_MAP = new HashMap<>();
     private static final Map<Integer, String> RESTAURANT_STATUS_MAP = new HashMap<>();
 
+    private static final int RESERVATION_STATUS_PENDING = 1;
+
     static {
         // Reservation status mapping
         RESERVATION_STATUS_MAP.put(0, "Cancelled");
@@ -61,56 +70,36 @@ public class AdminServiceImpl implements AdminService {
 
             StatisticsDTO statisticsDTO = new StatisticsDTO();
 
-            // Get different statistics based on role
+            // Get different statistics based on role, managers only see their own restaurants
+            Integer ownerId = null;
             if (role == 0) { // Admin
                 // Get total number of all restaurants
-                Long totalRestaurants = restaurantMapper.countTotalRestaurants();
-                statisticsDTO.setTotalRestaurants(totalRestaurants);
-
-                // Get total number of pending reservations
-                Long pendingReservations = reservationMapper.countPendingReservations();
-                statisticsDTO.setPendingReservations(pendingReservations);
-
-                // Get total number of weekly reservations
-                OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-                LocalDate today = now.toLocalDate();
-                LocalDate startOfWeek = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-                LocalDate endOfWeek = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
-
-                OffsetDateTime startDate = startOfWeek.atStartOfDay().atOffset(ZoneOffset.UTC);
-                OffsetDateTime endDate = endOfWeek.atTime(23, 59, 59).atOffset(ZoneOffset.UTC);
-
-                Long weeklyReservations = reservationMapper.countWeeklyReservations(startDate, endDate);
-                statisticsDTO.setWeeklyReservations(weeklyReservations);
-
-                // Get total number of all reservations
-                Long totalReservations = reservationMapper.countTotalReservations();
-                statisticsDTO.setTotalReservations(totalReservations);
+                statisticsDTO.setTotalRestaurants(restaurantMapper.countTotalRestaurants());
             } else { // Restaurant Manager
                 // Get total number of their restaurants
-                Long totalRestaurants = restaurantMapper.countManagerRestaurants(userId);
-                statisticsDTO.setTotalRestaurants(totalRestaurants);
-
-                // Get total number of pending reservations for their restaurants
-                Long pendingReservations = reservationMapper.countManagerPendingReservations(userId);
-                statisticsDTO.setPendingReservations(pendingReservations);
-
-                // Get total number of weekly reservations for their restaurants
-                OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-                LocalDate today = now.toLocalDate();
-                LocalDate startOfWeek = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
-                LocalDate endOfWeek = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
-
-                OffsetDateTime startDate = startOfWeek.atStartOfDay().atOffset(ZoneOffset.UTC);
-                OffsetDateTime endDate = endOfWeek.atTime(23, 59, 59).atOffset(ZoneOffset.UTC);
-
-                Long weeklyReservations = reservationMapper.countManagerWeeklyReservations(userId, startDate, endDate);
-                statisticsDTO.setWeeklyReservations(weeklyReservations);
+                statisticsDTO.setTotalRestaurants(restaurantMapper.countManagerRestaurants(userId));
+                ownerId = userId;
+            }
 
-                // Get total number of all reservations for their restaurants
-                Long totalReservations = reservationMapper.countManagerTotalReservations(userId);
-                statisticsDTO.setTotalReservations(totalReservations);
+            // Get total number of pending and of all reservations
+            long pendingReservations = 0;
+            long totalReservations = 0;
+            for (Map<String, Object> item : reservationStatsMapper.countByStatus(ownerId)) {
+                Integer status = Integer.parseInt(item.get("status").toString());
+                long count = Long.parseLong(item.get("count").toString());
+                if (status == RESERVATION_STATUS_PENDING) {
+                    pendingReservations = count;
+                }
+                totalReservations += count;
             }
+            statisticsDTO.setPendingReservations(pendingReservations);
+            statisticsDTO.setTotalReservations(totalReservations);
+
+            // Get total number of weekly reservations
+            LocalDate today = OffsetDateTime.now(ZoneOffset.UTC).toLocalDate();
+            LocalDate startOfWeek = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            LocalDate endOfWeek = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+            statisticsDTO.setWeeklyReservations(reservationStatsMapper.countBetween(ownerId, startOfWeek, endOfWeek));
 
             return Result.success(statisticsDTO, "Retrieved successfully");
         } catch (Exception e) {
@@ -132,32 +121,15 @@ public class AdminServiceImpl implements AdminService {
             LocalDate today = now.toLocalDate();
             LocalDate sevenDaysAgo = today.minusDays(6);
 
-            OffsetDateTime startDate = sevenDaysAgo.atStartOfDay().atOffset(ZoneOffset.UTC);
-            OffsetDateTime endDate = today.atTime(23, 59, 59).atOffset(ZoneOffset.UTC);
-
-            // Get different statistics based on role
-            List<Map<String, Object>> dailyReservationsList;
-            List<Map<String, Object>> statusCountList;
-            List<Map<String, Object>> dailyStatusCountList;
-
-            if (role == 0) { // Admin
-                dailyReservationsList = reservationMapper.countDailyReservations(startDate, endDate);
-                statusCountList = reservationMapper.countReservationsByStatus();
-                dailyStatusCountList = reservationMapper.countDailyReservationsByStatus(startDate, endDate);
-            } else { // Restaurant Manager
-                dailyReservationsList = reservationMapper.countManagerDailyReservations(userId, startDate, endDate);
-                statusCountList = reservationMapper.countManagerReservationsByStatus(userId);
-                dailyStatusCountList = reservationMapper.countManagerDailyReservationsByStatus(userId, startDate, endDate);
-            }
+            // Get different statistics based on role, managers only see their own restaurants
+            Integer ownerId = role == 0 ? null : userId;
+            List<Map<String, Object>> statusCountList = reservationStatsMapper.countByStatus(ownerId);
+            List<Map<String, Object>> dailyStatusCountList = reservationStatsMapper.countDailyByStatus(ownerId, sevenDaysAgo, today);
 
             List<StatisticsDTO.DailyStatisticsDTO> dailyReservations = new ArrayList<>();
 
-            Map<String, Long> dateCountMap = dailyReservationsList.stream()
-                    .collect(Collectors.toMap(
-                            m -> m.get("date").toString(),
-                            m -> Long.parseLong(m.get("count").toString()),
-                            (a, b) -> a
-                    ));
+            // Daily totals are the sums of the daily status counts
+            Map<String, Long> dateCountMap = new HashMap<>();
 
             Map<String, Long> statusCount = new HashMap<>();
             for (Map<String, Object> item : statusCountList) {
@@ -176,6 +148,7 @@ public class AdminServiceImpl implements AdminService {
 
                 dateStatusMap.computeIfAbsent(date, k -> new HashMap<>());
                 dateStatusMap.get(date).put(statusName, count);
+                dateCountMap.merge(date, count, Long::sum);
             }
 
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
@@ -282,4 +255,18 @@ public class AdminServiceImpl implements AdminService {
             return Result.error(500, "Failed to get restaurant statistics: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    @Override
+    public Result<Map<String, Object>> rebuildReservationStatistics() {
+        try {
+            int counters = reservationStatsService.rebuild();
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("counters", counters);
+            return Result.success(result, "Rebuilt successfully");
+        } catch (Exception e) {
+            log.error("Failed to rebuild reservation statistics", e);
+            return Result.error(500, "Failed to rebuild reservation statistics: " + e.getMessage());
+        }
+    }
+}
@@ -7,13 +7,12 @@ import com.room.backend.common.Result;
 import com.room.backend.entity.User;
 import com.room.backend.mapper.UserMapper;
 import com.room.backend.service.AdminUserService;
-import com.room.backend.util.JwtTokenUtil;
+import com.room.backend.service.BlobStorageService;
+import com.room.backend.service.CatalogCacheService;
 import com.room.backend.vo.UserVO;
-import io.jsonwebtoken.Claims;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -34,9 +33,12 @@ public class AdminUserServiceImpl implements AdminUserService {
 
     @Resource
     private UserMapper userMapper;
-    
-    @Autowired
-    private JwtTokenUtil jwtTokenUtil;
+
+    @Resource
+    private CatalogCacheService catalogCacheService;
+
+    @Resource
+    private BlobStorageService blobStorageService;
     
     @Override
     public Result<Map<String, Object>> getUserList(Integer page, Integer pageSize, String keyword, Integer role, Integer status) {
@@ -90,7 +92,7 @@ public class AdminUserServiceImpl implements AdminUserService {
             }
             
             // Query user
-            User user = userMapper.selectById(userId);
+            User user = catalogCacheService.getUser(userId);
             if (user == null) {
                 return Result.validateFailed("User not found");
             }
@@ -155,6 +157,7 @@ public class AdminUserServiceImpl implements AdminUserService {
             
             // Save user
             userMapper.insert(user);
+            blobStorageService.updateReferences(null, user.getAvatar());
             
             // Build return result
             UserVO result = new UserVO();
@@ -181,11 +184,13 @@ public class AdminUserServiceImpl implements AdminUserService {
                 return Result.validateFailed("User ID cannot be empty");
             }
             
-            // Query user
+            // Lock and query user, so the avatar read here is the one this update replaces
+            userMapper.lockById(userId);
             User user = userMapper.selectById(userId);
             if (user == null) {
                 return Result.validateFailed("User not found");
             }
+            String oldAvatar = user.getAvatar();
             
             // Email uniqueness check
             if (userVO.getEmail() != null && !userVO.getEmail().equals(user.getEmail())) {
@@ -236,6 +241,8 @@ public class AdminUserServiceImpl implements AdminUserService {
             
             // Save update
             userMapper.updateById(user);
+            blobStorageService.updateReferences(oldAvatar, user.getAvatar());
+            catalogCacheService.invalidateUser(userId);
             
             // Build return result
             UserVO result = new UserVO();
@@ -262,7 +269,8 @@ public class AdminUserServiceImpl implements AdminUserService {
                 return Result.validateFailed("User ID cannot be empty");
             }
             
-            // Query user
+            // Lock and query user, so its avatar is released once
+            userMapper.lockById(userId);
             User user = userMapper.selectById(userId);
             if (user == null) {
                 return Result.validateFailed("User not found");
@@ -275,6 +283,8 @@ public class AdminUserServiceImpl implements AdminUserService {
             
             // Delete user
             userMapper.deleteById(userId);
+            blobStorageService.updateReferences(user.getAvatar(), null);
+            catalogCacheService.invalidateUser(userId);
             
             return Result.success(null, "Deleted successfully");
         } catch (Exception e) {
@@ -307,6 +317,7 @@ public class AdminUserServiceImpl implements AdminUserService {
             user.setStatus(status);
             user.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
             userMapper.updateById(user);
+            catalogCacheService.invalidateUser(userId);
             
             // Build return data
             Map<String, Object> result = new HashMap<>();
@@ -344,6 +355,7 @@ public class AdminUserServiceImpl implements AdminUserService {
             user.setRole(role);
             user.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
             userMapper.updateById(user);
+            catalogCacheService.invalidateUser(userId);
             
             // Build return data
             Map<String, Object> result = new HashMap<>();
@@ -378,6 +390,7 @@ public class AdminUserServiceImpl implements AdminUserService {
             user.setPassword(BCrypt.hashpw(defaultPassword, BCrypt.gensalt()));
             user.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
             userMapper.updateById(user);
+            catalogCacheService.invalidateUser(userId);
             
             return Result.success(null, "Password reset successfully, new password is: " + defaultPassword);
         } catch (Exception e) {
@@ -385,32 +398,4 @@ public class AdminUserServiceImpl implements AdminUserService {
             return Result.error(500, "Failed to reset user password: " + e.getMessage());
         }
     }
-    
-    @Override
-    public Result<Integer> checkAdminRole(String token) {
-        // Token validation
-        if (token == null || token.isEmpty()) {
-            return Result.unauthorized();
-        }
-        
-        try {
-            // Parse user role from token
-            Claims allClaimsFromToken = jwtTokenUtil.getAllClaimsFromToken(token);
-            Integer role = allClaimsFromToken.get("role", Integer.class);
-            if (role == null || role != 0) {
-                return Result.forbidden("No permission to access administrator interface");
-            }
-            
-            // Parse user ID
-            Integer userId = jwtTokenUtil.getUserIdFromToken(token);
-            if (userId == null) {
-                return Result.unauthorized();
-            }
-            
-            return Result.success(userId);
-        } catch (Exception e) {
-            log.error("Failed to parse JWT token", e);
-            return Result.unauthorized();
-        }
-    }
-} 
\ No newline at end of file
+}
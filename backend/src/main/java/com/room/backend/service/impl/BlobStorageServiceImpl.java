@@ -0,0 +1,271 @@
+package com.room.backend.service.impl;
+
+import com.room.backend.mapper.BlobMapper;
+import com.room.backend.service.BlobStorageService;
+import com.room.backend.service.ImageVariantService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Blob Storage Service Implementation
+ *
+ * An upload is copied to a temporary file while its SHA-256 is computed, then registered in the blobs table.
+ * If that content is already stored the temporary file is dropped, otherwise it is renamed to
+ * images/{hash}.{ext}. Reference counts change in the transaction that saves a photo list or an avatar, by the
+ * difference between the old and new list, so a rolled back save leaves them untouched.
+ *
+ * The collector locks unreferenced blobs with FOR UPDATE SKIP LOCKED and deletes their files and variants
+ * before deleting the rows. An upload of the same content in the meantime waits for that lock in its upsert,
+ * and then either restarts the grace period of the row or inserts a new one and writes the file again, so it
+ * never ends up pointing at a deleted file. Several nodes can collect at the same time.
+ */
+@Service
+@Slf4j
+public class BlobStorageServiceImpl implements BlobStorageService {
+
+    private static final String IMAGE_DIRECTORY = "images";
+
+    private static final Pattern EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,10}");
+
+    /**
+     * Stored blob in a photo URL, e.g. http://host/uploads/images/{hash}.jpg?variant=thumb
+     */
+    private static final Pattern BLOB_URL = Pattern.compile("/" + IMAGE_DIRECTORY + "/([0-9a-f]{64})\\.[A-Za-z0-9]+(\\?.*)?$");
+
+    private static final int COLLECT_BATCH_SIZE = 100;
+
+    @Value("${file.upload.path}")
+    private String uploadPath;
+
+    @Value("${file.blobs.gc-interval:3600000}")
+    private long gcInterval;
+
+    @Value("${file.blobs.grace-period:86400000}")
+    private long gracePeriod;
+
+    @Resource
+    private BlobMapper blobMapper;
+
+    @Resource
+    private ImageVariantService imageVariantService;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    private Path root;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ScheduledExecutorService collector;
+
+    private final AtomicLong storedCount = new AtomicLong();
+
+    private final AtomicLong deduplicatedCount = new AtomicLong();
+
+    private final AtomicLong collectedCount = new AtomicLong();
+
+    private final AtomicLong collectedBytes = new AtomicLong();
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(uploadPath).toAbsolutePath().normalize();
+        Files.createDirectories(root.resolve(IMAGE_DIRECTORY));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        collector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "blob-collector");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        collector.scheduleWithFixedDelay(this::collect, gcInterval, gcInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        collector.shutdownNow();
+    }
+
+    @Override
+    public String storeImage(InputStream content, String extension) throws IOException {
+        if (extension == null || !EXTENSION.matcher(extension).matches()) {
+            throw new IllegalArgumentException("Unsupported file extension");
+        }
+        Path directory = root.resolve(IMAGE_DIRECTORY);
+        // Hidden, so it is never served
+        Path temp = Files.createTempFile(directory, ".blob-", ".tmp");
+        try {
+            MessageDigest digest = newDigest();
+            long size;
+            try (InputStream input = new DigestInputStream(content, digest);
+                 OutputStream output = Files.newOutputStream(temp)) {
+                size = input.transferTo(output);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+
+            String path = blobMapper.upsert(hash, IMAGE_DIRECTORY + "/" + hash + extension.toLowerCase(), size);
+            Path target = root.resolve(path);
+            if (Files.exists(target)) {
+                deduplicatedCount.incrementAndGet();
+                return path;
+            }
+            // A hard link publishes the complete file atomically and, unlike a rename, fails instead of replacing a
+            // file published in the meantime. The temp file is removed below either way
+            try {
+                Files.createLink(target, temp);
+            } catch (FileAlreadyExistsException e) {
+                // A concurrent upload of the same content was first
+                deduplicatedCount.incrementAndGet();
+                return path;
+            }
+            storedCount.incrementAndGet();
+            // Thumbnails and smaller encodings are generated in the background
+            imageVariantService.generate(target.toFile());
+            return path;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void updateReferences(String oldPhotos, String newPhotos) {
+        Set<String> oldHashes = parseHashes(oldPhotos);
+        Set<String> newHashes = parseHashes(newPhotos);
+        Set<String> added = new HashSet<>(newHashes);
+        added.removeAll(oldHashes);
+        Set<String> removed = new HashSet<>(oldHashes);
+        removed.removeAll(newHashes);
+
+        if (!added.isEmpty()) {
+            blobMapper.addReferences(added);
+        }
+        if (!removed.isEmpty()) {
+            blobMapper.removeReferences(removed);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long referencedCount = 0, referencedBytes = 0, unreferencedCount = 0, unreferencedBytes = 0;
+        for (Map<String, Object> row : blobMapper.countByReferenced()) {
+            long count = ((Number) row.get("count")).longValue();
+            long bytes = ((Number) row.get("bytes")).longValue();
+            if (Boolean.TRUE.equals(row.get("referenced"))) {
+                referencedCount = count;
+                referencedBytes = bytes;
+            } else {
+                unreferencedCount = count;
+                unreferencedBytes = bytes;
+            }
+        }
+        stats.put("referencedCount", referencedCount);
+        stats.put("referencedBytes", referencedBytes);
+        stats.put("unreferencedCount", unreferencedCount);
+        stats.put("unreferencedBytes", unreferencedBytes);
+        stats.put("storedCount", storedCount.get());
+        stats.put("deduplicatedCount", deduplicatedCount.get());
+        stats.put("collectedCount", collectedCount.get());
+        stats.put("collectedBytes", collectedBytes.get());
+        return stats;
+    }
+
+    /**
+     * Delete all blobs that have been unreferenced for longer than the grace period
+     */
+    private void collect() {
+        try {
+            Integer collected;
+            do {
+                collected = transactionTemplate.execute(status -> collectBatch());
+            } while (collected != null && collected == COLLECT_BATCH_SIZE);
+        } catch (Exception e) {
+            log.error("Failed to collect unreferenced blobs", e);
+        }
+    }
+
+    /**
+     * Delete one batch of blobs, must run in a transaction so the rows stay locked until they are deleted.
+     * If the transaction fails after files were deleted, the rows are collected again on the next run.
+     * @return Number of blobs deleted
+     */
+    private int collectBatch() {
+        List<String> paths = blobMapper.lockCollectable(gracePeriod, COLLECT_BATCH_SIZE);
+        if (paths.isEmpty()) {
+            return 0;
+        }
+        for (String path : paths) {
+            Path file = root.resolve(path).normalize();
+            if (!file.startsWith(root)) {
+                continue;
+            }
+            try {
+                long size = Files.exists(file) ? Files.size(file) : 0;
+                imageVariantService.deleteVariants(file.toFile());
+                if (Files.deleteIfExists(file)) {
+                    collectedBytes.addAndGet(size);
+                }
+            } catch (IOException e) {
+                log.warn("Failed to delete blob {}", path, e);
+            }
+        }
+        blobMapper.deleteByPaths(paths);
+        collectedCount.addAndGet(paths.size());
+        log.info("Collected {} unreferenced blobs", paths.size());
+        return paths.size();
+    }
+
+    /**
+     * Hashes of the stored blobs in a photo list, each counted once
+     */
+    private Set<String> parseHashes(String photos) {
+        Set<String> hashes = new HashSet<>();
+        if (photos == null || photos.isEmpty()) {
+            return hashes;
+        }
+        for (String url : photos.split("\\|")) {
+            Matcher matcher = BLOB_URL.matcher(url.trim());
+            if (matcher.find()) {
+                hashes.add(matcher.group(1));
+            }
+        }
+        return hashes;
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.room.backend.service.impl;
+
+import com.room.backend.dto.CaptchaImageDTO;
+import com.room.backend.service.CaptchaPoolService;
+import com.wf.captcha.SpecCaptcha;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.Font;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Captcha Pool Service Implementation
+ *
+ * Renders captchas on background threads ahead of demand, so handing one out is a queue poll instead of
+ * drawing and PNG-encoding an image on the request thread. Once the pool drains to the low watermark it is
+ * refilled to capacity. When requests outpace the renderers and the pool runs empty, captchas are rendered
+ * on the request thread and counted as misses.
+ */
+@Service
+@Slf4j
+public class CaptchaPoolServiceImpl implements CaptchaPoolService {
+
+    // Captcha image size and text length
+    private static final int WIDTH = 120;
+    private static final int HEIGHT = 48;
+    private static final int LENGTH = 5;
+
+    private static final Font FONT = new Font("Verdana", Font.PLAIN, 32);
+
+    @Value("${captcha.pool.capacity:200}")
+    private int capacity;
+
+    @Value("${captcha.pool.low-watermark:50}")
+    private int lowWatermark;
+
+    @Value("${captcha.pool.threads:1}")
+    private int threads;
+
+    private BlockingQueue<CaptchaImageDTO> pool;
+
+    private ExecutorService executor;
+
+    /**
+     * Number of background renderers currently filling the pool
+     */
+    private final AtomicInteger activeRenderers = new AtomicInteger();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong rendered = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        pool = new ArrayBlockingQueue<>(capacity);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "captcha-pool-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            // Rendering must not compete with request threads
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        refill();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public CaptchaImageDTO take() {
+        CaptchaImageDTO captcha = pool.poll();
+        if (captcha != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            captcha = render();
+        }
+
+        if (pool.size() <= lowWatermark) {
+            refill();
+        }
+        return captcha;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", pool.size());
+        stats.put("capacity", capacity);
+        stats.put("lowWatermark", lowWatermark);
+        stats.put("renderers", activeRenderers.get());
+        stats.put("hitCount", hitCount);
+        stats.put("missCount", misses.get());
+        stats.put("hitRatio", total == 0 ? 0 : (double) hitCount / total);
+        stats.put("renderedCount", rendered.get());
+        return stats;
+    }
+
+    /**
+     * Start the background renderers unless they are already running
+     */
+    private void refill() {
+        if (!activeRenderers.compareAndSet(0, threads)) {
+            return;
+        }
+        for (int i = 0; i < threads; i++) {
+            try {
+                executor.execute(this::fill);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                activeRenderers.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Render captchas until the pool is full
+     */
+    private void fill() {
+        boolean failed = false;
+        try {
+            while (pool.remainingCapacity() > 0 && !Thread.currentThread().isInterrupted()) {
+                if (!pool.offer(render())) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            // Not retried here, the next take starts the renderers again
+            failed = true;
+            log.error("Failed to render captchas in the background", e);
+        } finally {
+            // A take between the last offer and this point saw the renderers running and did not start them
+            if (activeRenderers.decrementAndGet() == 0 && !failed && pool.size() <= lowWatermark
+                    && !Thread.currentThread().isInterrupted()) {
+                refill();
+            }
+        }
+    }
+
+    private CaptchaImageDTO render() {
+        SpecCaptcha captcha = new SpecCaptcha(WIDTH, HEIGHT, LENGTH);
+        captcha.setFont(FONT);
+        // Numbers and uppercase letters only
+        captcha.setCharType(SpecCaptcha.TYPE_NUM_AND_UPPER);
+        CaptchaImageDTO image = new CaptchaImageDTO(captcha.text(), captcha.toBase64());
+        rendered.incrementAndGet();
+        return image;
+    }
+}
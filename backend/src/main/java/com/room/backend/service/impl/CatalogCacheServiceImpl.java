@@ -0,0 +1,225 @@
+package com.room.backend.service.impl;
+
+import com.room.backend.entity.Restaurant;
+import com.room.backend.entity.RestaurantTable;
+import com.room.backend.entity.User;
+import com.room.backend.mapper.RestaurantMapper;
+import com.room.backend.mapper.RestaurantTableMapper;
+import com.room.backend.mapper.UserMapper;
+import com.room.backend.service.CatalogCacheService;
+import com.room.backend.service.InvalidationBus;
+import com.room.backend.util.BoundedCache;
+import com.room.backend.util.TransactionUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Catalog Cache Service Implementation
+ *
+ * Keeps one bounded cache per entity type in front of its mapper. Cached entities are never handed out, callers
+ * get copies, so an entity modified for an update cannot leak into the cache before or without the commit.
+ * Entities are invalidated by the write paths, immediately and again when the surrounding transaction completes,
+ * and on the other nodes through the invalidation bus once it commits. The time to live bounds how long rows changed
+ * directly in the database can be served stale.
+ */
+@Service
+@Slf4j
+public class CatalogCacheServiceImpl implements CatalogCacheService, MeterBinder {
+
+    private static final String TOPIC_RESTAURANT = "restaurant";
+
+    private static final String TOPIC_TABLE = "table";
+
+    private static final String TOPIC_USER = "user";
+
+    @Resource
+    private RestaurantMapper restaurantMapper;
+
+    @Resource
+    private RestaurantTableMapper restaurantTableMapper;
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private InvalidationBus invalidationBus;
+
+    @Value("${cache.catalog.max-size:10000}")
+    private int maxSize;
+
+    @Value("${cache.catalog.ttl:300000}")
+    private long ttl;
+
+    private EntityCache<Restaurant> restaurants;
+
+    private EntityCache<RestaurantTable> tables;
+
+    private EntityCache<User> users;
+
+    @PostConstruct
+    public void init() {
+        restaurants = new EntityCache<>(TOPIC_RESTAURANT, restaurantMapper::selectById, restaurantMapper::selectBatchIds,
+                Restaurant::getId, Restaurant::new);
+        tables = new EntityCache<>(TOPIC_TABLE, restaurantTableMapper::selectById, restaurantTableMapper::selectBatchIds,
+                RestaurantTable::getId, RestaurantTable::new);
+        users = new EntityCache<>(TOPIC_USER, userMapper::selectById, userMapper::selectBatchIds,
+                User::getId, User::new);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        restaurants.cache.registerMetrics(registry, "catalog.restaurants");
+        tables.cache.registerMetrics(registry, "catalog.tables");
+        users.cache.registerMetrics(registry, "catalog.users");
+    }
+
+    @Override
+    public Restaurant getRestaurant(Integer id) {
+        return restaurants.get(id);
+    }
+
+    @Override
+    public Map<Integer, Restaurant> getRestaurants(Collection<Integer> ids) {
+        return restaurants.getAll(ids);
+    }
+
+    @Override
+    public RestaurantTable getTable(Integer id) {
+        return tables.get(id);
+    }
+
+    @Override
+    public Map<Integer, RestaurantTable> getTables(Collection<Integer> ids) {
+        return tables.getAll(ids);
+    }
+
+    @Override
+    public User getUser(Integer id) {
+        return users.get(id);
+    }
+
+    @Override
+    public Map<Integer, User> getUsers(Collection<Integer> ids) {
+        return users.getAll(ids);
+    }
+
+    @Override
+    public void invalidateRestaurant(Integer id) {
+        restaurants.invalidate(id);
+    }
+
+    @Override
+    public void invalidateTable(Integer id) {
+        tables.invalidate(id);
+    }
+
+    @Override
+    public void invalidateUser(Integer id) {
+        users.invalidate(id);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("restaurants", restaurants.getStats());
+        stats.put("tables", tables.getStats());
+        stats.put("users", users.getStats());
+        return stats;
+    }
+
+    /**
+     * Bounded cache of one entity type
+     */
+    private final class EntityCache<T> {
+        private final BoundedCache<Integer, T> cache = new BoundedCache<>(maxSize, ttl);
+        private final String topic;
+        private final Function<Integer, T> loader;
+        private final Function<Collection<Integer>, List<T>> batchLoader;
+        private final Function<T, Integer> idGetter;
+        private final Supplier<T> factory;
+
+        private EntityCache(String topic, Function<Integer, T> loader,
+                            Function<Collection<Integer>, List<T>> batchLoader,
+                            Function<T, Integer> idGetter, Supplier<T> factory) {
+            this.topic = topic;
+            this.loader = loader;
+            this.batchLoader = batchLoader;
+            this.idGetter = idGetter;
+            this.factory = factory;
+            invalidationBus.subscribe(topic, this::evict);
+        }
+
+        private T get(Integer id) {
+            if (id == null) {
+                return null;
+            }
+            return copy(cache.get(id, loader));
+        }
+
+        private Map<Integer, T> getAll(Collection<Integer> ids) {
+            Set<Integer> keys = ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+            if (keys.isEmpty()) {
+                return new HashMap<>();
+            }
+
+            Map<Integer, T> result = new HashMap<>();
+            cache.getAll(keys, this::loadAll).forEach((id, entity) -> result.put(id, copy(entity)));
+            return result;
+        }
+
+        private Map<Integer, T> loadAll(Set<Integer> ids) {
+            return batchLoader.apply(ids).stream().collect(Collectors.toMap(idGetter, entity -> entity));
+        }
+
+        private void invalidate(Integer id) {
+            if (id != null) {
+                TransactionUtils.runNowAndAfterCompletion(() -> cache.invalidate(id));
+                invalidationBus.publish(topic, id);
+            }
+        }
+
+        private void evict(Integer id) {
+            if (id == null) {
+                cache.invalidateAll();
+            } else {
+                cache.invalidate(id);
+            }
+        }
+
+        private Map<String, Object> getStats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("size", cache.size());
+            stats.put("maxSize", cache.getMaxSize());
+            stats.put("hitCount", cache.getHitCount());
+            stats.put("missCount", cache.getMissCount());
+            stats.put("hitRatio", cache.getHitRatio());
+            return stats;
+        }
+
+        private T copy(T entity) {
+            if (entity == null) {
+                return null;
+            }
+            T copy = factory.get();
+            BeanUtils.copyProperties(entity, copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package com.room.backend.service.impl;
+
+import com.room.backend.dto.UploadSessionDTO;
+import com.room.backend.service.ChunkedUploadService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Chunked Upload Service Implementation
+ *
+ * Every chunk is copied from the request body straight to its offset in one part file through a 64KB buffer,
+ * hashing it on the way, so memory use does not depend on the file size and nothing is buffered to temporary
+ * storage. Completing an upload flushes the part file and renames it into place, the data is never copied
+ * again. The received chunks of a session are kept in a small sidecar file next to the part file, so uploads
+ * can be resumed after a restart. Sessions without activity for the session time to live are deleted.
+ *
+ * Each user may have a few unfinished sessions reserving a limited number of bytes, and so may the server as a
+ * whole, so abandoned or hostile uploads cannot fill the disk. The sessions are all held in memory, read from
+ * their sidecar files on startup, so the limits count the sessions of before a restart too.
+ */
+@Service
+@Slf4j
+public class ChunkedUploadServiceImpl implements ChunkedUploadService {
+
+    private static final String UPLOAD_DIRECTORY = "videos";
+
+    /**
+     * Starts with a dot, MediaService does not serve such paths, so part files and sidecars are never served
+     */
+    private static final String SESSION_DIRECTORY = ".uploads";
+
+    private static final String PART_SUFFIX = ".part";
+
+    private static final String SESSION_SUFFIX = ".session";
+
+    private static final Pattern UPLOAD_ID = Pattern.compile(
+            "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+
+    private static final Pattern EXTENSION = Pattern.compile("[A-Za-z0-9]{1,10}");
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-fA-F]{64}");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final long PURGE_INTERVAL = 60_000;
+
+    @Value("${file.upload.path}")
+    private String uploadPath;
+
+    @Value("${file.chunked-upload.chunk-size:4194304}")
+    private int chunkSize;
+
+    @Value("${file.chunked-upload.max-size:2147483648}")
+    private long maxSize;
+
+    @Value("${file.chunked-upload.session-ttl:86400000}")
+    private long sessionTtl;
+
+    @Value("${file.chunked-upload.max-sessions-per-user:3}")
+    private int maxSessionsPerUser;
+
+    @Value("${file.chunked-upload.max-bytes-per-user:4294967296}")
+    private long maxBytesPerUser;
+
+    @Value("${file.chunked-upload.max-sessions:100}")
+    private int maxSessions;
+
+    @Value("${file.chunked-upload.max-bytes:53687091200}")
+    private long maxBytes;
+
+    private Path targetDirectory;
+
+    private Path sessionDirectory;
+
+    /**
+     * Upload ID -> session, of every session that has not finished
+     */
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Held while checking the limits and adding a session, so concurrent requests cannot both take the last place
+     */
+    private final Object createLock = new Object();
+
+    private final AtomicLong lastPurge = new AtomicLong();
+
+    @PostConstruct
+    public void init() throws IOException {
+        targetDirectory = Paths.get(uploadPath).toAbsolutePath().normalize().resolve(UPLOAD_DIRECTORY);
+        sessionDirectory = targetDirectory.resolve(SESSION_DIRECTORY);
+        Files.createDirectories(sessionDirectory);
+
+        long now = System.currentTimeMillis();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(sessionDirectory, "*" + SESSION_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String uploadId = name.substring(0, name.length() - SESSION_SUFFIX.length());
+                UploadSession session = UPLOAD_ID.matcher(uploadId).matches() ? loadSession(uploadId) : null;
+                if (session == null || now - session.lastActivity > sessionTtl) {
+                    delete(uploadId);
+                } else {
+                    sessions.put(uploadId, session);
+                }
+            }
+        }
+        lastPurge.set(now);
+        log.info("Restored {} chunked uploads", sessions.size());
+    }
+
+    @Override
+    public UploadSessionDTO create(Integer userId, String fileName, long size) {
+        if (size <= 0 || size > maxSize) {
+            throw new IllegalArgumentException("File size must be between 1 and " + maxSize + " bytes");
+        }
+        int dot = fileName == null ? -1 : fileName.lastIndexOf('.');
+        String extension = dot < 0 ? "" : fileName.substring(dot + 1);
+        if (!EXTENSION.matcher(extension).matches()) {
+            throw new IllegalArgumentException("File name must have an extension");
+        }
+        purgeExpired();
+
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(), userId, extension.toLowerCase(),
+                size, chunkSize);
+        synchronized (createLock) {
+            int userSessions = 0;
+            long userBytes = 0;
+            int openSessions = 0;
+            long openBytes = 0;
+            for (UploadSession open : sessions.values()) {
+                openSessions++;
+                openBytes += open.size;
+                if (open.ownerId.equals(userId)) {
+                    userSessions++;
+                    userBytes += open.size;
+                }
+            }
+            if (userSessions >= maxSessionsPerUser) {
+                throw new IllegalArgumentException("At most " + maxSessionsPerUser
+                        + " uploads can be unfinished, finish or cancel one first");
+            }
+            if (userBytes + size > maxBytesPerUser) {
+                throw new IllegalArgumentException("Unfinished uploads can hold at most " + maxBytesPerUser
+                        + " bytes, finish or cancel one first");
+            }
+            if (openSessions >= maxSessions || openBytes + size > maxBytes) {
+                throw new IllegalArgumentException("Too many uploads in progress, try again later");
+            }
+            sessions.put(session.uploadId, session);
+        }
+        try {
+            Files.createFile(partFile(session.uploadId));
+            synchronized (session) {
+                saveSession(session);
+            }
+        } catch (IOException e) {
+            delete(session.uploadId);
+            throw new UncheckedIOException("Failed to create upload session", e);
+        }
+        log.info("User {} started chunked upload {} of {} bytes", userId, session.uploadId, size);
+        return session.toDTO();
+    }
+
+    @Override
+    public UploadSessionDTO getSession(Integer userId, String uploadId) {
+        UploadSession session = findSession(userId, uploadId);
+        if (session == null) {
+            return null;
+        }
+        synchronized (session) {
+            return session.toDTO();
+        }
+    }
+
+    @Override
+    public UploadSessionDTO writeChunk(Integer userId, String uploadId, int index, InputStream body, String sha256)
+            throws IOException {
+        UploadSession session = findSession(userId, uploadId);
+        if (session == null) {
+            return null;
+        }
+        if (index < 0 || index >= session.chunkCount) {
+            throw new IllegalArgumentException("Chunk index must be between 0 and " + (session.chunkCount - 1));
+        }
+        if (sha256 == null || !SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Chunk checksum must be a hex SHA-256");
+        }
+        synchronized (session) {
+            if (session.finished) {
+                return null;
+            }
+            // One writer per chunk, so the verified checksum is that of the bytes in the file, e.g. when a client
+            // retries while its first request is still running
+            if (session.writing.get(index)) {
+                throw new IllegalArgumentException("Chunk " + index + " is already being uploaded");
+            }
+            session.writing.set(index);
+        }
+
+        try {
+            synchronized (session) {
+                // A chunk sent again is rewritten in place, it does not count until the new content is verified
+                if (session.received.get(index)) {
+                    session.received.clear(index);
+                    saveSession(session);
+                }
+            }
+
+            long position = (long) index * session.chunkSize;
+            long length = Math.min(session.chunkSize, session.size - position);
+            MessageDigest digest = newDigest();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long written = 0;
+            // The request stream is left open, the container owns it
+            ReadableByteChannel input = Channels.newChannel(body);
+            try (FileChannel output = FileChannel.open(partFile(session.uploadId), StandardOpenOption.WRITE)) {
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    if (written + read > length) {
+                        throw new IllegalArgumentException("Chunk " + index + " is larger than " + length + " bytes");
+                    }
+                    buffer.flip();
+                    digest.update(buffer.array(), 0, read);
+                    while (buffer.hasRemaining()) {
+                        written += output.write(buffer, position + written);
+                    }
+                    buffer.clear();
+                }
+            }
+            if (written != length) {
+                throw new IllegalArgumentException("Chunk " + index + " has " + written + " of " + length + " bytes");
+            }
+            if (!HexFormat.of().formatHex(digest.digest()).equalsIgnoreCase(sha256)) {
+                throw new IllegalArgumentException("Chunk " + index + " checksum does not match");
+            }
+
+            synchronized (session) {
+                if (session.finished) {
+                    return null;
+                }
+                session.received.set(index);
+                saveSession(session);
+                return session.toDTO();
+            }
+        } finally {
+            synchronized (session) {
+                session.writing.clear(index);
+                session.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public String complete(Integer userId, String uploadId) throws IOException {
+        UploadSession session = findSession(userId, uploadId);
+        if (session == null) {
+            return null;
+        }
+        synchronized (session) {
+            // A chunk still being written would land in the file after it was moved into place
+            while (!session.writing.isEmpty()) {
+                try {
+                    session.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for chunks of " + uploadId);
+                }
+            }
+            if (session.finished) {
+                return null;
+            }
+            int missing = session.chunkCount - session.received.cardinality();
+            if (missing > 0) {
+                throw new IllegalArgumentException(missing + " chunks are missing");
+            }
+            session.finished = true;
+        }
+
+        Path part = partFile(session.uploadId);
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        String fileName = session.uploadId + "." + session.extension;
+        Files.move(part, targetDirectory.resolve(fileName), StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(sessionFile(session.uploadId));
+        sessions.remove(session.uploadId);
+        log.info("Completed chunked upload {}", session.uploadId);
+        return UPLOAD_DIRECTORY + "/" + fileName;
+    }
+
+    @Override
+    public boolean cancel(Integer userId, String uploadId) {
+        UploadSession session = findSession(userId, uploadId);
+        if (session == null) {
+            return false;
+        }
+        synchronized (session) {
+            if (session.finished) {
+                return false;
+            }
+            session.finished = true;
+        }
+        delete(session.uploadId);
+        return true;
+    }
+
+    /**
+     * Get a session of a user
+     * @return Session, null if the session does not exist, expired or belongs to another user
+     */
+    private UploadSession findSession(Integer userId, String uploadId) {
+        UploadSession session = uploadId == null ? null : sessions.get(uploadId);
+        if (session == null || !session.ownerId.equals(userId)
+                || System.currentTimeMillis() - session.lastActivity > sessionTtl) {
+            return null;
+        }
+        return session;
+    }
+
+    private UploadSession loadSession(String uploadId) {
+        Path file = sessionFile(uploadId);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
+            properties.load(input);
+            UploadSession session = new UploadSession(uploadId, Integer.valueOf(properties.getProperty("owner")),
+                    properties.getProperty("extension"), Long.parseLong(properties.getProperty("size")),
+                    Integer.parseInt(properties.getProperty("chunkSize")));
+            session.received.or(BitSet.valueOf(Base64.getDecoder().decode(properties.getProperty("received"))));
+            session.lastActivity = Files.getLastModifiedTime(file).toMillis();
+            return session;
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load upload session {}", uploadId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Write the sidecar file, replacing it atomically. Callers hold the session lock.
+     */
+    private void saveSession(UploadSession session) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("owner", session.ownerId.toString());
+        properties.setProperty("extension", session.extension);
+        properties.setProperty("size", Long.toString(session.size));
+        properties.setProperty("chunkSize", Integer.toString(session.chunkSize));
+        properties.setProperty("received", Base64.getEncoder().encodeToString(session.received.toByteArray()));
+
+        Path temp = Files.createTempFile(sessionDirectory, session.uploadId, ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                properties.store(output, null);
+            }
+            Files.move(temp, sessionFile(session.uploadId), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        session.lastActivity = System.currentTimeMillis();
+    }
+
+    /**
+     * Delete sessions without activity for the session time to live, at most once per purge interval
+     */
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        long last = lastPurge.get();
+        if (now - last < PURGE_INTERVAL || !lastPurge.compareAndSet(last, now)) {
+            return;
+        }
+        for (UploadSession session : sessions.values()) {
+            if (now - session.lastActivity > sessionTtl) {
+                delete(session.uploadId);
+            }
+        }
+    }
+
+    private void delete(String uploadId) {
+        sessions.remove(uploadId);
+        try {
+            Files.deleteIfExists(partFile(uploadId));
+            Files.deleteIfExists(sessionFile(uploadId));
+        } catch (IOException e) {
+            log.error("Failed to delete upload session {}", uploadId, e);
+        }
+    }
+
+    private Path partFile(String uploadId) {
+        return sessionDirectory.resolve(uploadId + PART_SUFFIX);
+    }
+
+    private Path sessionFile(String uploadId) {
+        return sessionDirectory.resolve(uploadId + SESSION_SUFFIX);
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Upload session, mutable state is guarded by the session itself
+     */
+    private static final class UploadSession {
+        private final String uploadId;
+        private final Integer ownerId;
+        private final String extension;
+        private final long size;
+        private final int chunkSize;
+        private final int chunkCount;
+        private final BitSet received = new BitSet();
+        /**
+         * Chunks a request is writing right now
+         */
+        private final BitSet writing = new BitSet();
+        private volatile long lastActivity = System.currentTimeMillis();
+        private boolean finished;
+
+        private UploadSession(String uploadId, Integer ownerId, String extension, long size, int chunkSize) {
+            this.uploadId = uploadId;
+            this.ownerId = ownerId;
+            this.extension = extension;
+            this.size = size;
+            this.chunkSize = chunkSize;
+            this.chunkCount = (int) ((size + chunkSize - 1) / chunkSize);
+        }
+
+        private UploadSessionDTO toDTO() {
+            List<Integer> missing = new ArrayList<>();
+            for (int i = received.nextClearBit(0); i < chunkCount; i = received.nextClearBit(i + 1)) {
+                missing.add(i);
+            }
+            return new UploadSessionDTO(uploadId, size, chunkSize, chunkCount, missing);
+        }
+    }
+}
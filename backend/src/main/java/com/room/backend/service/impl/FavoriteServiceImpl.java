@@ -7,12 +7,20 @@ import com.room.backend.common.Result;
 import com.room.backend.entity.Favorite;
 import com.room.backend.entity.Restaurant;
 import com.room.backend.mapper.FavoriteMapper;
-import com.room.backend.mapper.RestaurantMapper;
+import com.room.backend.service.CatalogCacheService;
 import com.room.backend.service.FavoriteService;
+import com.room.backend.service.InvalidationBus;
+import com.room.backend.service.RestaurantRatingService;
+import com.room.backend.util.BoundedCache;
+import com.room.backend.util.TransactionUtils;
 import com.room.backend.vo.FavoriteRestaurantVO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -21,9 +29,12 @@ import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -31,13 +42,56 @@ import java.util.stream.Collectors;
  */
 @Service
 @Slf4j
-public class FavoriteServiceImpl extends ServiceImpl<FavoriteMapper, Favorite> implements FavoriteService {
+public class FavoriteServiceImpl extends ServiceImpl<FavoriteMapper, Favorite> implements FavoriteService, MeterBinder {
+
+    private static final String TOPIC_FAVORITES = "favorites";
 
     @Resource
     private FavoriteMapper favoriteMapper;
     
     @Resource
-    private RestaurantMapper restaurantMapper;
+    private RestaurantRatingService restaurantRatingService;
+
+    @Resource
+    private CatalogCacheService catalogCacheService;
+
+    @Resource
+    private InvalidationBus invalidationBus;
+
+    @Value("${cache.favorites.enabled:true}")
+    private boolean favoriteCacheEnabled;
+
+    @Value("${cache.favorites.max-size:10000}")
+    private int favoriteCacheMaxSize;
+
+    @Value("${cache.favorites.ttl:600000}")
+    private long favoriteCacheTtl;
+
+    /**
+     * User ID -> IDs of all restaurants favorited by the user, null when the cache is disabled
+     */
+    private BoundedCache<Integer, Set<Integer>> favoriteCache;
+
+    @PostConstruct
+    public void init() {
+        if (favoriteCacheEnabled) {
+            favoriteCache = new BoundedCache<>(favoriteCacheMaxSize, favoriteCacheTtl);
+            invalidationBus.subscribe(TOPIC_FAVORITES, userId -> {
+                if (userId == null) {
+                    favoriteCache.invalidateAll();
+                } else {
+                    favoriteCache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (favoriteCache != null) {
+            favoriteCache.registerMetrics(registry, "favorites");
+        }
+    }
     
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -53,7 +107,7 @@ public class FavoriteServiceImpl extends ServiceImpl<FavoriteMapper, Favorite> i
             }
             
             // Check if restaurant exists
-            Restaurant restaurant = restaurantMapper.selectById(restaurantId);
+            Restaurant restaurant = catalogCacheService.getRestaurant(restaurantId);
             if (restaurant == null) {
                 return Result.validateFailed("Restaurant not found");
             }
@@ -76,6 +130,7 @@ public class FavoriteServiceImpl extends ServiceImpl<FavoriteMapper, Favorite> i
             
             // Insert favorite record
             favoriteMapper.insert(favorite);
+            invalidateCachedFavorites(userId);
             
             // Build return data
             Map<String, Object> data = new HashMap<>();
@@ -114,6 +169,7 @@ public class FavoriteServiceImpl extends ServiceImpl<FavoriteMapper, Favorite> i
             
             // Delete favorite record
             favoriteMapper.delete(queryWrapper);
+            invalidateCachedFavorites(userId);
             
             return Result.success(null, "Removed from favorites successfully");
         } catch (Exception e) {
@@ -144,7 +200,7 @@ public class FavoriteServiceImpl extends ServiceImpl<FavoriteMapper, Favorite> i
             
             // Query restaurant details for favorites
             List<FavoriteRestaurantVO> favoriteVOList = favoritePage.getRecords().stream().map(favorite -> {
-                Restaurant restaurant = restaurantMapper.selectById(favorite.getRestaurantId());
+                Restaurant restaurant = catalogCacheService.getRestaurant(favorite.getRestaurantId());
                 if (restaurant != null) {
                     FavoriteRestaurantVO favoriteVO = convertToVO(restaurant, favorite);
                     return favoriteVO;
@@ -176,10 +232,56 @@ public class FavoriteServiceImpl extends ServiceImpl<FavoriteMapper, Favorite> i
             return false;
         }
         
+        if (favoriteCache != null) {
+            return getCachedFavorites(userId).contains(restaurantId);
+        }
+
         // Use checkFavorite method defined in mapper
         int count = favoriteMapper.checkFavorite(userId, restaurantId);
         return count > 0;
     }
+
+    /**
+     * Get the favorited subset of a batch of restaurants
+     * @param userId User ID
+     * @param restaurantIds Restaurant IDs
+     * @return IDs of the restaurants favorited by the user
+     */
+    @Override
+    public Set<Integer> getFavoriteRestaurantIds(Integer userId, Collection<Integer> restaurantIds) {
+        if (userId == null || restaurantIds == null || restaurantIds.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        if (favoriteCache != null) {
+            Set<Integer> favorites = getCachedFavorites(userId);
+            return restaurantIds.stream().filter(favorites::contains).collect(Collectors.toSet());
+        }
+
+        return new HashSet<>(favoriteMapper.getFavoriteRestaurantIds(userId, restaurantIds));
+    }
+
+    /**
+     * Get all favorites of a user from the cache, loading them on a miss
+     * @param userId User ID
+     * @return Immutable set of favorited restaurant IDs
+     */
+    private Set<Integer> getCachedFavorites(Integer userId) {
+        return favoriteCache.get(userId, id -> Set.copyOf(favoriteMapper.getAllFavoriteRestaurantIds(id)));
+    }
+
+    /**
+     * Drop the cached favorites of a user after a change, now and again when the transaction completes, so
+     * neither a rollback nor a load racing the commit leaves wrong favorites cached. Other nodes are told through
+     * the invalidation bus.
+     * @param userId User ID
+     */
+    private void invalidateCachedFavorites(Integer userId) {
+        if (favoriteCache != null) {
+            TransactionUtils.runNowAndAfterCompletion(() -> favoriteCache.invalidate(userId));
+            invalidationBus.publish(TOPIC_FAVORITES, userId);
+        }
+    }
     
     /**
      * Convert Restaurant and Favorite to FavoriteRestaurantVO
@@ -208,7 +310,7 @@ public class FavoriteServiceImpl extends ServiceImpl<FavoriteMapper, Favorite> i
         }
         
         // Get restaurant rating
-        Double rating = restaurantMapper.getAverageRating(restaurant.getId());
+        Double rating = restaurantRatingService.getSummary(restaurant.getId()).getAverageRating();
         favoriteVO.setRating(rating);
         
         // Set favorite time
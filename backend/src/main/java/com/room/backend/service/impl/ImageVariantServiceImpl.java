@@ -0,0 +1,329 @@
+package com.room.backend.service.impl;
+
+import com.room.backend.service.ImageVariantService;
+import com.room.backend.util.BoundedCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Image Variant Service Implementation
+ *
+ * Variants are written next to the original, to variants/{name}-{variant}.jpg, or .png if the image has
+ * transparent pixels. Each image is decoded once, large images at a reduced resolution, and every variant is
+ * scaled down from the previous, larger one. Variants are written to a temporary file and moved into place,
+ * so a variant that exists is complete. Generation runs on a small, low-priority pool with a bounded queue.
+ * Images that are rejected because the queue is full are scheduled again the next time one of their variants
+ * is requested.
+ */
+@Service
+@Slf4j
+public class ImageVariantServiceImpl implements ImageVariantService {
+
+    /**
+     * Variant name -> longest side in pixels, largest first
+     */
+    private static final Map<String, Integer> VARIANTS = new LinkedHashMap<>();
+
+    static {
+        VARIANTS.put("full", 1600);
+        VARIANTS.put("card", 640);
+        VARIANTS.put("thumb", 200);
+    }
+
+    private static final String VARIANT_DIRECTORY = "variants";
+
+    /**
+     * Larger images are not decoded at all, they would need gigabytes of heap
+     */
+    private static final long MAX_PIXELS = 50_000_000L;
+
+    @Value("${file.variants.threads:2}")
+    private int threads;
+
+    @Value("${file.variants.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${file.variants.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Absolute paths of the originals that are queued or being processed
+     */
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Originals that could not be processed, not retried on every request for one of their variants
+     */
+    private final BoundedCache<String, Boolean> failures = new BoundedCache<>(10000, 3600000);
+
+    private final AtomicLong generated = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "image-variants-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            // Encoding must not compete with request threads
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void generate(File original) {
+        String key = original.getAbsolutePath();
+        if (failures.get(key) != null || !pending.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(original);
+                } finally {
+                    pending.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+            rejected.incrementAndGet();
+            log.warn("Image variant queue is full, skipped {}", original.getName());
+        }
+    }
+
+    @Override
+    public File getVariant(File original, String variant) {
+        if (!VARIANTS.containsKey(variant)) {
+            return null;
+        }
+        for (String extension : new String[]{"jpg", "png"}) {
+            File file = variantFile(original, variant, extension);
+            if (file.isFile()) {
+                return file;
+            }
+        }
+        if (original.isFile()) {
+            generate(original);
+        }
+        return null;
+    }
+
+    @Override
+    public void deleteVariants(File original) {
+        for (String variant : VARIANTS.keySet()) {
+            for (String extension : new String[]{"jpg", "png"}) {
+                File file = variantFile(original, variant, extension);
+                if (file.exists() && !file.delete()) {
+                    log.warn("Failed to delete image variant {}", file.getName());
+                }
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", executor.getQueue().size());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("generatedCount", generated.get());
+        stats.put("failedCount", failed.get());
+        stats.put("rejectedCount", rejected.get());
+        return stats;
+    }
+
+    /**
+     * Generate all variants of an image
+     */
+    private void process(File original) {
+        try {
+            BufferedImage image = read(original);
+            if (image == null) {
+                failures.put(original.getAbsolutePath(), Boolean.TRUE);
+                return;
+            }
+
+            // Decided on the largest variant, fully opaque PNGs become JPEGs
+            image = scale(image, VARIANTS.get("full"), image.getColorModel().hasAlpha());
+            boolean transparent = hasTransparentPixels(image);
+            for (Map.Entry<String, Integer> variant : VARIANTS.entrySet()) {
+                image = scale(image, variant.getValue(), transparent);
+                write(image, variantFile(original, variant.getKey(), transparent ? "png" : "jpg"), transparent);
+            }
+            generated.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            failures.put(original.getAbsolutePath(), Boolean.TRUE);
+            log.error("Failed to generate variants of {}", original.getName(), e);
+        }
+    }
+
+    /**
+     * Decode an image, large images at a reduced resolution that is still at least twice the largest variant
+     * @return Image, null if the file is not a supported still image or too large
+     */
+    private BufferedImage read(File original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                log.info("Not generating variants of {}, unsupported format", original.getName());
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Animations would be reduced to their first frame
+                if ("gif".equalsIgnoreCase(reader.getFormatName())) {
+                    return null;
+                }
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_PIXELS) {
+                    log.warn("Not generating variants of {}, {}x{} is too large", original.getName(), width, height);
+                    return null;
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(width, height) / (VARIANTS.get("full") * 2);
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scale an image down so its longest side fits, halving first for better quality at large factors
+     * @param alpha Whether to keep the alpha channel, JPEG needs an image without one
+     */
+    private BufferedImage scale(BufferedImage image, int maxSide, boolean alpha) {
+        double factor = Math.min(1.0, (double) maxSide / Math.max(image.getWidth(), image.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * factor));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * factor));
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = image;
+        do {
+            int width = Math.max(targetWidth, current.getWidth() / 2);
+            int height = Math.max(targetHeight, current.getHeight() / 2);
+            if (current.getType() == type && width == current.getWidth() && height == current.getHeight()) {
+                break;
+            }
+            BufferedImage scaled = new BufferedImage(width, height, type);
+            Graphics2D graphics = scaled.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = scaled;
+        } while (current.getWidth() != targetWidth || current.getHeight() != targetHeight);
+        return current;
+    }
+
+    private boolean hasTransparentPixels(BufferedImage image) {
+        WritableRaster alpha = image.getAlphaRaster();
+        if (alpha == null) {
+            return false;
+        }
+        int[] row = new int[alpha.getWidth()];
+        for (int y = 0; y < alpha.getHeight(); y++) {
+            alpha.getSamples(0, y, alpha.getWidth(), 1, 0, row);
+            for (int value : row) {
+                if (value != 255) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void write(BufferedImage image, File target, boolean png) throws IOException {
+        File directory = target.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Failed to create directory: " + directory.getAbsolutePath());
+        }
+
+        File temp = File.createTempFile(target.getName(), ".tmp", directory);
+        try {
+            if (png) {
+                ImageIO.write(image, "png", temp);
+            } else {
+                writeJpeg(image, temp);
+            }
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    private void writeJpeg(BufferedImage image, File target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            // Smaller for photos and shown early at low detail while loading
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private File variantFile(File original, String variant, String extension) {
+        String name = original.getName();
+        int dot = name.lastIndexOf('.');
+        String baseName = dot > 0 ? name.substring(0, dot) : name;
+        return new File(new File(original.getParentFile(), VARIANT_DIRECTORY), baseName + "-" + variant + "." + extension);
+    }
+}
@@ -0,0 +1,66 @@
+package com.room.backend.service.impl;
+
+import com.room.backend.mapper.CaptchaMapper;
+import com.room.backend.service.CaptchaStore;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Database Captcha Store
+ *
+ * Keeps captchas in the captchas table so that any node can verify a captcha issued by another one.
+ * Verification deletes the row it reads, so each captcha is accepted at most once across all nodes.
+ * Expired rows are purged by the nodes while they issue captchas.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "captcha.store", havingValue = "jdbc")
+public class JdbcCaptchaStore implements CaptchaStore {
+
+    @Resource
+    private CaptchaMapper captchaMapper;
+
+    @Value("${captcha.ttl:300000}")
+    private long ttl;
+
+    /**
+     * Number of captchas issued between two purges of expired rows
+     */
+    @Value("${captcha.purge-interval:1000}")
+    private int purgeInterval;
+
+    private final AtomicLong saved = new AtomicLong();
+
+    @Override
+    public void save(String captchaId, String answer) {
+        captchaMapper.insert(captchaId, answer.toUpperCase(Locale.ROOT), ttl);
+        if (saved.incrementAndGet() % purgeInterval == 0) {
+            try {
+                int purged = captchaMapper.deleteExpired();
+                log.debug("Purged {} expired captchas", purged);
+            } catch (Exception e) {
+                log.error("Failed to purge expired captchas", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean verify(String captchaId, String answer) {
+        if (captchaId == null || answer == null) {
+            return false;
+        }
+        String expected = captchaMapper.take(captchaId);
+        return expected != null && expected.equals(answer.trim().toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public long size() {
+        return captchaMapper.count();
+    }
+}
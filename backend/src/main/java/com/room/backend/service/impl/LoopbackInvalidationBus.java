@@ -0,0 +1,23 @@
+package com.room.backend.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-JVM Invalidation Bus
+ *
+ * For single-node deployments and tests. Like the PostgreSQL bus, a node does not receive its own events: the writer
+ * has already updated its caches, and delivering the event back would only drop what it just updated. With no other
+ * nodes, published events therefore go nowhere.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "cache.invalidation.bus", havingValue = "loopback", matchIfMissing = true)
+public class LoopbackInvalidationBus extends AbstractInvalidationBus {
+
+    @Override
+    public void publish(String topic, Integer id) {
+        log.trace("Invalidation of {} {} has no other node to go to", topic, id);
+    }
+}
@@ -0,0 +1,168 @@
+package com.room.backend.service.impl;
+
+import com.room.backend.dto.MediaFileDTO;
+import com.room.backend.service.ImageVariantService;
+import com.room.backend.service.MediaService;
+import com.room.backend.util.BoundedCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Media Service Implementation
+ *
+ * Entity tags are a hash of the file content, computed once per file and kept as long as its size and
+ * modification time do not change. Uploads are stored under random UUID names and never rewritten, so they and
+ * their variants are served as immutable. Any other file, and an original standing in for a variant that is
+ * still being generated, must be revalidated.
+ */
+@Service
+@Slf4j
+public class MediaServiceImpl implements MediaService, MeterBinder {
+
+    private static final String IMAGE_PATH_PREFIX = "images/";
+
+    /**
+     * Upload names, {uuid}.{ext} or {sha256}.{ext}, and variant names, {name}-{variant}.{ext}
+     */
+    private static final Pattern UPLOAD_NAME = Pattern.compile(
+            "([0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}|[0-9a-f]{64})(-[a-z]+)?\\.[A-Za-z0-9]+");
+
+    @Value("${file.upload.path}")
+    private String uploadPath;
+
+    @Value("${file.media.etag-cache-size:10000}")
+    private int etagCacheSize;
+
+    @Resource
+    private ImageVariantService imageVariantService;
+
+    private Path root;
+
+    /**
+     * Absolute file path -> entity tag of the content it had at the cached size and modification time
+     */
+    private BoundedCache<String, ContentTag> contentTags;
+
+    @PostConstruct
+    public void init() {
+        root = Paths.get(uploadPath).toAbsolutePath().normalize();
+        contentTags = new BoundedCache<>(etagCacheSize, 24L * 3600 * 1000);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        contentTags.registerMetrics(registry, "media.etags");
+    }
+
+    @Override
+    public MediaFileDTO resolve(String path, String variant) {
+        if (!StringUtils.hasText(path)) {
+            return null;
+        }
+        Path resolved = root.resolve(path).normalize();
+        // Reject paths escaping the upload directory
+        if (!resolved.startsWith(root) || resolved.equals(root)) {
+            return null;
+        }
+        // Dot files and directories are private, e.g. the part files of chunked uploads in progress
+        for (Path segment : root.relativize(resolved)) {
+            if (segment.toString().startsWith(".")) {
+                return null;
+            }
+        }
+        File original = resolved.toFile();
+        if (!original.isFile() || original.isHidden()) {
+            return null;
+        }
+
+        File file = original;
+        boolean immutable = UPLOAD_NAME.matcher(original.getName()).matches();
+        if (StringUtils.hasText(variant) && path.startsWith(IMAGE_PATH_PREFIX)) {
+            File variantFile = imageVariantService.getVariant(original, variant);
+            if (variantFile != null) {
+                file = variantFile;
+            } else {
+                // The same URL returns the variant once it exists
+                immutable = false;
+            }
+        }
+
+        try {
+            return describe(file, immutable);
+        } catch (IOException e) {
+            log.error("Failed to read {}", file.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    private MediaFileDTO describe(File file, boolean immutable) throws IOException {
+        long length = file.length();
+        long lastModified = file.lastModified();
+        String key = file.getAbsolutePath();
+
+        ContentTag tag = contentTags.get(key);
+        if (tag == null || tag.length != length || tag.lastModified != lastModified) {
+            tag = new ContentTag(length, lastModified, hash(file));
+            contentTags.put(key, tag);
+        }
+
+        String contentType = MediaTypeFactory.getMediaType(file.getName())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString();
+        return new MediaFileDTO(file, length, lastModified, tag.etag, contentType, immutable);
+    }
+
+    /**
+     * Hash the file content into a quoted entity tag, the first 128 bits of its SHA-256
+     */
+    private String hash(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    /**
+     * Entity tag of a file at a given size and modification time
+     */
+    private static final class ContentTag {
+        private final long length;
+        private final long lastModified;
+        private final String etag;
+
+        private ContentTag(long length, long lastModified, String etag) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.etag = etag;
+        }
+    }
+}
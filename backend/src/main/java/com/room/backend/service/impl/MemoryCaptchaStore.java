@@ -0,0 +1,59 @@
+package com.room.backend.service.impl;
+
+import com.room.backend.service.CaptchaStore;
+import com.room.backend.util.BoundedCache;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+
+/**
+ * In-memory Captcha Store
+ *
+ * Keeps captchas of this node in a bounded cache. When the size limit is reached the least recently issued
+ * captchas are dropped, so memory stays flat however many captchas are requested. Only suitable when login
+ * requests reach the node that issued the captcha, use the JDBC store behind a load balancer without sticky sessions.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "captcha.store", havingValue = "memory", matchIfMissing = true)
+public class MemoryCaptchaStore implements CaptchaStore {
+
+    @Value("${captcha.max-size:100000}")
+    private int maxSize;
+
+    @Value("${captcha.ttl:300000}")
+    private long ttl;
+
+    /**
+     * Captcha ID -> upper case answer
+     */
+    private BoundedCache<String, String> captchas;
+
+    @PostConstruct
+    public void init() {
+        captchas = new BoundedCache<>(maxSize, ttl);
+    }
+
+    @Override
+    public void save(String captchaId, String answer) {
+        captchas.put(captchaId, answer.toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public boolean verify(String captchaId, String answer) {
+        if (captchaId == null || answer == null) {
+            return false;
+        }
+        String expected = captchas.remove(captchaId);
+        return expected != null && expected.equals(answer.trim().toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public long size() {
+        return captchas.size();
+    }
+}
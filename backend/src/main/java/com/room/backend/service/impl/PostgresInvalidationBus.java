@@ -0,0 +1,135 @@
+package com.room.backend.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * PostgreSQL Invalidation Bus
+ *
+ * Publishes events with pg_notify on the connection of the current transaction, so PostgreSQL delivers them to the
+ * other nodes only when the transaction commits. Each node listens on a dedicated connection outside the pool and
+ * ignores its own events, its caches were already invalidated by the writer. Events sent while the listener is
+ * disconnected are lost, so every listener drops its whole cache whenever the connection is (re)established.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "cache.invalidation.bus", havingValue = "postgres")
+public class PostgresInvalidationBus extends AbstractInvalidationBus {
+
+    private static final String CHANNEL = "cache_invalidation";
+
+    private static final String ALL = "*";
+
+    @Resource
+    private JdbcTemplate jdbcTemplate;
+
+    @Resource
+    private DataSourceProperties dataSourceProperties;
+
+    @Value("${cache.invalidation.poll-timeout:5000}")
+    private int pollTimeout;
+
+    @Value("${cache.invalidation.reconnect-delay:5000}")
+    private long reconnectDelay;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+
+    private Thread listener;
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        listener.interrupt();
+    }
+
+    @Override
+    public void publish(String topic, Integer id) {
+        String payload = nodeId + "|" + topic + "|" + (id == null ? ALL : id.toString());
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+        } catch (Exception e) {
+            log.error("Failed to publish invalidation of {} {}", topic, id, e);
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for cache invalidations as node {}", nodeId);
+                dispatchAll();
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeout);
+                    if (notifications == null || notifications.length == 0) {
+                        // A dropped connection is not noticed while just waiting for notifications
+                        if (!connection.isValid(Math.max(1, pollTimeout / 1000))) {
+                            throw new SQLException("Listener connection is no longer valid");
+                        }
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                log.error("Cache invalidation listener disconnected, retrying in {}ms", reconnectDelay, e);
+                dispatchAll();
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed cache invalidation: {}", payload);
+            return;
+        }
+        if (nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            dispatch(parts[1], ALL.equals(parts[2]) ? null : Integer.valueOf(parts[2]));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed cache invalidation: {}", payload);
+        }
+    }
+}
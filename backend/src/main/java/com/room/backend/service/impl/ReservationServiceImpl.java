@@ -4,6 +4,8 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.room.backend.common.PageCursor;
 import com.room.backend.common.Result;
 import com.room.backend.dto.ReservationDTO;
 import com.room.backend.entity.Reservation;
@@ -11,24 +13,39 @@ import com.room.backend.entity.Restaurant;
 import com.room.backend.entity.RestaurantTable;
 import com.room.backend.mapper.ReservationMapper;
 import com.room.backend.mapper.RestaurantMapper;
-import com.room.backend.mapper.RestaurantTableMapper;
 import com.room.backend.mapper.ReviewMapper;
+import com.room.backend.service.CatalogCacheService;
 import com.room.backend.service.ReservationService;
+import com.room.backend.service.ReservationStatsService;
+import com.room.backend.service.TableAvailabilityService;
+import com.room.backend.util.BoundedCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
 import com.room.backend.vo.ReservationVO;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -36,7 +53,7 @@ import java.util.stream.Collectors;
  */
 @Service
 @Slf4j
-public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reservation> implements ReservationService {
+public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reservation> implements ReservationService, MeterBinder {
 
     @Autowired
     private ReservationMapper reservationMapper;
@@ -45,10 +62,19 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
     private RestaurantMapper restaurantMapper;
 
     @Autowired
-    private RestaurantTableMapper restaurantTableMapper;
+    private ReviewMapper reviewMapper;
 
     @Autowired
-    private ReviewMapper reviewMapper;
+    private TableAvailabilityService tableAvailabilityService;
+
+    @Autowired
+    private ReservationStatsService reservationStatsService;
+
+    @Autowired
+    private CatalogCacheService catalogCacheService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     // Reservation status constants
     private static final int STATUS_CANCELLED = 0;  // Cancelled
@@ -57,6 +83,24 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
     private static final int STATUS_COMPLETED = 3;  // Completed
     private static final int STATUS_REJECTED = 4;   // Rejected
 
+    @Value("${cache.reservation-count.ttl:30000}")
+    private long reservationCountTtl;
+
+    /**
+     * Filter -> total reservation count, so paging through a list does not recount the table on every page
+     */
+    private BoundedCache<String, Long> reservationCounts;
+
+    @PostConstruct
+    public void init() {
+        reservationCounts = new BoundedCache<>(1000, reservationCountTtl);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        reservationCounts.registerMetrics(registry, "reservation.counts");
+    }
+
     /**
      * Create a reservation
      *
@@ -94,7 +138,7 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
             }
 
             // Check if restaurant exists
-            Restaurant restaurant = restaurantMapper.selectById(reservationDTO.getRestaurantId());
+            Restaurant restaurant = catalogCacheService.getRestaurant(reservationDTO.getRestaurantId());
             if (restaurant == null) {
                 return Result.validateFailed("Restaurant does not exist");
             }
@@ -105,7 +149,7 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
             }
 
             // Check if table exists and belongs to the restaurant
-            RestaurantTable table = restaurantTableMapper.selectById(reservationDTO.getTableId());
+            RestaurantTable table = catalogCacheService.getTable(reservationDTO.getTableId());
             if (table == null) {
                 return Result.validateFailed("Table does not exist");
             }
@@ -130,8 +174,12 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
             reservation.setCreatedAt(now);
             reservation.setUpdatedAt(now);
 
-            // Save reservation record
-            reservationMapper.insert(reservation);
+            // Save reservation record, unless the table is already reserved for an overlapping period
+            boolean booked = tableAvailabilityService.bookIfAvailable(reservation, () -> reservationMapper.insert(reservation));
+            if (!booked) {
+                return Result.validateFailed("This table is already reserved for the selected time");
+            }
+            reservationStatsService.onReservationCreated(reservation);
 
             // Build return VO
             ReservationVO reservationVO = new ReservationVO();
@@ -149,6 +197,13 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
         }
     }
 
+    /**
+     * Whether a reservation in this status occupies its table
+     */
+    private boolean isActiveStatus(Integer status) {
+        return status != null && (status == STATUS_PENDING || status == STATUS_CONFIRMED);
+    }
+
     /**
      * Get status name
      *
@@ -224,33 +279,8 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
             // Query data
             IPage<Reservation> resultPage = reservationMapper.selectPage(pageParam, queryWrapper);
 
-            // Convert to VO
-            List<ReservationVO> reservationVOList = new ArrayList<>();
-            for (Reservation reservation : resultPage.getRecords()) {
-                ReservationVO reservationVO = new ReservationVO();
-                BeanUtils.copyProperties(reservation, reservationVO);
-
-                // Query restaurant name
-                Restaurant restaurant = restaurantMapper.selectById(reservation.getRestaurantId());
-                if (restaurant != null) {
-                    reservationVO.setRestaurantName(restaurant.getName());
-                }
-
-                // Query table type
-                RestaurantTable table = restaurantTableMapper.selectById(reservation.getTableId());
-                if (table != null) {
-                    reservationVO.setTableType(table.getType());
-                }
-
-                // Set status name and value
-                reservationVO.setStatusValue(reservation.getStatus());
-                reservationVO.setStatusText(getStatusName(reservation.getStatus()));
-                reservationVO.setStatus(getStatusName(reservation.getStatus()));
-
-                reservationVO.setReviewed(reservation.getReviewId() != null);
-
-                reservationVOList.add(reservationVO);
-            }
+            // Convert to VO, review state comes from the reservation's own review ID
+            List<ReservationVO> reservationVOList = convertToReservationVOs(resultPage.getRecords(), false);
 
             // Build return result
             Map<String, Object> result = new HashMap<>();
@@ -302,12 +332,15 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
             }
 
             // Update reservation status to cancelled
+            Integer oldStatus = reservation.getStatus();
             reservation.setStatus(STATUS_CANCELLED);
             reservation.setCancelReason(cancelReason);
             reservation.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
 
             // Save update
             reservationMapper.updateById(reservation);
+            tableAvailabilityService.refresh(reservation);
+            reservationStatsService.onStatusChanged(reservation, oldStatus);
 
             // Build return data
             Map<String, Object> result = new HashMap<>();
@@ -339,7 +372,7 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
             }
 
             // Check if table exists
-            RestaurantTable table = restaurantTableMapper.selectById(tableId);
+            RestaurantTable table = catalogCacheService.getTable(tableId);
             if (table == null) {
                 return Result.validateFailed("Table does not exist");
             }
@@ -351,32 +384,50 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
             List<Reservation> reservations = reservationMapper.getFutureReservationsByTableId(tableId, now);
 
             // Convert to VO
-            List<ReservationVO> reservationVOList = new ArrayList<>();
-            for (Reservation reservation : reservations) {
-                ReservationVO reservationVO = new ReservationVO();
-                BeanUtils.copyProperties(reservation, reservationVO);
-
-                // Query restaurant name
-                Restaurant restaurant = restaurantMapper.selectById(reservation.getRestaurantId());
-                if (restaurant != null) {
-                    reservationVO.setRestaurantName(restaurant.getName());
-                }
+            List<ReservationVO> reservationVOList = convertToReservationVOs(reservations, false);
+
+            return Result.success(reservationVOList, "Retrieved successfully");
+        } catch (Exception e) {
+            log.error("Failed to get table future reservations", e);
+            return Result.error(500, "Failed to get table future reservations: " + e.getMessage());
+        }
+    }
 
-                // Set table type
-                reservationVO.setTableType(table.getType());
+    /**
+     * Get free time periods of a table on a day
+     *
+     * @param tableId Table ID
+     * @param date    Date, format yyyy-MM-dd (UTC), defaults to today
+     * @return Free period list
+     */
+    @Override
+    public Result<?> getTableFreeSlots(Integer tableId, String date) {
+        try {
+            // Parameter validation
+            if (tableId == null) {
+                return Result.validateFailed("Table ID cannot be empty");
+            }
 
-                // Set status name and value
-                reservationVO.setStatusValue(reservation.getStatus());
-                reservationVO.setStatusText(getStatusName(reservation.getStatus()));
-                reservationVO.setStatus(getStatusName(reservation.getStatus()));
+            LocalDate day;
+            try {
+                day = date == null || date.isEmpty() ? LocalDate.now(ZoneOffset.UTC) : LocalDate.parse(date);
+            } catch (DateTimeParseException e) {
+                return Result.validateFailed("Invalid date, expected format yyyy-MM-dd");
+            }
 
-                reservationVOList.add(reservationVO);
+            // Check if table exists
+            RestaurantTable table = catalogCacheService.getTable(tableId);
+            if (table == null) {
+                return Result.validateFailed("Table does not exist");
             }
 
-            return Result.success(reservationVOList, "Retrieved successfully");
+            // Free periods are answered from the in-memory availability index
+            List<Map<String, Object>> freeSlots = tableAvailabilityService.getFreeSlots(tableId, day);
+
+            return Result.success(freeSlots, "Retrieved successfully");
         } catch (Exception e) {
-            log.error("Failed to get table future reservations", e);
-            return Result.error(500, "Failed to get table future reservations: " + e.getMessage());
+            log.error("Failed to get table free slots", e);
+            return Result.error(500, "Failed to get table free slots: " + e.getMessage());
         }
     }
 
@@ -401,17 +452,7 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
             }
 
             // Process status parameter
-            List<Integer> statusList = new ArrayList<>();
-            if (status != null && !status.isEmpty()) {
-                String[] statusArray = status.split(",");
-                for (String s : statusArray) {
-                    try {
-                        statusList.add(Integer.parseInt(s));
-                    } catch (NumberFormatException e) {
-                        log.warn("Invalid status value: {}", s);
-                    }
-                }
-            }
+            List<Integer> statusList = parseStatusList(status);
 
             // Calculate offset
             int offset = (page - 1) * pageSize;
@@ -420,20 +461,15 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
             List<Reservation> reservations = reservationMapper.getAllReservationsWithPage(
                     offset,
                     pageSize,
-                    statusList.isEmpty() ? null : statusList,
+                    statusList,
                     restaurantId);
 
-            // Query total record count
-            Long total = reservationMapper.countAllReservations(
-                    statusList.isEmpty() ? null : statusList,
-                    restaurantId);
+            // Query total record count, the first page refreshes the cached count
+            Long total = countReservations("all:" + statusList + ":" + restaurantId, page == 1,
+                    () -> reservationMapper.countAllReservations(statusList, restaurantId));
 
             // Get restaurant and table information for reservations
-            List<ReservationVO> reservationVOList = new ArrayList<>();
-            for (Reservation reservation : reservations) {
-                ReservationVO reservationVO = convertToReservationVO(reservation);
-                reservationVOList.add(reservationVO);
-            }
+            List<ReservationVO> reservationVOList = convertToReservationVOs(reservations, true);
 
             // Build return result
             Map<String, Object> result = new HashMap<>();
@@ -447,6 +483,50 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
         }
     }
 
+    /**
+     * Admin gets all reservation list by keyset cursor
+     *
+     * @param cursor       Next page token of the previous page, null for the first page
+     * @param pageSize     Page size
+     * @param status       Reservation status, multiple statuses separated by commas
+     * @param restaurantId Restaurant ID, optional filter condition
+     * @param includeTotal Whether to include the (cached) total count
+     * @return Reservation list
+     */
+    @Override
+    public Map<String, Object> getAllReservationsByCursor(String cursor, Integer pageSize, String status, Integer restaurantId, boolean includeTotal) {
+        try {
+            // Parameter validation
+            if (pageSize == null || pageSize < 1) {
+                pageSize = 10;
+            }
+            PageCursor pageCursor = StringUtils.hasText(cursor) ? PageCursor.decode(cursor) : null;
+
+            // Process status parameter
+            List<Integer> statusList = parseStatusList(status);
+
+            // Fetch one extra row to find out if there is a next page
+            List<Reservation> reservations = reservationMapper.getAllReservationsAfter(
+                    pageCursor == null ? null : pageCursor.getCreatedAt(),
+                    pageCursor == null ? null : pageCursor.getId(),
+                    pageSize + 1,
+                    statusList,
+                    restaurantId);
+
+            Map<String, Object> result = buildCursorPage(reservations, pageSize);
+            if (includeTotal) {
+                result.put("total", countReservations("all:" + statusList + ":" + restaurantId, false,
+                        () -> reservationMapper.countAllReservations(statusList, restaurantId)));
+            }
+            return result;
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to get all reservations: ", e);
+            throw new RuntimeException("Failed to get reservation list: " + e.getMessage());
+        }
+    }
+
     /**
      * Restaurant manager gets all reservations for their restaurant
      *
@@ -472,17 +552,8 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
             }
 
             // Query restaurants managed by this manager
-            LambdaQueryWrapper<Restaurant> restaurantQuery = new LambdaQueryWrapper<>();
-            restaurantQuery.eq(Restaurant::getOwnerId, managerId);
-
-            // If restaurantId is specified, check if it belongs to this manager
-            if (restaurantId != null) {
-                restaurantQuery.eq(Restaurant::getId, restaurantId);
-            }
-
-            List<Restaurant> restaurants = restaurantMapper.selectList(restaurantQuery);
-
-            if (restaurants.isEmpty()) {
+            List<Integer> finalRestaurantIds = getManagerRestaurantIds(managerId, restaurantId);
+            if (finalRestaurantIds.isEmpty()) {
                 // No restaurants or specified restaurant does not belong to this manager
                 Map<String, Object> emptyResult = new HashMap<>();
                 emptyResult.put("total", 0);
@@ -490,52 +561,25 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
                 return emptyResult;
             }
 
-            // Get all restaurant IDs
-            List<Integer> restaurantIds = restaurants.stream()
-                    .map(Restaurant::getId)
-                    .collect(Collectors.toList());
-
             // Process status parameter
-            List<Integer> statusList = new ArrayList<>();
-            if (status != null && !status.isEmpty()) {
-                String[] statusArray = status.split(",");
-                for (String s : statusArray) {
-                    try {
-                        statusList.add(Integer.parseInt(s));
-                    } catch (NumberFormatException e) {
-                        log.warn("Invalid status value: {}", s);
-                    }
-                }
-            }
+            List<Integer> statusList = parseStatusList(status);
 
             // Calculate offset
             int offset = (page - 1) * pageSize;
 
             // Use custom SQL for paginated query
-            List<Integer> finalRestaurantIds = new ArrayList<>();
-            if (restaurantId != null) {
-                finalRestaurantIds.add(restaurantId);
-            } else {
-                finalRestaurantIds.addAll(restaurantIds);
-            }
-
             List<Reservation> reservations = reservationMapper.getManagerReservationsWithPage(
                     offset,
                     pageSize,
-                    statusList.isEmpty() ? null : statusList,
+                    statusList,
                     finalRestaurantIds);
 
-            // Query total record count
-            Long total = reservationMapper.countManagerReservations(
-                    statusList.isEmpty() ? null : statusList,
-                    finalRestaurantIds);
+            // Query total record count, the first page refreshes the cached count
+            Long total = countReservations("manager:" + statusList + ":" + finalRestaurantIds, page == 1,
+                    () -> reservationMapper.countManagerReservations(statusList, finalRestaurantIds));
 
             // Get restaurant and table information for reservations
-            List<ReservationVO> reservationVOList = new ArrayList<>();
-            for (Reservation reservation : reservations) {
-                ReservationVO reservationVO = convertToReservationVO(reservation);
-                reservationVOList.add(reservationVO);
-            }
+            List<ReservationVO> reservationVOList = convertToReservationVOs(reservations, true);
 
             // Build return result
             Map<String, Object> result = new HashMap<>();
@@ -550,49 +594,348 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
     }
 
     /**
-     * Convert Reservation to ReservationVO
+     * Restaurant manager gets all reservations for their restaurant by keyset cursor
      *
-     * @param reservation Reservation entity
-     * @return Reservation VO
+     * @param cursor       Next page token of the previous page, null for the first page
+     * @param pageSize     Page size
+     * @param status       Reservation status, multiple statuses separated by commas
+     * @param restaurantId Restaurant ID, optional filter condition
+     * @param managerId    Restaurant manager ID
+     * @param includeTotal Whether to include the (cached) total count
+     * @return Reservation list
      */
-    private ReservationVO convertToReservationVO(Reservation reservation) {
-        if (reservation == null) {
+    @Override
+    public Map<String, Object> getManagerReservationsByCursor(String cursor, Integer pageSize, String status, Integer restaurantId,
+                                                              Integer managerId, boolean includeTotal) {
+        try {
+            // Parameter validation
+            if (pageSize == null || pageSize < 1) {
+                pageSize = 10;
+            }
+            if (managerId == null) {
+                throw new IllegalArgumentException("Restaurant manager ID cannot be empty");
+            }
+            PageCursor pageCursor = StringUtils.hasText(cursor) ? PageCursor.decode(cursor) : null;
+
+            // Query restaurants managed by this manager
+            List<Integer> finalRestaurantIds = getManagerRestaurantIds(managerId, restaurantId);
+            if (finalRestaurantIds.isEmpty()) {
+                Map<String, Object> emptyResult = buildCursorPage(new ArrayList<>(), pageSize);
+                if (includeTotal) {
+                    emptyResult.put("total", 0);
+                }
+                return emptyResult;
+            }
+
+            // Process status parameter
+            List<Integer> statusList = parseStatusList(status);
+
+            // Fetch one extra row to find out if there is a next page
+            List<Reservation> reservations = reservationMapper.getManagerReservationsAfter(
+                    pageCursor == null ? null : pageCursor.getCreatedAt(),
+                    pageCursor == null ? null : pageCursor.getId(),
+                    pageSize + 1,
+                    statusList,
+                    finalRestaurantIds);
+
+            Map<String, Object> result = buildCursorPage(reservations, pageSize);
+            if (includeTotal) {
+                result.put("total", countReservations("manager:" + statusList + ":" + finalRestaurantIds, false,
+                        () -> reservationMapper.countManagerReservations(statusList, finalRestaurantIds)));
+            }
+            return result;
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to get manager reservations: ", e);
+            throw new RuntimeException("Failed to get reservation list: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Export reservations newest first. The rows are read through a database cursor in fetch-size batches and
+     * written one by one, so memory use does not depend on the number of exported reservations. The read-only
+     * transaction keeps the connection out of auto-commit, without which PostgreSQL ignores the fetch size.
+     *
+     * @param writer       Target, flushed but not closed
+     * @param format       Export format, "csv" or "ndjson"
+     * @param status       Reservation status, multiple statuses separated by commas
+     * @param restaurantId Restaurant ID, optional filter condition
+     * @param from         Earliest reservation date, inclusive, optional
+     * @param to           Latest reservation date, inclusive, optional
+     * @param managerId    Restaurant manager ID, null for administrator
+     * @return Number of exported reservations
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportReservations(Writer writer, String format, String status, Integer restaurantId, String from, String to,
+                                   Integer managerId) throws IOException {
+        boolean csv;
+        if (format == null || format.isEmpty() || "csv".equalsIgnoreCase(format)) {
+            csv = true;
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            csv = false;
+        } else {
+            throw new IllegalArgumentException("Invalid format, expected csv or ndjson");
+        }
+
+        OffsetDateTime fromTime = parseExportDate(from, false);
+        OffsetDateTime toTime = parseExportDate(to, true);
+        if (fromTime != null && toTime != null && !fromTime.isBefore(toTime)) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
+
+        List<Integer> restaurantIds = null;
+        if (managerId != null) {
+            restaurantIds = getManagerRestaurantIds(managerId, restaurantId);
+        } else if (restaurantId != null) {
+            restaurantIds = List.of(restaurantId);
+        }
+        List<Integer> statusList = parseStatusList(status);
+
+        if (csv) {
+            writer.write("id,restaurant_id,restaurant_name,table_id,table_type,reservation_time,duration_hours,"
+                    + "person_count,status,remarks,cancel_reason,created_at,updated_at\n");
+        }
+
+        long count = 0;
+        // No restaurants or specified restaurant does not belong to this manager
+        if (restaurantIds != null && restaurantIds.isEmpty()) {
+            writer.flush();
+            return count;
+        }
+
+        try (Cursor<ReservationVO> cursor = reservationMapper.streamReservationsForExport(
+                restaurantIds, statusList, fromTime, toTime)) {
+            for (ReservationVO reservation : cursor) {
+                reservation.setStatus(getStatusName(reservation.getStatusValue()));
+                reservation.setStatusText(reservation.getStatus());
+                if (csv) {
+                    writeCsvRow(writer, reservation);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(reservation));
+                    writer.write('\n');
+                }
+                count++;
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Parse an export date boundary
+     *
+     * @param date      Date in yyyy-MM-dd format, UTC, optional
+     * @param inclusive Whether the date is an inclusive upper bound, which then ends at the start of the next day
+     * @return Boundary time, null if no date is given
+     */
+    private OffsetDateTime parseExportDate(String date, boolean inclusive) {
+        if (date == null || date.isEmpty()) {
             return null;
         }
+        try {
+            LocalDate day = LocalDate.parse(date);
+            return (inclusive ? day.plusDays(1) : day).atStartOfDay().atOffset(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date, expected format yyyy-MM-dd");
+        }
+    }
+
+    private void writeCsvRow(Writer writer, ReservationVO reservation) throws IOException {
+        Object[] values = {
+                reservation.getId(), reservation.getRestaurantId(), reservation.getRestaurantName(),
+                reservation.getTableId(), reservation.getTableType(), reservation.getReservationTime(),
+                reservation.getReservationDate(), reservation.getPersonCount(), reservation.getStatus(),
+                reservation.getRemarks(), reservation.getCancelReason(), reservation.getCreatedAt(),
+                reservation.getUpdatedAt()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Quote a CSV field if needed. Text starting with a formula character is prefixed with a quote so user
+     * provided remarks are not evaluated when the file is opened in a spreadsheet.
+     */
+    private String escapeCsv(String value) {
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Parse comma separated status values, invalid values are skipped
+     *
+     * @param status Reservation status, multiple statuses separated by commas
+     * @return Status list, null if no status filter applies
+     */
+    private List<Integer> parseStatusList(String status) {
+        List<Integer> statusList = new ArrayList<>();
+        if (status != null && !status.isEmpty()) {
+            String[] statusArray = status.split(",");
+            for (String s : statusArray) {
+                try {
+                    statusList.add(Integer.parseInt(s));
+                } catch (NumberFormatException e) {
+                    log.warn("Invalid status value: {}", s);
+                }
+            }
+        }
+        return statusList.isEmpty() ? null : statusList;
+    }
+
+    /**
+     * Get IDs of the restaurants a manager may query
+     *
+     * @param managerId    Restaurant manager ID
+     * @param restaurantId Restaurant ID, optional filter condition that must belong to the manager
+     * @return Restaurant ID list, empty if none match
+     */
+    private List<Integer> getManagerRestaurantIds(Integer managerId, Integer restaurantId) {
+        LambdaQueryWrapper<Restaurant> restaurantQuery = new LambdaQueryWrapper<>();
+        restaurantQuery.eq(Restaurant::getOwnerId, managerId);
+
+        // If restaurantId is specified, check if it belongs to this manager
+        if (restaurantId != null) {
+            restaurantQuery.eq(Restaurant::getId, restaurantId);
+        }
+
+        return restaurantMapper.selectList(restaurantQuery).stream()
+                .map(Restaurant::getId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get a reservation count from the count cache
+     *
+     * @param key     Cache key describing the filter
+     * @param refresh Whether to recount and refresh the cached value
+     * @param counter Count query
+     * @return Total count
+     */
+    private Long countReservations(String key, boolean refresh, Supplier<Long> counter) {
+        if (refresh) {
+            Long total = counter.get();
+            reservationCounts.put(key, total);
+            return total;
+        }
+        return reservationCounts.get(key, k -> counter.get());
+    }
+
+    /**
+     * Build a keyset page from rows fetched with one extra row
+     *
+     * @param reservations Rows, at most pageSize + 1
+     * @param pageSize     Page size
+     * @return Map containing list, hasMore and nextCursor (null on the last page)
+     */
+    private Map<String, Object> buildCursorPage(List<Reservation> reservations, int pageSize) {
+        boolean hasMore = reservations.size() > pageSize;
+        List<Reservation> pageRows = hasMore ? reservations.subList(0, pageSize) : reservations;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Reservation last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
 
-        ReservationVO reservationVO = new ReservationVO();
-        BeanUtils.copyProperties(reservation, reservationVO);
+        Map<String, Object> result = new HashMap<>();
+        result.put("list", convertToReservationVOs(pageRows, true));
+        result.put("hasMore", hasMore);
+        result.put("nextCursor", nextCursor);
+        return result;
+    }
+
+    /**
+     * Convert a page of reservations to ReservationVOs. Restaurants, tables and review states of the
+     * whole page are loaded with one query each and joined in memory.
+     *
+     * @param reservations  Reservation entities
+     * @param checkReviewed Whether to look up if the user has reviewed the restaurant,
+     *                      otherwise the reservation's own review ID decides
+     * @return Reservation VO list, in the same order
+     */
+    private List<ReservationVO> convertToReservationVOs(List<Reservation> reservations, boolean checkReviewed) {
+        List<ReservationVO> reservationVOList = new ArrayList<>();
+        if (reservations == null || reservations.isEmpty()) {
+            return reservationVOList;
+        }
 
-        // Get restaurant name
-        if (reservation.getRestaurantId() != null) {
-            Restaurant restaurant = restaurantMapper.selectById(reservation.getRestaurantId());
-            if (restaurant != null) {
-                reservationVO.setRestaurantName(restaurant.getName());
+        // Collect the distinct keys of the page
+        Set<Integer> restaurantIds = new HashSet<>();
+        Set<Integer> tableIds = new HashSet<>();
+        Set<Integer> userIds = new HashSet<>();
+        for (Reservation reservation : reservations) {
+            if (reservation.getRestaurantId() != null) {
+                restaurantIds.add(reservation.getRestaurantId());
+            }
+            if (reservation.getTableId() != null) {
+                tableIds.add(reservation.getTableId());
+            }
+            if (reservation.getUserId() != null) {
+                userIds.add(reservation.getUserId());
             }
         }
 
-        // Get table type
-        if (reservation.getTableId() != null) {
-            RestaurantTable table = restaurantTableMapper.selectById(reservation.getTableId());
-            if (table != null) {
-                reservationVO.setTableType(table.getType());
+        // Get restaurant names
+        Map<Integer, String> restaurantNameMap = new HashMap<>();
+        if (!restaurantIds.isEmpty()) {
+            for (Restaurant restaurant : catalogCacheService.getRestaurants(restaurantIds).values()) {
+                restaurantNameMap.put(restaurant.getId(), restaurant.getName());
             }
         }
 
-        // Set status text
-        reservationVO.setStatusValue(reservation.getStatus());
-        reservationVO.setStatusText(getStatusName(reservation.getStatus()));
-        reservationVO.setStatus(getStatusName(reservation.getStatus()));
+        // Get table types
+        Map<Integer, String> tableTypeMap = new HashMap<>();
+        if (!tableIds.isEmpty()) {
+            for (RestaurantTable table : catalogCacheService.getTables(tableIds).values()) {
+                tableTypeMap.put(table.getId(), table.getType());
+            }
+        }
 
-        // Check if it has been reviewed
-        if (reservation.getUserId() != null && reservation.getRestaurantId() != null) {
-            Integer reviewCount = reviewMapper.checkReviewExistence(reservation.getUserId(), reservation.getRestaurantId());
-            reservationVO.setReviewed(reviewCount != null && reviewCount > 0);
-        } else {
-            reservationVO.setReviewed(false);
+        // Get reviewed (user, restaurant) pairs
+        Set<String> reviewedPairs = new HashSet<>();
+        if (checkReviewed && !userIds.isEmpty() && !restaurantIds.isEmpty()) {
+            for (Map<String, Object> row : reviewMapper.getReviewedPairs(userIds, restaurantIds)) {
+                reviewedPairs.add(row.get("user_id") + ":" + row.get("restaurant_id"));
+            }
+        }
+
+        for (Reservation reservation : reservations) {
+            ReservationVO reservationVO = new ReservationVO();
+            BeanUtils.copyProperties(reservation, reservationVO);
+
+            reservationVO.setRestaurantName(restaurantNameMap.get(reservation.getRestaurantId()));
+            reservationVO.setTableType(tableTypeMap.get(reservation.getTableId()));
+
+            // Set status text
+            reservationVO.setStatusValue(reservation.getStatus());
+            reservationVO.setStatusText(getStatusName(reservation.getStatus()));
+            reservationVO.setStatus(getStatusName(reservation.getStatus()));
+
+            // Check if it has been reviewed
+            if (checkReviewed) {
+                reservationVO.setReviewed(reviewedPairs.contains(reservation.getUserId() + ":" + reservation.getRestaurantId()));
+            } else {
+                reservationVO.setReviewed(reservation.getReviewId() != null);
+            }
+
+            reservationVOList.add(reservationVO);
         }
 
-        return reservationVO;
+        return reservationVOList;
     }
 
     /**
@@ -635,11 +978,14 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
             }
 
             // Update reservation status to confirmed
+            Integer oldStatus = reservation.getStatus();
             reservation.setStatus(STATUS_CONFIRMED);
             reservation.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
 
             // Save update
             reservationMapper.updateById(reservation);
+            tableAvailabilityService.refresh(reservation);
+            reservationStatsService.onStatusChanged(reservation, oldStatus);
 
             // Build return data
             Map<String, Object> result = new HashMap<>();
@@ -700,12 +1046,15 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
             }
 
             // Update reservation status to rejected
+            Integer oldStatus = reservation.getStatus();
             reservation.setStatus(STATUS_REJECTED);
             reservation.setCancelReason(reason);
             reservation.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
 
             // Save update
             reservationMapper.updateById(reservation);
+            tableAvailabilityService.refresh(reservation);
+            reservationStatsService.onStatusChanged(reservation, oldStatus);
 
             // Build return data
             Map<String, Object> result = new HashMap<>();
@@ -762,11 +1111,14 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
             }
 
             // Update reservation status to completed
+            Integer oldStatus = reservation.getStatus();
             reservation.setStatus(STATUS_COMPLETED);
             reservation.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
 
             // Save update
             reservationMapper.updateById(reservation);
+            tableAvailabilityService.refresh(reservation);
+            reservationStatsService.onStatusChanged(reservation, oldStatus);
 
             // Build return data
             Map<String, Object> result = new HashMap<>();
@@ -783,11 +1135,9 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
     }
 
     @Override
-    public Map<String, Object> getStaffReservations(Integer staffId, Integer page, Integer pageSize, String status, Integer restaurantId) {
+    public Map<String, Object> getStaffReservations(Set<Integer> staffRestaurantIds, Integer page, Integer pageSize, String status, Integer restaurantId) {
         try {
-            // Get list of restaurant IDs where staff works
-            List<Integer> restaurantIds = restaurantMapper.getRestaurantIdsByStaffId(staffId);
-            if (restaurantIds.isEmpty()) {
+            if (staffRestaurantIds == null || staffRestaurantIds.isEmpty()) {
                 return new HashMap<String, Object>() {{
                     put("total", 0L);
                     put("list", new ArrayList<>());
@@ -795,7 +1145,7 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
             }
 
             // If restaurantId is specified, verify if staff has access to it
-            if (restaurantId != null && !restaurantIds.contains(restaurantId)) {
+            if (restaurantId != null && !staffRestaurantIds.contains(restaurantId)) {
                 throw new IllegalArgumentException("No permission to access reservation information for this restaurant");
             }
 
@@ -818,16 +1168,13 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
                 reservations = reservationMapper.getManagerReservationsWithPage(offset, pageSize, statusList, List.of(restaurantId));
                 total = reservationMapper.countManagerReservations(statusList, List.of(restaurantId));
             } else {
+                List<Integer> restaurantIds = new ArrayList<>(staffRestaurantIds);
                 reservations = reservationMapper.getManagerReservationsWithPage(offset, pageSize, statusList, restaurantIds);
                 total = reservationMapper.countManagerReservations(statusList, restaurantIds);
             }
 
             // Convert to ReservationVO list
-            List<ReservationVO> reservationVOList = new ArrayList<>();
-            for (Reservation reservation : reservations) {
-                ReservationVO reservationVO = convertToReservationVO(reservation);
-                reservationVOList.add(reservationVO);
-            }
+            List<ReservationVO> reservationVOList = convertToReservationVOs(reservations, true);
 
             // Build return result
             Map<String, Object> result = new HashMap<>();
@@ -843,7 +1190,7 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
 
     @Override
     @Transactional(rollbackFor = Exception.class)
-    public Reservation updateStaffReservationStatus(Integer staffId, Integer reservationId, Integer status) {
+    public Reservation updateStaffReservationStatus(Set<Integer> staffRestaurantIds, Integer reservationId, Integer status) {
         try {
             // Get reservation information
             Reservation reservation = reservationMapper.selectById(reservationId);
@@ -852,17 +1199,28 @@ public class ReservationServiceImpl extends ServiceImpl<ReservationMapper, Reser
             }
 
             // Verify if staff has permission to modify this reservation
-            List<Integer> restaurantIds = restaurantMapper.getRestaurantIdsByStaffId(staffId);
-            if (!restaurantIds.contains(reservation.getRestaurantId())) {
+            if (staffRestaurantIds == null || !staffRestaurantIds.contains(reservation.getRestaurantId())) {
                 throw new IllegalArgumentException("No permission to modify this reservation status");
             }
 
-            // Update reservation status
+            // Update reservation status, a reservation that occupies its table again must not overlap another one
+            Integer oldStatus = reservation.getStatus();
             reservation.setStatus(status);
-            int rows = reservationMapper.updateById(reservation);
-            if (rows != 1) {
+            int[] rows = new int[1];
+            if (isActiveStatus(status) && !isActiveStatus(oldStatus)) {
+                boolean booked = tableAvailabilityService.bookIfAvailable(reservation,
+                        () -> rows[0] = reservationMapper.updateById(reservation));
+                if (!booked) {
+                    throw new IllegalArgumentException("This table is already reserved for the selected time");
+                }
+            } else {
+                rows[0] = reservationMapper.updateById(reservation);
+                tableAvailabilityService.refresh(reservation);
+            }
+            if (rows[0] != 1) {
                 throw new RuntimeException("Failed to update reservation status");
             }
+            reservationStatsService.onStatusChanged(reservation, oldStatus);
 
             return reservation;
         } catch (Exception e) {
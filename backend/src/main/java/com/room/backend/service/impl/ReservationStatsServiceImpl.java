@@ -0,0 +1,86 @@
+package com.room.backend.service.impl;
+
+import com.room.backend.entity.Reservation;
+import com.room.backend.mapper.ReservationStatsMapper;
+import com.room.backend.service.ReservationStatsService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+
+/**
+ * Reservation Statistics Service Implementation
+ *
+ * Counters are updated in the transaction of the reservation change, so they commit or roll back together with
+ * it. Each update runs in a savepoint: a failed update is rolled back and logged without failing the reservation
+ * change, and the counters can be recomputed with rebuild. Rebuild locks the counter table, so reservation changes
+ * committed while it runs are neither lost nor counted twice.
+ */
+@Service
+@Slf4j
+public class ReservationStatsServiceImpl implements ReservationStatsService {
+
+    @Resource
+    private ReservationStatsMapper reservationStatsMapper;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate savepointTemplate;
+
+    @PostConstruct
+    public void init() {
+        savepointTemplate = new TransactionTemplate(transactionManager);
+        savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
+
+    @Override
+    public void onReservationCreated(Reservation reservation) {
+        if (!isCountable(reservation)) {
+            return;
+        }
+        update(reservation, () -> reservationStatsMapper.addCount(reservation.getReservationTime(),
+                reservation.getRestaurantId(), reservation.getStatus(), 1));
+    }
+
+    @Override
+    public void onStatusChanged(Reservation reservation, Integer oldStatus) {
+        if (!isCountable(reservation) || oldStatus == null || Objects.equals(oldStatus, reservation.getStatus())) {
+            return;
+        }
+        update(reservation, () -> {
+            reservationStatsMapper.addCount(reservation.getReservationTime(), reservation.getRestaurantId(), oldStatus, -1);
+            reservationStatsMapper.addCount(reservation.getReservationTime(), reservation.getRestaurantId(),
+                    reservation.getStatus(), 1);
+        });
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int rebuild() {
+        reservationStatsMapper.lockForRebuild();
+        reservationStatsMapper.deleteAll();
+        int rows = reservationStatsMapper.insertFromReservations();
+        log.info("Rebuilt reservation statistics, {} daily counters", rows);
+        return rows;
+    }
+
+    private boolean isCountable(Reservation reservation) {
+        return reservation != null && reservation.getReservationTime() != null
+                && reservation.getRestaurantId() != null && reservation.getStatus() != null;
+    }
+
+    private void update(Reservation reservation, Runnable counterUpdate) {
+        try {
+            savepointTemplate.executeWithoutResult(status -> counterUpdate.run());
+        } catch (Exception e) {
+            log.error("Failed to update reservation statistics for reservation {}", reservation.getId(), e);
+        }
+    }
+}
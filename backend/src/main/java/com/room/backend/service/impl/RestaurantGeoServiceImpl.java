@@ -0,0 +1,395 @@
+package com.room.backend.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.room.backend.entity.Restaurant;
+import com.room.backend.mapper.RestaurantMapper;
+import com.room.backend.service.InvalidationBus;
+import com.room.backend.service.RestaurantGeoService;
+import com.room.backend.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Restaurant Geo Search Service Implementation
+ *
+ * Keeps operating restaurants in an in-memory grid of fixed-size latitude/longitude cells. Radius queries only
+ * visit the cells overlapping the bounding box of the circle, nearest-neighbour queries scan rings of cells around
+ * the center until no unscanned cell can hold a closer restaurant. When a query would visit more cells than are
+ * occupied, the occupied cells are scanned directly. The grid is loaded on first use and kept current by the
+ * restaurant write paths once their transaction commits. Other nodes reload a changed restaurant from the database
+ * when the change reaches them through the invalidation bus.
+ */
+@Service
+@Slf4j
+public class RestaurantGeoServiceImpl implements RestaurantGeoService {
+
+    @Resource
+    private RestaurantMapper restaurantMapper;
+
+    @Resource
+    private InvalidationBus invalidationBus;
+
+    private static final String TOPIC_RESTAURANT_GEO = "restaurant-geo";
+
+    // Only operating restaurants are searchable
+    private static final int STATUS_OPERATING = 3;
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    /**
+     * Cell edge length in degrees, 0.05 degrees is about 5.5 km of latitude
+     */
+    @Value("${geo.cell-size:0.05}")
+    private double cellSize;
+
+    private int latCells;
+
+    private int lonCells;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Cell key -> restaurants located in the cell, only occupied cells are present
+     */
+    private final Map<Long, List<GeoPoint>> cells = new HashMap<>();
+
+    /**
+     * Restaurant ID -> indexed location
+     */
+    private final Map<Integer, GeoPoint> points = new HashMap<>();
+
+    private volatile boolean loaded;
+
+    @PostConstruct
+    public void init() {
+        latCells = (int) Math.ceil(180 / cellSize);
+        lonCells = (int) Math.ceil(360 / cellSize);
+        invalidationBus.subscribe(TOPIC_RESTAURANT_GEO, this::reload);
+    }
+
+    @Override
+    public LinkedHashMap<Integer, Double> findWithinRadius(double latitude, double longitude, double radiusKm, int limit) {
+        ensureLoaded();
+
+        List<GeoHit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            double latDelta = radiusKm / KM_PER_DEGREE;
+            double maxAbsLat = Math.abs(latitude) + latDelta;
+            double lonDelta = maxAbsLat >= 90 ? 180 : latDelta / Math.cos(Math.toRadians(maxAbsLat));
+
+            int fromLat = Math.max(0, latIndex(latitude - latDelta));
+            int toLat = Math.min(latCells - 1, latIndex(latitude + latDelta));
+            long fromLon = (long) Math.floor((longitude - lonDelta + 180) / cellSize);
+            long toLon = (long) Math.floor((longitude + lonDelta + 180) / cellSize);
+            if (lonDelta >= 180 || toLon - fromLon + 1 >= lonCells) {
+                fromLon = 0;
+                toLon = lonCells - 1;
+            }
+
+            long cellCount = (long) (toLat - fromLat + 1) * (toLon - fromLon + 1);
+            if (cellCount > cells.size()) {
+                // Fewer occupied cells than cells in the bounding box, scan the occupied ones
+                for (List<GeoPoint> cell : cells.values()) {
+                    collectWithin(cell, latitude, longitude, radiusKm, hits);
+                }
+            } else {
+                for (int latIdx = fromLat; latIdx <= toLat; latIdx++) {
+                    for (long lonIdx = fromLon; lonIdx <= toLon; lonIdx++) {
+                        List<GeoPoint> cell = cells.get(cellKey(latIdx, (int) Math.floorMod(lonIdx, (long) lonCells)));
+                        if (cell != null) {
+                            collectWithin(cell, latitude, longitude, radiusKm, hits);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return toResult(hits, limit);
+    }
+
+    @Override
+    public LinkedHashMap<Integer, Double> findNearest(double latitude, double longitude, int k, Double maxDistanceKm) {
+        if (k < 1) {
+            return new LinkedHashMap<>();
+        }
+        ensureLoaded();
+
+        double maxDistance = maxDistanceKm == null ? Double.MAX_VALUE : maxDistanceKm;
+        List<GeoHit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int centerLat = latIndex(latitude);
+            int centerLon = lonIndex(longitude);
+
+            for (int ring = 0; ; ring++) {
+                long scannedCells = (long) (2 * ring + 1) * (2 * ring + 1);
+                if (scannedCells > cells.size() || 2 * ring + 1 >= lonCells) {
+                    // Rings outgrew the occupied cells, scan all restaurants instead
+                    hits.clear();
+                    for (List<GeoPoint> cell : cells.values()) {
+                        collectWithin(cell, latitude, longitude, maxDistance, hits);
+                    }
+                    break;
+                }
+
+                scanRing(centerLat, centerLon, ring, latitude, longitude, maxDistance, hits);
+
+                // Restaurants in unscanned cells are at least this far from the center
+                double nearestUnscanned = ring * cellSize * KM_PER_DEGREE
+                        * Math.cos(Math.toRadians(Math.min(89, Math.abs(latitude) + (ring + 1) * cellSize)));
+                if (nearestUnscanned >= maxDistance) {
+                    break;
+                }
+                if (hits.size() >= k) {
+                    hits.sort(Comparator.comparingDouble(hit -> hit.distance));
+                    if (hits.get(k - 1).distance <= nearestUnscanned) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return toResult(hits, k);
+    }
+
+    @Override
+    public void refresh(Restaurant restaurant) {
+        if (restaurant == null || restaurant.getId() == null) {
+            return;
+        }
+        TransactionUtils.runAfterCommit(() -> apply(restaurant.getId(), restaurant));
+        invalidationBus.publish(TOPIC_RESTAURANT_GEO, restaurant.getId());
+    }
+
+    @Override
+    public void remove(Integer restaurantId) {
+        if (restaurantId == null) {
+            return;
+        }
+        TransactionUtils.runAfterCommit(() -> apply(restaurantId, null));
+        invalidationBus.publish(TOPIC_RESTAURANT_GEO, restaurantId);
+    }
+
+    /**
+     * Apply a change made on another node, reading the restaurant's current state from the database
+     *
+     * @param restaurantId Restaurant ID, null to drop the whole grid
+     */
+    private void reload(Integer restaurantId) {
+        if (!loaded) {
+            return;
+        }
+        if (restaurantId == null) {
+            lock.writeLock().lock();
+            try {
+                cells.clear();
+                points.clear();
+                loaded = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        apply(restaurantId, restaurantMapper.selectById(restaurantId));
+    }
+
+    /**
+     * Re-index a restaurant, only operating restaurants with coordinates are kept
+     *
+     * @param restaurantId Restaurant ID
+     * @param restaurant Current state, null if the restaurant was deleted
+     */
+    private void apply(Integer restaurantId, Restaurant restaurant) {
+        lock.writeLock().lock();
+        try {
+            // The grid reads the current state from the database when it is loaded, a load in progress is waited for
+            if (!loaded) {
+                return;
+            }
+            removePoint(restaurantId);
+            if (restaurant != null && isIndexable(restaurant)) {
+                addPoint(restaurant);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Load all operating restaurants with coordinates into the grid on first use
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+
+            LambdaQueryWrapper<Restaurant> queryWrapper = new LambdaQueryWrapper<>();
+            queryWrapper.eq(Restaurant::getStatus, STATUS_OPERATING)
+                    .isNotNull(Restaurant::getLatitude)
+                    .isNotNull(Restaurant::getLongitude);
+            List<Restaurant> restaurants = restaurantMapper.selectList(queryWrapper);
+            for (Restaurant restaurant : restaurants) {
+                if (isIndexable(restaurant)) {
+                    addPoint(restaurant);
+                }
+            }
+            loaded = true;
+            log.info("Loaded {} operating restaurants into the geo index", points.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isIndexable(Restaurant restaurant) {
+        return restaurant.getStatus() != null && restaurant.getStatus() == STATUS_OPERATING
+                && restaurant.getLatitude() != null && restaurant.getLongitude() != null
+                && Math.abs(restaurant.getLatitude()) <= 90 && Math.abs(restaurant.getLongitude()) <= 180;
+    }
+
+    private void addPoint(Restaurant restaurant) {
+        double latitude = restaurant.getLatitude();
+        double longitude = restaurant.getLongitude();
+        GeoPoint point = new GeoPoint(restaurant.getId(), latitude, longitude,
+                cellKey(latIndex(latitude), lonIndex(longitude)));
+        points.put(point.restaurantId, point);
+        cells.computeIfAbsent(point.cellKey, key -> new ArrayList<>()).add(point);
+    }
+
+    private void removePoint(Integer restaurantId) {
+        GeoPoint point = points.remove(restaurantId);
+        if (point == null) {
+            return;
+        }
+
+        List<GeoPoint> cell = cells.get(point.cellKey);
+        if (cell != null) {
+            cell.remove(point);
+            if (cell.isEmpty()) {
+                cells.remove(point.cellKey);
+            }
+        }
+    }
+
+    /**
+     * Collect restaurants of the cells at exactly the given ring distance from the center cell
+     */
+    private void scanRing(int centerLat, int centerLon, int ring, double latitude, double longitude,
+                          double maxDistance, List<GeoHit> hits) {
+        for (int dLat = -ring; dLat <= ring; dLat++) {
+            int latIdx = centerLat + dLat;
+            if (latIdx < 0 || latIdx >= latCells) {
+                continue;
+            }
+
+            // Inner rows of the ring only have their two edge cells
+            int step = Math.abs(dLat) == ring ? 1 : Math.max(1, 2 * ring);
+            for (int dLon = -ring; dLon <= ring; dLon += step) {
+                List<GeoPoint> cell = cells.get(cellKey(latIdx, Math.floorMod(centerLon + dLon, lonCells)));
+                if (cell != null) {
+                    collectWithin(cell, latitude, longitude, maxDistance, hits);
+                }
+            }
+        }
+    }
+
+    private void collectWithin(Collection<GeoPoint> cell, double latitude, double longitude, double maxDistance,
+                               List<GeoHit> hits) {
+        for (GeoPoint point : cell) {
+            double distance = haversine(latitude, longitude, point.latitude, point.longitude);
+            if (distance <= maxDistance) {
+                hits.add(new GeoHit(point.restaurantId, distance));
+            }
+        }
+    }
+
+    private LinkedHashMap<Integer, Double> toResult(List<GeoHit> hits, int limit) {
+        hits.sort(Comparator.comparingDouble(hit -> hit.distance));
+
+        LinkedHashMap<Integer, Double> result = new LinkedHashMap<>();
+        for (GeoHit hit : hits) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.put(hit.restaurantId, hit.distance);
+        }
+        return result;
+    }
+
+    private int latIndex(double latitude) {
+        return Math.min(latCells - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellSize)));
+    }
+
+    private int lonIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellSize), lonCells);
+    }
+
+    private long cellKey(int latIdx, int lonIdx) {
+        return (long) latIdx * lonCells + lonIdx;
+    }
+
+    /**
+     * Great-circle distance between two coordinates (km)
+     */
+    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Indexed restaurant location
+     */
+    private static final class GeoPoint {
+        private final Integer restaurantId;
+        private final double latitude;
+        private final double longitude;
+        private final long cellKey;
+
+        private GeoPoint(Integer restaurantId, double latitude, double longitude, long cellKey) {
+            this.restaurantId = restaurantId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cellKey = cellKey;
+        }
+    }
+
+    /**
+     * Restaurant found by a query and its distance from the center (km)
+     */
+    private static final class GeoHit {
+        private final Integer restaurantId;
+        private final double distance;
+
+        private GeoHit(Integer restaurantId, double distance) {
+            this.restaurantId = restaurantId;
+            this.distance = distance;
+        }
+    }
+}
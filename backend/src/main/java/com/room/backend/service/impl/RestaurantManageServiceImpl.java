@@ -5,15 +5,16 @@ import com.room.backend.common.Result;
 import com.room.backend.entity.Restaurant;
 import com.room.backend.entity.User;
 import com.room.backend.mapper.RestaurantMapper;
-import com.room.backend.mapper.UserMapper;
+import com.room.backend.service.BlobStorageService;
+import com.room.backend.service.CatalogCacheService;
+import com.room.backend.service.RestaurantGeoService;
 import com.room.backend.service.RestaurantManageService;
-import com.room.backend.util.JwtTokenUtil;
+import com.room.backend.service.RestaurantSearchService;
+import com.room.backend.service.StaffScopeService;
 import com.room.backend.vo.RestaurantVO;
-import io.jsonwebtoken.Claims;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -38,10 +39,19 @@ public class RestaurantManageServiceImpl implements RestaurantManageService {
     private RestaurantMapper restaurantMapper;
     
     @Resource
-    private UserMapper userMapper;
-    
-    @Autowired
-    private JwtTokenUtil jwtTokenUtil;
+    private RestaurantGeoService restaurantGeoService;
+
+    @Resource
+    private RestaurantSearchService restaurantSearchService;
+
+    @Resource
+    private StaffScopeService staffScopeService;
+
+    @Resource
+    private CatalogCacheService catalogCacheService;
+
+    @Resource
+    private BlobStorageService blobStorageService;
     
     @Override
     public Result<Map<String, Object>> getRestaurantList(Integer page, Integer pageSize, String keyword, Integer status) {
@@ -91,7 +101,7 @@ public class RestaurantManageServiceImpl implements RestaurantManageService {
                 
                 // Query restaurant owner information
                 if (restaurant.getOwnerId() != null) {
-                    User owner = userMapper.selectById(restaurant.getOwnerId());
+                    User owner = catalogCacheService.getUser(restaurant.getOwnerId());
                     if (owner != null) {
                         restaurantVO.setOwnerName(owner.getName());
                     }
@@ -121,7 +131,7 @@ public class RestaurantManageServiceImpl implements RestaurantManageService {
             }
             
             // Query restaurant
-            Restaurant restaurant = restaurantMapper.selectById(id);
+            Restaurant restaurant = catalogCacheService.getRestaurant(id);
             if (restaurant == null) {
                 return Result.validateFailed("Restaurant not found");
             }
@@ -131,7 +141,7 @@ public class RestaurantManageServiceImpl implements RestaurantManageService {
             
             // Query restaurant owner information
             if (restaurant.getOwnerId() != null) {
-                User owner = userMapper.selectById(restaurant.getOwnerId());
+                User owner = catalogCacheService.getUser(restaurant.getOwnerId());
                 if (owner != null) {
                     restaurantVO.setOwnerName(owner.getName());
                 }
@@ -154,7 +164,7 @@ public class RestaurantManageServiceImpl implements RestaurantManageService {
             }
             
             // Check if user exists
-            User user = userMapper.selectById(userId);
+            User user = catalogCacheService.getUser(userId);
             if (user == null) {
                 return Result.validateFailed("User not found");
             }
@@ -197,6 +207,10 @@ public class RestaurantManageServiceImpl implements RestaurantManageService {
             
             // Save restaurant
             restaurantMapper.insert(restaurant);
+            blobStorageService.updateReferences(null, restaurant.getPhotos());
+            restaurantGeoService.refresh(restaurant);
+            restaurantSearchService.index(restaurant);
+            staffScopeService.invalidateManager(restaurant.getOwnerId());
             
             // Convert to VO object
             RestaurantVO result = convertToVO(restaurant);
@@ -218,14 +232,16 @@ public class RestaurantManageServiceImpl implements RestaurantManageService {
                 return Result.validateFailed("Restaurant ID cannot be empty");
             }
             
-            // Query restaurant
+            // Lock the row first, so the photos read below are the ones this update replaces, even if the
+            // restaurant is being edited concurrently
+            restaurantMapper.lockById(id);
             Restaurant restaurant = restaurantMapper.selectById(id);
             if (restaurant == null) {
                 return Result.validateFailed("Restaurant not found");
             }
             
             // Permission check: Only restaurant owner or admin can modify restaurant information
-            User user = userMapper.selectById(userId);
+            User user = catalogCacheService.getUser(userId);
             if (user == null) {
                 return Result.validateFailed("User not found");
             }
@@ -267,6 +283,7 @@ public class RestaurantManageServiceImpl implements RestaurantManageService {
             }
             
             // Process photos
+            String oldPhotos = restaurant.getPhotos();
             if (restaurantVO.getPhotos() != null && !restaurantVO.getPhotos().isEmpty()) {
                 String photosStr = String.join("|", restaurantVO.getPhotos());
                 restaurant.setPhotos(photosStr);
@@ -277,12 +294,16 @@ public class RestaurantManageServiceImpl implements RestaurantManageService {
             
             // Save changes
             restaurantMapper.updateById(restaurant);
+            blobStorageService.updateReferences(oldPhotos, restaurant.getPhotos());
+            catalogCacheService.invalidateRestaurant(id);
+            restaurantGeoService.refresh(restaurant);
+            restaurantSearchService.index(restaurant);
             
             // Convert to VO object
             RestaurantVO result = convertToVO(restaurant);
             
             // Set owner name
-            User owner = userMapper.selectById(restaurant.getOwnerId());
+            User owner = catalogCacheService.getUser(restaurant.getOwnerId());
             if (owner != null) {
                 result.setOwnerName(owner.getName());
             }
@@ -303,14 +324,15 @@ public class RestaurantManageServiceImpl implements RestaurantManageService {
                 return Result.validateFailed("Restaurant ID cannot be empty");
             }
             
-            // Query restaurant
+            // Lock the row first, so the photos released below are not being replaced concurrently
+            restaurantMapper.lockById(id);
             Restaurant restaurant = restaurantMapper.selectById(id);
             if (restaurant == null) {
                 return Result.validateFailed("Restaurant not found");
             }
             
             // Permission check: Only restaurant owner or admin can delete restaurant
-            User user = userMapper.selectById(userId);
+            User user = catalogCacheService.getUser(userId);
             if (user == null) {
                 return Result.validateFailed("User not found");
             }
@@ -322,6 +344,11 @@ public class RestaurantManageServiceImpl implements RestaurantManageService {
             
             // Delete restaurant
             restaurantMapper.deleteById(id);
+            blobStorageService.updateReferences(restaurant.getPhotos(), null);
+            catalogCacheService.invalidateRestaurant(id);
+            restaurantGeoService.remove(id);
+            restaurantSearchService.remove(id);
+            staffScopeService.invalidateManager(restaurant.getOwnerId());
             
             return Result.success(null, "Deleted successfully");
         } catch (Exception e) {
@@ -350,7 +377,7 @@ public class RestaurantManageServiceImpl implements RestaurantManageService {
             }
             
             // Permission check: Only restaurant owner or admin can update restaurant status
-            User user = userMapper.selectById(userId);
+            User user = catalogCacheService.getUser(userId);
             if (user == null) {
                 return Result.validateFailed("User not found");
             }
@@ -364,6 +391,9 @@ public class RestaurantManageServiceImpl implements RestaurantManageService {
             restaurant.setStatus(status);
             restaurant.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
             restaurantMapper.updateById(restaurant);
+            catalogCacheService.invalidateRestaurant(id);
+            restaurantGeoService.refresh(restaurant);
+            restaurantSearchService.index(restaurant);
             
             // Build return data
             Map<String, Object> result = new HashMap<>();
@@ -378,39 +408,6 @@ public class RestaurantManageServiceImpl implements RestaurantManageService {
         }
     }
     
-    @Override
-    public Result<Map<String, Object>> checkManagerRole(String token) {
-        // Token validation
-        if (token == null || token.isEmpty()) {
-            return Result.unauthorized();
-        }
-        
-        try {
-            // Parse user role from token
-            Claims allClaimsFromToken = jwtTokenUtil.getAllClaimsFromToken(token);
-            Integer role = allClaimsFromToken.get("role", Integer.class);
-            if (role == null || (role != 0 && role != 1)) {
-                return Result.forbidden("No permission to access management interface, administrator or restaurant manager role required");
-            }
-            
-            // Parse user ID
-            Integer userId = jwtTokenUtil.getUserIdFromToken(token);
-            if (userId == null) {
-                return Result.unauthorized();
-            }
-            
-            // Build return data
-            Map<String, Object> result = new HashMap<>();
-            result.put("userId", userId);
-            result.put("role", role);
-            
-            return Result.success(result);
-        } catch (Exception e) {
-            log.error("Failed to parse JWT token", e);
-            return Result.unauthorized();
-        }
-    }
-    
     @Override
     public Result<Map<String, Object>> getManagerRestaurantList(Integer page, Integer pageSize, String keyword, Integer status, Integer managerId) {
         try {
@@ -464,7 +461,7 @@ public class RestaurantManageServiceImpl implements RestaurantManageService {
             List<RestaurantVO> restaurantVOList = new ArrayList<>();
             
             // Get current manager user information (for setting ownerName)
-            User manager = userMapper.selectById(managerId);
+            User manager = catalogCacheService.getUser(managerId);
             String managerName = manager != null ? manager.getName() : "";
             
             for (Restaurant restaurant : restaurantList) {
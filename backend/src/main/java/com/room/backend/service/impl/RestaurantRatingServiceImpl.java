@@ -0,0 +1,122 @@
+package com.room.backend.service.impl;
+
+import com.room.backend.dto.RatingSummaryDTO;
+import com.room.backend.mapper.ReviewMapper;
+import com.room.backend.service.InvalidationBus;
+import com.room.backend.service.RestaurantRatingService;
+import com.room.backend.util.BoundedCache;
+import com.room.backend.util.TransactionUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Restaurant Rating Service Implementation
+ *
+ * Serves per-restaurant rating summaries from a bounded cache. Missing summaries are loaded for a whole page
+ * of restaurants with one grouped query. A summary is dropped when a review of its restaurant is added or
+ * deleted, and again when the transaction completes, so neither a rollback nor a load racing the commit leaves
+ * a wrong summary behind. Other nodes are told through the invalidation bus. The time to live bounds how long a
+ * summary can drift from the database, e.g. after reviews were changed directly in the database.
+ */
+@Service
+@Slf4j
+public class RestaurantRatingServiceImpl implements RestaurantRatingService, MeterBinder {
+
+    private static final String TOPIC_RATING = "restaurant-rating";
+
+    @Resource
+    private ReviewMapper reviewMapper;
+
+    @Resource
+    private InvalidationBus invalidationBus;
+
+    @Value("${cache.rating.max-size:10000}")
+    private int maxSize;
+
+    @Value("${cache.rating.ttl:600000}")
+    private long ttl;
+
+    /**
+     * Restaurant ID -> rating summary, cached summaries are never mutated, updates replace them
+     */
+    private BoundedCache<Integer, RatingSummaryDTO> summaries;
+
+    @PostConstruct
+    public void init() {
+        summaries = new BoundedCache<>(maxSize, ttl);
+        invalidationBus.subscribe(TOPIC_RATING, restaurantId -> {
+            if (restaurantId == null) {
+                summaries.invalidateAll();
+            } else {
+                summaries.invalidate(restaurantId);
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        summaries.registerMetrics(registry, "rating.summaries");
+    }
+
+    @Override
+    public RatingSummaryDTO getSummary(Integer restaurantId) {
+        if (restaurantId == null) {
+            return new RatingSummaryDTO();
+        }
+        return getSummaries(Collections.singletonList(restaurantId)).get(restaurantId);
+    }
+
+    @Override
+    public Map<Integer, RatingSummaryDTO> getSummaries(Collection<Integer> restaurantIds) {
+        if (restaurantIds == null || restaurantIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return summaries.getAll(restaurantIds, this::loadSummaries);
+    }
+
+    @Override
+    public void onReviewsChanged(Integer restaurantId) {
+        if (restaurantId != null) {
+            TransactionUtils.runNowAndAfterCompletion(() -> summaries.invalidate(restaurantId));
+            invalidationBus.publish(TOPIC_RATING, restaurantId);
+        }
+    }
+
+    /**
+     * Load rating summaries from the database, restaurants without reviews get an empty summary
+     *
+     * @param restaurantIds Restaurant IDs
+     * @return Restaurant ID -> rating summary
+     */
+    private Map<Integer, RatingSummaryDTO> loadSummaries(Set<Integer> restaurantIds) {
+        Map<Integer, RatingSummaryDTO> result = new HashMap<>();
+        for (Integer restaurantId : restaurantIds) {
+            result.put(restaurantId, new RatingSummaryDTO());
+        }
+
+        List<Map<String, Object>> rows = reviewMapper.countRatingsByRestaurantIds(restaurantIds);
+        for (Map<String, Object> row : rows) {
+            if (row.get("restaurant_id") == null || row.get("rating") == null) {
+                continue;
+            }
+            Integer restaurantId = ((Number) row.get("restaurant_id")).intValue();
+            int rating = ((Number) row.get("rating")).intValue();
+            long count = ((Number) row.get("count")).longValue();
+            result.get(restaurantId).add(rating, count);
+        }
+        log.debug("Loaded rating summaries for {} restaurants", restaurantIds.size());
+        return result;
+    }
+}
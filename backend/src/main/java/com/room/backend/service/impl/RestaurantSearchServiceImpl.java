@@ -0,0 +1,167 @@
+package com.room.backend.service.impl;
+
+import com.room.backend.entity.Restaurant;
+import com.room.backend.mapper.RestaurantMapper;
+import com.room.backend.service.InvalidationBus;
+import com.room.backend.service.RestaurantSearchService;
+import com.room.backend.util.InvertedIndex;
+import com.room.backend.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Restaurant Search Service Implementation
+ *
+ * Serves keyword searches from an in-memory inverted index over all restaurants instead of LIKE scans. The index is
+ * built from the restaurants table on first use and kept current by the restaurant write paths once their transaction
+ * commits. Other nodes reload a changed restaurant from the database when the change reaches them through the
+ * invalidation bus.
+ */
+@Service
+@Slf4j
+public class RestaurantSearchServiceImpl implements RestaurantSearchService {
+
+    @Resource
+    private RestaurantMapper restaurantMapper;
+
+    @Resource
+    private InvalidationBus invalidationBus;
+
+    private static final String TOPIC_RESTAURANT_SEARCH = "restaurant-search";
+
+    // Indexed fields
+    private static final String FIELD_NAME = "name";
+    private static final String FIELD_CUISINE = "cuisine";
+    private static final String FIELD_ADDRESS = "address";
+    private static final String FIELD_DESCRIPTION = "description";
+
+    private final InvertedIndex index = new InvertedIndex(Map.of(
+            FIELD_NAME, 3.0,
+            FIELD_CUISINE, 2.0,
+            FIELD_ADDRESS, 1.5,
+            FIELD_DESCRIPTION, 1.0));
+
+    /**
+     * Restaurant ID -> filterable attributes of the indexed restaurant
+     */
+    private final Map<Integer, Restaurant> attributes = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    @PostConstruct
+    public void init() {
+        invalidationBus.subscribe(TOPIC_RESTAURANT_SEARCH, this::reload);
+    }
+
+    @Override
+    public List<Integer> search(String keyword, Integer status, String cuisine) {
+        // Only the first searches wait for the lock, once loaded the volatile read is enough
+        if (!loaded) {
+            ensureLoaded();
+        }
+
+        return index.search(keyword, id -> {
+            Restaurant restaurant = attributes.get(id);
+            return restaurant != null
+                    && (status == null || status.equals(restaurant.getStatus()))
+                    && (!StringUtils.hasText(cuisine) || cuisine.equals(restaurant.getCuisine()));
+        }).stream().map(InvertedIndex.Hit::getDocumentId).collect(Collectors.toList());
+    }
+
+    @Override
+    public void index(Restaurant restaurant) {
+        if (restaurant == null || restaurant.getId() == null) {
+            return;
+        }
+        TransactionUtils.runAfterCommit(() -> apply(restaurant.getId(), restaurant));
+        invalidationBus.publish(TOPIC_RESTAURANT_SEARCH, restaurant.getId());
+    }
+
+    @Override
+    public void remove(Integer restaurantId) {
+        if (restaurantId == null) {
+            return;
+        }
+        TransactionUtils.runAfterCommit(() -> apply(restaurantId, null));
+        invalidationBus.publish(TOPIC_RESTAURANT_SEARCH, restaurantId);
+    }
+
+    /**
+     * Apply a change made on another node, reading the restaurant's current state from the database
+     *
+     * @param restaurantId Restaurant ID, null to drop the whole index
+     */
+    private void reload(Integer restaurantId) {
+        if (!loaded) {
+            return;
+        }
+        if (restaurantId == null) {
+            synchronized (this) {
+                index.clear();
+                attributes.clear();
+                loaded = false;
+            }
+            return;
+        }
+        apply(restaurantId, restaurantMapper.selectById(restaurantId));
+    }
+
+    /**
+     * Re-index a restaurant
+     *
+     * @param restaurantId Restaurant ID
+     * @param restaurant Current state, null if the restaurant was deleted
+     */
+    private synchronized void apply(Integer restaurantId, Restaurant restaurant) {
+        // The index reads the current state from the database when it is loaded, a load in progress is waited for
+        if (!loaded) {
+            return;
+        }
+        if (restaurant == null) {
+            index.remove(restaurantId);
+            attributes.remove(restaurantId);
+        } else {
+            put(restaurant);
+        }
+    }
+
+    /**
+     * Index all restaurants on first use, checking again under the lock as another search may have loaded them
+     */
+    private synchronized void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+
+        List<Restaurant> restaurants = restaurantMapper.selectList(null);
+        for (Restaurant restaurant : restaurants) {
+            put(restaurant);
+        }
+        loaded = true;
+        log.info("Indexed {} restaurants for search", restaurants.size());
+    }
+
+    private void put(Restaurant restaurant) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(FIELD_NAME, restaurant.getName());
+        fields.put(FIELD_CUISINE, restaurant.getCuisine());
+        fields.put(FIELD_ADDRESS, restaurant.getAddress());
+        fields.put(FIELD_DESCRIPTION, restaurant.getDescription());
+        index.put(restaurant.getId(), fields);
+
+        Restaurant filterAttributes = new Restaurant();
+        filterAttributes.setId(restaurant.getId());
+        filterAttributes.setStatus(restaurant.getStatus());
+        filterAttributes.setCuisine(restaurant.getCuisine());
+        attributes.put(restaurant.getId(), filterAttributes);
+    }
+}
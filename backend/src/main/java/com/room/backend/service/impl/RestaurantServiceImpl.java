@@ -4,10 +4,15 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.room.backend.common.Result;
+import com.room.backend.dto.RatingSummaryDTO;
 import com.room.backend.entity.Restaurant;
+import com.room.backend.entity.User;
 import com.room.backend.mapper.RestaurantMapper;
-import com.room.backend.mapper.UserMapper;
+import com.room.backend.service.CatalogCacheService;
 import com.room.backend.service.FavoriteService;
+import com.room.backend.service.RestaurantGeoService;
+import com.room.backend.service.RestaurantRatingService;
+import com.room.backend.service.RestaurantSearchService;
 import com.room.backend.service.RestaurantService;
 import com.room.backend.vo.RestaurantVO;
 import jakarta.annotation.Resource;
@@ -18,9 +23,13 @@ import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -34,10 +43,19 @@ public class RestaurantServiceImpl extends ServiceImpl<RestaurantMapper, Restaur
     private RestaurantMapper restaurantMapper;
 
     @Resource
-    private UserMapper userMapper;
+    private FavoriteService favoriteService;
 
     @Resource
-    private FavoriteService favoriteService;
+    private RestaurantRatingService restaurantRatingService;
+
+    @Resource
+    private RestaurantGeoService restaurantGeoService;
+
+    @Resource
+    private RestaurantSearchService restaurantSearchService;
+
+    @Resource
+    private CatalogCacheService catalogCacheService;
 
     // Restaurant status constants
     private static final int STATUS_PENDING = 0;
@@ -45,6 +63,12 @@ public class RestaurantServiceImpl extends ServiceImpl<RestaurantMapper, Restaur
     private static final int STATUS_CLOSED = 2;
     private static final int STATUS_OPERATING = 3;
 
+    // Nearby search limits
+    private static final double DEFAULT_NEARBY_RADIUS_KM = 5;
+    private static final double MAX_NEARBY_RADIUS_KM = 100;
+    private static final int DEFAULT_NEARBY_LIMIT = 20;
+    private static final int MAX_NEARBY_LIMIT = 100;
+
     @Override
     public Result<Map<String, Object>> getRestaurantList(Integer page, Integer pageSize, Integer status, String keyword) {
         return getRestaurantList(page, pageSize, status, keyword, null);
@@ -64,6 +88,19 @@ public class RestaurantServiceImpl extends ServiceImpl<RestaurantMapper, Restaur
         page = page == null || page < 1 ? 1 : page;
         pageSize = pageSize == null || pageSize < 1 ? 10 : pageSize;
 
+        // Keyword search is served by the search index, in relevance order
+        if (StringUtils.hasText(keyword)) {
+            List<Integer> matchedIds = restaurantSearchService.search(keyword, status, cuisine);
+            int from = Math.min((page - 1) * pageSize, matchedIds.size());
+            int to = Math.min(from + pageSize, matchedIds.size());
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("total", (long) matchedIds.size());
+            result.put("list", convertToVOs(selectInOrder(matchedIds.subList(from, to))));
+
+            return Result.success(result, "Retrieved successfully");
+        }
+
         // Build query conditions
         LambdaQueryWrapper<Restaurant> queryWrapper = new LambdaQueryWrapper<>();
 
@@ -77,26 +114,11 @@ public class RestaurantServiceImpl extends ServiceImpl<RestaurantMapper, Restaur
             queryWrapper.eq(Restaurant::getCuisine, cuisine);
         }
 
-        // Keyword search
-        if (StringUtils.hasText(keyword)) {
-            queryWrapper.and(wrapper ->
-                    wrapper.like(Restaurant::getName, keyword)
-                            .or()
-                            .like(Restaurant::getAddress, keyword)
-                            .or()
-                            .like(Restaurant::getDescription, keyword)
-            );
-        }
-
         // Pagination query
         Page<Restaurant> pageResult = restaurantMapper.selectPage(new Page<>(page, pageSize), queryWrapper);
 
         // Build return results
-        List<RestaurantVO> restaurantVOList = new ArrayList<>();
-        for (Restaurant restaurant : pageResult.getRecords()) {
-            RestaurantVO restaurantVO = convertToVO(restaurant);
-            restaurantVOList.add(restaurantVO);
-        }
+        List<RestaurantVO> restaurantVOList = convertToVOs(pageResult.getRecords());
 
         // Assemble pagination results
         Map<String, Object> result = new HashMap<>();
@@ -115,42 +137,71 @@ public class RestaurantServiceImpl extends ServiceImpl<RestaurantMapper, Restaur
         if (restaurant == null) {
             return null;
         }
+        return convertToVOs(Collections.singletonList(restaurant)).get(0);
+    }
 
-        RestaurantVO restaurantVO = new RestaurantVO();
-        BeanUtils.copyProperties(restaurant, restaurantVO);
-
-        // Process photo URLs
-        if (StringUtils.hasText(restaurant.getPhotos())) {
-            List<String> photoList = Arrays.asList(restaurant.getPhotos().split("\\|"));
-            restaurantVO.setPhotos(photoList);
-        } else {
-            restaurantVO.setPhotos(new ArrayList<>());
+    /**
+     * Convert Restaurant entities to RestaurantVOs, loading ratings and owner names for the whole batch at once
+     * @param restaurants Restaurant entities
+     * @return RestaurantVO list in the same order
+     */
+    private List<RestaurantVO> convertToVOs(List<Restaurant> restaurants) {
+        List<RestaurantVO> restaurantVOList = new ArrayList<>();
+        if (restaurants == null || restaurants.isEmpty()) {
+            return restaurantVOList;
         }
 
-        // Set coordinates
-        restaurantVO.setLongitude(Double.valueOf(restaurant.getLongitude()));
-        restaurantVO.setLatitude(Double.valueOf(restaurant.getLatitude()));
-        // Get restaurant status name
-        restaurantVO.setStatus(getStatusName(restaurant.getStatus()));
+        // Get rating summaries
+        Set<Integer> restaurantIds = restaurants.stream().map(Restaurant::getId).collect(Collectors.toSet());
+        Map<Integer, RatingSummaryDTO> ratingSummaries = restaurantRatingService.getSummaries(restaurantIds);
+
+        // Get owner names
+        Set<Integer> ownerIds = restaurants.stream()
+                .map(Restaurant::getOwnerId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, String> ownerNames = new HashMap<>();
+        if (!ownerIds.isEmpty()) {
+            for (User owner : catalogCacheService.getUsers(ownerIds).values()) {
+                ownerNames.put(owner.getId(), owner.getName());
+            }
+        }
 
-        // Get restaurant rating
-        Double rating = restaurantMapper.getAverageRating(restaurant.getId());
-        restaurantVO.setRating(rating);
+        for (Restaurant restaurant : restaurants) {
+            RestaurantVO restaurantVO = new RestaurantVO();
+            BeanUtils.copyProperties(restaurant, restaurantVO);
 
-        // Get review count
-        Integer reviewCount = restaurantMapper.getReviewCount(restaurant.getId());
-        restaurantVO.setReviewCount(reviewCount);
+            // Process photo URLs
+            if (StringUtils.hasText(restaurant.getPhotos())) {
+                List<String> photoList = Arrays.asList(restaurant.getPhotos().split("\\|"));
+                restaurantVO.setPhotos(photoList);
+            } else {
+                restaurantVO.setPhotos(new ArrayList<>());
+            }
 
-        // Get owner name
-        if (restaurant.getOwnerId() != null) {
-            String ownerName = userMapper.selectById(restaurant.getOwnerId()).getName();
-            restaurantVO.setOwnerName(ownerName);
-        }
+            // Set coordinates
+            restaurantVO.setLongitude(Double.valueOf(restaurant.getLongitude()));
+            restaurantVO.setLatitude(Double.valueOf(restaurant.getLatitude()));
+            // Get restaurant status name
+            restaurantVO.setStatus(getStatusName(restaurant.getStatus()));
+
+            // Set rating and review count
+            RatingSummaryDTO ratingSummary = ratingSummaries.getOrDefault(restaurant.getId(), new RatingSummaryDTO());
+            restaurantVO.setRating(ratingSummary.getAverageRating());
+            restaurantVO.setReviewCount((int) ratingSummary.getReviewCount());
+            restaurantVO.setRatingDistribution(Arrays.stream(ratingSummary.getHistogram()).boxed().collect(Collectors.toList()));
+
+            // Set owner name
+            if (restaurant.getOwnerId() != null) {
+                restaurantVO.setOwnerName(ownerNames.get(restaurant.getOwnerId()));
+            }
 
-        // Default not favorite
-        restaurantVO.setIsFavorite(false);
+            // Default not favorite
+            restaurantVO.setIsFavorite(false);
 
-        return restaurantVO;
+            restaurantVOList.add(restaurantVO);
+        }
+        return restaurantVOList;
     }
 
     /**
@@ -207,12 +258,7 @@ public class RestaurantServiceImpl extends ServiceImpl<RestaurantMapper, Restaur
         if (userId != null && result.getCode() == 200 && result.getData() != null) {
             Map<String, Object> data = result.getData();
             List<RestaurantVO> list = (List<RestaurantVO>) data.get("list");
-
-            for (RestaurantVO restaurantVO : list) {
-                // Set favorite status
-                boolean isFavorite = favoriteService.isFavorite(userId, restaurantVO.getId());
-                restaurantVO.setIsFavorite(isFavorite);
-            }
+            setFavoriteStatus(list, userId);
         }
 
         return result;
@@ -244,7 +290,7 @@ public class RestaurantServiceImpl extends ServiceImpl<RestaurantMapper, Restaur
             }
 
             // Get restaurant information
-            Restaurant restaurant = restaurantMapper.selectById(id);
+            Restaurant restaurant = catalogCacheService.getRestaurant(id);
             if (restaurant == null) {
                 return Result.notFound();
             }
@@ -280,7 +326,7 @@ public class RestaurantServiceImpl extends ServiceImpl<RestaurantMapper, Restaur
             }
 
             // Get restaurant information
-            Restaurant restaurant = restaurantMapper.selectById(id);
+            Restaurant restaurant = catalogCacheService.getRestaurant(id);
             System.out.println("restaurant = " + restaurant);
             if (restaurant == null) {
                 return Result.notFound();
@@ -302,4 +348,117 @@ public class RestaurantServiceImpl extends ServiceImpl<RestaurantMapper, Restaur
             return Result.error(500, "Failed to retrieve restaurant details: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Get operating restaurants within a radius, nearest first
+     * @param latitude Latitude of the search location
+     * @param longitude Longitude of the search location
+     * @param radius Search radius (km)
+     * @param limit Maximum number of restaurants
+     * @param userId User ID for checking favorite status, null for anonymous users
+     * @return Restaurant list with distances
+     */
+    @Override
+    public Result<List<RestaurantVO>> getNearbyRestaurants(Double latitude, Double longitude, Double radius, Integer limit, Integer userId) {
+        try {
+            // Parameter validation
+            if (!isValidLocation(latitude, longitude)) {
+                return Result.validateFailed("Invalid latitude or longitude");
+            }
+            radius = radius == null || radius <= 0 ? DEFAULT_NEARBY_RADIUS_KM : Math.min(radius, MAX_NEARBY_RADIUS_KM);
+            limit = limit == null || limit < 1 ? DEFAULT_NEARBY_LIMIT : Math.min(limit, MAX_NEARBY_LIMIT);
+
+            Map<Integer, Double> distances = restaurantGeoService.findWithinRadius(latitude, longitude, radius, limit);
+            return Result.success(buildNearbyList(distances, userId), "Retrieved successfully");
+        } catch (Exception e) {
+            log.error("Failed to retrieve nearby restaurants", e);
+            return Result.error(500, "Failed to retrieve nearby restaurants: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the nearest operating restaurants, nearest first
+     * @param latitude Latitude of the search location
+     * @param longitude Longitude of the search location
+     * @param k Number of restaurants
+     * @param maxDistance Maximum distance (km), null for no limit
+     * @param userId User ID for checking favorite status, null for anonymous users
+     * @return Restaurant list with distances
+     */
+    @Override
+    public Result<List<RestaurantVO>> getNearestRestaurants(Double latitude, Double longitude, Integer k, Double maxDistance, Integer userId) {
+        try {
+            // Parameter validation
+            if (!isValidLocation(latitude, longitude)) {
+                return Result.validateFailed("Invalid latitude or longitude");
+            }
+            if (maxDistance != null && maxDistance <= 0) {
+                return Result.validateFailed("Maximum distance must be greater than 0");
+            }
+            k = k == null || k < 1 ? DEFAULT_NEARBY_LIMIT : Math.min(k, MAX_NEARBY_LIMIT);
+
+            Map<Integer, Double> distances = restaurantGeoService.findNearest(latitude, longitude, k, maxDistance);
+            return Result.success(buildNearbyList(distances, userId), "Retrieved successfully");
+        } catch (Exception e) {
+            log.error("Failed to retrieve nearest restaurants", e);
+            return Result.error(500, "Failed to retrieve nearest restaurants: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Build the restaurant list of a nearby search
+     * @param distances Restaurant ID -> distance (km), nearest first
+     * @param userId User ID for checking favorite status, null for anonymous users
+     * @return Restaurant list in distance order
+     */
+    private List<RestaurantVO> buildNearbyList(Map<Integer, Double> distances, Integer userId) {
+        if (distances.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<RestaurantVO> restaurantVOList = convertToVOs(selectInOrder(distances.keySet()));
+        for (RestaurantVO restaurantVO : restaurantVOList) {
+            restaurantVO.setDistance(distances.get(restaurantVO.getId()));
+        }
+        if (userId != null) {
+            setFavoriteStatus(restaurantVOList, userId);
+        }
+        return restaurantVOList;
+    }
+
+    /**
+     * Set favorite status of a restaurant list with one lookup
+     * @param restaurantVOList Restaurant list
+     * @param userId User ID
+     */
+    private void setFavoriteStatus(List<RestaurantVO> restaurantVOList, Integer userId) {
+        Set<Integer> restaurantIds = restaurantVOList.stream().map(RestaurantVO::getId).collect(Collectors.toSet());
+        Set<Integer> favoriteIds = favoriteService.getFavoriteRestaurantIds(userId, restaurantIds);
+        for (RestaurantVO restaurantVO : restaurantVOList) {
+            restaurantVO.setIsFavorite(favoriteIds.contains(restaurantVO.getId()));
+        }
+    }
+
+    /**
+     * Load restaurants by ID, keeping the order of the IDs and skipping restaurants that no longer exist
+     * @param ids Restaurant IDs
+     * @return Restaurant entities
+     */
+    private List<Restaurant> selectInOrder(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Integer, Restaurant> restaurantMap = catalogCacheService.getRestaurants(ids);
+        return ids.stream()
+                .map(restaurantMap::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private boolean isValidLocation(Double latitude, Double longitude) {
+        return latitude != null && longitude != null
+                && latitude >= -90 && latitude <= 90
+                && longitude >= -180 && longitude <= 180;
+    }
+}
@@ -7,7 +7,7 @@ import com.room.backend.entity.RestaurantTable;
 import com.room.backend.entity.User;
 import com.room.backend.mapper.RestaurantMapper;
 import com.room.backend.mapper.RestaurantTableMapper;
-import com.room.backend.mapper.UserMapper;
+import com.room.backend.service.CatalogCacheService;
 import com.room.backend.service.RestaurantTableService;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
@@ -35,7 +35,7 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
     private RestaurantMapper restaurantMapper;
     
     @Resource
-    private UserMapper userMapper;
+    private CatalogCacheService catalogCacheService;
     
     @Override
     public Result<Map<String, Object>> getAllTables(Integer page, Integer pageSize, Integer restaurantId) {
@@ -162,7 +162,7 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
             List<RestaurantTable> tableList = tableMapper.selectList(queryWrapper);
             
             // Query restaurant information
-            Restaurant restaurant = restaurantMapper.selectById(restaurantId);
+            Restaurant restaurant = catalogCacheService.getRestaurant(restaurantId);
             String restaurantName = restaurant != null ? restaurant.getName() : "";
             
             // Build result list, add restaurant name
@@ -200,7 +200,7 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
             }
             
             // Query table
-            RestaurantTable table = tableMapper.selectById(id);
+            RestaurantTable table = catalogCacheService.getTable(id);
             if (table == null) {
                 return Result.validateFailed("Table not found");
             }
@@ -222,7 +222,7 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
             }
             
             // Check if restaurant exists
-            Restaurant restaurant = restaurantMapper.selectById(table.getRestaurantId());
+            Restaurant restaurant = catalogCacheService.getRestaurant(table.getRestaurantId());
             if (restaurant == null) {
                 return Result.validateFailed("Restaurant not found");
             }
@@ -282,6 +282,7 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
             
             // Save changes
             tableMapper.updateById(existingTable);
+            catalogCacheService.invalidateTable(id);
             
             return Result.success(existingTable, "Updated successfully");
         } catch (Exception e) {
@@ -313,6 +314,7 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
             
             // Delete table
             tableMapper.deleteById(id);
+            catalogCacheService.invalidateTable(id);
             
             return Result.success(null, "Deleted successfully");
         } catch (Exception e) {
@@ -334,13 +336,13 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
             }
             
             // Query user
-            User user = userMapper.selectById(userId);
+            User user = catalogCacheService.getUser(userId);
             if (user == null) {
                 return Result.validateFailed("User not found");
             }
             
             // Query restaurant
-            Restaurant restaurant = restaurantMapper.selectById(restaurantId);
+            Restaurant restaurant = catalogCacheService.getRestaurant(restaurantId);
             if (restaurant == null) {
                 return Result.validateFailed("Restaurant not found");
             }
@@ -380,7 +382,7 @@ public class RestaurantTableServiceImpl implements RestaurantTableService {
             }
             
             // Query user
-            User user = userMapper.selectById(managerId);
+            User user = catalogCacheService.getUser(managerId);
             if (user == null) {
                 return Result.validateFailed("User not found");
             }
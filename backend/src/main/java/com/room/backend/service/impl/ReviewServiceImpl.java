@@ -10,7 +10,9 @@ import com.room.backend.entity.Review;
 import com.room.backend.entity.User;
 import com.room.backend.mapper.ReservationMapper;
 import com.room.backend.mapper.ReviewMapper;
-import com.room.backend.mapper.UserMapper;
+import com.room.backend.service.BlobStorageService;
+import com.room.backend.service.CatalogCacheService;
+import com.room.backend.service.RestaurantRatingService;
 import com.room.backend.service.ReviewService;
 import com.room.backend.vo.ReviewVO;
 import jakarta.annotation.Resource;
@@ -18,6 +20,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import org.springframework.util.StringUtils;
 
 import java.util.*;
@@ -32,13 +35,19 @@ public class ReviewServiceImpl extends ServiceImpl<ReviewMapper, Review> impleme
 
     @Resource
     private ReviewMapper reviewMapper;
-
-    @Resource
-    private UserMapper userMapper;
     
     @Resource
     private ReservationMapper reservationMapper;
 
+    @Resource
+    private RestaurantRatingService restaurantRatingService;
+
+    @Resource
+    private CatalogCacheService catalogCacheService;
+
+    @Resource
+    private BlobStorageService blobStorageService;
+
     @Override
     public Result<Map<String, Object>> getRestaurantReviews(Integer restaurantId, Integer page, Integer pageSize, Integer rating) {
         try {
@@ -116,6 +125,8 @@ public class ReviewServiceImpl extends ServiceImpl<ReviewMapper, Review> impleme
             UUID uuid = UUID.randomUUID();
             review.setId(uuid.toString());
             reviewMapper.insert(review);
+            blobStorageService.updateReferences(null, review.getPhotos());
+            restaurantRatingService.onReviewsChanged(review.getRestaurantId());
             
             // 如果包含预约ID，更新预约表中的reviewId字段
             System.out.println("reservationId"+reservationId);
@@ -138,6 +149,7 @@ public class ReviewServiceImpl extends ServiceImpl<ReviewMapper, Review> impleme
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public Result<Boolean> deleteReview(Integer reviewId, Integer userId) {
         try {
             if (reviewId == null) {
@@ -160,10 +172,15 @@ public class ReviewServiceImpl extends ServiceImpl<ReviewMapper, Review> impleme
             }
 
             // Delete review
-            reviewMapper.deleteById(reviewId);
+            if (reviewMapper.deleteById(reviewId) > 0) {
+                restaurantRatingService.onReviewsChanged(review.getRestaurantId());
+                blobStorageService.updateReferences(review.getPhotos(), null);
+            }
 
             return Result.success(true, "Deleted successfully");
         } catch (Exception e) {
+            // The error is returned instead of thrown, so the delete must be rolled back explicitly
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             log.error("Failed to delete review", e);
             return Result.error(500, "Failed to delete review: " + e.getMessage());
         }
@@ -194,6 +211,7 @@ public class ReviewServiceImpl extends ServiceImpl<ReviewMapper, Review> impleme
     }
 
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public boolean deleteReview(Integer reviewId) {
         try {
             // Check if review exists
@@ -205,6 +223,10 @@ public class ReviewServiceImpl extends ServiceImpl<ReviewMapper, Review> impleme
 
             // Delete review
             int result = reviewMapper.deleteById(reviewId);
+            if (result > 0) {
+                restaurantRatingService.onReviewsChanged(review.getRestaurantId());
+                blobStorageService.updateReferences(review.getPhotos(), null);
+            }
             return result > 0;
         } catch (Exception e) {
             log.error("Failed to delete review: ", e);
@@ -242,7 +264,7 @@ public class ReviewServiceImpl extends ServiceImpl<ReviewMapper, Review> impleme
         }
 
         // Get user information
-        User user = userMapper.selectById(review.getUserId());
+        User user = catalogCacheService.getUser(review.getUserId());
         if (user != null) {
             reviewVO.setUserName(user.getName());
             reviewVO.setUserAvatar(user.getAvatar());
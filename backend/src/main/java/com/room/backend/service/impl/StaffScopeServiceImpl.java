@@ -0,0 +1,144 @@
+package com.room.backend.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.room.backend.common.AuthPrincipal;
+import com.room.backend.entity.Staff;
+import com.room.backend.mapper.RestaurantMapper;
+import com.room.backend.mapper.StaffMapper;
+import com.room.backend.service.InvalidationBus;
+import com.room.backend.service.StaffScopeService;
+import com.room.backend.util.BoundedCache;
+import com.room.backend.util.TransactionUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Staff Scope Service Implementation
+ *
+ * Caches the staff record of each staff member and the restaurant IDs of each manager separately, so a restaurant
+ * added to or removed from a manager invalidates one entry instead of the scopes of all the manager's staff.
+ * Restaurant IDs are immutable sets, permission checks are hash lookups. Invalidations run immediately and again
+ * when the surrounding transaction completes, so a scope loaded from the state before the commit is not kept.
+ * Other nodes are told through the invalidation bus once the transaction commits.
+ */
+@Service
+@Slf4j
+public class StaffScopeServiceImpl implements StaffScopeService, MeterBinder {
+
+    private static final int STAFF_STATUS_APPROVED = 1;
+
+    private static final String TOPIC_STAFF = "staff";
+
+    private static final String TOPIC_MANAGER = "manager";
+
+    /**
+     * Cached for users without a staff record, the cache does not hold nulls
+     */
+    private static final Membership NOT_APPLIED = new Membership(null, false);
+
+    @Resource
+    private StaffMapper staffMapper;
+
+    @Resource
+    private RestaurantMapper restaurantMapper;
+
+    @Resource
+    private InvalidationBus invalidationBus;
+
+    @Value("${cache.staff-scope.max-size:10000}")
+    private int maxSize;
+
+    @Value("${cache.staff-scope.ttl:600000}")
+    private long ttl;
+
+    /**
+     * Staff user ID -> manager and approval
+     */
+    private BoundedCache<Integer, Membership> memberships;
+
+    /**
+     * Manager user ID -> IDs of the restaurants the manager owns
+     */
+    private BoundedCache<Integer, Set<Integer>> managerRestaurants;
+
+    @PostConstruct
+    public void init() {
+        memberships = new BoundedCache<>(maxSize, ttl);
+        managerRestaurants = new BoundedCache<>(maxSize, ttl);
+        invalidationBus.subscribe(TOPIC_STAFF, userId -> evict(memberships, userId));
+        invalidationBus.subscribe(TOPIC_MANAGER, managerId -> evict(managerRestaurants, managerId));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        memberships.registerMetrics(registry, "staff.memberships");
+        managerRestaurants.registerMetrics(registry, "staff.manager-restaurants");
+    }
+
+    @Override
+    public AuthPrincipal.StaffScope getScope(Integer userId) {
+        Membership membership = memberships.get(userId, this::loadMembership);
+        if (!membership.approved) {
+            return new AuthPrincipal.StaffScope(membership.managerId, false, Collections.emptySet());
+        }
+        Set<Integer> restaurantIds = managerRestaurants.get(membership.managerId,
+                managerId -> Set.copyOf(restaurantMapper.getRestaurantIdsByOwnerId(managerId)));
+        return new AuthPrincipal.StaffScope(membership.managerId, true, restaurantIds);
+    }
+
+    @Override
+    public void invalidateStaff(Integer userId) {
+        if (userId != null) {
+            TransactionUtils.runNowAndAfterCompletion(() -> memberships.invalidate(userId));
+            invalidationBus.publish(TOPIC_STAFF, userId);
+        }
+    }
+
+    @Override
+    public void invalidateManager(Integer managerId) {
+        if (managerId != null) {
+            TransactionUtils.runNowAndAfterCompletion(() -> managerRestaurants.invalidate(managerId));
+            invalidationBus.publish(TOPIC_MANAGER, managerId);
+        }
+    }
+
+    private static void evict(BoundedCache<Integer, ?> cache, Integer key) {
+        if (key == null) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(key);
+        }
+    }
+
+    private Membership loadMembership(Integer userId) {
+        LambdaQueryWrapper<Staff> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(Staff::getUserId, userId);
+        Staff staff = staffMapper.selectOne(queryWrapper);
+        if (staff == null) {
+            return NOT_APPLIED;
+        }
+        boolean approved = staff.getStatus() != null && staff.getStatus() == STAFF_STATUS_APPROVED;
+        return new Membership(staff.getManagerId(), approved);
+    }
+
+    /**
+     * Staff record of a staff member
+     */
+    private static final class Membership {
+        private final Integer managerId;
+        private final boolean approved;
+
+        private Membership(Integer managerId, boolean approved) {
+            this.managerId = managerId;
+            this.approved = approved;
+        }
+    }
+}
@@ -8,6 +8,8 @@ import com.room.backend.entity.Staff;
 import com.room.backend.entity.User;
 import com.room.backend.mapper.StaffMapper;
 import com.room.backend.mapper.UserMapper;
+import com.room.backend.service.CatalogCacheService;
+import com.room.backend.service.StaffScopeService;
 import com.room.backend.service.StaffService;
 import com.room.backend.vo.UserVO;
 import jakarta.annotation.Resource;
@@ -30,6 +32,12 @@ public class StaffServiceImpl extends ServiceImpl<StaffMapper, Staff> implements
     
     @Resource
     private UserMapper userMapper;
+
+    @Resource
+    private StaffScopeService staffScopeService;
+
+    @Resource
+    private CatalogCacheService catalogCacheService;
     
     // User role constants
     private static final int ROLE_ADMIN = 0;
@@ -68,7 +76,9 @@ public class StaffServiceImpl extends ServiceImpl<StaffMapper, Staff> implements
             }
             
             staff.setStatus(status);
-            return updateById(staff);
+            boolean updated = updateById(staff);
+            staffScopeService.invalidateStaff(staff.getUserId());
+            return updated;
         } catch (Exception e) {
             log.error("Failed to update staff status: ", e);
             throw new RuntimeException("Failed to update staff status");
@@ -83,7 +93,13 @@ public class StaffServiceImpl extends ServiceImpl<StaffMapper, Staff> implements
             wrapper.eq(Staff::getId, staffId)
                     .eq(Staff::getManagerId, managerId);
             
-            return remove(wrapper);
+            Staff staff = getOne(wrapper);
+            if (staff == null) {
+                return false;
+            }
+            boolean removed = removeById(staff.getId());
+            staffScopeService.invalidateStaff(staff.getUserId());
+            return removed;
         } catch (Exception e) {
             log.error("Failed to delete staff: ", e);
             throw new RuntimeException("Failed to delete staff");
@@ -150,13 +166,13 @@ public class StaffServiceImpl extends ServiceImpl<StaffMapper, Staff> implements
             }
             
             // Check if user exists
-            User user = userMapper.selectById(staffApplyDTO.getUserId());
+            User user = catalogCacheService.getUser(staffApplyDTO.getUserId());
             if (user == null) {
                 return Result.validateFailed("User does not exist");
             }
             
             // Check if manager exists and is a restaurant manager
-            User manager = userMapper.selectById(staffApplyDTO.getManagerId());
+            User manager = catalogCacheService.getUser(staffApplyDTO.getManagerId());
             if (manager == null) {
                 return Result.validateFailed("Manager does not exist");
             }
@@ -193,6 +209,7 @@ public class StaffServiceImpl extends ServiceImpl<StaffMapper, Staff> implements
             if (!saved) {
                 return Result.error(500, "Failed to submit application");
             }
+            staffScopeService.invalidateStaff(staff.getUserId());
             
             return Result.success(staff, "Application submitted successfully, waiting for manager review");
         } catch (Exception e) {
@@ -0,0 +1,320 @@
+package com.room.backend.service.impl;
+
+import com.room.backend.entity.Reservation;
+import com.room.backend.mapper.ReservationMapper;
+import com.room.backend.mapper.RestaurantTableMapper;
+import com.room.backend.service.InvalidationBus;
+import com.room.backend.service.TableAvailabilityService;
+import com.room.backend.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table Availability Service Implementation
+ *
+ * Keeps an in-memory interval index of active reservations per table. A table's index is loaded from the
+ * database the first time the table is used and is then kept current by the reservation write paths, so free
+ * slot queries and most conflicts do not go back to the database. The database stays authoritative: a booking
+ * locks the table row and checks for overlapping reservations before it is saved, which serializes bookings of
+ * a table across all nodes.
+ *
+ * The index only reflects committed reservations, changes are applied after the transaction commits. Other nodes
+ * drop their index of a changed table through the invalidation bus and reload it on next use.
+ */
+@Service
+@Slf4j
+public class TableAvailabilityServiceImpl implements TableAvailabilityService {
+
+    @Resource
+    private ReservationMapper reservationMapper;
+
+    @Resource
+    private RestaurantTableMapper restaurantTableMapper;
+
+    @Resource
+    private InvalidationBus invalidationBus;
+
+    private static final String TOPIC_TABLE_SCHEDULE = "table-schedule";
+
+    // Reservation status constants, only pending and confirmed reservations occupy a table
+    private static final int STATUS_PENDING = 1;
+    private static final int STATUS_CONFIRMED = 2;
+
+    private static final long SECONDS_PER_HOUR = 3600L;
+
+    /**
+     * Table ID -> interval index of its active reservations
+     */
+    private final Map<Integer, TableSchedule> schedules = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        invalidationBus.subscribe(TOPIC_TABLE_SCHEDULE, tableId -> {
+            if (tableId == null) {
+                schedules.clear();
+            } else {
+                schedules.remove(tableId);
+            }
+        });
+    }
+
+    @Override
+    public boolean bookIfAvailable(Reservation reservation, Runnable persist) {
+        Integer tableId = reservation.getTableId();
+        long start = reservation.getReservationTime().toEpochSecond();
+        long end = start + toSeconds(reservation.getReservationDate());
+
+        // Committed overlapping bookings are rejected without touching the database
+        TableSchedule schedule = getSchedule(tableId);
+        synchronized (schedule) {
+            if (schedule.overlaps(start, end, reservation.getId())) {
+                return false;
+            }
+        }
+
+        // Holds the table row until commit, a concurrent booking of the table waits and then sees this one
+        if (restaurantTableMapper.lockById(tableId) == null) {
+            return false;
+        }
+        long overlapping = reservationMapper.countOverlappingReservations(tableId,
+                toDateTime(start), toDateTime(end), reservation.getId());
+        if (overlapping > 0) {
+            return false;
+        }
+
+        persist.run();
+        Integer reservationId = reservation.getId();
+        TransactionUtils.runAfterCommit(() -> update(tableId, reservationId, start, end));
+        invalidationBus.publish(TOPIC_TABLE_SCHEDULE, tableId);
+        return true;
+    }
+
+    @Override
+    public void refresh(Reservation reservation) {
+        if (reservation == null || reservation.getId() == null || reservation.getTableId() == null) {
+            return;
+        }
+
+        Integer tableId = reservation.getTableId();
+        Integer reservationId = reservation.getId();
+        if (isActive(reservation)) {
+            long start = reservation.getReservationTime().toEpochSecond();
+            long end = start + toSeconds(reservation.getReservationDate());
+            TransactionUtils.runAfterCommit(() -> update(tableId, reservationId, start, end));
+        } else {
+            TransactionUtils.runAfterCommit(() -> update(tableId, reservationId, 0, 0));
+        }
+        invalidationBus.publish(TOPIC_TABLE_SCHEDULE, tableId);
+    }
+
+    @Override
+    public List<Map<String, Object>> getFreeSlots(Integer tableId, LocalDate date) {
+        long dayStart = date.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        long dayEnd = date.plusDays(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+
+        // Past time cannot be reserved
+        long cursor = Math.max(dayStart, Instant.now().getEpochSecond());
+
+        List<Map<String, Object>> freeSlots = new ArrayList<>();
+        TableSchedule schedule = getSchedule(tableId);
+        synchronized (schedule) {
+            for (Booking booking : schedule.overlapping(dayStart, dayEnd)) {
+                if (booking.start > cursor) {
+                    freeSlots.add(buildSlot(cursor, booking.start));
+                }
+                cursor = Math.max(cursor, booking.end);
+            }
+        }
+
+        if (cursor < dayEnd) {
+            freeSlots.add(buildSlot(cursor, dayEnd));
+        }
+        return freeSlots;
+    }
+
+    /**
+     * Apply a committed change to the index of a table, if it is loaded. Tables that have not been loaded yet
+     * read the current state from the database on first use, a load in progress is waited for.
+     *
+     * @param tableId Table ID
+     * @param reservationId Reservation ID
+     * @param start Booked period start, in epoch seconds
+     * @param end Booked period end, equal to start if the reservation no longer occupies the table
+     */
+    private void update(Integer tableId, Integer reservationId, long start, long end) {
+        schedules.computeIfPresent(tableId, (id, schedule) -> {
+            synchronized (schedule) {
+                schedule.remove(reservationId);
+                if (end > start) {
+                    schedule.add(reservationId, start, end);
+                }
+            }
+            return schedule;
+        });
+    }
+
+    /**
+     * Get the interval index of a table, loading it from the database on first use
+     *
+     * @param tableId Table ID
+     * @return Table schedule
+     */
+    private TableSchedule getSchedule(Integer tableId) {
+        TableSchedule schedule = schedules.computeIfAbsent(tableId, this::loadSchedule);
+        synchronized (schedule) {
+            schedule.prune(Instant.now().getEpochSecond());
+        }
+        return schedule;
+    }
+
+    /**
+     * Build the interval index of a table from its active reservations that have not ended yet
+     *
+     * @param tableId Table ID
+     * @return Table schedule
+     */
+    private TableSchedule loadSchedule(Integer tableId) {
+        TableSchedule schedule = new TableSchedule();
+        List<Reservation> reservations = reservationMapper.getActiveReservationsByTableId(tableId, OffsetDateTime.now(ZoneOffset.UTC));
+        for (Reservation reservation : reservations) {
+            long start = reservation.getReservationTime().toEpochSecond();
+            schedule.add(reservation.getId(), start, start + toSeconds(reservation.getReservationDate()));
+        }
+        log.debug("Loaded {} active reservations for table {}", reservations.size(), tableId);
+        return schedule;
+    }
+
+    private boolean isActive(Reservation reservation) {
+        return reservation.getReservationTime() != null
+                && reservation.getStatus() != null
+                && (reservation.getStatus() == STATUS_PENDING || reservation.getStatus() == STATUS_CONFIRMED);
+    }
+
+    /**
+     * Convert a reservation duration to seconds, a missing duration occupies one hour
+     */
+    private long toSeconds(Integer durationHours) {
+        if (durationHours == null || durationHours <= 0) {
+            return SECONDS_PER_HOUR;
+        }
+        return durationHours * SECONDS_PER_HOUR;
+    }
+
+    private OffsetDateTime toDateTime(long epochSecond) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC);
+    }
+
+    private Map<String, Object> buildSlot(long start, long end) {
+        Map<String, Object> slot = new HashMap<>();
+        slot.put("startTime", toDateTime(start));
+        slot.put("endTime", toDateTime(end));
+        return slot;
+    }
+
+    /**
+     * Booked period [start, end) of a reservation, in epoch seconds
+     */
+    private static final class Booking {
+        private final int reservationId;
+        private final long start;
+        private final long end;
+
+        private Booking(int reservationId, long start, long end) {
+            this.reservationId = reservationId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Interval index of one table, bookings ordered by start time. Not thread-safe, callers synchronize on it.
+     */
+    private static final class TableSchedule {
+
+        private static final Comparator<Booking> ORDER = Comparator
+                .comparingLong((Booking booking) -> booking.start)
+                .thenComparingInt(booking -> booking.reservationId);
+
+        private final NavigableSet<Booking> bookings = new TreeSet<>(ORDER);
+
+        private final Map<Integer, Booking> bookingsByReservation = new HashMap<>();
+
+        /**
+         * Longest booking ever indexed, bounds how far back an overlapping booking can start
+         */
+        private long maxDuration;
+
+        void add(Integer reservationId, long start, long end) {
+            Booking booking = new Booking(reservationId, start, end);
+            Booking previous = bookingsByReservation.put(reservationId, booking);
+            if (previous != null) {
+                bookings.remove(previous);
+            }
+            bookings.add(booking);
+            maxDuration = Math.max(maxDuration, end - start);
+        }
+
+        void remove(Integer reservationId) {
+            Booking booking = bookingsByReservation.remove(reservationId);
+            if (booking != null) {
+                bookings.remove(booking);
+            }
+        }
+
+        /**
+         * @param excludeId Reservation to ignore, e.g. the one being reactivated, may be null
+         */
+        boolean overlaps(long start, long end, Integer excludeId) {
+            for (Booking booking : overlapping(start, end)) {
+                if (excludeId == null || booking.reservationId != excludeId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Bookings overlapping [start, end), in start order. Only bookings starting within maxDuration
+         * before start can reach into the period, so the scan is bounded to that range.
+         */
+        List<Booking> overlapping(long start, long end) {
+            Booking from = new Booking(Integer.MIN_VALUE, start - maxDuration, 0);
+            Booking to = new Booking(Integer.MIN_VALUE, end, 0);
+
+            List<Booking> result = new ArrayList<>();
+            for (Booking booking : bookings.subSet(from, true, to, false)) {
+                if (booking.end > start) {
+                    result.add(booking);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Drop bookings that are certain to have ended before now
+         */
+        void prune(long now) {
+            Booking bound = new Booking(Integer.MIN_VALUE, now - maxDuration, 0);
+            NavigableSet<Booking> ended = bookings.headSet(bound, false);
+            for (Booking booking : ended) {
+                bookingsByReservation.remove(booking.reservationId);
+            }
+            ended.clear();
+        }
+    }
+}
@@ -6,9 +6,14 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 
 import com.room.backend.common.Result;
+import com.room.backend.dto.CaptchaImageDTO;
 import com.room.backend.dto.UpdateUserDTO;
 import com.room.backend.entity.User;
 import com.room.backend.mapper.UserMapper;
+import com.room.backend.service.BlobStorageService;
+import com.room.backend.service.CaptchaPoolService;
+import com.room.backend.service.CaptchaStore;
+import com.room.backend.service.CatalogCacheService;
 import com.room.backend.service.UserService;
 import com.room.backend.util.JwtTokenUtil;
 import com.room.backend.vo.UserVO;
@@ -25,8 +30,7 @@ import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
-
-import com.wf.captcha.SpecCaptcha;
+import java.util.UUID;
 
 /**
  * User Service Implementation
@@ -41,6 +45,18 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     @Autowired
     private JwtTokenUtil jwtTokenUtil;
 
+    @Resource
+    private CaptchaStore captchaStore;
+
+    @Resource
+    private CaptchaPoolService captchaPoolService;
+
+    @Resource
+    private CatalogCacheService catalogCacheService;
+
+    @Resource
+    private BlobStorageService blobStorageService;
+
     // User role constants
     private static final int ROLE_ADMIN = 0;
     private static final int ROLE_MANAGER = 1;
@@ -51,16 +67,18 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     private static final int STATUS_BANNED = 0;
     private static final int STATUS_ENABLED = 1;
 
-    // Map to store captcha, key is captcha ID, value is captcha text
-    private Map<String, String> captchaMap = new HashMap<>();
-
     @Override
-    public Result<UserVO> login(String email, String password) {
+    public Result<UserVO> login(String email, String password, String captchaId, String captcha) {
         // Parameter validation
         if (StringUtils.isEmpty(email) || StringUtils.isEmpty(password)) {
             return Result.validateFailed("Email or password cannot be empty");
         }
 
+        // Verify captcha
+        if (!captchaStore.verify(captchaId, captcha)) {
+            return Result.validateFailed("Incorrect or expired captcha");
+        }
+
         // Query user
         LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(User::getEmail, email);
@@ -110,6 +128,11 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             return Result.validateFailed("Passwords do not match");
         }
 
+        // Verify captcha
+        if (!captchaStore.verify(userVO.getCaptchaId(), userVO.getCaptcha())) {
+            return Result.validateFailed("Incorrect or expired captcha");
+        }
+
         // Email format validation
         if (!userVO.getEmail().matches("^[a-zA-Z0-9_-]+@[a-zA-Z0-9_-]+(\\.[a-zA-Z0-9_-]+)+$")) {
             return Result.validateFailed("Invalid email format");
@@ -161,7 +184,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             return Result.validateFailed("User ID cannot be empty");
         }
 
-        User user = userMapper.selectById(userId);
+        User user = catalogCacheService.getUser(userId);
         if (user == null) {
             return Result.validateFailed("User does not exist");
         }
@@ -178,25 +201,17 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     @Override
     public Result<Map> getCaptcha() {
         try {
-            // Create SpecCaptcha, width 130, height 48, captcha length 5
-            SpecCaptcha captcha = new SpecCaptcha(120, 48, 5);
-            // Set font
-            captcha.setFont(new java.awt.Font("Verdana", java.awt.Font.PLAIN, 32));
-            // Set type, numbers and uppercase letters only
-            captcha.setCharType(SpecCaptcha.TYPE_NUM_AND_UPPER);
-
-            // Get captcha text
-            String captchaText = captcha.text();
+            // Take a pre-rendered captcha, images are Base64 encoded PNGs
+            CaptchaImageDTO captcha = captchaPoolService.take();
 
-            // Convert to Base64 encoding
-            String base64Image = captcha.toBase64();
-
-            captchaMap.put(captchaText, captchaText);
+            // The ID must not reveal the text, the client sends it back with the answer
+            String captchaId = UUID.randomUUID().toString();
+            captchaStore.save(captchaId, captcha.getText());
 
             // Return captcha ID and image
             Map<String, String> result = new HashMap<>();
-            result.put("captchaId", captchaText);
-            result.put("image", base64Image);
+            result.put("captchaId", captchaId);
+            result.put("image", captcha.getImage());
 
             return Result.success(result, "Captcha retrieved successfully");
         } catch (Exception e) {
@@ -239,11 +254,13 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             return Result.validateFailed("User ID cannot be empty");
         }
 
-        // Query user
+        // Lock and query user, so the avatar read here is the one this update replaces
+        userMapper.lockById(userId);
         User user = userMapper.selectById(userId);
         if (user == null) {
             return Result.validateFailed("User does not exist");
         }
+        String oldAvatar = user.getAvatar();
 
         // Update basic information
         boolean hasUpdates = false;
@@ -286,6 +303,8 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             user.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
             try {
                 userMapper.updateById(user);
+                blobStorageService.updateReferences(oldAvatar, user.getAvatar());
+                catalogCacheService.invalidateUser(userId);
             } catch (Exception e) {
                 log.error("Failed to update user information", e);
                 return Result.error(500, "Failed to update user information: " + e.getMessage());
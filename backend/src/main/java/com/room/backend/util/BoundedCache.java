@@ -0,0 +1,303 @@
+package com.room.backend.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded, expiring in-memory cache
+ *
+ * Entries are evicted in least-recently-used order once the size limit is reached and expire after
+ * their time to live. Values loaded through the read-through methods are dropped instead of cached
+ * when an invalidation or update happened while they were being loaded, so a load never resurrects stale data.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+
+    private final long ttlMillis;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Incremented on every invalidation or in-place update, used to detect loads that raced with one
+     */
+    private long invalidations;
+
+    /**
+     * Constructor
+     * @param maxSize Maximum number of entries
+     * @param ttlMillis Time to live of an entry in milliseconds, 0 or less for no expiry
+     */
+    public BoundedCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > BoundedCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get a cached value
+     * @param key Key
+     * @return Cached value, null if absent or expired
+     */
+    public V get(K key) {
+        V value = getIfPresent(key);
+        if (value == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Get a cached value, loading and caching it on a miss. Null values are not cached.
+     * @param key Key
+     * @param loader Loader called on a miss
+     * @return Value
+     */
+    public V get(K key, Function<K, V> loader) {
+        long generation;
+        synchronized (this) {
+            V value = getIfPresent(key);
+            if (value != null) {
+                hits.incrementAndGet();
+                return value;
+            }
+            misses.incrementAndGet();
+            generation = invalidations;
+        }
+
+        V value = loader.apply(key);
+        if (value != null) {
+            putIfUnchanged(key, value, ttlMillis, generation);
+        }
+        return value;
+    }
+
+    /**
+     * Get cached values for a batch of keys, loading all misses with one call to the loader
+     * @param keys Keys
+     * @param loader Loader called with the missing keys, returns the values it found
+     * @return Values found, keyed by key
+     */
+    public Map<K, V> getAll(Collection<K> keys, Function<Set<K>, Map<K, V>> loader) {
+        Map<K, V> result = new HashMap<>();
+        Set<K> missing = new HashSet<>();
+        long generation;
+        synchronized (this) {
+            for (K key : keys) {
+                V value = getIfPresent(key);
+                if (value != null) {
+                    result.put(key, value);
+                } else {
+                    missing.add(key);
+                }
+            }
+            generation = invalidations;
+        }
+        hits.addAndGet(result.size());
+        misses.addAndGet(missing.size());
+
+        if (!missing.isEmpty()) {
+            Map<K, V> loaded = loader.apply(missing);
+            for (Map.Entry<K, V> entry : loaded.entrySet()) {
+                if (entry.getValue() != null) {
+                    putIfUnchanged(entry.getKey(), entry.getValue(), ttlMillis, generation);
+                    result.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Cache a value with the default time to live
+     * @param key Key
+     * @param value Value
+     */
+    public void put(K key, V value) {
+        put(key, value, ttlMillis);
+    }
+
+    /**
+     * Cache a value with its own time to live
+     * @param key Key
+     * @param value Value
+     * @param ttlMillis Time to live in milliseconds, 0 or less for no expiry
+     */
+    public synchronized void put(K key, V value, long ttlMillis) {
+        entries.put(key, new Entry<>(value, expiresAt(ttlMillis)));
+    }
+
+    /**
+     * Replace a cached value in place, keeping its expiry. Does nothing if the key is not cached.
+     * @param key Key
+     * @param updater Function computing the new value, returning null removes the entry
+     */
+    public synchronized void computeIfPresent(K key, UnaryOperator<V> updater) {
+        // Counted even when the key is absent, a load in flight may have read the state before the update
+        invalidations++;
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.isExpired()) {
+            return;
+        }
+
+        V value = updater.apply(entry.value);
+        if (value == null) {
+            entries.remove(key);
+        } else {
+            entries.put(key, new Entry<>(value, entry.expiresAt));
+        }
+    }
+
+    /**
+     * Remove a cached value
+     * @param key Key
+     */
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        entries.remove(key);
+    }
+
+    /**
+     * Remove a cached value and return it
+     * @param key Key
+     * @return Removed value, null if absent or expired
+     */
+    public synchronized V remove(K key) {
+        invalidations++;
+        Entry<V> entry = entries.remove(key);
+        return entry == null || entry.isExpired() ? null : entry.value;
+    }
+
+    /**
+     * Remove all cached values
+     */
+    public synchronized void invalidateAll() {
+        invalidations++;
+        entries.clear();
+    }
+
+    /**
+     * Remove expired entries
+     */
+    public synchronized void cleanUp() {
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isExpired()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Get number of cached entries, including expired ones not yet removed
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Get ratio of lookups answered from the cache
+     */
+    public double getHitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Publish the size and the hit and miss counts, named like Micrometer's bindings of other caches
+     * @param registry Meter registry
+     * @param name Value of the cache tag
+     */
+    public void registerMetrics(MeterRegistry registry, String name) {
+        Gauge.builder("cache.size", this, BoundedCache::size)
+                .description("Number of entries in the cache")
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, BoundedCache::getHitCount)
+                .description("Lookups answered from the cache")
+                .tags("cache", name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, BoundedCache::getMissCount)
+                .description("Lookups that had to be loaded")
+                .tags("cache", name, "result", "miss")
+                .register(registry);
+    }
+
+    private synchronized V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    private synchronized void putIfUnchanged(K key, V value, long ttlMillis, long generation) {
+        if (invalidations == generation) {
+            entries.put(key, new Entry<>(value, expiresAt(ttlMillis)));
+        }
+    }
+
+    private static long expiresAt(long ttlMillis) {
+        return ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : Long.MAX_VALUE;
+    }
+
+    /**
+     * Cached value and its expiry time
+     */
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
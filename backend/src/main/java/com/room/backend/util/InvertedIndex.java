@@ -0,0 +1,399 @@
+package com.room.backend.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * In-memory inverted index for short text documents
+ *
+ * Documents consist of named text fields with a weight each. A query matches a document when every query token
+ * matches one of its terms exactly, as a prefix, or within one edit (insertion, deletion, substitution or adjacent
+ * transposition), in that order of preference. Matches are ranked by a BM25-style score summed over the query tokens.
+ * Han text has no word boundaries, so it is indexed as character bigrams. Thread-safe.
+ */
+public class InvertedIndex {
+
+    // Score factors of the match kinds
+    private static final double EXACT_FACTOR = 1.0;
+    private static final double PREFIX_FACTOR = 0.7;
+    private static final double TYPO_FACTOR = 0.5;
+
+    /**
+     * Term frequency saturation
+     */
+    private static final double K1 = 1.2;
+
+    // Limits of fuzzy matching
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_TYPO_LENGTH = 4;
+
+    private final Map<String, Double> fieldWeights;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Term -> document ID -> weighted term frequency, sorted for prefix lookups
+     */
+    private final TreeMap<String, Map<Integer, Double>> postings = new TreeMap<>();
+
+    /**
+     * Term with one character deleted -> terms producing it, used for typo lookups
+     */
+    private final Map<String, Set<String>> deletions = new HashMap<>();
+
+    /**
+     * Document ID -> its terms, used to remove a document
+     */
+    private final Map<Integer, Set<String>> documentTerms = new HashMap<>();
+
+    /**
+     * Constructor
+     * @param fieldWeights Field name -> weight, fields not listed are not indexed
+     */
+    public InvertedIndex(Map<String, Double> fieldWeights) {
+        this.fieldWeights = new HashMap<>(fieldWeights);
+    }
+
+    /**
+     * Add or replace a document
+     * @param documentId Document ID
+     * @param fields Field name -> text
+     */
+    public void put(int documentId, Map<String, String> fields) {
+        Map<String, Double> termWeights = new HashMap<>();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            Double weight = fieldWeights.get(field.getKey());
+            if (weight == null || field.getValue() == null) {
+                continue;
+            }
+            for (String term : tokenize(field.getValue())) {
+                termWeights.merge(term, weight, Double::sum);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(documentId);
+            for (Map.Entry<String, Double> entry : termWeights.entrySet()) {
+                String term = entry.getKey();
+                Map<Integer, Double> documents = postings.get(term);
+                if (documents == null) {
+                    documents = new HashMap<>();
+                    postings.put(term, documents);
+                    for (String deletion : deletionsOf(term)) {
+                        deletions.computeIfAbsent(deletion, key -> new HashSet<>()).add(term);
+                    }
+                }
+                documents.put(documentId, entry.getValue());
+            }
+            documentTerms.put(documentId, termWeights.keySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a document
+     * @param documentId Document ID
+     */
+    public void remove(int documentId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(documentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove all documents
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            deletions.clear();
+            documentTerms.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get number of indexed documents
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Search documents matching every token of a query
+     * @param query Query text
+     * @param filter Document ID filter, null to accept all documents
+     * @return Matching documents, best first
+     */
+    public List<Hit> search(String query, IntPredicate filter) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(query));
+        if (tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = null;
+            for (String token : tokens) {
+                Map<Integer, Double> tokenScores = scoreToken(token, filter);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    // Keep documents matching all tokens so far
+                    Map<Integer, Double> combined = new HashMap<>();
+                    for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                        Double tokenScore = tokenScores.get(entry.getKey());
+                        if (tokenScore != null) {
+                            combined.put(entry.getKey(), entry.getValue() + tokenScore);
+                        }
+                    }
+                    scores = combined;
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(scores.size());
+            for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                hits.add(new Hit(entry.getKey(), entry.getValue()));
+            }
+            hits.sort((a, b) -> a.score != b.score ? Double.compare(b.score, a.score) : Integer.compare(a.documentId, b.documentId));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Split text into lowercase terms. Runs of Han characters become overlapping character bigrams.
+     * @param text Text
+     * @return Terms in text order, with duplicates
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> terms = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+
+            // Split the word into Han and non-Han runs
+            int start = 0;
+            while (start < word.length()) {
+                boolean han = isHan(word.codePointAt(start));
+                int end = start;
+                while (end < word.length() && isHan(word.codePointAt(end)) == han) {
+                    end += Character.charCount(word.codePointAt(end));
+                }
+                String run = word.substring(start, end);
+                if (han) {
+                    addBigrams(run, terms);
+                } else {
+                    terms.add(run);
+                }
+                start = end;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Score documents for one query token, taking the best match kind per document
+     */
+    private Map<Integer, Double> scoreToken(String token, IntPredicate filter) {
+        Map<Integer, Double> scores = new HashMap<>();
+        addTermScores(token, EXACT_FACTOR, filter, scores);
+
+        // A single Han character is a prefix of the bigrams it starts. Every expansion is scored, so the matches
+        // and their count are complete, the work is bounded by the postings of the expanded terms.
+        if (token.length() >= MIN_PREFIX_LENGTH || isHan(token.codePointAt(0))) {
+            for (Map.Entry<String, Map<Integer, Double>> entry : postings.tailMap(token, false).entrySet()) {
+                if (!entry.getKey().startsWith(token)) {
+                    break;
+                }
+                addPostingScores(entry.getValue(), PREFIX_FACTOR, filter, scores);
+            }
+        }
+
+        if (token.length() >= MIN_TYPO_LENGTH && !isHan(token.codePointAt(0))) {
+            for (String term : typoCandidates(token)) {
+                addTermScores(term, TYPO_FACTOR, filter, scores);
+            }
+        }
+        return scores;
+    }
+
+    private void addTermScores(String term, double factor, IntPredicate filter, Map<Integer, Double> scores) {
+        Map<Integer, Double> documents = postings.get(term);
+        if (documents != null) {
+            addPostingScores(documents, factor, filter, scores);
+        }
+    }
+
+    private void addPostingScores(Map<Integer, Double> documents, double factor, IntPredicate filter,
+                                  Map<Integer, Double> scores) {
+        double idf = Math.log(1 + (double) documentTerms.size() / documents.size());
+        for (Map.Entry<Integer, Double> entry : documents.entrySet()) {
+            if (filter != null && !filter.test(entry.getKey())) {
+                continue;
+            }
+            double frequency = entry.getValue();
+            double score = factor * idf * frequency * (K1 + 1) / (frequency + K1);
+            scores.merge(entry.getKey(), score, Math::max);
+        }
+    }
+
+    /**
+     * Find indexed terms within one edit of a token, excluding the token itself
+     */
+    private Set<String> typoCandidates(String token) {
+        Set<String> candidates = new HashSet<>();
+
+        // Terms one insertion away
+        candidates.addAll(deletions.getOrDefault(token, Collections.emptySet()));
+        for (String deletion : deletionsOf(token)) {
+            // Terms one deletion away
+            if (postings.containsKey(deletion)) {
+                candidates.add(deletion);
+            }
+            // Terms one substitution or transposition away
+            candidates.addAll(deletions.getOrDefault(deletion, Collections.emptySet()));
+        }
+
+        candidates.remove(token);
+        candidates.removeIf(term -> !withinOneEdit(token, term));
+        return candidates;
+    }
+
+    private void removeDocument(int documentId) {
+        Set<String> terms = documentTerms.remove(documentId);
+        if (terms == null) {
+            return;
+        }
+
+        for (String term : terms) {
+            Map<Integer, Double> documents = postings.get(term);
+            if (documents == null) {
+                continue;
+            }
+            documents.remove(documentId);
+            if (documents.isEmpty()) {
+                postings.remove(term);
+                for (String deletion : deletionsOf(term)) {
+                    Set<String> sources = deletions.get(deletion);
+                    if (sources != null) {
+                        sources.remove(term);
+                        if (sources.isEmpty()) {
+                            deletions.remove(deletion);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static Set<String> deletionsOf(String term) {
+        Set<String> result = new HashSet<>();
+        if (term.length() < 2) {
+            return result;
+        }
+        for (int i = 0; i < term.length(); i++) {
+            result.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return result;
+    }
+
+    /**
+     * Check if two strings differ by at most one insertion, deletion, substitution or adjacent transposition
+     */
+    static boolean withinOneEdit(String a, String b) {
+        int lengthDiff = a.length() - b.length();
+        if (Math.abs(lengthDiff) > 1) {
+            return false;
+        }
+
+        int prefix = 0;
+        int maxPrefix = Math.min(a.length(), b.length());
+        while (prefix < maxPrefix && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        if (lengthDiff > 0) {
+            return a.substring(prefix + 1).equals(b.substring(prefix));
+        }
+        if (lengthDiff < 0) {
+            return a.substring(prefix).equals(b.substring(prefix + 1));
+        }
+        if (prefix == a.length()) {
+            return true;
+        }
+        if (a.substring(prefix + 1).equals(b.substring(prefix + 1))) {
+            return true;
+        }
+        return prefix + 1 < a.length()
+                && a.charAt(prefix) == b.charAt(prefix + 1)
+                && a.charAt(prefix + 1) == b.charAt(prefix)
+                && a.substring(prefix + 2).equals(b.substring(prefix + 2));
+    }
+
+    private static boolean isHan(int codePoint) {
+        return Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN;
+    }
+
+    private static void addBigrams(String run, List<String> terms) {
+        int[] codePoints = run.codePoints().toArray();
+        if (codePoints.length == 1) {
+            terms.add(run);
+            return;
+        }
+        for (int i = 0; i + 1 < codePoints.length; i++) {
+            terms.add(new String(codePoints, i, 2));
+        }
+    }
+
+    /**
+     * Matching document and its relevance score
+     */
+    public static final class Hit {
+        private final int documentId;
+        private final double score;
+
+        public Hit(int documentId, double score) {
+            this.documentId = documentId;
+            this.score = score;
+        }
+
+        public int getDocumentId() {
+            return documentId;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.room.backend.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -16,9 +20,12 @@ import java.util.function.Function;
 
 /**
  * JWT Utility Class
+ *
+ * The signing key and parser are built once. Verified tokens are cached with their claims, so requests repeating
+ * a token skip signature verification. A cached token expires no later than the token itself.
  */
 @Component
-public class JwtTokenUtil {
+public class JwtTokenUtil implements MeterBinder {
 
     @Value("${jwt.secret}")
     private String secret;
@@ -29,6 +36,35 @@ public class JwtTokenUtil {
     @Value("${jwt.tokenPrefix}")
     private String tokenPrefix;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    @Value("${jwt.cache.ttl:300000}")
+    private long cacheTtl;
+
+    private SecretKey key;
+
+    private JwtParser parser;
+
+    /**
+     * Token -> verified claims, cached claims are shared and must not be modified
+     */
+    private BoundedCache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        verifiedTokens = new BoundedCache<>(cacheMaxSize, cacheTtl);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        verifiedTokens.registerMetrics(registry, "jwt.verified-tokens");
+    }
+
     /**
      * Get username from token
      */
@@ -66,13 +102,22 @@ public class JwtTokenUtil {
         if (token.startsWith(tokenPrefix)) {
             token = token.substring(tokenPrefix.length()).trim();
         }
-        
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+
+        Claims claims = verifiedTokens.get(token);
+        if (claims != null) {
+            return claims;
+        }
+
+        // Throws for invalid or expired tokens, which are never cached
+        claims = parser.parseClaimsJws(token).getBody();
+        long ttl = cacheTtl;
+        if (claims.getExpiration() != null) {
+            ttl = Math.min(ttl, claims.getExpiration().getTime() - System.currentTimeMillis());
+        }
+        if (ttl > 0) {
+            verifiedTokens.put(token, claims, ttl);
+        }
+        return claims;
     }
 
     /**
@@ -108,7 +153,6 @@ public class JwtTokenUtil {
         final Date createdDate = new Date();
         final Date expirationDate = new Date(createdDate.getTime() + expiration);
 
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
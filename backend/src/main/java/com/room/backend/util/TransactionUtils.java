@@ -0,0 +1,52 @@
+package com.room.backend.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction helpers
+ */
+public final class TransactionUtils {
+
+    private TransactionUtils() {
+    }
+
+    /**
+     * Run an action now and again when the current transaction completes, if there is one
+     *
+     * Used for cache invalidations, a concurrent read between the write and the commit may load and cache
+     * the state before the write, the second run drops it.
+     * @param action Action, must be idempotent
+     */
+    public static void runNowAndAfterCompletion(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * Run an action once the current transaction commits, or now if there is none
+     *
+     * Used for in-memory state that must only reflect committed changes, it is skipped if the transaction
+     * rolls back.
+     * @param action Action
+     */
+    public static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -106,6 +106,16 @@ public class RestaurantVO {
      * Review Count
      */
     private Integer reviewCount;
+
+    /**
+     * Review Count per Rating, index 0 holds 1-point reviews
+     */
+    private List<Long> ratingDistribution;
+
+    /**
+     * Distance from the search location (km), only set by nearby searches
+     */
+    private Double distance;
     
     /**
      * List of Restaurant Tables
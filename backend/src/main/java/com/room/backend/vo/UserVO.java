@@ -85,4 +85,14 @@ public class UserVO {
      * JWT Token
      */
     private String token;
+    
+    /**
+     * Captcha ID
+     */
+    private String captchaId;
+    
+    /**
+     * Captcha Answer
+     */
+    private String captcha;
 } 
\ No newline at end of file
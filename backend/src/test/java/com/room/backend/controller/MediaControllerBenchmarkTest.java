@@ -0,0 +1,200 @@
+package com.room.backend.controller;
+
+import com.room.backend.service.impl.MediaServiceImpl;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput of MediaController against the plain resource handler that served /uploads before
+ *
+ * Both run in one embedded Tomcat and serve the same files to concurrent keep-alive clients: thumbnail sized
+ * images, a whole video, 1MB ranges of the video as sent while seeking, and revalidations of an image with the
+ * validator the handler returned.
+ *
+ * Run with: mvn test -Dtest=MediaControllerBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MediaControllerBenchmarkTest {
+
+    private static final int THREADS = 8;
+
+    private static final long WARMUP_MILLIS = 2_000;
+
+    private static final long MEASURED_MILLIS = 5_000;
+
+    private static final int IMAGE_SIZE = 24 * 1024;
+
+    private static final int VIDEO_SIZE = 32 * 1024 * 1024;
+
+    private static final int RANGE_SIZE = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void throughputAgainstResourceHandler() throws Exception {
+        String image = "images/" + UUID.randomUUID() + ".png";
+        String video = "videos/" + UUID.randomUUID() + ".mp4";
+        writeRandom(directory.resolve(image), IMAGE_SIZE);
+        writeRandom(directory.resolve(video), VIDEO_SIZE);
+
+        MediaServiceImpl mediaService = new MediaServiceImpl();
+        ReflectionTestUtils.setField(mediaService, "uploadPath", directory.toString());
+        ReflectionTestUtils.setField(mediaService, "etagCacheSize", 1000);
+        mediaService.init();
+        MediaController mediaController = new MediaController();
+        ReflectionTestUtils.setField(mediaController, "mediaService", mediaService);
+
+        ResourceHttpRequestHandler resourceHandler = new ResourceHttpRequestHandler();
+        resourceHandler.setLocations(List.of(new FileSystemResource(directory.toString() + "/")));
+        resourceHandler.afterPropertiesSet();
+
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createDirectories(directory.resolve("tomcat")).toString());
+        tomcat.setPort(0);
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "media", new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                mediaController.serve(request.getParameter("variant"), request, response);
+            }
+        });
+        context.addServletMappingDecoded("/uploads/*", "media");
+        Tomcat.addServlet(context, "resources", new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, request.getPathInfo().substring(1));
+                try {
+                    resourceHandler.handleRequest(request, response);
+                } catch (IOException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IOException(e);
+                }
+            }
+        });
+        context.addServletMappingDecoded("/resources/*", "resources");
+        tomcat.getConnector();
+        tomcat.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            String base = "http://localhost:" + tomcat.getConnector().getLocalPort();
+
+            System.out.printf("%-10s %-12s %10s %10s%n", "handler", "scenario", "req/s", "MB/s");
+            for (String handler : new String[]{"resources", "uploads"}) {
+                URI imageUri = URI.create(base + "/" + handler + "/" + image);
+                URI videoUri = URI.create(base + "/" + handler + "/" + video);
+
+                HttpResponse<Void> first = client.send(HttpRequest.newBuilder(imageUri).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                String etag = first.headers().firstValue("ETag").orElse(null);
+                String lastModified = first.headers().firstValue("Last-Modified").orElse(null);
+
+                run(executor, client, handler, "image", 200, () -> HttpRequest.newBuilder(imageUri).build());
+                run(executor, client, handler, "video", 200, () -> HttpRequest.newBuilder(videoUri).build());
+                run(executor, client, handler, "range", 206, () -> {
+                    long start = ThreadLocalRandom.current().nextLong(VIDEO_SIZE - RANGE_SIZE);
+                    return HttpRequest.newBuilder(videoUri)
+                            .header("Range", "bytes=" + start + "-" + (start + RANGE_SIZE - 1))
+                            .build();
+                });
+                run(executor, client, handler, "revalidate", 304, () -> etag != null
+                        ? HttpRequest.newBuilder(imageUri).header("If-None-Match", etag).build()
+                        : HttpRequest.newBuilder(imageUri).header("If-Modified-Since", lastModified).build());
+            }
+        } finally {
+            executor.shutdownNow();
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    private void run(ExecutorService executor, HttpClient client, String handler, String scenario, int expectedStatus,
+                     RequestFactory requests) throws Exception {
+        measure(executor, client, expectedStatus, requests, WARMUP_MILLIS);
+        long[] totals = measure(executor, client, expectedStatus, requests, MEASURED_MILLIS);
+        double seconds = MEASURED_MILLIS / 1000.0;
+        System.out.printf("%-10s %-12s %10.0f %10.1f%n", handler, scenario,
+                totals[0] / seconds, totals[1] / seconds / (1024 * 1024));
+    }
+
+    /**
+     * Send requests from all client threads for a while
+     * @return Number of requests and body bytes received
+     */
+    private long[] measure(ExecutorService executor, HttpClient client, int expectedStatus, RequestFactory requests,
+                           long millis) throws Exception {
+        long deadline = System.currentTimeMillis() + millis;
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                byte[] buffer = new byte[64 * 1024];
+                long count = 0;
+                long bytes = 0;
+                while (System.currentTimeMillis() < deadline) {
+                    HttpResponse<InputStream> response = client.send(requests.create(),
+                            HttpResponse.BodyHandlers.ofInputStream());
+                    try (InputStream body = response.body()) {
+                        int read;
+                        while ((read = body.read(buffer)) != -1) {
+                            bytes += read;
+                        }
+                    }
+                    assertEquals(expectedStatus, response.statusCode());
+                    count++;
+                }
+                return new long[]{count, bytes};
+            }));
+        }
+
+        long[] totals = new long[2];
+        for (Future<long[]> future : futures) {
+            long[] result = future.get();
+            totals[0] += result[0];
+            totals[1] += result[1];
+        }
+        return totals;
+    }
+
+    private void writeRandom(Path file, int size) throws IOException {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+    }
+
+    private interface RequestFactory {
+        HttpRequest create();
+    }
+}
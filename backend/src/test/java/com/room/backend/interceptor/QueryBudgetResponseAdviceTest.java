@@ -0,0 +1,77 @@
+package com.room.backend.interceptor;
+
+import com.room.backend.common.Result;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpResponse;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * HTTP status of responses after a statement failed in strict mode
+ */
+class QueryBudgetResponseAdviceTest {
+
+    private final QueryBudgetResponseAdvice advice = new QueryBudgetResponseAdvice();
+
+    private final AtomicInteger status = new AtomicInteger(200);
+
+    private final ServletServerHttpResponse response = new ServletServerHttpResponse((HttpServletResponse)
+            Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{HttpServletResponse.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("setStatus")) {
+                            status.set((Integer) args[0]);
+                        }
+                        return null;
+                    }));
+
+    @AfterEach
+    void stopCounter() {
+        QueryCounter.stop();
+    }
+
+    @Test
+    void failsResponseWhenServiceSwallowedFailure() {
+        QueryCounter counter = QueryCounter.start("GET /restaurants", 0, 10, true);
+        // A service catching the exception and returning an error result with HTTP 200
+        assertThrows(QueryBudgetExceededException.class, () -> counter.record("RestaurantMapper.selectList",
+                "SELECT * FROM restaurants", List.of()));
+        Result<String> swallowed = Result.error(500, "Failed to get restaurant list");
+
+        Object body = write(swallowed);
+
+        assertEquals(500, status.get());
+        assertEquals(500, ((Result<?>) body).getCode());
+        assertEquals("GET /restaurants ran 1 statements, over its budget of 0", ((Result<?>) body).getMessage());
+    }
+
+    @Test
+    void keepsResponseWithinBudget() {
+        QueryCounter counter = QueryCounter.start("GET /restaurants", 5, 10, true);
+        counter.record("RestaurantMapper.selectList", "SELECT * FROM restaurants", List.of());
+        Result<String> result = Result.success("ok");
+
+        assertSame(result, write(result));
+        assertEquals(200, status.get());
+    }
+
+    @Test
+    void keepsResponseWithoutCounter() {
+        Result<String> result = Result.success("ok");
+
+        assertSame(result, write(result));
+        assertEquals(200, status.get());
+    }
+
+    private Object write(Object body) {
+        return advice.beforeBodyWrite(body, null, MediaType.APPLICATION_JSON, null, null, response);
+    }
+}
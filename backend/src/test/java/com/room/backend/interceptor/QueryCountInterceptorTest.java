@@ -0,0 +1,119 @@
+package com.room.backend.interceptor;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Statement counting, N+1 detection and query budgets, against an executor that runs nothing
+ */
+class QueryCountInterceptorTest {
+
+    private static final String SELECT_BY_ID = "com.room.backend.mapper.UserMapper.selectById";
+
+    private final Configuration configuration = new Configuration();
+
+    private final MappedStatement selectById = new MappedStatement.Builder(configuration, SELECT_BY_ID,
+            new StaticSqlSource(configuration, "SELECT * FROM users WHERE id = ?",
+                    List.of(new ParameterMapping.Builder(configuration, "id", Integer.class).build())),
+            SqlCommandType.SELECT).build();
+
+    private final Executor executor = (Executor) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class[]{Executor.class}, (proxy, method, args) -> Collections.emptyList());
+
+    private final QueryCountInterceptor interceptor = new QueryCountInterceptor();
+
+    @AfterEach
+    void stopCounter() {
+        QueryCounter.stop();
+    }
+
+    @Test
+    void flagsStatementRepeatedWithDifferentParameters() throws Throwable {
+        QueryCounter counter = QueryCounter.start("GET /favorites", -1, 3, false);
+        for (int id = 1; id <= 5; id++) {
+            selectUser(id);
+        }
+
+        assertEquals(5, counter.getCount());
+        assertEquals(Map.of(SELECT_BY_ID, 5), counter.getRepeatedStatements());
+        List<String> violations = counter.getViolations();
+        assertEquals(1, violations.size());
+        assertTrue(violations.get(0).contains("UserMapper.selectById 5 times"), violations.get(0));
+    }
+
+    @Test
+    void ignoresStatementRepeatedWithSameParameters() throws Throwable {
+        QueryCounter counter = QueryCounter.start("GET /favorites", -1, 3, false);
+        for (int i = 0; i < 5; i++) {
+            selectUser(1);
+        }
+
+        assertEquals(5, counter.getCount());
+        assertTrue(counter.getViolations().isEmpty());
+    }
+
+    @Test
+    void reportsRequestOverBudget() throws Throwable {
+        QueryCounter counter = QueryCounter.start("GET /restaurants", 2, 10, false);
+        for (int id = 1; id <= 3; id++) {
+            selectUser(id);
+        }
+
+        assertEquals(List.of("GET /restaurants ran 3 statements, over its budget of 2"), counter.getViolations());
+    }
+
+    @Test
+    void strictModeFailsStatementOverBudget() throws Throwable {
+        QueryCounter counter = QueryCounter.start("GET /restaurants", 2, 10, true);
+        selectUser(1);
+        selectUser(2);
+
+        QueryBudgetExceededException failure = assertThrows(QueryBudgetExceededException.class, () -> selectUser(3));
+        // Kept for the response even if the caller swallows the exception
+        assertSame(failure, counter.getFailure());
+    }
+
+    @Test
+    void strictModeFailsRepeatedStatement() throws Throwable {
+        QueryCounter.start("GET /favorites", -1, 3, true);
+        selectUser(1);
+        selectUser(2);
+
+        assertThrows(QueryBudgetExceededException.class, () -> selectUser(3));
+    }
+
+    @Test
+    void countsNothingWithoutCounter() throws Throwable {
+        selectUser(1);
+
+        assertNull(QueryCounter.current());
+    }
+
+    private void selectUser(int id) throws Throwable {
+        Method query = Executor.class.getMethod("query",
+                MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class);
+        interceptor.intercept(new Invocation(executor, query,
+                new Object[]{selectById, Map.of("id", id), RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER}));
+    }
+}
@@ -0,0 +1,222 @@
+package com.room.backend.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Concurrent chunk writes, completion, visibility of uploads in progress and limits of unfinished uploads
+ */
+class ChunkedUploadServiceImplTest {
+
+    private static final int CHUNK_SIZE = 4;
+
+    private static final Integer USER_ID = 7;
+
+    private static final Integer OTHER_USER_ID = 8;
+
+    @TempDir
+    Path directory;
+
+    private ChunkedUploadServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = newService();
+    }
+
+    private ChunkedUploadServiceImpl newService() throws IOException {
+        ChunkedUploadServiceImpl service = new ChunkedUploadServiceImpl();
+        ReflectionTestUtils.setField(service, "uploadPath", directory.toString());
+        ReflectionTestUtils.setField(service, "chunkSize", CHUNK_SIZE);
+        ReflectionTestUtils.setField(service, "maxSize", 1024L);
+        ReflectionTestUtils.setField(service, "sessionTtl", 60_000L);
+        ReflectionTestUtils.setField(service, "maxSessionsPerUser", 2);
+        ReflectionTestUtils.setField(service, "maxBytesPerUser", 1024L);
+        ReflectionTestUtils.setField(service, "maxSessions", 3);
+        ReflectionTestUtils.setField(service, "maxBytes", 2048L);
+        service.init();
+        return service;
+    }
+
+    @Test
+    void limitsUnfinishedUploadsOfUser() throws Exception {
+        service.create(USER_ID, "a.mp4", 8);
+        String second = service.create(USER_ID, "b.mp4", 8).getUploadId();
+        assertThrows(IllegalArgumentException.class, () -> service.create(USER_ID, "c.mp4", 8));
+
+        service.cancel(USER_ID, second);
+        service.create(USER_ID, "c.mp4", 8);
+    }
+
+    @Test
+    void limitsBytesOfUnfinishedUploads() {
+        service.create(USER_ID, "a.mp4", 1000);
+        assertThrows(IllegalArgumentException.class, () -> service.create(USER_ID, "b.mp4", 100));
+
+        service.create(OTHER_USER_ID, "b.mp4", 1000);
+        // The server as a whole has 2000 of 2048 bytes reserved
+        assertThrows(IllegalArgumentException.class, () -> service.create(9, "c.mp4", 100));
+    }
+
+    @Test
+    void limitsCountRestoredUploads() throws Exception {
+        service.create(USER_ID, "a.mp4", 8);
+        service.create(USER_ID, "b.mp4", 8);
+
+        ChunkedUploadServiceImpl restarted = newService();
+        assertThrows(IllegalArgumentException.class, () -> restarted.create(USER_ID, "c.mp4", 8));
+    }
+
+    @Test
+    void hidesUploadsOfOtherUsers() throws Exception {
+        String uploadId = service.create(USER_ID, "clip.mp4", 8).getUploadId();
+
+        assertNull(service.getSession(OTHER_USER_ID, uploadId));
+        assertNull(service.writeChunk(OTHER_USER_ID, uploadId, 0, stream("abcd"), sha256("abcd")));
+        assertNull(service.complete(OTHER_USER_ID, uploadId));
+        assertFalse(service.cancel(OTHER_USER_ID, uploadId));
+        assertNotNull(service.getSession(USER_ID, uploadId));
+    }
+
+    @Test
+    void rejectsSecondWriterOfChunk() throws Exception {
+        String uploadId = service.create(USER_ID, "clip.mp4", 8).getUploadId();
+        BlockingStream first = new BlockingStream("abcd");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> firstWrite = executor.submit(() -> service.writeChunk(USER_ID, uploadId, 0, first, sha256("abcd")));
+            first.started.await(5, TimeUnit.SECONDS);
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> service.writeChunk(USER_ID, uploadId, 0, stream("wxyz"), sha256("wxyz")));
+
+            first.release.countDown();
+            firstWrite.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        service.writeChunk(USER_ID, uploadId, 1, stream("efgh"), sha256("efgh"));
+        String path = service.complete(USER_ID, uploadId);
+        assertArrayEquals("abcdefgh".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(directory.resolve(path)));
+    }
+
+    @Test
+    void completeWaitsForChunkInFlight() throws Exception {
+        String uploadId = service.create(USER_ID, "clip.mp4", 8).getUploadId();
+        service.writeChunk(USER_ID, uploadId, 0, stream("abcd"), sha256("abcd"));
+        service.writeChunk(USER_ID, uploadId, 1, stream("efgh"), sha256("efgh"));
+        // The client retries a chunk and completes before the retry has finished
+        BlockingStream retry = new BlockingStream("efgh");
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> retryWrite = executor.submit(() -> service.writeChunk(USER_ID, uploadId, 1, retry, sha256("efgh")));
+            retry.started.await(5, TimeUnit.SECONDS);
+            Future<String> completion = executor.submit(() -> service.complete(USER_ID, uploadId));
+
+            Thread.sleep(200);
+            assertFalse(completion.isDone());
+
+            retry.release.countDown();
+            retryWrite.get(5, TimeUnit.SECONDS);
+            String path = completion.get(5, TimeUnit.SECONDS);
+            assertArrayEquals("abcdefgh".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(directory.resolve(path)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void partFilesAreNotServed() throws Exception {
+        String uploadId = service.create(USER_ID, "clip.mp4", 8).getUploadId();
+        service.writeChunk(USER_ID, uploadId, 0, stream("abcd"), sha256("abcd"));
+
+        MediaServiceImpl mediaService = new MediaServiceImpl();
+        ReflectionTestUtils.setField(mediaService, "uploadPath", directory.toString());
+        ReflectionTestUtils.setField(mediaService, "etagCacheSize", 100);
+        mediaService.init();
+
+        assertNull(mediaService.resolve("videos/.uploads/" + uploadId + ".part", null));
+        assertNull(mediaService.resolve("videos/.uploads/" + uploadId + ".session", null));
+        assertNull(mediaService.resolve("videos/./.uploads/" + uploadId + ".part", null));
+
+        service.writeChunk(USER_ID, uploadId, 1, stream("efgh"), sha256("efgh"));
+        String path = service.complete(USER_ID, uploadId);
+        assertNotNull(mediaService.resolve(path, null));
+        assertEquals(8, mediaService.resolve(path, null).getLength());
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(String content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Request body that delivers its first byte, then stalls until released
+     */
+    private static final class BlockingStream extends InputStream {
+        private final byte[] content;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private int position;
+
+        private BlockingStream(String content) {
+            this.content = content.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position == 1) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            return position < content.length ? content[position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (position >= content.length) {
+                return -1;
+            }
+            int value = read();
+            if (value < 0) {
+                return -1;
+            }
+            buffer[offset] = (byte) value;
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.room.backend.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Heap usage of the in-memory captcha store while millions of captchas are issued
+ *
+ * Simulates login page traffic: every captcha is saved, half of them are verified by a login attempt,
+ * the rest are abandoned. The store must stay within its size limit and the heap must not grow with the
+ * number of captchas issued.
+ *
+ * Run with: mvn test -Dtest=MemoryCaptchaStoreLoadTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MemoryCaptchaStoreLoadTest {
+
+    private static final int MAX_SIZE = 100_000;
+
+    private static final int THREADS = 8;
+
+    private static final int ROUNDS = 10;
+
+    private static final int CAPTCHAS_PER_ROUND = 500_000;
+
+    /**
+     * Allowed heap growth between the end of the first and the last round
+     */
+    private static final long MAX_HEAP_GROWTH = 32L * 1024 * 1024;
+
+    private static final String CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    @Test
+    void heapStaysFlatUnderSustainedGeneration() throws Exception {
+        MemoryCaptchaStore store = new MemoryCaptchaStore();
+        ReflectionTestUtils.setField(store, "maxSize", MAX_SIZE);
+        ReflectionTestUtils.setField(store, "ttl", 300_000L);
+        store.init();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            System.out.printf("%-8s %12s %10s %12s %12s%n", "round", "issued", "stored", "heap(MB)", "rate(k/s)");
+            long baseline = 0;
+            long lastHeap = 0;
+            for (int round = 1; round <= ROUNDS; round++) {
+                long start = System.nanoTime();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    long seed = round * 1_000L + t;
+                    futures.add(executor.submit(() -> issue(store, CAPTCHAS_PER_ROUND / THREADS, new Random(seed))));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                lastHeap = usedHeap();
+                if (round == 1) {
+                    baseline = lastHeap;
+                }
+                assertTrue(store.size() <= MAX_SIZE, "Store exceeded its size limit: " + store.size());
+                System.out.printf("%-8d %12d %10d %12.1f %12.1f%n", round, (long) round * CAPTCHAS_PER_ROUND,
+                        store.size(), lastHeap / 1048576.0, CAPTCHAS_PER_ROUND / seconds / 1000);
+            }
+
+            assertTrue(lastHeap - baseline < MAX_HEAP_GROWTH,
+                    "Heap grew by " + (lastHeap - baseline) / 1048576 + " MB after the first round");
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private void issue(MemoryCaptchaStore store, int count, Random random) {
+        for (int i = 0; i < count; i++) {
+            String captchaId = UUID.randomUUID().toString();
+            String answer = text(random);
+            store.save(captchaId, answer);
+            if (random.nextBoolean()) {
+                store.verify(captchaId, answer.toLowerCase());
+            }
+        }
+    }
+
+    private String text(Random random) {
+        char[] text = new char[5];
+        for (int i = 0; i < text.length; i++) {
+            text[i] = CHARS.charAt(random.nextInt(CHARS.length()));
+        }
+        return new String(text);
+    }
+
+    private long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,253 @@
+package com.room.backend.service.impl;
+
+import com.room.backend.entity.Reservation;
+import com.room.backend.mapper.ReservationMapper;
+import com.room.backend.mapper.RestaurantTableMapper;
+import com.room.backend.service.InvalidationBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Booking, rollback, cancellation and cross-node invalidation of the table availability index, against an
+ * in-memory reservations table
+ */
+class TableAvailabilityServiceImplTest {
+
+    private static final int TABLE_ID = 7;
+
+    private static final String TOPIC = "table-schedule";
+
+    private final LocalDate day = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+
+    /**
+     * Committed rows of the reservations table
+     */
+    private final List<Reservation> rows = new ArrayList<>();
+
+    private final List<String> published = new ArrayList<>();
+
+    private Consumer<Integer> listener;
+
+    private int lockCount;
+
+    private TableAvailabilityServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TableAvailabilityServiceImpl();
+        ReflectionTestUtils.setField(service, "reservationMapper", reservationMapper());
+        ReflectionTestUtils.setField(service, "restaurantTableMapper", (RestaurantTableMapper) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class[]{RestaurantTableMapper.class}, (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return objectMethod(proxy, method.getName(), args);
+                    }
+                    assertEquals("lockById", method.getName());
+                    lockCount++;
+                    return args[0];
+                }));
+        ReflectionTestUtils.setField(service, "invalidationBus", new InvalidationBus() {
+            @Override
+            public void publish(String topic, Integer id) {
+                published.add(topic + ":" + id);
+            }
+
+            @Override
+            public void subscribe(String topic, Consumer<Integer> consumer) {
+                assertEquals(TOPIC, topic);
+                listener = consumer;
+            }
+        });
+        service.init();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rejectsOverlappingBooking() {
+        assertTrue(book(18, 2, true));
+
+        assertFalse(book(19, 1, true));
+        assertFalse(book(17, 2, true));
+        assertTrue(book(20, 1, true));
+        assertTrue(book(16, 2, true));
+        assertEquals(3, rows.size());
+    }
+
+    @Test
+    void rejectsBookingCommittedByAnotherNode() {
+        // Loads the index of the table
+        assertEquals(1, service.getFreeSlots(TABLE_ID, day).size());
+
+        // Committed elsewhere, this node has not been told yet
+        rows.add(reservation(100, 18, 2, 1));
+        int locks = lockCount;
+
+        assertFalse(book(19, 1, true));
+        assertEquals(locks + 1, lockCount);
+        assertEquals(1, rows.size());
+    }
+
+    @Test
+    void rolledBackBookingDoesNotOccupyTable() {
+        assertTrue(book(18, 2, false));
+
+        assertTrue(rows.isEmpty());
+        assertEquals(List.of(slot(0, 24)), freeSlots());
+        assertTrue(book(18, 2, true));
+    }
+
+    @Test
+    void cancelledReservationReleasesTableAfterCommit() {
+        assertTrue(book(18, 2, true));
+        Reservation booked = rows.get(0);
+        assertEquals(List.of(slot(0, 18), slot(20, 24)), freeSlots());
+
+        TransactionSynchronizationManager.initSynchronization();
+        booked.setStatus(0);
+        service.refresh(booked);
+        // Not committed yet
+        assertEquals(List.of(slot(0, 18), slot(20, 24)), freeSlots());
+        complete(true);
+
+        assertEquals(List.of(slot(0, 24)), freeSlots());
+        assertTrue(book(18, 2, true));
+    }
+
+    @Test
+    void changesFromAnotherNodeReloadTable() {
+        assertTrue(book(18, 2, true));
+        assertTrue(published.contains(TOPIC + ":" + TABLE_ID));
+
+        // Cancelled elsewhere and broadcast
+        rows.get(0).setStatus(0);
+        listener.accept(TABLE_ID);
+
+        assertEquals(List.of(slot(0, 24)), freeSlots());
+    }
+
+    /**
+     * Book the table in a transaction that commits or rolls back
+     */
+    private boolean book(int hour, int hours, boolean commit) {
+        List<Reservation> snapshot = new ArrayList<>(rows);
+        TransactionSynchronizationManager.initSynchronization();
+        Reservation reservation = reservation(null, hour, hours, 1);
+        boolean booked = service.bookIfAvailable(reservation, () -> {
+            reservation.setId(rows.size() + 1);
+            rows.add(reservation);
+        });
+        if (!commit) {
+            rows.clear();
+            rows.addAll(snapshot);
+        }
+        complete(commit);
+        return booked;
+    }
+
+    private void complete(boolean commit) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (commit) {
+            TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        }
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, commit
+                ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    /**
+     * Free periods of the day as [start hour, end hour] pairs
+     */
+    private List<List<Integer>> freeSlots() {
+        List<List<Integer>> slots = new ArrayList<>();
+        for (Map<String, Object> slot : service.getFreeSlots(TABLE_ID, day)) {
+            slots.add(List.of(hourOf(slot.get("startTime")), hourOf(slot.get("endTime"))));
+        }
+        return slots;
+    }
+
+    private int hourOf(Object time) {
+        OffsetDateTime dateTime = (OffsetDateTime) time;
+        return dateTime.toLocalDate().isAfter(day) ? 24 : dateTime.getHour();
+    }
+
+    private List<Integer> slot(int startHour, int endHour) {
+        return List.of(startHour, endHour);
+    }
+
+    private Reservation reservation(Integer id, int hour, int hours, int status) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setTableId(TABLE_ID);
+        reservation.setReservationTime(day.atTime(hour, 0).atOffset(ZoneOffset.UTC));
+        reservation.setReservationDate(hours);
+        reservation.setStatus(status);
+        return reservation;
+    }
+
+    private ReservationMapper reservationMapper() {
+        return (ReservationMapper) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{ReservationMapper.class}, (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return objectMethod(proxy, method.getName(), args);
+                    }
+                    switch (method.getName()) {
+                        case "getActiveReservationsByTableId":
+                            return rows.stream().filter(this::isActive).toList();
+                        case "countOverlappingReservations":
+                            OffsetDateTime start = (OffsetDateTime) args[1];
+                            OffsetDateTime end = (OffsetDateTime) args[2];
+                            return rows.stream()
+                                    .filter(this::isActive)
+                                    .filter(row -> !row.getId().equals(args[3]))
+                                    .filter(row -> row.getReservationTime().isBefore(end)
+                                            && row.getReservationTime().plusHours(row.getReservationDate()).isAfter(start))
+                                    .count();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * toString, hashCode and equals of a mapper stub, e.g. for debug logging of the injected fields
+     */
+    private static Object objectMethod(Object proxy, String name, Object[] args) {
+        switch (name) {
+            case "toString":
+                return proxy.getClass().getInterfaces()[0].getSimpleName() + " stub";
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                throw new UnsupportedOperationException(name);
+        }
+    }
+
+    private boolean isActive(Reservation reservation) {
+        return reservation.getStatus() == 1 || reservation.getStatus() == 2;
+    }
+}
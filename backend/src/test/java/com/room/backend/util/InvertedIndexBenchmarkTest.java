@@ -0,0 +1,103 @@
+package com.room.backend.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Search latency of the restaurant inverted index against catalog size
+ *
+ * Run with: mvn test -Dtest=InvertedIndexBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InvertedIndexBenchmarkTest {
+
+    private static final int[] CATALOG_SIZES = {1_000, 10_000, 100_000};
+
+    private static final int WARMUP_QUERIES = 2_000;
+
+    private static final int MEASURED_QUERIES = 5_000;
+
+    private static final String[] WORDS = {
+            "golden", "dragon", "garden", "sushi", "noodle", "house", "bistro", "grill", "kitchen", "palace",
+            "spicy", "hotpot", "dumpling", "seafood", "steak", "pizza", "burger", "vegan", "bakery", "tavern",
+            "harbor", "river", "mountain", "village", "royal", "lucky", "jade", "lotus", "bamboo", "maple"
+    };
+
+    private static final String[] CUISINES = {"Chinese", "Western", "Japanese", "Korean", "Thai", "Italian"};
+
+    private static final String[] STREETS = {"Main Street", "Park Avenue", "Queen Road", "Harbour Drive", "Nanjing Road"};
+
+    @Test
+    void searchLatencyByCatalogSize() {
+        System.out.printf("%-10s %-10s %10s %10s %10s %10s%n", "catalog", "query", "p50(us)", "p99(us)", "max(us)", "avgHits");
+        for (int size : CATALOG_SIZES) {
+            InvertedIndex index = buildIndex(size);
+            run(index, size, "exact", new String[]{"dragon", "sushi house", "golden palace", "harbor"});
+            run(index, size, "prefix", new String[]{"dra", "sus", "gold pal", "harb"});
+            // Expand to hundreds of terms: restaurant numbers and many words
+            run(index, size, "short", new String[]{"12", "ha", "ro", "ma"});
+            run(index, size, "typo", new String[]{"dargon", "suhsi", "goldn", "kitchin"});
+            run(index, size, "multi", new String[]{"spicy hotpot chinese", "vegan bakery park", "royal steak main"});
+        }
+    }
+
+    private void run(InvertedIndex index, int size, String kind, String[] queries) {
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            index.search(queries[i % queries.length], null);
+        }
+
+        long[] latencies = new long[MEASURED_QUERIES];
+        long totalHits = 0;
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            long start = System.nanoTime();
+            List<InvertedIndex.Hit> hits = index.search(queries[i % queries.length], null);
+            latencies[i] = System.nanoTime() - start;
+            totalHits += hits.size();
+        }
+        Arrays.sort(latencies);
+
+        assertFalse(totalHits == 0, "Expected " + kind + " queries to match");
+        System.out.printf("%-10d %-10s %10.1f %10.1f %10.1f %10d%n", size, kind,
+                latencies[MEASURED_QUERIES / 2] / 1000.0,
+                latencies[MEASURED_QUERIES * 99 / 100] / 1000.0,
+                latencies[MEASURED_QUERIES - 1] / 1000.0,
+                totalHits / MEASURED_QUERIES);
+    }
+
+    private InvertedIndex buildIndex(int size) {
+        Map<String, Double> weights = new HashMap<>();
+        weights.put("name", 3.0);
+        weights.put("cuisine", 2.0);
+        weights.put("address", 1.5);
+        weights.put("description", 1.0);
+        InvertedIndex index = new InvertedIndex(weights);
+
+        Random random = new Random(42);
+        for (int id = 1; id <= size; id++) {
+            Map<String, String> fields = new HashMap<>();
+            fields.put("name", words(random, 2) + " " + id);
+            fields.put("cuisine", CUISINES[random.nextInt(CUISINES.length)]);
+            fields.put("address", (1 + random.nextInt(999)) + " " + STREETS[random.nextInt(STREETS.length)]);
+            fields.put("description", words(random, 12));
+            index.put(id, fields);
+        }
+        return index;
+    }
+
+    private String words(Random random, int count) {
+        List<String> words = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            words.add(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return String.join(" ", words);
+    }
+}
@@ -121,6 +121,26 @@ DROP INDEX IF EXISTS idx_reservations_time;
 CREATE INDEX idx_reservations_time ON reservations(reservation_time);
 DROP INDEX IF EXISTS idx_reservations_status;
 CREATE INDEX idx_reservations_status ON reservations(status);
+DROP INDEX IF EXISTS idx_reservations_table;
+CREATE INDEX idx_reservations_table ON reservations(table_id, reservation_time);
+DROP INDEX IF EXISTS idx_reservations_created;
+CREATE INDEX idx_reservations_created ON reservations(created_at DESC, id DESC);
+DROP INDEX IF EXISTS idx_reservations_restaurant_created;
+CREATE INDEX idx_reservations_restaurant_created ON reservations(restaurant_id, created_at DESC, id DESC);
+
+-- Daily reservation counters per restaurant and status, read by the statistics dashboards
+-- Maintained by the application on every reservation change, day is the date of reservation_time
+CREATE TABLE IF NOT EXISTS reservation_daily_stats (
+    day DATE NOT NULL,
+    restaurant_id INTEGER NOT NULL, -- Logical foreign key, references restaurants.id
+    status INTEGER NOT NULL, -- Reservation status
+    reservation_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, restaurant_id, status)
+);
+
+-- Reservation daily stats indexes
+DROP INDEX IF EXISTS idx_reservation_daily_stats_restaurant;
+CREATE INDEX idx_reservation_daily_stats_restaurant ON reservation_daily_stats(restaurant_id, day);
 
 -- 4. Reviews table
 CREATE TABLE IF NOT EXISTS reviews (
@@ -189,6 +209,53 @@ CREATE INDEX idx_tables_restaurant ON tables(restaurant_id);
 DROP INDEX IF EXISTS idx_tables_capacity;
 CREATE INDEX idx_tables_capacity ON tables(capacity);
 
+-- 7. Captchas table, only used when captcha.store is jdbc
+CREATE TABLE IF NOT EXISTS captchas (
+    captcha_id VARCHAR(64) PRIMARY KEY,
+    answer VARCHAR(16) NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Captchas table indexes
+DROP INDEX IF EXISTS idx_captchas_expires;
+CREATE INDEX idx_captchas_expires ON captchas(expires_at);
+
+-- 8. Blobs table, one row per distinct uploaded image content
+CREATE TABLE IF NOT EXISTS blobs (
+    hash CHAR(64) PRIMARY KEY,
+    path VARCHAR(255) NOT NULL UNIQUE,
+    size BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    unreferenced_since TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Blobs table indexes
+DROP INDEX IF EXISTS idx_blobs_unreferenced;
+CREATE INDEX idx_blobs_unreferenced ON blobs(unreferenced_since) WHERE ref_count = 0;
+
+-- Recount blob references from restaurant and review photos and user avatars, each blob counted once per row.
+-- Brings existing databases up to date, e.g. avatars uploaded before they held references. Run while idle
+UPDATE blobs b
+SET ref_count = r.refs,
+    unreferenced_since = CASE WHEN r.refs = 0 THEN COALESCE(b.unreferenced_since, CURRENT_TIMESTAMP) END
+FROM (
+    SELECT blobs.hash, COUNT(refs.hash) AS refs
+    FROM blobs
+    LEFT JOIN (
+        SELECT DISTINCT 'restaurant' AS owner, id, (regexp_matches(photos, '/images/([0-9a-f]{64})\.[A-Za-z0-9]+', 'g'))[1] AS hash
+        FROM restaurants
+        UNION ALL
+        SELECT DISTINCT 'review', id, (regexp_matches(photos, '/images/([0-9a-f]{64})\.[A-Za-z0-9]+', 'g'))[1]
+        FROM reviews
+        UNION ALL
+        SELECT DISTINCT 'user', id, (regexp_matches(avatar, '/images/([0-9a-f]{64})\.[A-Za-z0-9]+', 'g'))[1]
+        FROM users
+    ) refs ON refs.hash = blobs.hash
+    GROUP BY blobs.hash
+) r
+WHERE b.hash = r.hash;
+
 -- Add table comments
 COMMENT ON TABLE users IS 'Users table';
 COMMENT ON TABLE restaurants IS 'Restaurants table';
@@ -302,6 +369,13 @@ INSERT INTO favorites (id, restaurant_id, user_id) VALUES
 (2, 1, 5),
 (3, 2, 4);
 
+-- Backfill daily reservation counters from existing reservations
+-- Can be re-run at any time, see also POST /admin/statistics/reservations/rebuild
+INSERT INTO reservation_daily_stats (day, restaurant_id, status, reservation_count)
+SELECT DATE(reservation_time), restaurant_id, status, COUNT(*) FROM reservations
+GROUP BY DATE(reservation_time), restaurant_id, status
+ON CONFLICT (day, restaurant_id, status) DO UPDATE SET reservation_count = EXCLUDED.reservation_count;
+
 -- Query to verify test data
 SELECT 'Users count:' as info, COUNT(*) FROM users;
 SELECT 'Restaurants count:' as info, COUNT(*) FROM restaurants;
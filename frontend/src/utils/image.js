@@ -0,0 +1,15 @@
+/**
+ * Get the URL of a resized variant of an uploaded image
+ *
+ * The backend serves a scaled copy of uploaded images for ?variant=, and the original until the copy exists.
+ * Other URLs, e.g. external placeholders, are returned unchanged.
+ * @param {string} url Image URL
+ * @param {string} variant thumb (200px), card (640px) or full (1600px)
+ * @returns {string} Variant URL
+ */
+export function imageVariant(url, variant) {
+  if (!url || typeof url !== 'string' || !url.includes('/uploads/images/') || url.includes('?')) {
+    return url;
+  }
+  return `${url}?variant=${variant}`;
+}